@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.junreachable.UnimplementedCodeException;
+
+/**
+ * Functions to produce preallocated keys, so that benchmarks do not measure
+ * boxing.
+ */
+
+public final class JPBenchmarkKeys
+{
+  private JPBenchmarkKeys()
+  {
+    throw new UnimplementedCodeException();
+  }
+
+  /**
+   * Create the keys {@code [0, count)} in ascending order.
+   *
+   * @param count The number of keys
+   *
+   * @return An array of keys
+   */
+
+  public static Integer[] sequential(
+    final int count)
+  {
+    final Integer[] keys = new Integer[count];
+    for (int index = 0; index < count; ++index) {
+      keys[index] = Integer.valueOf(index);
+    }
+    return keys;
+  }
+
+  /**
+   * Create the keys {@code [0, count)} in a deterministic shuffled order.
+   *
+   * @param count The number of keys
+   * @param seed  The shuffle seed
+   *
+   * @return An array of keys
+   */
+
+  public static Integer[] shuffled(
+    final int count,
+    final long seed)
+  {
+    final Integer[] keys = sequential(count);
+    long state = seed;
+    for (int index = count - 1; index > 0; --index) {
+      state = next(state);
+      final int other = (int) Long.remainderUnsigned(state, index + 1);
+      final Integer tmp = keys[index];
+      keys[index] = keys[other];
+      keys[other] = tmp;
+    }
+    return keys;
+  }
+
+  static long next(
+    final long x)
+  {
+    long r = x;
+    r ^= r << 13;
+    r ^= r >>> 7;
+    r ^= r << 17;
+    return r;
+  }
+}
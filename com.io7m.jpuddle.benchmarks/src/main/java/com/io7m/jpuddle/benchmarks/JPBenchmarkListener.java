@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A synthetic listener that creates trivial values of a fixed size. The
+ * listener does no work beyond counting calls, so that benchmarks measure
+ * the overhead of the pool itself, unless a creation delay is given to
+ * simulate creation that blocks on I/O. The counters are not synchronized,
+ * and are therefore only exact when the listener is used from a single
+ * thread.
+ */
+
+public final class JPBenchmarkListener
+  implements JPPoolableListenerType<Integer, JPBenchmarkValue, Integer>
+{
+  private final long size;
+  private final Duration create_delay;
+  private long creates;
+  private long deletes;
+  private long reuses;
+
+  /**
+   * Construct a listener.
+   *
+   * @param in_size The size of each created value
+   */
+
+  public JPBenchmarkListener(
+    final long in_size)
+  {
+    this(in_size, Duration.ZERO);
+  }
+
+  /**
+   * Construct a listener.
+   *
+   * @param in_size         The size of each created value
+   * @param in_create_delay The time for which each creation sleeps
+   */
+
+  public JPBenchmarkListener(
+    final long in_size,
+    final Duration in_create_delay)
+  {
+    this.size = in_size;
+    this.create_delay = in_create_delay;
+  }
+
+  /**
+   * @return The number of values created
+   */
+
+  public long creates()
+  {
+    return this.creates;
+  }
+
+  /**
+   * @return The number of values deleted
+   */
+
+  public long deletes()
+  {
+    return this.deletes;
+  }
+
+  /**
+   * @return The number of values reused
+   */
+
+  public long reuses()
+  {
+    return this.reuses;
+  }
+
+  @Override
+  public long onEstimateSize(
+    final Integer c,
+    final Integer key)
+  {
+    return this.size;
+  }
+
+  @Override
+  public JPBenchmarkValue onCreate(
+    final Integer c,
+    final Integer key)
+  {
+    if (!this.create_delay.isZero()) {
+      try {
+        Thread.sleep(this.create_delay);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+
+    ++this.creates;
+    return new JPBenchmarkValue(key.intValue());
+  }
+
+  @Override
+  public long onGetSize(
+    final Integer c,
+    final Integer key,
+    final JPBenchmarkValue value)
+  {
+    return this.size;
+  }
+
+  @Override
+  public void onReuse(
+    final Integer c,
+    final Integer key,
+    final JPBenchmarkValue value)
+  {
+    ++this.reuses;
+  }
+
+  @Override
+  public void onDelete(
+    final Integer c,
+    final Integer key,
+    final JPBenchmarkValue value)
+  {
+    ++this.deletes;
+    value.delete();
+  }
+
+  @Override
+  public void onError(
+    final Integer c,
+    final Integer key,
+    final Optional<JPBenchmarkValue> value,
+    final Throwable e)
+  {
+    throw new IllegalStateException(e);
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import com.io7m.jpuddle.core.JPPoolableLongKeyedListenerType;
+
+import java.util.Optional;
+
+/**
+ * A synthetic listener for {@code long} keys that creates trivial values of
+ * a fixed size. The listener implements both the generic listener type, for
+ * pools keyed by {@link Long}, and the primitive listener type, so that the
+ * two kinds of pool are compared doing identical work.
+ */
+
+public final class JPBenchmarkLongKeyedListener implements
+  JPPoolableListenerType<Long, JPBenchmarkValue, Integer>,
+  JPPoolableLongKeyedListenerType<JPBenchmarkValue, Integer>
+{
+  private final long size;
+
+  /**
+   * Construct a listener.
+   *
+   * @param in_size The size of each created value
+   */
+
+  public JPBenchmarkLongKeyedListener(
+    final long in_size)
+  {
+    this.size = in_size;
+  }
+
+  @Override
+  public long onEstimateSize(
+    final Integer c,
+    final Long key)
+  {
+    return this.onEstimateSize(c, key.longValue());
+  }
+
+  @Override
+  public JPBenchmarkValue onCreate(
+    final Integer c,
+    final Long key)
+  {
+    return this.onCreate(c, key.longValue());
+  }
+
+  @Override
+  public long onGetSize(
+    final Integer c,
+    final Long key,
+    final JPBenchmarkValue value)
+  {
+    return this.onGetSize(c, key.longValue(), value);
+  }
+
+  @Override
+  public void onReuse(
+    final Integer c,
+    final Long key,
+    final JPBenchmarkValue value)
+  {
+
+  }
+
+  @Override
+  public void onDelete(
+    final Integer c,
+    final Long key,
+    final JPBenchmarkValue value)
+  {
+    this.onDelete(c, key.longValue(), value);
+  }
+
+  @Override
+  public void onError(
+    final Integer c,
+    final Long key,
+    final Optional<JPBenchmarkValue> value,
+    final Throwable e)
+  {
+    throw new IllegalStateException(e);
+  }
+
+  @Override
+  public long onEstimateSize(
+    final Integer c,
+    final long key)
+  {
+    return this.size;
+  }
+
+  @Override
+  public JPBenchmarkValue onCreate(
+    final Integer c,
+    final long key)
+  {
+    return new JPBenchmarkValue((int) key);
+  }
+
+  @Override
+  public long onGetSize(
+    final Integer c,
+    final long key,
+    final JPBenchmarkValue value)
+  {
+    return this.size;
+  }
+
+  @Override
+  public void onReuse(
+    final Integer c,
+    final long key,
+    final JPBenchmarkValue value)
+  {
+
+  }
+
+  @Override
+  public void onDelete(
+    final Integer c,
+    final long key,
+    final JPBenchmarkValue value)
+  {
+    value.delete();
+  }
+
+  @Override
+  public void onError(
+    final Integer c,
+    final long key,
+    final Optional<JPBenchmarkValue> value,
+    final Throwable e)
+  {
+    throw new IllegalStateException(e);
+  }
+}
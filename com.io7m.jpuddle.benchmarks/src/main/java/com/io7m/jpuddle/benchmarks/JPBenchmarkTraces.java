@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.junreachable.UnimplementedCodeException;
+
+import java.util.Arrays;
+
+/**
+ * Functions to produce deterministic key traces that are recorded once and
+ * then replayed by benchmarks, so that the same sequence of requests can be
+ * given to pools using different eviction policies.
+ */
+
+public final class JPBenchmarkTraces
+{
+  private JPBenchmarkTraces()
+  {
+    throw new UnimplementedCodeException();
+  }
+
+  /**
+   * Create a trace with keys drawn from a Zipf distribution over {@code
+   * [0, key_count)}, where key {@code 0} is the most popular.
+   *
+   * @param length    The length of the trace
+   * @param key_count The number of distinct keys
+   * @param skew      The Zipf exponent
+   * @param seed      The random seed
+   *
+   * @return A trace
+   */
+
+  public static Integer[] zipf(
+    final int length,
+    final int key_count,
+    final double skew,
+    final long seed)
+  {
+    final double[] cumulative = new double[key_count];
+    double total = 0.0;
+    for (int index = 0; index < key_count; ++index) {
+      total += 1.0 / Math.pow(index + 1.0, skew);
+      cumulative[index] = total;
+    }
+
+    final Integer[] keys = JPBenchmarkKeys.sequential(key_count);
+    final Integer[] trace = new Integer[length];
+    long state = seed;
+    for (int index = 0; index < length; ++index) {
+      state = JPBenchmarkKeys.next(state);
+      final double x = (double) (state >>> 11) * 0x1.0p-53 * total;
+      final int found = Arrays.binarySearch(cumulative, x);
+      final int key = found >= 0 ? found : -(found + 1);
+      trace[index] = keys[Math.min(key, key_count - 1)];
+    }
+    return trace;
+  }
+
+  /**
+   * Create a trace that alternates between {@code hot_length} requests
+   * drawn from a Zipf distribution over {@code [0, hot_count)} and a
+   * sequential scan over {@code scan_count} keys that are never requested
+   * again within the scan, such as a one-off pass over every asset in a
+   * level.
+   *
+   * @param length     The length of the trace
+   * @param hot_count  The number of frequently used keys
+   * @param hot_length The number of hot requests between scans
+   * @param scan_count The number of keys in each scan
+   * @param seed       The random seed
+   *
+   * @return A trace
+   */
+
+  public static Integer[] scan(
+    final int length,
+    final int hot_count,
+    final int hot_length,
+    final int scan_count,
+    final long seed)
+  {
+    final Integer[] hot = zipf(length, hot_count, 0.99, seed);
+    final Integer[] cold = JPBenchmarkKeys.sequential(hot_count + scan_count);
+    final Integer[] trace = new Integer[length];
+
+    int index = 0;
+    while (index < length) {
+      for (int h = 0; h < hot_length && index < length; ++h) {
+        trace[index] = hot[index];
+        ++index;
+      }
+      for (int s = 0; s < scan_count && index < length; ++s) {
+        trace[index] = cold[hot_count + s];
+        ++index;
+      }
+    }
+    return trace;
+  }
+
+  /**
+   * Create a trace that repeatedly requests the keys {@code [0, key_count)}
+   * in order. A pool that holds fewer than {@code key_count} objects and
+   * evicts in least recently used order misses on every request.
+   *
+   * @param length    The length of the trace
+   * @param key_count The number of keys in the loop
+   *
+   * @return A trace
+   */
+
+  public static Integer[] loop(
+    final int length,
+    final int key_count)
+  {
+    final Integer[] keys = JPBenchmarkKeys.sequential(key_count);
+    final Integer[] trace = new Integer[length];
+    for (int index = 0; index < length; ++index) {
+      trace[index] = keys[index % key_count];
+    }
+    return trace;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+/**
+ * A trivial pooled value.
+ */
+
+public final class JPBenchmarkValue
+{
+  private final int key;
+  private boolean deleted;
+
+  /**
+   * Construct a value.
+   *
+   * @param in_key The key that produced the value
+   */
+
+  public JPBenchmarkValue(
+    final int in_key)
+  {
+    this.key = in_key;
+    this.deleted = false;
+  }
+
+  /**
+   * @return The key that produced the value
+   */
+
+  public int key()
+  {
+    return this.key;
+  }
+
+  /**
+   * @return {@code true} if the value has been deleted
+   */
+
+  public boolean isDeleted()
+  {
+    return this.deleted;
+  }
+
+  void delete()
+  {
+    this.deleted = true;
+  }
+}
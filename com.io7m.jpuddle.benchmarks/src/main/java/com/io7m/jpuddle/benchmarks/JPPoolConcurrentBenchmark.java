@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolConcurrent;
+import com.io7m.jpuddle.core.JPPoolConcurrentLockFree;
+import com.io7m.jpuddle.core.JPPoolConcurrentType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hit-heavy benchmarks comparing {@link JPPoolConcurrent} (with and without
+ * per-thread magazines) and {@link JPPoolConcurrentLockFree} against a
+ * {@link JPPoolSynchronous} protected by a single lock, with each benchmark
+ * thread using its own key.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@Threads(4)
+public class JPPoolConcurrentBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+  private static final int KEYS = 256;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolConcurrentBenchmark()
+  {
+
+  }
+
+  /**
+   * Borrow and return a value from the concurrent pool.
+   *
+   * @param pools The pools
+   * @param key   The per-thread key
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnConcurrent(
+    final Pools pools,
+    final ThreadKey key)
+  {
+    final JPBenchmarkValue v = pools.concurrent.get(CONTEXT, key.key);
+    pools.concurrent.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Borrow and return a value from the concurrent pool with per-thread
+   * magazines.
+   *
+   * @param pools The pools
+   * @param key   The per-thread key
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnMagazines(
+    final Pools pools,
+    final ThreadKey key)
+  {
+    final JPBenchmarkValue v = pools.magazines.get(CONTEXT, key.key);
+    pools.magazines.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Borrow and return a value from the lock-free pool.
+   *
+   * @param pools The pools
+   * @param key   The per-thread key
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnLockFree(
+    final Pools pools,
+    final ThreadKey key)
+  {
+    final JPBenchmarkValue v = pools.lock_free.get(CONTEXT, key.key);
+    pools.lock_free.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Borrow and return a value from the synchronous pool while holding a
+   * single global lock.
+   *
+   * @param pools The pools
+   * @param key   The per-thread key
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnLocked(
+    final Pools pools,
+    final ThreadKey key)
+  {
+    pools.lock.lock();
+    try {
+      final JPBenchmarkValue v = pools.locked.get(CONTEXT, key.key);
+      pools.locked.returnValue(CONTEXT, v);
+      return v;
+    } finally {
+      pools.lock.unlock();
+    }
+  }
+
+  /**
+   * The pools shared between all benchmark threads.
+   */
+
+  @State(Scope.Benchmark)
+  public static class Pools
+  {
+    JPPoolConcurrentType<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      concurrent;
+    JPPoolConcurrentType<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      magazines;
+    JPPoolConcurrentType<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      lock_free;
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      locked;
+    ReentrantLock lock;
+
+    /**
+     * Construct a state.
+     */
+
+    public Pools()
+    {
+
+    }
+
+    /**
+     * Create the pools.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.lock = new ReentrantLock();
+      this.concurrent = JPPoolConcurrent.newPool(
+        new JPBenchmarkListener(1L), KEYS, KEYS * 2L);
+      this.magazines = JPPoolConcurrent.newPoolWithMagazines(
+        new JPBenchmarkListener(1L),
+        KEYS,
+        KEYS * 2L,
+        Runtime.getRuntime().availableProcessors() * 4,
+        4);
+      this.lock_free = JPPoolConcurrentLockFree.newPool(
+        new JPBenchmarkListener(1L), KEYS, KEYS * 2L);
+      this.locked = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L), KEYS, KEYS * 2L);
+    }
+
+    /**
+     * Delete the pools.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.concurrent.deleteUnsafely(CONTEXT);
+      this.magazines.deleteUnsafely(CONTEXT);
+      this.lock_free.deleteUnsafely(CONTEXT);
+      this.locked.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * A key unique to each benchmark thread.
+   */
+
+  @State(Scope.Thread)
+  public static class ThreadKey
+  {
+    Integer key;
+
+    /**
+     * Construct a state.
+     */
+
+    public ThreadKey()
+    {
+
+    }
+
+    /**
+     * Select a key.
+     *
+     * @param params The thread parameters
+     */
+
+    @Setup(Level.Trial)
+    public void setup(
+      final ThreadParams params)
+    {
+      this.key = Integer.valueOf(params.getThreadIndex() % KEYS);
+    }
+  }
+}
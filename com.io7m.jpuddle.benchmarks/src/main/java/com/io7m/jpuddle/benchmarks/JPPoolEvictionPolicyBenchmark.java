@@ -0,0 +1,293 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolEvictionPolicies;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolSynchronousBuilder;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing eviction policies by replaying recorded key traces
+ * against pools with the same soft limit. The {@code hits} and {@code
+ * misses} counters give the hit ratio of each policy, and the average time
+ * gives the cost of each request including any creation and eviction.
+ * Objects have sizes between 1 and 16, depending on the key.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class JPPoolEvictionPolicyBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+  private static final int TRACE_LENGTH = 1 << 20;
+  private static final int CAPACITY = 2048;
+  private static final long SOFT_LIMIT = CAPACITY * 8L;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolEvictionPolicyBenchmark()
+  {
+
+  }
+
+  /**
+   * Replay one request from the trace.
+   *
+   * @param state    The benchmark state
+   * @param counters The hit and miss counters
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue replay(
+    final PolicyState state,
+    final Counters counters)
+  {
+    final Integer key = state.requests[state.index];
+    ++state.index;
+    if (state.index == state.requests.length) {
+      state.index = 0;
+    }
+
+    final long creates = state.listener.creates;
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, key);
+    state.pool.returnValue(CONTEXT, v);
+    if (state.listener.creates == creates) {
+      ++counters.hits;
+    } else {
+      ++counters.misses;
+    }
+    return v;
+  }
+
+  /**
+   * The number of requests that were satisfied by free objects, and the
+   * number that required new objects.
+   */
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Counters
+  {
+    /**
+     * The number of hits.
+     */
+
+    public long hits;
+
+    /**
+     * The number of misses.
+     */
+
+    public long misses;
+
+    /**
+     * Construct counters.
+     */
+
+    public Counters()
+    {
+
+    }
+
+    /**
+     * Reset the counters.
+     */
+
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+      this.hits = 0L;
+      this.misses = 0L;
+    }
+  }
+
+  /**
+   * The state for trace replays.
+   */
+
+  @State(Scope.Thread)
+  public static class PolicyState
+  {
+    @Param({"default", "lru", "lfu", "arc", "gdsf"})
+    String policy;
+
+    @Param({"zipf", "scan", "loop"})
+    String trace;
+
+    SizedListener listener;
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] requests;
+    int index;
+
+    /**
+     * Construct a state.
+     */
+
+    public PolicyState()
+    {
+
+    }
+
+    /**
+     * Record the trace and create the pool.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.requests = switch (this.trace) {
+        case "zipf" -> JPBenchmarkTraces.zipf(
+          TRACE_LENGTH, CAPACITY * 32, 0.8, 0x5DEECE66DL);
+        case "scan" -> JPBenchmarkTraces.scan(
+          TRACE_LENGTH, CAPACITY * 3 / 4, CAPACITY * 4, CAPACITY * 2,
+          0x5DEECE66DL);
+        case "loop" -> JPBenchmarkTraces.loop(
+          TRACE_LENGTH, CAPACITY * 5 / 4);
+        default -> throw new IllegalArgumentException(this.trace);
+      };
+
+      this.listener = new SizedListener();
+      final JPPoolSynchronousBuilder<
+        Integer, JPBenchmarkValue, JPBenchmarkValue, Integer> b =
+        JPPoolSynchronous.builder(
+          this.listener, SOFT_LIMIT, SOFT_LIMIT * 2L);
+
+      switch (this.policy) {
+        case "default" -> {
+
+        }
+        case "lru" -> b.setEvictionPolicy(JPPoolEvictionPolicies.lru());
+        case "lfu" -> b.setEvictionPolicy(JPPoolEvictionPolicies.lfu());
+        case "arc" -> b.setEvictionPolicy(JPPoolEvictionPolicies.arc(CAPACITY));
+        case "gdsf" -> b.setEvictionPolicy(JPPoolEvictionPolicies.gdsf());
+        default -> throw new IllegalArgumentException(this.policy);
+      }
+      this.pool = b.build();
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * A listener that creates values with sizes between 1 and 16, fixed per
+   * key.
+   */
+
+  static final class SizedListener
+    implements JPPoolableListenerType<Integer, JPBenchmarkValue, Integer>
+  {
+    private long creates;
+
+    SizedListener()
+    {
+
+    }
+
+    private static long sizeOf(
+      final Integer key)
+    {
+      return 1L + ((key.intValue() * 0x9E3779B1) >>> 28);
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return sizeOf(key);
+    }
+
+    @Override
+    public JPBenchmarkValue onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      ++this.creates;
+      return new JPBenchmarkValue(key.intValue());
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final JPBenchmarkValue value)
+    {
+      return sizeOf(key);
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final JPBenchmarkValue value)
+    {
+
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final JPBenchmarkValue value)
+    {
+      value.delete();
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<JPBenchmarkValue> value,
+      final Throwable e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+}
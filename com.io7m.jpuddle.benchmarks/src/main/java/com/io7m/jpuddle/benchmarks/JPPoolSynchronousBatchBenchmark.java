@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing a frame's worth of individual {@code get} and {@code
+ * returnValue} calls against a single {@code getAll} and {@code returnAll}
+ * pair. Scores are per object.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class JPPoolSynchronousBatchBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+  private static final int FRAME = 200;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolSynchronousBatchBenchmark()
+  {
+
+  }
+
+  /**
+   * Borrow and return every object of a frame individually.
+   *
+   * @param state The benchmark state
+   * @param hole  A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(FRAME)
+  public void frameSingle(
+    final FrameState state,
+    final Blackhole hole)
+  {
+    final JPBenchmarkValue[] values = state.values;
+    for (int index = 0; index < FRAME; ++index) {
+      values[index] = state.pool.get(CONTEXT, state.keys[index]);
+    }
+    for (int index = 0; index < FRAME; ++index) {
+      state.pool.returnValue(CONTEXT, values[index]);
+    }
+    hole.consume(values);
+  }
+
+  /**
+   * Borrow and return every object of a frame as a batch.
+   *
+   * @param state The benchmark state
+   * @param hole  A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(FRAME)
+  public void frameBatch(
+    final FrameState state,
+    final Blackhole hole)
+  {
+    final List<JPBenchmarkValue> values =
+      state.pool.getAll(CONTEXT, state.key_list);
+    state.pool.returnAll(CONTEXT, values);
+    hole.consume(values);
+  }
+
+  /**
+   * The state for frame workloads. With a soft limit of 256, every object
+   * of the frame is free at the start of each frame. With a soft limit of
+   * 128, the frame cycles through more objects than the pool keeps, and
+   * every request misses and evicts.
+   */
+
+  @State(Scope.Thread)
+  public static class FrameState
+  {
+    @Param({"256", "128"})
+    long softLimit;
+
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] keys;
+    List<Integer> key_list;
+    JPBenchmarkValue[] values;
+
+    /**
+     * Construct a state.
+     */
+
+    public FrameState()
+    {
+
+    }
+
+    /**
+     * Fill the pool with the objects of one frame.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.keys = JPBenchmarkKeys.sequential(FRAME);
+      this.key_list = Arrays.asList(this.keys);
+      this.values = new JPBenchmarkValue[FRAME];
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L), this.softLimit, 512L);
+      JPPoolSynchronousBenchmark.populate(this.pool, this.keys);
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+}
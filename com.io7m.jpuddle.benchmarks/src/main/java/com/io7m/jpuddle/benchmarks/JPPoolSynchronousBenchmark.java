@@ -0,0 +1,399 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPLeaseType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolSynchronousUsableType;
+import com.io7m.jpuddle.core.JPPoolTrimScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the hot paths of {@link JPPoolSynchronous}: {@code get},
+ * {@code returnValue}, and {@code trim}, under workloads that are dominated
+ * by hits, misses, evictions, and very large numbers of distinct keys.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class JPPoolSynchronousBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+  private static final int TRIM_BATCH = 256;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolSynchronousBenchmark()
+  {
+
+  }
+
+  /**
+   * Every {@code get} is satisfied by a free object: The pool holds one free
+   * object for each of a small number of keys.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnHit(
+    final HitState state)
+  {
+    final Integer key = state.keys[state.index];
+    state.index = (state.index + 1) & (state.keys.length - 1);
+
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, key);
+    state.pool.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * The same workload as {@link #getReturnHit(HitState)}, but borrowing
+   * objects with leases, which are closed without an identity lookup.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue leaseCloseHit(
+    final HitState state)
+  {
+    final Integer key = state.keys[state.index];
+    state.index = (state.index + 1) & (state.keys.length - 1);
+
+    try (JPLeaseType<JPBenchmarkValue> lease =
+           state.pool.lease(CONTEXT, key)) {
+      return lease.value();
+    }
+  }
+
+  /**
+   * Every {@code get} creates a new object: The soft limit is zero, so every
+   * returned object is evicted immediately. This exercises the estimated size
+   * check, creation, and the hard limit check on the created object.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnMiss(
+    final MissState state)
+  {
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, state.key);
+    state.pool.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Keys are requested in a cycle that is twice as long as the number of
+   * objects that fit under the soft limit, so every {@code get} misses and
+   * every {@code returnValue} evicts the least recently used of a large set
+   * of free objects. With a deferred trim scheduler, evictions are instead
+   * performed in batches by the owner thread, as a render loop would at the
+   * end of each frame.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnEvict(
+    final EvictState state)
+  {
+    final Integer key = state.keys[state.index];
+    state.index = (state.index + 1) % state.keys.length;
+
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, key);
+    state.pool.returnValue(CONTEXT, v);
+
+    if (state.deferred && (state.index & (TRIM_BATCH - 1)) == 0) {
+      state.pool.trimBatch(CONTEXT, TRIM_BATCH);
+    }
+    return v;
+  }
+
+  /**
+   * The pool holds one free object for each of a very large number of keys,
+   * and keys are requested in a shuffled order.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnManyKeys(
+    final ManyKeysState state)
+  {
+    final Integer key = state.keys[state.index];
+    state.index = (state.index + 1) % state.keys.length;
+
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, key);
+    state.pool.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Trim a pool that is already under its soft limit. This is the cost that
+   * every {@code get} and {@code returnValue} pays.
+   *
+   * @param state The benchmark state
+   */
+
+  @Benchmark
+  public void trimIdle(
+    final HitState state)
+  {
+    state.pool.trim(CONTEXT);
+  }
+
+  /**
+   * The state for hit-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class HitState
+  {
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] keys;
+    int index;
+
+    /**
+     * Construct a state.
+     */
+
+    public HitState()
+    {
+
+    }
+
+    /**
+     * Fill the pool with free objects.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.keys = JPBenchmarkKeys.sequential(64);
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L), 64L, 128L);
+      populate(this.pool, this.keys);
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * The state for miss-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class MissState
+  {
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer key;
+
+    /**
+     * Construct a state.
+     */
+
+    public MissState()
+    {
+
+    }
+
+    /**
+     * Create an empty pool that cannot retain free objects.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.key = Integer.valueOf(0);
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L), 0L, 128L);
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * The state for eviction-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class EvictState
+  {
+    @Param({"1024", "65536"})
+    int softLimit;
+
+    @Param({"inline", "deferred"})
+    String trimScheduler;
+
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] keys;
+    int index;
+    boolean deferred;
+
+    /**
+     * Construct a state.
+     */
+
+    public EvictState()
+    {
+
+    }
+
+    /**
+     * Fill the pool to the soft limit with free objects.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.keys = JPBenchmarkKeys.sequential(this.softLimit * 2);
+      this.deferred = "deferred".equals(this.trimScheduler);
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L),
+        this.softLimit,
+        (long) this.softLimit * 2L,
+        this.deferred
+          ? JPPoolTrimScheduler.deferred()
+          : JPPoolTrimScheduler.inline());
+      populate(this.pool, this.keys);
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * The state for workloads with very large numbers of distinct keys.
+   */
+
+  @State(Scope.Thread)
+  public static class ManyKeysState
+  {
+    @Param({"1000000"})
+    int keyCount;
+
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] keys;
+    int index;
+
+    /**
+     * Construct a state.
+     */
+
+    public ManyKeysState()
+    {
+
+    }
+
+    /**
+     * Fill the pool with one free object per key.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.keys = JPBenchmarkKeys.shuffled(this.keyCount, 0x5DEECE66DL);
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L),
+        this.keyCount,
+        (long) this.keyCount * 2L);
+      populate(this.pool, JPBenchmarkKeys.sequential(this.keyCount));
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  static void populate(
+    final JPPoolSynchronousUsableType<Integer, ?, JPBenchmarkValue, Integer>
+      pool,
+    final Integer[] keys)
+  {
+    final JPBenchmarkValue[] values = new JPBenchmarkValue[keys.length];
+    for (int index = 0; index < keys.length; ++index) {
+      values[index] = pool.get(CONTEXT, keys[index]);
+    }
+    for (int index = 0; index < keys.length; ++index) {
+      pool.returnValue(CONTEXT, values[index]);
+    }
+  }
+}
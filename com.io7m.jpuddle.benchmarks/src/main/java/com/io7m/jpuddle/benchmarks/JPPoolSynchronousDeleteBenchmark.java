@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link JPPoolSynchronous#deleteUnsafely(Object)} on pools
+ * holding a mixture of used and free objects.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class JPPoolSynchronousDeleteBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  @Param({"1000", "100000"})
+  int objectCount;
+
+  JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer> pool;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolSynchronousDeleteBenchmark()
+  {
+
+  }
+
+  /**
+   * Create a pool where half of the objects are in use and half are free.
+   */
+
+  @Setup(Level.Invocation)
+  public void setup()
+  {
+    final Integer[] keys = JPBenchmarkKeys.sequential(this.objectCount);
+    this.pool = JPPoolSynchronous.newPool(
+      new JPBenchmarkListener(1L),
+      this.objectCount,
+      this.objectCount);
+
+    final JPBenchmarkValue[] values = new JPBenchmarkValue[keys.length];
+    for (int index = 0; index < keys.length; ++index) {
+      values[index] = this.pool.get(CONTEXT, keys[index]);
+    }
+    for (int index = 0; index < keys.length; index += 2) {
+      this.pool.returnValue(CONTEXT, values[index]);
+    }
+  }
+
+  /**
+   * Delete the pool.
+   */
+
+  @Benchmark
+  public void deleteUnsafely()
+  {
+    this.pool.deleteUnsafely(CONTEXT);
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link JPPoolSynchronous} pools holding very large numbers
+ * of free objects. The cost of a hit, a return, and an eviction should not
+ * depend on the number of free objects.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class JPPoolSynchronousLargeBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolSynchronousLargeBenchmark()
+  {
+
+  }
+
+  /**
+   * Every {@code get} takes a free object from a random position in the
+   * recency order, and every {@code returnValue} makes it the most recently
+   * used.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnHit(
+    final HitState state)
+  {
+    final Integer key = state.keys[state.index];
+    ++state.index;
+    if (state.index == state.keys.length) {
+      state.index = 0;
+    }
+
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, key);
+    state.pool.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Every {@code get} misses, and every {@code returnValue} evicts the least
+   * recently used free object.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnEvict(
+    final EvictState state)
+  {
+    final Integer key = state.keys[state.index];
+    ++state.index;
+    if (state.index == state.keys.length) {
+      state.index = 0;
+    }
+
+    final JPBenchmarkValue v = state.pool.get(CONTEXT, key);
+    state.pool.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * The state for hit-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class HitState
+  {
+    @Param({"100000", "1000000", "10000000"})
+    int freeCount;
+
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] keys;
+    int index;
+
+    /**
+     * Construct a state.
+     */
+
+    public HitState()
+    {
+
+    }
+
+    /**
+     * Fill the pool with one free object per key.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.keys = JPBenchmarkKeys.shuffled(this.freeCount, 0x5DEECE66DL);
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L),
+        this.freeCount,
+        (long) this.freeCount * 2L);
+      JPPoolSynchronousBenchmark.populate(
+        this.pool, JPBenchmarkKeys.sequential(this.freeCount));
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * The state for eviction-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class EvictState
+  {
+    @Param({"100000", "1000000", "10000000"})
+    int freeCount;
+
+    JPPoolSynchronous<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    Integer[] keys;
+    int index;
+
+    /**
+     * Construct a state.
+     */
+
+    public EvictState()
+    {
+
+    }
+
+    /**
+     * Fill the pool to the soft limit with free objects. Keys are requested
+     * in a cycle that is twice as long as the number of free objects, so
+     * that no request is ever satisfied by a free object.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.keys = JPBenchmarkKeys.sequential(this.freeCount * 2);
+      this.index = this.freeCount;
+      this.pool = JPPoolSynchronous.newPool(
+        new JPBenchmarkListener(1L),
+        this.freeCount,
+        (long) this.freeCount * 2L);
+      JPPoolSynchronousBenchmark.populate(
+        this.pool, JPBenchmarkKeys.sequential(this.freeCount));
+    }
+
+    /**
+     * Delete the pool.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolSynchronousLongKeyed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A comparison of {@link JPPoolSynchronousLongKeyed} against a
+ * {@link JPPoolSynchronous} keyed by {@link Long}, for hit-heavy and
+ * miss-heavy workloads. The keys are large buffer sizes, as callers would
+ * typically use, and so the generic pool pays for boxing each key, as
+ * callers holding {@code long} keys would.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+public class JPPoolSynchronousLongKeyedBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolSynchronousLongKeyedBenchmark()
+  {
+
+  }
+
+  /**
+   * Every {@code get} on the generic pool is satisfied by a free object.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnHitGeneric(
+    final HitState state)
+  {
+    final long key = state.keys[state.index];
+    state.index = (state.index + 1) & (state.keys.length - 1);
+
+    final JPBenchmarkValue v = state.generic.get(CONTEXT, Long.valueOf(key));
+    state.generic.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Every {@code get} on the long-keyed pool is satisfied by a free object.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnHitLongKeyed(
+    final HitState state)
+  {
+    final long key = state.keys[state.index];
+    state.index = (state.index + 1) & (state.keys.length - 1);
+
+    final JPBenchmarkValue v = state.primitive.get(CONTEXT, key);
+    state.primitive.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Every {@code get} on the generic pool creates a new object, and every
+   * returned object is evicted immediately.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnMissGeneric(
+    final MissState state)
+  {
+    final long key = state.key++;
+    final JPBenchmarkValue v = state.generic.get(CONTEXT, Long.valueOf(key));
+    state.generic.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * Every {@code get} on the long-keyed pool creates a new object, and every
+   * returned object is evicted immediately.
+   *
+   * @param state The benchmark state
+   *
+   * @return The borrowed value
+   */
+
+  @Benchmark
+  public JPBenchmarkValue getReturnMissLongKeyed(
+    final MissState state)
+  {
+    final long key = state.key++;
+    final JPBenchmarkValue v = state.primitive.get(CONTEXT, key);
+    state.primitive.returnValue(CONTEXT, v);
+    return v;
+  }
+
+  /**
+   * The state for hit-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class HitState
+  {
+    @Param({"64", "65536"})
+    int keyCount;
+
+    JPPoolSynchronous<Long, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      generic;
+    JPPoolSynchronousLongKeyed<JPBenchmarkValue, JPBenchmarkValue, Integer>
+      primitive;
+    long[] keys;
+    int index;
+
+    /**
+     * Construct a state.
+     */
+
+    public HitState()
+    {
+
+    }
+
+    /**
+     * Fill the pools with free objects.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      final long[] sizes = new long[this.keyCount];
+      for (int index = 0; index < this.keyCount; ++index) {
+        sizes[index] = 4096L * (index + 1);
+      }
+      this.keys = sizes;
+
+      final JPBenchmarkLongKeyedListener listener =
+        new JPBenchmarkLongKeyedListener(1L);
+      final long soft = this.keyCount;
+
+      this.generic = JPPoolSynchronous.newPool(listener, soft, soft * 2L);
+      this.primitive =
+        JPPoolSynchronousLongKeyed.newPool(listener, soft, soft * 2L);
+
+      final JPBenchmarkValue[] values = new JPBenchmarkValue[sizes.length];
+      for (int index = 0; index < sizes.length; ++index) {
+        values[index] = this.generic.get(CONTEXT, Long.valueOf(sizes[index]));
+      }
+      for (int index = 0; index < sizes.length; ++index) {
+        this.generic.returnValue(CONTEXT, values[index]);
+      }
+      for (int index = 0; index < sizes.length; ++index) {
+        values[index] = this.primitive.get(CONTEXT, sizes[index]);
+      }
+      for (int index = 0; index < sizes.length; ++index) {
+        this.primitive.returnValue(CONTEXT, values[index]);
+      }
+    }
+
+    /**
+     * Delete the pools.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.generic.deleteUnsafely(CONTEXT);
+      this.primitive.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  /**
+   * The state for miss-heavy workloads.
+   */
+
+  @State(Scope.Thread)
+  public static class MissState
+  {
+    JPPoolSynchronous<Long, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      generic;
+    JPPoolSynchronousLongKeyed<JPBenchmarkValue, JPBenchmarkValue, Integer>
+      primitive;
+    long key;
+
+    /**
+     * Construct a state.
+     */
+
+    public MissState()
+    {
+
+    }
+
+    /**
+     * Create empty pools with a soft limit of zero.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      final JPBenchmarkLongKeyedListener listener =
+        new JPBenchmarkLongKeyedListener(1L);
+      this.generic = JPPoolSynchronous.newPool(listener, 0L, 1L);
+      this.primitive = JPPoolSynchronousLongKeyed.newPool(listener, 0L, 1L);
+      this.key = 1L << 20;
+    }
+
+    /**
+     * Delete the pools.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.generic.deleteUnsafely(CONTEXT);
+      this.primitive.deleteUnsafely(CONTEXT);
+    }
+  }
+}
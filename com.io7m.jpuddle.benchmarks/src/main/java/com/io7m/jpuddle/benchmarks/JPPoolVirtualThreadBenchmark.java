@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.benchmarks;
+
+import com.io7m.jpuddle.core.JPPoolConcurrent;
+import com.io7m.jpuddle.core.JPPoolConcurrentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks measuring the time taken for a large number of borrowers to
+ * each borrow a value from a concurrent pool, hold it across a simulated
+ * blocking I/O operation, and return it. Values are created with a
+ * simulated blocking I/O delay. One benchmark runs each borrower on its own
+ * virtual thread, and the other runs the borrowers on a fixed set of
+ * platform threads.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+public class JPPoolVirtualThreadBenchmark
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+  private static final int KEYS = 1024;
+  private static final int PLATFORM_THREADS = 256;
+  private static final Duration IO_DELAY = Duration.ofMillis(1L);
+  private static final Duration TIMEOUT = Duration.ofMinutes(1L);
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public JPPoolVirtualThreadBenchmark()
+  {
+
+  }
+
+  private static void borrow(
+    final JPPoolConcurrentType<
+      Integer, JPBenchmarkValue, JPBenchmarkValue, Integer> pool,
+    final int index)
+  {
+    final Integer key = Integer.valueOf(index % KEYS);
+    final JPBenchmarkValue v = pool.get(CONTEXT, key, TIMEOUT);
+    try {
+      Thread.sleep(IO_DELAY);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } finally {
+      pool.returnValue(CONTEXT, v);
+    }
+  }
+
+  /**
+   * Run every borrower on its own virtual thread.
+   *
+   * @param state The benchmark state
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void borrowVirtualThreads(
+    final BorrowState state)
+    throws Exception
+  {
+    try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int index = 0; index < state.borrowers; ++index) {
+        final int k = index;
+        exec.execute(() -> borrow(state.pool, k));
+      }
+    }
+  }
+
+  /**
+   * Run the borrowers on a fixed set of platform threads.
+   *
+   * @param state The benchmark state
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void borrowPlatformThreads(
+    final BorrowState state)
+    throws Exception
+  {
+    final CountDownLatch done = new CountDownLatch(state.borrowers);
+    for (int index = 0; index < state.borrowers; ++index) {
+      final int k = index;
+      state.platform.execute(() -> {
+        try {
+          borrow(state.pool, k);
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+  }
+
+  /**
+   * The pool and platform threads shared by all borrowers.
+   */
+
+  @State(Scope.Benchmark)
+  public static class BorrowState
+  {
+    @Param({"100000"})
+    int borrowers;
+
+    JPPoolConcurrentType<Integer, JPBenchmarkValue, JPBenchmarkValue, Integer>
+      pool;
+    ExecutorService platform;
+
+    /**
+     * Construct a state.
+     */
+
+    public BorrowState()
+    {
+
+    }
+
+    /**
+     * Create the pool and the platform threads.
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      this.pool = JPPoolConcurrent.newPool(
+        new JPBenchmarkListener(1L, IO_DELAY), KEYS, KEYS);
+      this.platform = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    /**
+     * Delete the pool and stop the platform threads.
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+      this.platform.shutdownNow();
+      this.pool.deleteUnsafely(CONTEXT);
+    }
+  }
+}
@@ -18,49 +18,49 @@ package com.io7m.jpuddle.core;
 
 import com.io7m.junreachable.UnimplementedCodeException;
 
-import java.math.BigInteger;
+/**
+ * Checked unsigned arithmetic. The functions here do not allocate unless an
+ * exception is raised, and so are safe to use on hot paths.
+ */
 
 final class BigUnsigned
 {
-  private static final BigInteger UNSIGNED_LONG_MAX =
-    new BigInteger("ffffffffffffffff", 16);
-
   private BigUnsigned()
   {
     throw new UnimplementedCodeException();
   }
 
+  /*
+   * The largest unsigned value (2^64 - 1) is treated as an overflow, as a
+   * sum that reaches it cannot be distinguished from one that has saturated.
+   */
+
   static long checkedAddLong(
     final long x,
     final long y)
   {
-    final BigInteger bx = new BigInteger(Long.toUnsignedString(x));
-    final BigInteger by = new BigInteger(Long.toUnsignedString(y));
-    final BigInteger r = bx.add(by);
-
-    if (r.compareTo(UNSIGNED_LONG_MAX) >= 0) {
-      throw new ArithmeticException("Integer overflow: " + r);
+    final long r = x + y;
+    if (Long.compareUnsigned(r, x) < 0 || r == 0xffff_ffff_ffff_ffffL) {
+      throw new ArithmeticException(
+        "Integer overflow: "
+          + Long.toUnsignedString(x)
+          + " + "
+          + Long.toUnsignedString(y));
     }
-
-    return r.longValue();
+    return r;
   }
 
   static long checkedSubtractLong(
     final long x,
     final long y)
   {
-    final BigInteger bx = BigInteger.valueOf(x);
-    final BigInteger by = BigInteger.valueOf(y);
-    final BigInteger r = bx.subtract(by);
-
-    if (r.compareTo(UNSIGNED_LONG_MAX) >= 0) {
-      throw new ArithmeticException("Integer overflow: " + r);
-    }
-
-    if (r.compareTo(BigInteger.ZERO) < 0) {
-      throw new ArithmeticException("Integer underflow: " + r);
+    if (Long.compareUnsigned(x, y) < 0) {
+      throw new ArithmeticException(
+        "Integer underflow: "
+          + Long.toUnsignedString(x)
+          + " - "
+          + Long.toUnsignedString(y));
     }
-
-    return r.longValue();
+    return x - y;
   }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.util.Objects;
+
+/**
+ * A lease that returns its object with
+ * {@link JPPoolSynchronousUsableType#returnValue(Object, Object)}.
+ *
+ * @param <U> The type of user-visible pooled values
+ * @param <C> The type of context values
+ */
+
+final class JPLeaseReturning<U, C> implements JPLeaseType<U>
+{
+  private final JPPoolSynchronousUsableType<?, ?, U, C> pool;
+  private final C context;
+  private final U value;
+  private boolean closed;
+
+  JPLeaseReturning(
+    final JPPoolSynchronousUsableType<?, ?, U, C> in_pool,
+    final C in_context,
+    final U in_value)
+  {
+    this.pool = Objects.requireNonNull(in_pool, "Pool");
+    this.context = Objects.requireNonNull(in_context, "Context");
+    this.value = Objects.requireNonNull(in_value, "Value");
+    this.closed = false;
+  }
+
+  @Override
+  public U value()
+  {
+    return this.value;
+  }
+
+  @Override
+  public void close()
+    throws JPPoolException, JPPoolObjectReturnException
+  {
+    if (this.closed) {
+      throw new JPPoolObjectReturnException("Lease has already been closed.");
+    }
+    this.closed = true;
+    this.pool.returnValue(this.context, this.value);
+  }
+}
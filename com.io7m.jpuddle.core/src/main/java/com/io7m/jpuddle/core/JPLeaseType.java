@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * A lease on an object borrowed from a pool. Closing the lease returns the
+ * object to the pool, and so leases may be used with try-with-resources:
+ *
+ * <pre>{@code
+ * try (var lease = pool.lease(context, key)) {
+ *   use(lease.value());
+ * }
+ * }</pre>
+ *
+ * <p>The object must not be used after the lease is closed, and must not be
+ * returned with {@code returnValue}.</p>
+ *
+ * @param <U> The type of user-visible pooled values
+ *
+ * @see JPPoolSynchronousUsableType#lease(Object, Object)
+ */
+
+public interface JPLeaseType<U> extends AutoCloseable
+{
+  /**
+   * @return The leased object
+   */
+
+  U value();
+
+  /**
+   * Return the leased object to the pool.
+   *
+   * @throws JPPoolException             On errors
+   * @throws JPPoolObjectReturnException If the lease has already been closed
+   */
+
+  @Override
+  void close()
+    throws JPPoolException, JPPoolObjectReturnException;
+}
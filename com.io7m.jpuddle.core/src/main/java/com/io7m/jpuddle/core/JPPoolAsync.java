@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The default implementation of the {@link JPPoolAsyncType} interface.
+ *
+ * <p>The pool is backed by a {@link JPPoolConcurrent} pool. Requests that
+ * can be satisfied by free values are handled on the calling thread and
+ * complete immediately. For all other requests, the estimated size of the
+ * new value is reserved against the hard limit on the calling thread, and
+ * the listener's {@code onCreate} and {@code onGetSize} methods are then
+ * called on the given executor. No locks are held during creation, so
+ * values for any number of keys may be created in parallel, up to the
+ * parallelism of the executor.</p>
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of internal pooled values
+ * @param <U> The type of user-visible pooled values
+ * @param <C> The type of context values
+ */
+
+public final class JPPoolAsync<K, T extends U, U, C> implements
+  JPPoolAsyncType<K, T, U, C>
+{
+  private final JPPoolConcurrent<K, T, U, C> pool;
+  private final Executor executor;
+
+  private JPPoolAsync(
+    final JPPoolConcurrent<K, T, U, C> in_pool,
+    final Executor in_executor)
+  {
+    this.pool = Objects.requireNonNull(in_pool, "Pool");
+    this.executor = Objects.requireNonNull(in_executor, "Executor");
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be frequently
+   * trimmed so that the size of the pool stays at (at most) {@code
+   * soft_limit}.
+   *
+   * @param listener   The listener that will manipulate objects within the
+   *                   pool
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   * @param executor   The executor on which new objects will be created
+   * @param <K>        The type of keys
+   * @param <T>        The type of values
+   * @param <U>        The type of user-visible pooled values
+   * @param <C>        The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolAsync<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final Executor executor)
+  {
+    return new JPPoolAsync<>(
+      JPPoolConcurrent.newPool(listener, soft_limit, hard_limit),
+      executor);
+  }
+
+  @Override
+  public boolean isDeleted()
+  {
+    return this.pool.isDeleted();
+  }
+
+  @Override
+  public void trim(final C context)
+    throws JPPoolException
+  {
+    this.pool.trim(context);
+  }
+
+  @Override
+  public CompletableFuture<U> get(
+    final C context,
+    final K key)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+
+    final long reserved;
+
+    try {
+      final T r = this.pool.getFree(context, key);
+      if (r != null) {
+        return CompletableFuture.completedFuture(r);
+      }
+      reserved = this.pool.reserve(context, key);
+    } catch (final JPPoolException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    final CompletableFuture<U> future = new CompletableFuture<>();
+
+    try {
+      this.executor.execute(
+        () -> this.create(context, key, reserved, future));
+    } catch (final RejectedExecutionException e) {
+      this.pool.release(reserved);
+      future.completeExceptionally(new JPPoolObjectCreationException(e));
+    }
+    return future;
+  }
+
+  private void create(
+    final C context,
+    final K key,
+    final long reserved,
+    final CompletableFuture<U> future)
+  {
+    final T v;
+
+    try {
+      v = this.pool.createReserved(context, key, reserved);
+    } catch (final Throwable e) {
+      future.completeExceptionally(e);
+      return;
+    }
+
+    /*
+     * If the future was cancelled, nobody will ever receive the value, so
+     * return it to the pool, or delete it if the pool has been deleted.
+     */
+
+    if (!future.complete(v)) {
+      this.pool.returnUnclaimed(context, v);
+    }
+  }
+
+  @Override
+  public void returnValue(
+    final C context,
+    final U value)
+    throws JPPoolException
+  {
+    this.pool.returnValue(context, value);
+  }
+
+  @Override
+  public long size()
+  {
+    return this.pool.size();
+  }
+
+  @Override
+  public void deleteSafely(final C context)
+    throws JPPoolException
+  {
+    this.pool.deleteSafely(context);
+  }
+
+  @Override
+  public void deleteUnsafely(final C context)
+    throws JPPoolException
+  {
+    this.pool.deleteUnsafely(context);
+  }
+}
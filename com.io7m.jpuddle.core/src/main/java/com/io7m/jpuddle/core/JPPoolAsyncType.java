@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The type of pools that create values asynchronously. Requests that can be
+ * satisfied by free values within the pool complete immediately, and
+ * requests that require new values to be created complete when creation has
+ * finished. Asynchronous pools may be safely accessed from multiple threads
+ * at once, and listeners used with asynchronous pools must themselves be
+ * safe to call from multiple threads.
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of pooled values
+ * @param <U> The type of externally visible pooled values
+ * @param <C> The type of context values
+ */
+
+public interface JPPoolAsyncType<K, T extends U, U, C>
+{
+  /**
+   * @return {@code true} iff the pool has been deleted
+   */
+
+  boolean isDeleted();
+
+  /**
+   * Trim free objects within the pool to reduce the pool size.
+   *
+   * @param context A context value
+   *
+   * @throws JPPoolException On errors
+   */
+
+  void trim(C context)
+    throws JPPoolException;
+
+  /**
+   * Retrieve an object from the pool, creating it if necessary. Any error
+   * raised whilst retrieving or creating the object, including {@link
+   * JPPoolHardLimitExceededException} and {@link
+   * JPPoolObjectCreationException}, is delivered through the returned
+   * future. If the returned future is cancelled before the object has been
+   * created, the object is returned to the pool when creation finishes.
+   *
+   * @param context A context value
+   * @param key     The key that will be used to construct or retrieve the
+   *                object
+   *
+   * @return A future that completes with a new (or reused) object
+   */
+
+  CompletableFuture<U> get(
+    C context,
+    K key);
+
+  /**
+   * Return an object to the pool for re-use by later calls to {@link
+   * #get(Object, Object)}.
+   *
+   * @param context A context value
+   * @param value   A value
+   *
+   * @throws JPPoolException             On errors
+   * @throws JPPoolObjectReturnException If the given value is not in the pool,
+   *                                     or has already been returned
+   */
+
+  void returnValue(
+    C context,
+    U value)
+    throws JPPoolException, JPPoolObjectReturnException;
+
+  /**
+   * @return The current number of objects, active or free, within the pool,
+   * including objects that are currently being created
+   */
+
+  long size();
+
+  /**
+   * Delete all items in the pool and shut the pool down. The method will refuse
+   * to delete the pool if any items are yet to be returned. Objects whose
+   * creation finishes after the pool has been deleted are deleted
+   * immediately, and their futures fail with {@link JPPoolDeletedException}.
+   *
+   * @param context A context value
+   *
+   * @throws JPPoolException Iff any of the items in the pool have yet to be
+   *                         returned
+   */
+
+  void deleteSafely(C context)
+    throws JPPoolException;
+
+  /**
+   * Delete all items in the pool and shut the pool down. The method will delete
+   * the pool even if there are items yet to be returned.
+   *
+   * @param context A context value
+   *
+   * @throws JPPoolException On errors
+   */
+
+  void deleteUnsafely(C context)
+    throws JPPoolException;
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A listener that delivers exceptions raised by the methods of another
+ * listener to that listener's {@code onError} method.
+ *
+ * @param <T> The type of values
+ * @param <C> The type of context values
+ *
+ * @see JPPoolCheckedListener
+ */
+
+final class JPPoolCheckedLongKeyedListener<T, C> implements
+  JPPoolableLongKeyedListenerType<T, C>
+{
+  private static final Logger LOG;
+
+  static {
+    LOG = LoggerFactory.getLogger(JPPoolCheckedLongKeyedListener.class);
+  }
+
+  private final JPPoolableLongKeyedListenerType<T, C> listener;
+
+  JPPoolCheckedLongKeyedListener(
+    final JPPoolableLongKeyedListenerType<T, C> in_listener)
+  {
+    this.listener = Objects.requireNonNull(in_listener, "Listener");
+  }
+
+  @Override
+  public long onEstimateSize(
+    final C c,
+    final long key)
+  {
+    try {
+      return this.listener.onEstimateSize(c, key);
+    } catch (final Throwable ex) {
+      try {
+        this.listener.onError(c, key, Optional.empty(), ex);
+      } catch (final Throwable z) {
+        LOG.error("suppressed exception: ", z);
+      }
+      throw ex;
+    }
+  }
+
+  @Override
+  public T onCreate(
+    final C c,
+    final long key)
+  {
+    try {
+      return this.listener.onCreate(c, key);
+    } catch (final Throwable ex) {
+      try {
+        this.listener.onError(c, key, Optional.empty(), ex);
+      } catch (final Throwable z) {
+        LOG.error("suppressed exception: ", z);
+      }
+      throw ex;
+    }
+  }
+
+  @Override
+  public long onGetSize(
+    final C c,
+    final long key,
+    final T value)
+  {
+    try {
+      return this.listener.onGetSize(c, key, value);
+    } catch (final Throwable ex) {
+      try {
+        this.listener.onError(c, key, Optional.empty(), ex);
+      } catch (final Throwable z) {
+        LOG.error("suppressed exception: ", z);
+      }
+      throw ex;
+    }
+  }
+
+  @Override
+  public void onReuse(
+    final C c,
+    final long key,
+    final T value)
+  {
+    try {
+      this.listener.onReuse(c, key, value);
+    } catch (final Throwable ex) {
+      try {
+        this.listener.onError(c, key, Optional.of(value), ex);
+      } catch (final Throwable z) {
+        LOG.error("suppressed exception: ", z);
+      }
+    }
+  }
+
+  @Override
+  public void onDelete(
+    final C c,
+    final long key,
+    final T value)
+  {
+    try {
+      this.listener.onDelete(c, key, value);
+    } catch (final Throwable ex) {
+      try {
+        this.listener.onError(c, key, Optional.of(value), ex);
+      } catch (final Throwable z) {
+        LOG.error("suppressed exception: ", z);
+      }
+    }
+  }
+
+  @Override
+  public void onError(
+    final C c,
+    final long key,
+    final Optional<T> value,
+    final Throwable e)
+  {
+    try {
+      this.listener.onError(c, key, value, e);
+    } catch (final Throwable ex) {
+      try {
+        this.listener.onError(c, key, value, ex);
+      } catch (final Throwable z) {
+        LOG.error("suppressed exception: ", z);
+      }
+    }
+  }
+}
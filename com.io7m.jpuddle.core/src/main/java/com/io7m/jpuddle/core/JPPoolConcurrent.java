@@ -0,0 +1,1462 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import com.io7m.jaffirm.core.Invariants;
+import com.io7m.jranges.RangeCheck;
+import com.io7m.jranges.RangeInclusiveI;
+import it.unimi.dsi.fastutil.objects.Object2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The default implementation of the {@link JPPoolConcurrentType} interface.
+ *
+ * <p>Free objects are held in a set of stripes selected by the hash of their
+ * keys, and objects in use are held in stripes selected by their identity
+ * hash. Each stripe is protected by its own lock, so requests for different
+ * keys rarely contend. Free objects are timestamped with
+ * {@link System#nanoTime()} rather than a shared counter, and so eviction
+ * order is least-recently-used within a stripe and approximately
+ * least-recently-used across stripes. The size of the pool is tracked
+ * globally and atomically: The estimated size of an object is reserved
+ * against the hard limit before the object is created, so the hard limit is
+ * never exceeded even when many threads create objects at once.</p>
+ *
+ * <p>Pools created with {@link #newPoolWithMagazines(JPPoolableListenerType,
+ * long, long, int, int)} additionally keep a small per-thread "magazine" of
+ * recently returned objects for each key. A thread that returns an object
+ * it borrowed itself places the object into its own magazine, and a
+ * subsequent request for the same key on that thread is satisfied from the
+ * magazine without touching any of the shared stripes. A magazine that
+ * overflows flushes its older half to the shared stripes. Objects held in
+ * magazines count toward the size of the pool, and are taken back and
+ * deleted by {@link #trim(Object)} once the shared stripes no longer hold
+ * any free objects and the pool is still over the soft limit. Magazines
+ * only pay off for platform threads that repeatedly borrow and return the
+ * same keys; each thread that uses the pool retains its magazines for the
+ * lifetime of the pool, although the magazine of a key is released as soon
+ * as it is emptied. Virtual threads never use magazines.</p>
+ *
+ * <p>Listener methods are never called while any lock is held.</p>
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of internal pooled values
+ * @param <U> The type of user-visible pooled values
+ * @param <C> The type of context values
+ */
+
+public final class JPPoolConcurrent<K, T extends U, U, C> implements
+  JPPoolConcurrentType<K, T, U, C>
+{
+  private static final String SEPARATOR = System.lineSeparator();
+  private static final RangeInclusiveI STRIPE_RANGE =
+    RangeInclusiveI.of(1, 1 << 16);
+  private static final RangeInclusiveI MAGAZINE_RANGE =
+    RangeInclusiveI.of(1, 1 << 10);
+  private static final int BORROWED_LIMIT = 256;
+
+  private final JPPoolableListenerType<K, T, C> listener;
+  private final Stripe<K, T>[] stripes;
+  private final int stripe_mask;
+  private final JPPoolSizeCounter size;
+  private final JPPoolWaiters<K> waiters;
+  private final int magazine_size;
+  private final ThreadLocal<Magazines<K, T>> magazines;
+  private final ConcurrentLinkedQueue<Magazines<K, T>> magazines_all;
+  private final JPPoolTrimSchedulerType<C> trim_scheduler;
+  private final boolean trim_inline;
+  private final AtomicBoolean trim_pending;
+  private volatile boolean deleted;
+  private volatile boolean deleting;
+
+  @SuppressWarnings("unchecked")
+  private JPPoolConcurrent(
+    final JPPoolableListenerType<K, T, C> in_listener,
+    final long in_size_limit_soft,
+    final long in_size_limit_hard,
+    final int in_stripes,
+    final int in_magazine_size,
+    final JPPoolTrimSchedulerType<C> in_trim_scheduler)
+  {
+    this.listener =
+      new JPPoolCheckedListener<>(
+        Objects.requireNonNull(in_listener, "Listener"));
+
+    this.waiters =
+      new JPPoolWaiters<>();
+    this.size =
+      new JPPoolSizeCounter(
+        in_size_limit_soft, in_size_limit_hard, this.waiters);
+
+    final int count =
+      roundUpPowerOfTwo(
+        RangeCheck.checkIncludedInInteger(
+          in_stripes,
+          "Stripes",
+          STRIPE_RANGE,
+          "Valid stripe counts"));
+
+    this.stripes = (Stripe<K, T>[]) new Stripe<?, ?>[count];
+    for (int index = 0; index < count; ++index) {
+      this.stripes[index] = new Stripe<>();
+    }
+
+    this.stripe_mask = count - 1;
+
+    this.magazine_size = in_magazine_size;
+    this.magazines_all = new ConcurrentLinkedQueue<>();
+    if (in_magazine_size > 0) {
+      this.magazines = ThreadLocal.withInitial(() -> {
+        final Magazines<K, T> m = new Magazines<>();
+        this.magazines_all.add(m);
+        return m;
+      });
+    } else {
+      this.magazines = null;
+    }
+
+    this.trim_scheduler =
+      Objects.requireNonNull(in_trim_scheduler, "Trim scheduler");
+    this.trim_inline = this.trim_scheduler.isInline();
+    this.trim_pending = new AtomicBoolean(false);
+    this.deleted = false;
+    this.deleting = false;
+  }
+
+  private static int roundUpPowerOfTwo(
+    final int x)
+  {
+    final int h = Integer.highestOneBit(x);
+    return h == x ? x : h << 1;
+  }
+
+  private static int spread(
+    final int h)
+  {
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be frequently
+   * trimmed so that the size of the pool stays at (at most) {@code
+   * soft_limit}. The number of lock stripes is derived from the number of
+   * available processors.
+   *
+   * @param listener   The listener that will manipulate objects within the
+   *                   pool
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   * @param <K>        The type of keys
+   * @param <T>        The type of values
+   * @param <U>        The type of user-visible pooled values
+   * @param <C>        The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit)
+  {
+    final int processors = Runtime.getRuntime().availableProcessors();
+    return newPool(
+      listener,
+      soft_limit,
+      hard_limit,
+      Math.min(STRIPE_RANGE.upper(), Math.max(1, processors * 4)));
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be frequently
+   * trimmed so that the size of the pool stays at (at most) {@code
+   * soft_limit}.
+   *
+   * @param listener   The listener that will manipulate objects within the
+   *                   pool
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   * @param stripes    The number of lock stripes, rounded up to the next
+   *                   power of two
+   * @param <K>        The type of keys
+   * @param <T>        The type of values
+   * @param <U>        The type of user-visible pooled values
+   * @param <C>        The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final int stripes)
+  {
+    return new JPPoolConcurrent<>(
+      listener,
+      soft_limit,
+      hard_limit,
+      stripes,
+      0,
+      JPPoolTrimScheduler.inline());
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be trimmed,
+   * at times determined by {@code trim_scheduler}, so that the size of the
+   * pool stays at (at most) {@code soft_limit}. The number of lock stripes
+   * is derived from the number of available processors.
+   *
+   * @param listener       The listener that will manipulate objects within
+   *                       the pool
+   * @param soft_limit     The soft size limit
+   * @param hard_limit     The hard size limit
+   * @param trim_scheduler The trim scheduler
+   * @param <K>            The type of keys
+   * @param <T>            The type of values
+   * @param <U>            The type of user-visible pooled values
+   * @param <C>            The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    final int processors = Runtime.getRuntime().availableProcessors();
+    return new JPPoolConcurrent<>(
+      listener,
+      soft_limit,
+      hard_limit,
+      Math.min(STRIPE_RANGE.upper(), Math.max(1, processors * 4)),
+      0,
+      trim_scheduler);
+  }
+
+  /**
+   * Construct a new pool with per-thread magazines. The size of the pool
+   * will never exceed {@code hard_limit}, and free (unused) objects within
+   * the pool will be frequently trimmed so that the size of the pool stays
+   * at (at most) {@code soft_limit}. Each thread holds at most {@code
+   * magazine_size} free objects per key in its own magazines.
+   *
+   * @param listener      The listener that will manipulate objects within
+   *                      the pool
+   * @param soft_limit    The soft size limit
+   * @param hard_limit    The hard size limit
+   * @param stripes       The number of lock stripes, rounded up to the next
+   *                      power of two
+   * @param magazine_size The maximum number of free objects held per key
+   *                      in each thread's magazines
+   * @param <K>           The type of keys
+   * @param <T>           The type of values
+   * @param <U>           The type of user-visible pooled values
+   * @param <C>           The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C>
+  newPoolWithMagazines(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final int stripes,
+    final int magazine_size)
+  {
+    return newPoolWithMagazines(
+      listener,
+      soft_limit,
+      hard_limit,
+      stripes,
+      magazine_size,
+      JPPoolTrimScheduler.inline());
+  }
+
+  /**
+   * Construct a new pool with per-thread magazines. The size of the pool
+   * will never exceed {@code hard_limit}, and free (unused) objects within
+   * the pool will be trimmed, at times determined by {@code trim_scheduler},
+   * so that the size of the pool stays at (at most) {@code soft_limit}. Each
+   * thread holds at most {@code magazine_size} free objects per key in its
+   * own magazines.
+   *
+   * @param listener       The listener that will manipulate objects within
+   *                       the pool
+   * @param soft_limit     The soft size limit
+   * @param hard_limit     The hard size limit
+   * @param stripes        The number of lock stripes, rounded up to the next
+   *                       power of two
+   * @param magazine_size  The maximum number of free objects held per key
+   *                       in each thread's magazines
+   * @param trim_scheduler The trim scheduler
+   * @param <K>            The type of keys
+   * @param <T>            The type of values
+   * @param <U>            The type of user-visible pooled values
+   * @param <C>            The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C>
+  newPoolWithMagazines(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final int stripes,
+    final int magazine_size,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return new JPPoolConcurrent<>(
+      listener,
+      soft_limit,
+      hard_limit,
+      stripes,
+      RangeCheck.checkIncludedInInteger(
+        magazine_size,
+        "Magazine size",
+        MAGAZINE_RANGE,
+        "Valid magazine sizes"),
+      trim_scheduler);
+  }
+
+  /*
+   * Virtual threads are typically created per task, and so would each
+   * allocate magazines that are never reused. They bypass the magazines.
+   */
+
+  private Magazines<K, T> magazinesForThread()
+  {
+    if (this.magazines == null || Thread.currentThread().isVirtual()) {
+      return null;
+    }
+    return this.magazines.get();
+  }
+
+  private Stripe<K, T> stripeForKey(
+    final K key)
+  {
+    return this.stripes[spread(key.hashCode()) & this.stripe_mask];
+  }
+
+  private Stripe<K, T> stripeForValue(
+    final Object value)
+  {
+    return this.stripes[
+      spread(System.identityHashCode(value)) & this.stripe_mask];
+  }
+
+  @Override
+  public boolean isDeleted()
+  {
+    return this.deleted;
+  }
+
+  @Override
+  public void trim(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    this.trimAtMost(context, Long.MAX_VALUE);
+  }
+
+  @Override
+  public boolean trimBatch(
+    final C context,
+    final int max_count)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    if (this.deleted) {
+      return false;
+    }
+    return this.trimAtMost(context, max_count);
+  }
+
+  private boolean trimAtMost(
+    final C context,
+    final long max_count)
+  {
+    /*
+     * Remove the least recently used values first. Each stripe orders its
+     * own free values by time, and the stripe holding the oldest value is
+     * chosen on each iteration.
+     */
+
+    for (long count = 0L; count < max_count; ++count) {
+      if (!this.size.isOverSoftLimit()) {
+        this.trim_pending.set(false);
+        return false;
+      }
+
+      Entry<K, T> oldest = this.evictOldest();
+      if (oldest == null) {
+
+        /*
+         * The shared stripes are empty, so take back objects from the
+         * per-thread magazines, if there are any.
+         */
+
+        oldest = this.evictMagazine();
+        if (oldest == null) {
+          this.trim_pending.set(false);
+          return false;
+        }
+      }
+
+      this.delete(context, oldest);
+    }
+    final boolean more = this.size.isOverSoftLimit();
+    if (!more) {
+      this.trim_pending.set(false);
+    }
+    return more;
+  }
+
+  /*
+   * Trim the pool inline, or notify the trim scheduler that the pool
+   * requires trimming. Only the thread that sets the pending flag notifies
+   * the scheduler.
+   */
+
+  private void trimOrSchedule(
+    final C context)
+  {
+    if (this.trim_inline) {
+      this.trimAtMost(context, Long.MAX_VALUE);
+      return;
+    }
+
+    if (this.size.isOverSoftLimit()
+      && !this.trim_pending.get()
+      && this.trim_pending.compareAndSet(false, true)) {
+      this.trim_scheduler.onTrimRequired(this);
+    }
+  }
+
+  /*
+   * Reserve the given size against the hard limit. If trimming has been
+   * deferred, trim the pool first if the size would not fit.
+   */
+
+  private void reserveTrimming(
+    final C context,
+    final long reserved)
+  {
+    if (!this.trim_inline) {
+      if (this.size.tryReserve(reserved)) {
+        return;
+      }
+      this.trimAtMost(context, Long.MAX_VALUE);
+    }
+    this.size.reserve(reserved);
+  }
+
+  /*
+   * Delete an evicted entry. The size of the entry is released only after
+   * the listener has deleted the value, so the listener never observes more
+   * live values than the hard limit permits.
+   */
+
+  private void delete(
+    final C context,
+    final Entry<K, T> e)
+  {
+    this.listener.onDelete(context, e.key, e.value);
+    this.size.subtract(e.size);
+  }
+
+  private Entry<K, T> evictMagazine()
+  {
+    for (final Magazines<K, T> m : this.magazines_all) {
+      if (m.count == 0) {
+        continue;
+      }
+
+      final Entry<K, T> e = m.evict();
+      if (e != null) {
+        this.stripeForValue(e.value).discard(e);
+        return e;
+      }
+    }
+    return null;
+  }
+
+  private Entry<K, T> evictOldest()
+  {
+    while (true) {
+      Stripe<K, T> victim = null;
+      long victim_time = 0L;
+      for (final Stripe<K, T> stripe : this.stripes) {
+        if (stripe.free_count == 0) {
+          continue;
+        }
+        final long t = stripe.oldest;
+        if (victim == null || t - victim_time < 0L) {
+          victim_time = t;
+          victim = stripe;
+        }
+      }
+
+      if (victim == null) {
+        return null;
+      }
+
+      /*
+       * The stripe may have been emptied by another thread since it was
+       * examined. If so, examine the stripes again.
+       */
+
+      final Entry<K, T> e = victim.evict();
+      if (e != null) {
+        return e;
+      }
+    }
+  }
+
+  private void checkNotDeleted()
+  {
+    if (this.deleted) {
+      throw new JPPoolDeletedException("Pool has been deleted.");
+    }
+  }
+
+  @Override
+  public T get(
+    final C context,
+    final K key)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+
+    this.checkNotDeleted();
+
+    /*
+     * Trim the pool down to the soft limit, if possible.
+     */
+
+    this.trimOrSchedule(context);
+
+    final Magazines<K, T> m = this.magazinesForThread();
+    final T r = this.takeFree(context, key, m);
+    if (r != null) {
+      return r;
+    }
+
+    /*
+     * Reserve the estimated size against the hard limit.
+     */
+
+    final long reserved = this.estimateSize(context, key);
+    this.reserveTrimming(context, reserved);
+    return this.create(context, key, m, reserved);
+  }
+
+  @Override
+  public T get(
+    final C context,
+    final K key,
+    final Duration timeout)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+    Objects.requireNonNull(timeout, "Timeout");
+
+    this.checkNotDeleted();
+
+    /*
+     * Trim the pool down to the soft limit, if possible.
+     */
+
+    this.trimOrSchedule(context);
+
+    final Magazines<K, T> m = this.magazinesForThread();
+    final T r = this.takeFree(context, key, m);
+    if (r != null) {
+      return r;
+    }
+
+    /*
+     * Reserve the estimated size against the hard limit, waiting for space
+     * if necessary.
+     */
+
+    final long reserved = this.estimateSize(context, key);
+    if (!this.size.tryReserve(reserved)) {
+      final T w = this.awaitSpace(context, key, m, reserved, timeout);
+      if (w != null) {
+        return w;
+      }
+    }
+    return this.create(context, key, m, reserved);
+  }
+
+  /*
+   * The individual stages of get(), used by JPPoolAsync to run creation on
+   * a separate thread.
+   */
+
+  T getFree(
+    final C context,
+    final K key)
+  {
+    this.checkNotDeleted();
+    this.trimOrSchedule(context);
+    return this.takeFree(context, key, this.magazinesForThread());
+  }
+
+  long reserve(
+    final C context,
+    final K key)
+  {
+    final long reserved = this.estimateSize(context, key);
+    this.reserveTrimming(context, reserved);
+    return reserved;
+  }
+
+  void release(
+    final long reserved)
+  {
+    this.size.subtract(reserved);
+  }
+
+  T createReserved(
+    final C context,
+    final K key,
+    final long reserved)
+  {
+    if (this.deleted) {
+      this.size.subtract(reserved);
+      throw new JPPoolDeletedException("Pool has been deleted.");
+    }
+
+    final T v = this.create(context, key, null, reserved);
+
+    /*
+     * If the pool was deleted whilst the value was being created, then the
+     * value must be deleted here, unless the deletion already deleted it.
+     */
+
+    if (this.deleted) {
+      final Entry<K, T> e = this.stripeForValue(v).unuse(v);
+      if (e != null) {
+        e.state = Entry.STATE_DELETED;
+        this.delete(context, e);
+      }
+      throw new JPPoolDeletedException("Pool has been deleted.");
+    }
+    return v;
+  }
+
+  /*
+   * Return a value created by createReserved that no caller will receive.
+   * If the pool has been deleted in the meantime, the value is deleted
+   * here, unless the deletion already deleted it. A value that is returned
+   * whilst the pool is being deleted may be placed into the free lists
+   * after the deletion has emptied them, and so the free lists are emptied
+   * again. Each free entry is evicted by exactly one thread. The deletion
+   * may also return the value itself before this method does, in which
+   * case returning it again fails and there is nothing left to do.
+   */
+
+  void returnUnclaimed(
+    final C context,
+    final T value)
+  {
+    if (!this.deleted) {
+      try {
+        this.returnValue(context, value);
+        if (this.deleting) {
+          this.deleteFree(context);
+        }
+        return;
+      } catch (final JPPoolDeletedException e) {
+        // The pool was deleted concurrently.
+      } catch (final JPPoolObjectReturnException e) {
+        // The deletion returned the value concurrently.
+      }
+    }
+
+    final Entry<K, T> e = this.stripeForValue(value).unuse(value);
+    if (e != null) {
+      e.state = Entry.STATE_DELETED;
+      this.delete(context, e);
+    }
+  }
+
+  /*
+   * Wait until either a free value for the given key appears, or the given
+   * size can be reserved. Free values of other keys are deleted to make
+   * space. Returns null if the size was reserved.
+   */
+
+  private T awaitSpace(
+    final C context,
+    final K key,
+    final Magazines<K, T> m,
+    final long reserve,
+    final Duration timeout)
+  {
+    final long start = System.nanoTime();
+    final long timeout_nanos = JPPoolWaiters.toNanos(timeout);
+
+    final JPPoolWaiters.Waiter<K> waiter = this.waiters.register(key);
+    boolean acquired = false;
+    try {
+      while (true) {
+        this.checkNotDeleted();
+        this.waiters.requeue(waiter);
+
+        final T r = this.takeFree(context, key, m);
+        if (r != null) {
+          acquired = true;
+          return r;
+        }
+        if (this.size.tryReserve(reserve)) {
+          acquired = true;
+          return null;
+        }
+
+        Entry<K, T> victim = this.evictOldest();
+        if (victim == null) {
+          victim = this.evictMagazine();
+        }
+        if (victim != null) {
+          this.delete(context, victim);
+          continue;
+        }
+
+        final long remaining = timeout_nanos - (System.nanoTime() - start);
+        if (remaining <= 0L) {
+          throw this.size.errorHardLimit(reserve);
+        }
+
+        this.waiters.park(waiter, remaining);
+        if (Thread.currentThread().isInterrupted()) {
+          throw new JPPoolInterruptedException(
+            new InterruptedException("Interrupted whilst waiting for space."));
+        }
+      }
+    } finally {
+
+      /*
+       * A single release may have made room for more than one waiter, so a
+       * woken waiter that succeeded passes its wakeup on if there is still
+       * room. A waiter that gave up always passes it on.
+       */
+
+      this.waiters.unregister(
+        waiter, !acquired || this.size.isUnderHardLimit());
+    }
+  }
+
+  /*
+   * Check if the current thread's magazine holds a free element that
+   * matches the given key, and then check the shared stripes.
+   */
+
+  private T takeFree(
+    final C context,
+    final K key,
+    final Magazines<K, T> m)
+  {
+    if (m != null) {
+      final Entry<K, T> r = m.take(key);
+      if (r != null) {
+        this.listener.onReuse(context, r.key, r.value);
+        return r.value;
+      }
+    }
+
+    final Entry<K, T> r = this.stripeForKey(key).take(key);
+    if (r != null) {
+      this.stripeForValue(r.value).use(r);
+      if (m != null) {
+        m.borrow(r);
+      }
+      this.listener.onReuse(context, r.key, r.value);
+      return r.value;
+    }
+    return null;
+  }
+
+  /*
+   * Create a new value, given that its estimated size has already been
+   * reserved.
+   */
+
+  private T create(
+    final C context,
+    final K key,
+    final Magazines<K, T> m,
+    final long reserved)
+  {
+    final T v;
+    final long v_size;
+
+    try {
+      v = this.listener.onCreate(context, key);
+    } catch (final Throwable e) {
+      this.size.subtract(reserved);
+      throw new JPPoolObjectCreationException(e);
+    }
+
+    try {
+      v_size = this.listener.onGetSize(context, key, v);
+    } catch (final Throwable e) {
+      this.listener.onDelete(context, key, v);
+      this.size.subtract(reserved);
+      throw new JPPoolObjectCreationException(e);
+    }
+
+    /*
+     * Replace the reservation with the real size of the created object.
+     * Fail and delete it if the hard limit is exceeded.
+     */
+
+    this.commitSize(context, key, v, reserved, v_size);
+
+    final Entry<K, T> e = new Entry<>(key, v, v_size);
+    this.stripeForValue(v).use(e);
+    if (m != null) {
+      m.borrow(e);
+    }
+    return v;
+  }
+
+  private long estimateSize(
+    final C context,
+    final K key)
+  {
+    try {
+      return this.listener.onEstimateSize(context, key);
+    } catch (final Throwable e) {
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  /*
+   * Exchange a reservation for the real size of a created object, failing
+   * and deleting the object if the hard limit would be exceeded.
+   */
+
+  private void commitSize(
+    final C context,
+    final K key,
+    final T r,
+    final long reserved,
+    final long real_size)
+  {
+    try {
+      this.size.exchange(reserved, real_size);
+    } catch (final JPPoolInternalOverflowException
+                   | JPPoolHardLimitExceededException e) {
+      this.listener.onDelete(context, key, r);
+      throw e;
+    }
+  }
+
+  @Override
+  public void returnValue(
+    final C context,
+    final U value)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(value, "Value");
+
+    this.checkNotDeleted();
+
+    /*
+     * If the value was borrowed by the current thread, place it into the
+     * thread's magazine. A magazine that is full flushes its oldest
+     * entries to the shared stripes.
+     */
+
+    final Magazines<K, T> m = this.magazinesForThread();
+    if (m != null && this.waiters.isEmpty()) {
+      final Entry<K, T> e = m.borrowed.remove(value);
+      if (e != null) {
+        if (!e.transition(Entry.STATE_USED, Entry.STATE_MAGAZINE)) {
+          throw errorNotActive(value);
+        }
+
+        m.put(e, this.magazine_size);
+        for (int index = 0; index < m.overflow.size(); ++index) {
+          this.flush(m.overflow.get(index));
+        }
+        m.overflow.clear();
+        this.trimOrSchedule(context);
+        return;
+      }
+    }
+
+    final Entry<K, T> e = this.stripeForValue(value).unuse(value);
+    if (e != null) {
+      this.stripeForKey(e.key).put(e);
+      this.waiters.signalKey(e.key);
+      this.trimOrSchedule(context);
+      return;
+    }
+
+    throw errorNotActive(value);
+  }
+
+  /*
+   * Move an entry taken from a magazine to the shared stripes.
+   */
+
+  private void flush(
+    final Entry<K, T> e)
+  {
+    this.stripeForValue(e.value).discard(e);
+    this.stripeForKey(e.key).put(e);
+    this.waiters.signalKey(e.key);
+  }
+
+  private void flushMagazines()
+  {
+    final ObjectArrayList<Entry<K, T>> xs = new ObjectArrayList<>();
+    for (final Magazines<K, T> m : this.magazines_all) {
+      m.drain(xs);
+    }
+    for (int index = 0; index < xs.size(); ++index) {
+      this.flush(xs.get(index));
+    }
+  }
+
+  private static JPPoolObjectReturnException errorNotActive(
+    final Object value)
+  {
+    final StringBuilder sb = new StringBuilder(128);
+    sb.append("Returned value not active!");
+    sb.append(SEPARATOR);
+    sb.append("Value: ");
+    sb.append(value);
+    sb.append(SEPARATOR);
+    return new JPPoolObjectReturnException(sb.toString());
+  }
+
+  @Override
+  public long size()
+  {
+    this.checkNotDeleted();
+    return this.size.size();
+  }
+
+  @Override
+  public void deleteSafely(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+    this.flushMagazines();
+
+    final ObjectArrayList<Entry<K, T>> used = new ObjectArrayList<>();
+    for (final Stripe<K, T> stripe : this.stripes) {
+      stripe.collectUsed(used);
+    }
+
+    if (!used.isEmpty()) {
+      throw errorNotEmpty(used);
+    }
+
+    this.deleteActual(context);
+  }
+
+  @Override
+  public void deleteUnsafely(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+    this.deleteActual(context);
+  }
+
+  private void deleteActual(
+    final C context)
+  {
+    this.deleting = true;
+
+    try {
+      final ObjectArrayList<Entry<K, T>> xs = new ObjectArrayList<>();
+      for (final Stripe<K, T> stripe : this.stripes) {
+        stripe.collectUsed(xs);
+      }
+
+      for (int index = 0; index < xs.size(); ++index) {
+        final Entry<K, T> e = xs.get(index);
+        try {
+          this.returnValue(context, e.value);
+        } catch (final JPPoolObjectReturnException ex) {
+          // The value was returned concurrently after it was collected.
+        }
+      }
+
+      this.flushMagazines();
+      this.deleteFree(context);
+    } finally {
+      this.deleted = true;
+    }
+  }
+
+  private void deleteFree(
+    final C context)
+  {
+    for (final Stripe<K, T> stripe : this.stripes) {
+      while (true) {
+        final Entry<K, T> e = stripe.evict();
+        if (e == null) {
+          break;
+        }
+        this.delete(context, e);
+      }
+    }
+  }
+
+  private static <K, T> JPPoolObjectsNotReturnedException errorNotEmpty(
+    final ObjectArrayList<Entry<K, T>> used)
+  {
+    final StringBuilder sb = new StringBuilder(256);
+
+    sb.append("Attempted to delete a pool with items not yet returned.");
+    sb.append(SEPARATOR);
+    sb.append("The first 10 items:");
+    sb.append(SEPARATOR);
+
+    final int count = Math.min(10, used.size());
+    for (int index = 0; index < count; ++index) {
+      final Entry<K, T> e = used.get(index);
+      sb.append(e.value);
+      sb.append(" -> ");
+      sb.append(e.key);
+      sb.append(SEPARATOR);
+    }
+
+    return new JPPoolObjectsNotReturnedException(sb.toString());
+  }
+
+  private static final class Stripe<K, T>
+  {
+    private final ReentrantLock lock;
+    private final Map<K, ObjectArrayFIFOQueue<Entry<K, T>>> free;
+    private final ReferenceLinkedOpenHashSet<Entry<K, T>> free_timed;
+    private final Map<T, Entry<K, T>> used;
+    private ObjectArrayFIFOQueue<Entry<K, T>> spare;
+    private volatile int free_count;
+    private volatile long oldest;
+
+    Stripe()
+    {
+      this.lock = new ReentrantLock();
+      this.free = new Object2ReferenceOpenHashMap<>(64);
+      this.free_timed = new ReferenceLinkedOpenHashSet<>(64);
+      this.used = new Reference2ReferenceOpenHashMap<>(64);
+      this.spare = null;
+      this.free_count = 0;
+      this.oldest = 0L;
+    }
+
+    /*
+     * Remove the queue of a key that no longer has any free entries, so
+     * that keys that are never requested again do not accumulate. The
+     * queue is kept for the next key that needs one, so that borrowing and
+     * returning the only free object of a key does not allocate.
+     */
+
+    private void release(
+      final K key,
+      final ObjectArrayFIFOQueue<Entry<K, T>> xs)
+    {
+      this.free.remove(key);
+      this.spare = xs;
+    }
+
+    private void updateOldest()
+    {
+      final int count = this.free_timed.size();
+      if (count > 0) {
+        this.oldest = this.free_timed.first().time;
+      }
+      this.free_count = count;
+    }
+
+    Entry<K, T> take(
+      final K key)
+    {
+      this.lock.lock();
+      try {
+        final ObjectArrayFIFOQueue<Entry<K, T>> xs = this.free.get(key);
+        if (xs == null) {
+          return null;
+        }
+
+        final Entry<K, T> e = xs.dequeue();
+        if (xs.isEmpty()) {
+          this.release(key, xs);
+        }
+        this.free_timed.remove(e);
+        this.updateOldest();
+        e.state = Entry.STATE_USED;
+        return e;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    void put(
+      final Entry<K, T> e)
+    {
+      this.lock.lock();
+      try {
+        e.time = System.nanoTime();
+
+        ObjectArrayFIFOQueue<Entry<K, T>> xs = this.free.get(e.key);
+        if (xs == null) {
+          xs = this.spare;
+          if (xs == null) {
+            xs = new ObjectArrayFIFOQueue<>();
+          } else {
+            this.spare = null;
+          }
+          this.free.put(e.key, xs);
+        }
+        xs.enqueue(e);
+        this.free_timed.add(e);
+        this.updateOldest();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    Entry<K, T> evict()
+    {
+      this.lock.lock();
+      try {
+        if (this.free_timed.isEmpty()) {
+          return null;
+        }
+
+        /*
+         * The free entries for a key are ordered by time, so the least
+         * recently used entry in the stripe is also the least recently used
+         * entry for its own key.
+         */
+
+        final Entry<K, T> e = this.free_timed.removeFirst();
+        final ObjectArrayFIFOQueue<Entry<K, T>> xs = this.free.get(e.key);
+        final Entry<K, T> first = xs.dequeue();
+
+        Invariants.checkInvariant(
+          first == e,
+          "Evicted entry must be the oldest entry for its key");
+
+        if (xs.isEmpty()) {
+          this.release(e.key, xs);
+        }
+
+        this.updateOldest();
+        e.state = Entry.STATE_DELETED;
+        return e;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    void use(
+      final Entry<K, T> e)
+    {
+      this.lock.lock();
+      try {
+        this.used.put(e.value, e);
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    Entry<K, T> unuse(
+      final Object value)
+    {
+      this.lock.lock();
+      try {
+        final Entry<K, T> e = this.used.get(value);
+        if (e == null || !e.transition(Entry.STATE_USED, Entry.STATE_FREE)) {
+          return null;
+        }
+        this.used.remove(value);
+        return e;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    void discard(
+      final Entry<K, T> e)
+    {
+      this.lock.lock();
+      try {
+        this.used.remove(e.value);
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    void collectUsed(
+      final ObjectArrayList<Entry<K, T>> xs)
+    {
+      this.lock.lock();
+      try {
+        for (final Entry<K, T> e : this.used.values()) {
+          if (e.state == Entry.STATE_USED) {
+            xs.add(e);
+          }
+        }
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
+  /*
+   * The per-thread magazines. The free entries are guarded by the lock,
+   * which is only contended when another thread trims or deletes the pool.
+   * The borrowed map and the overflow list are only ever accessed by the
+   * owning thread. The borrowed map is a cache: an entry that is missing
+   * from it is simply returned through the shared stripes.
+   */
+
+  private static final class Magazines<K, T>
+  {
+    private final ReentrantLock lock;
+    private final Map<K, ObjectArrayList<Entry<K, T>>> free;
+    private final Reference2ReferenceOpenHashMap<Object, Entry<K, T>> borrowed;
+    private final ObjectArrayList<Entry<K, T>> overflow;
+    private ObjectArrayList<Entry<K, T>> spare;
+    private volatile int count;
+
+    Magazines()
+    {
+      this.lock = new ReentrantLock();
+      this.free = new Object2ReferenceOpenHashMap<>(16);
+      this.borrowed = new Reference2ReferenceOpenHashMap<>(16);
+      this.overflow = new ObjectArrayList<>();
+      this.spare = null;
+      this.count = 0;
+    }
+
+    /*
+     * Remove the magazine of a key that no longer holds any entries, so
+     * that the map only ever contains nonempty magazines. As with the
+     * stripes, the most recently emptied magazine is kept for reuse.
+     */
+
+    private void release(
+      final K key,
+      final ObjectArrayList<Entry<K, T>> xs)
+    {
+      this.free.remove(key);
+      this.spare = xs;
+    }
+
+    void borrow(
+      final Entry<K, T> e)
+    {
+      if (this.borrowed.size() >= BORROWED_LIMIT) {
+        this.borrowed.clear();
+      }
+      this.borrowed.put(e.value, e);
+    }
+
+    Entry<K, T> take(
+      final K key)
+    {
+      this.lock.lock();
+      try {
+        final ObjectArrayList<Entry<K, T>> xs = this.free.get(key);
+        if (xs == null) {
+          return null;
+        }
+
+        final Entry<K, T> e = xs.pop();
+        if (xs.isEmpty()) {
+          this.release(key, xs);
+        }
+        this.count = this.count - 1;
+        e.state = Entry.STATE_USED;
+        this.borrow(e);
+        return e;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    void put(
+      final Entry<K, T> e,
+      final int capacity)
+    {
+      this.lock.lock();
+      try {
+        ObjectArrayList<Entry<K, T>> xs = this.free.get(e.key);
+        if (xs == null) {
+          xs = this.spare;
+          if (xs == null) {
+            xs = new ObjectArrayList<>(capacity);
+          } else {
+            this.spare = null;
+          }
+          this.free.put(e.key, xs);
+        }
+
+        /*
+         * Flush the older half of a full magazine.
+         */
+
+        int removed = 0;
+        if (xs.size() >= capacity) {
+          final int flush = Math.max(1, capacity / 2);
+          for (int index = 0; index < flush; ++index) {
+            final Entry<K, T> f = xs.get(index);
+            f.state = Entry.STATE_FREE;
+            this.overflow.add(f);
+          }
+          xs.removeElements(0, flush);
+          removed = flush;
+        }
+
+        xs.push(e);
+        this.count = this.count + 1 - removed;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    Entry<K, T> evict()
+    {
+      this.lock.lock();
+      try {
+        /*
+         * Every magazine in the map is nonempty, so the first one found
+         * is taken from.
+         */
+
+        final Iterator<ObjectArrayList<Entry<K, T>>> iter =
+          this.free.values().iterator();
+        if (!iter.hasNext()) {
+          return null;
+        }
+
+        final ObjectArrayList<Entry<K, T>> xs = iter.next();
+        final Entry<K, T> e = xs.remove(0);
+        if (xs.isEmpty()) {
+          this.release(e.key, xs);
+        }
+        this.count = this.count - 1;
+        e.state = Entry.STATE_DELETED;
+        return e;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+    void drain(
+      final ObjectArrayList<Entry<K, T>> out)
+    {
+      this.lock.lock();
+      try {
+        for (final ObjectArrayList<Entry<K, T>> xs : this.free.values()) {
+          for (int index = 0; index < xs.size(); ++index) {
+            final Entry<K, T> e = xs.get(index);
+            e.state = Entry.STATE_FREE;
+            out.add(e);
+          }
+          xs.clear();
+        }
+        this.free.clear();
+        this.count = 0;
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
+  private static final class Entry<K, T>
+  {
+    static final int STATE_USED = 0;
+    static final int STATE_FREE = 1;
+    static final int STATE_MAGAZINE = 2;
+    static final int STATE_DELETED = 3;
+
+    private static final VarHandle STATE;
+
+    static {
+      try {
+        STATE = MethodHandles.lookup()
+          .findVarHandle(Entry.class, "state", int.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final K key;
+    private final T value;
+    private final long size;
+    private long time;
+    private volatile int state;
+
+    Entry(
+      final K in_key,
+      final T in_value,
+      final long in_size)
+    {
+      this.key = in_key;
+      this.value = in_value;
+      this.size = in_size;
+      this.state = STATE_USED;
+    }
+
+    boolean transition(
+      final int from,
+      final int to)
+    {
+      return STATE.compareAndSet(this, from, to);
+    }
+  }
+}
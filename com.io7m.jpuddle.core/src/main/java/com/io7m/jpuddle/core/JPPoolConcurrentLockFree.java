@@ -0,0 +1,837 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An implementation of the {@link JPPoolConcurrentType} interface that uses
+ * lock-free free lists.
+ *
+ * <p>Each key has a lock-free MPMC queue of free objects, and all free
+ * objects are additionally held in a global lock-free queue in the order in
+ * which they were returned. A free object is claimed by whichever of a
+ * borrowing thread or an evicting thread first wins a CAS on it, and the
+ * losing queue's reference is discarded lazily. Size accounting is CAS-based.
+ * Borrowing a free object therefore never waits for another thread, even
+ * when that thread is evicting objects or running a slow
+ * {@link JPPoolableListenerType#onCreate(Object, Object)}.</p>
+ *
+ * <p>Objects that are in use are tracked in a {@link ConcurrentHashMap}.
+ * Listener methods are never called while any lock is held.</p>
+ *
+ * <p>Unlike {@link JPPoolSynchronous}, this pool allocates on every
+ * {@code returnValue}: a new free entry, two queue nodes, and an identity
+ * wrapper for the map of used objects. Entries cannot be reused, because
+ * a queue may still hold a stale reference to an entry after another
+ * queue's reference to it has been claimed, and a reused entry would make
+ * such a reference live again. The allocations are small and short-lived,
+ * but programs that require a garbage-free steady state should use
+ * {@link JPPoolSynchronous} behind a lock, or {@link JPPoolConcurrent}.</p>
+ *
+ * <p>Per-key queues that are empty are removed from the map of free
+ * queues when stale nodes are swept, so the map does not grow without
+ * bound as keys are used and then abandoned.</p>
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of internal pooled values
+ * @param <U> The type of user-visible pooled values
+ * @param <C> The type of context values
+ */
+
+public final class JPPoolConcurrentLockFree<K, T extends U, U, C> implements
+  JPPoolConcurrentType<K, T, U, C>
+{
+  private static final String SEPARATOR = System.lineSeparator();
+  private static final long SWEEP_THRESHOLD = 1024L;
+
+  private final JPPoolableListenerType<K, T, C> listener;
+  private final ConcurrentHashMap<K, Queue<Entry<K, T>>> entries_free;
+  private final Queue<Entry<K, T>> entries_free_timed;
+  private final ConcurrentHashMap<Identity, Entry<K, T>> entries_used;
+  private final JPPoolSizeCounter size;
+  private final JPPoolWaiters<K> waiters;
+  private final LongAdder nodes;
+  private final LongAdder nodes_stale;
+  private final AtomicBoolean sweeping;
+  private final JPPoolTrimSchedulerType<C> trim_scheduler;
+  private final boolean trim_inline;
+  private final AtomicBoolean trim_pending;
+  private volatile boolean deleted;
+
+  private JPPoolConcurrentLockFree(
+    final JPPoolableListenerType<K, T, C> in_listener,
+    final long in_size_limit_soft,
+    final long in_size_limit_hard,
+    final JPPoolTrimSchedulerType<C> in_trim_scheduler)
+  {
+    this.listener =
+      new JPPoolCheckedListener<>(
+        Objects.requireNonNull(in_listener, "Listener"));
+    this.waiters =
+      new JPPoolWaiters<>();
+    this.size =
+      new JPPoolSizeCounter(
+        in_size_limit_soft, in_size_limit_hard, this.waiters);
+
+    this.entries_free = new ConcurrentHashMap<>(1024);
+    this.entries_free_timed = new ConcurrentLinkedQueue<>();
+    this.entries_used = new ConcurrentHashMap<>(1024);
+    this.nodes = new LongAdder();
+    this.nodes_stale = new LongAdder();
+    this.sweeping = new AtomicBoolean(false);
+    this.trim_scheduler =
+      Objects.requireNonNull(in_trim_scheduler, "Trim scheduler");
+    this.trim_inline = this.trim_scheduler.isInline();
+    this.trim_pending = new AtomicBoolean(false);
+    this.deleted = false;
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be frequently
+   * trimmed so that the size of the pool stays at (at most) {@code
+   * soft_limit}.
+   *
+   * @param listener   The listener that will manipulate objects within the
+   *                   pool
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   * @param <K>        The type of keys
+   * @param <T>        The type of values
+   * @param <U>        The type of user-visible pooled values
+   * @param <C>        The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C>
+  JPPoolConcurrentLockFree<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit)
+  {
+    return newPool(
+      listener, soft_limit, hard_limit, JPPoolTrimScheduler.inline());
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be trimmed,
+   * at times determined by {@code trim_scheduler}, so that the size of the
+   * pool stays at (at most) {@code soft_limit}.
+   *
+   * @param listener       The listener that will manipulate objects within
+   *                       the pool
+   * @param soft_limit     The soft size limit
+   * @param hard_limit     The hard size limit
+   * @param trim_scheduler The trim scheduler
+   * @param <K>            The type of keys
+   * @param <T>            The type of values
+   * @param <U>            The type of user-visible pooled values
+   * @param <C>            The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C>
+  JPPoolConcurrentLockFree<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return new JPPoolConcurrentLockFree<>(
+      listener, soft_limit, hard_limit, trim_scheduler);
+  }
+
+  @Override
+  public boolean isDeleted()
+  {
+    return this.deleted;
+  }
+
+  @Override
+  public void trim(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    this.trimAtMost(context, Long.MAX_VALUE);
+  }
+
+  @Override
+  public boolean trimBatch(
+    final C context,
+    final int max_count)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    if (this.deleted) {
+      return false;
+    }
+    return this.trimAtMost(context, max_count);
+  }
+
+  private boolean trimAtMost(
+    final C context,
+    final long max_count)
+  {
+    /*
+     * Remove the least recently used values first. The global queue holds
+     * free values in the order in which they were returned.
+     */
+
+    for (long count = 0L; count < max_count; ++count) {
+      if (!this.size.isOverSoftLimit()) {
+        this.trim_pending.set(false);
+        return false;
+      }
+
+      final Entry<K, T> e = this.evictOldest();
+      if (e == null) {
+        this.trim_pending.set(false);
+        return false;
+      }
+      this.delete(context, e);
+    }
+    final boolean more = this.size.isOverSoftLimit();
+    if (!more) {
+      this.trim_pending.set(false);
+    }
+    return more;
+  }
+
+  /*
+   * Trim the pool inline, or notify the trim scheduler that the pool
+   * requires trimming. Only the thread that sets the pending flag notifies
+   * the scheduler.
+   */
+
+  private void trimOrSchedule(
+    final C context)
+  {
+    if (this.trim_inline) {
+      this.trimAtMost(context, Long.MAX_VALUE);
+      return;
+    }
+
+    if (this.size.isOverSoftLimit()
+      && !this.trim_pending.get()
+      && this.trim_pending.compareAndSet(false, true)) {
+      this.trim_scheduler.onTrimRequired(this);
+    }
+  }
+
+  /*
+   * Reserve the given size against the hard limit. If trimming has been
+   * deferred, trim the pool first if the size would not fit.
+   */
+
+  private void reserveTrimming(
+    final C context,
+    final long reserved)
+  {
+    if (!this.trim_inline) {
+      if (this.size.tryReserve(reserved)) {
+        return;
+      }
+      this.trimAtMost(context, Long.MAX_VALUE);
+    }
+    this.size.reserve(reserved);
+  }
+
+  /*
+   * Delete an evicted entry. The size of the entry is released only after
+   * the listener has deleted the value, so the listener never observes more
+   * live values than the hard limit permits.
+   */
+
+  private void delete(
+    final C context,
+    final Entry<K, T> e)
+  {
+    this.listener.onDelete(context, e.key, e.value);
+    this.size.subtract(e.size);
+  }
+
+  private Entry<K, T> evictOldest()
+  {
+    while (true) {
+      final Entry<K, T> e = this.entries_free_timed.poll();
+      if (e == null) {
+        return null;
+      }
+
+      this.nodes.decrement();
+      if (!e.claim()) {
+        this.nodes_stale.decrement();
+        continue;
+      }
+
+      /*
+       * The entry's node in the per-key queue is now stale.
+       */
+
+      this.nodes_stale.increment();
+      return e;
+    }
+  }
+
+  private void checkNotDeleted()
+  {
+    if (this.deleted) {
+      throw new JPPoolDeletedException("Pool has been deleted.");
+    }
+  }
+
+  @Override
+  public T get(
+    final C context,
+    final K key)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+
+    this.checkNotDeleted();
+
+    /*
+     * Trim the pool down to the soft limit, if possible.
+     */
+
+    this.trimOrSchedule(context);
+
+    final T r = this.takeFree(context, key);
+    if (r != null) {
+      return r;
+    }
+
+    /*
+     * Reserve the estimated size against the hard limit.
+     */
+
+    final long e_size = this.estimateSize(context, key);
+    this.reserveTrimming(context, e_size);
+    return this.create(context, key, e_size);
+  }
+
+  @Override
+  public T get(
+    final C context,
+    final K key,
+    final Duration timeout)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+    Objects.requireNonNull(timeout, "Timeout");
+
+    this.checkNotDeleted();
+
+    /*
+     * Trim the pool down to the soft limit, if possible.
+     */
+
+    this.trimOrSchedule(context);
+
+    final T r = this.takeFree(context, key);
+    if (r != null) {
+      return r;
+    }
+
+    /*
+     * Reserve the estimated size against the hard limit, waiting for space
+     * if necessary.
+     */
+
+    final long e_size = this.estimateSize(context, key);
+    if (!this.size.tryReserve(e_size)) {
+      final T w = this.awaitSpace(context, key, e_size, timeout);
+      if (w != null) {
+        return w;
+      }
+    }
+    return this.create(context, key, e_size);
+  }
+
+  /*
+   * Wait until either a free value for the given key appears, or the given
+   * size can be reserved. Free values of other keys are deleted to make
+   * space. Returns null if the size was reserved.
+   */
+
+  private T awaitSpace(
+    final C context,
+    final K key,
+    final long reserve,
+    final Duration timeout)
+  {
+    final long start = System.nanoTime();
+    final long timeout_nanos = JPPoolWaiters.toNanos(timeout);
+
+    final JPPoolWaiters.Waiter<K> waiter = this.waiters.register(key);
+    boolean acquired = false;
+    try {
+      while (true) {
+        this.checkNotDeleted();
+        this.waiters.requeue(waiter);
+
+        final T r = this.takeFree(context, key);
+        if (r != null) {
+          acquired = true;
+          return r;
+        }
+        if (this.size.tryReserve(reserve)) {
+          acquired = true;
+          return null;
+        }
+
+        final Entry<K, T> victim = this.evictOldest();
+        if (victim != null) {
+          this.delete(context, victim);
+          continue;
+        }
+
+        final long remaining = timeout_nanos - (System.nanoTime() - start);
+        if (remaining <= 0L) {
+          throw this.size.errorHardLimit(reserve);
+        }
+
+        this.waiters.park(waiter, remaining);
+        if (Thread.currentThread().isInterrupted()) {
+          throw new JPPoolInterruptedException(
+            new InterruptedException("Interrupted whilst waiting for space."));
+        }
+      }
+    } finally {
+
+      /*
+       * A single release may have made room for more than one waiter, so a
+       * woken waiter that succeeded passes its wakeup on if there is still
+       * room. A waiter that gave up always passes it on.
+       */
+
+      this.waiters.unregister(
+        waiter, !acquired || this.size.isUnderHardLimit());
+    }
+  }
+
+  /*
+   * Check if there is a free element that matches the given key.
+   */
+
+  private T takeFree(
+    final C context,
+    final K key)
+  {
+    final Queue<Entry<K, T>> free = this.entries_free.get(key);
+    if (free == null) {
+      return null;
+    }
+
+    while (true) {
+      final Entry<K, T> r = free.poll();
+      if (r == null) {
+        return null;
+      }
+
+      this.nodes.decrement();
+      if (!r.claim()) {
+        this.nodes_stale.decrement();
+        continue;
+      }
+
+      /*
+       * The entry's node in the global queue is now stale.
+       */
+
+      this.nodes_stale.increment();
+      this.entries_used.put(new Identity(r.value), r);
+      this.listener.onReuse(context, r.key, r.value);
+      return r.value;
+    }
+  }
+
+  private long estimateSize(
+    final C context,
+    final K key)
+  {
+    try {
+      return this.listener.onEstimateSize(context, key);
+    } catch (final Throwable e) {
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  /*
+   * Create a new value, given that its estimated size has already been
+   * reserved.
+   */
+
+  private T create(
+    final C context,
+    final K key,
+    final long e_size)
+  {
+
+    final T v;
+    final long v_size;
+
+    try {
+      v = this.listener.onCreate(context, key);
+    } catch (final Throwable e) {
+      this.size.subtract(e_size);
+      throw new JPPoolObjectCreationException(e);
+    }
+
+    try {
+      v_size = this.listener.onGetSize(context, key, v);
+    } catch (final Throwable e) {
+      this.listener.onDelete(context, key, v);
+      this.size.subtract(e_size);
+      throw new JPPoolObjectCreationException(e);
+    }
+
+    /*
+     * Replace the reservation with the real size of the created object.
+     * Fail and delete it if the hard limit is exceeded.
+     */
+
+    try {
+      this.size.exchange(e_size, v_size);
+    } catch (final JPPoolInternalOverflowException
+                   | JPPoolHardLimitExceededException e) {
+      this.listener.onDelete(context, key, v);
+      throw e;
+    }
+
+    final Entry<K, T> e = new Entry<>(key, v, v_size);
+    e.claim();
+    this.entries_used.put(new Identity(v), e);
+    return v;
+  }
+
+  @Override
+  public void returnValue(
+    final C context,
+    final U value)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(value, "Value");
+
+    this.checkNotDeleted();
+
+    final Entry<K, T> e = this.entries_used.remove(new Identity(value));
+    if (e != null) {
+
+      /*
+       * A fresh, unclaimed entry is queued for every return, so that nodes
+       * left behind by earlier claims can never refer to it.
+       */
+
+      final Entry<K, T> free = new Entry<>(e.key, e.value, e.size);
+      this.nodes.add(2L);
+      this.entries_free_timed.offer(free);
+
+      /*
+       * A sweep may remove the queue for the key between looking it up and
+       * offering the entry to it, in which case the entry is offered to the
+       * queue that replaced it.
+       */
+
+      while (true) {
+        final Queue<Entry<K, T>> queue = this.freeQueue(e.key);
+        queue.offer(free);
+        if (this.entries_free.get(e.key) == queue) {
+          break;
+        }
+      }
+      this.waiters.signalKey(e.key);
+      this.trimOrSchedule(context);
+      this.sweepIfNecessary();
+      return;
+    }
+
+    final StringBuilder sb = new StringBuilder(128);
+    sb.append("Returned value not active!");
+    sb.append(SEPARATOR);
+    sb.append("Value: ");
+    sb.append(value);
+    sb.append(SEPARATOR);
+    throw new JPPoolObjectReturnException(sb.toString());
+  }
+
+  private Queue<Entry<K, T>> freeQueue(
+    final K key)
+  {
+    final Queue<Entry<K, T>> queue = this.entries_free.get(key);
+    if (queue != null) {
+      return queue;
+    }
+
+    final Queue<Entry<K, T>> created = new ConcurrentLinkedQueue<>();
+    final Queue<Entry<K, T>> existing =
+      this.entries_free.putIfAbsent(key, created);
+    return existing == null ? created : existing;
+  }
+
+  /*
+   * Stale queue nodes are discarded when they reach the head of a queue,
+   * but nodes for keys that are never requested again, or for values that
+   * are never evicted, would otherwise accumulate. When stale nodes make up
+   * more than half of all nodes, one thread sweeps them out of every queue.
+   */
+
+  private void sweepIfNecessary()
+  {
+    final long stale = this.nodes_stale.sum();
+    if (stale < SWEEP_THRESHOLD || stale * 2L < this.nodes.sum()) {
+      return;
+    }
+
+    if (!this.sweeping.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      this.sweep(this.entries_free_timed);
+      for (final Map.Entry<K, Queue<Entry<K, T>>> entry
+        : this.entries_free.entrySet()) {
+        final Queue<Entry<K, T>> queue = entry.getValue();
+        this.sweep(queue);
+        if (queue.isEmpty()) {
+          this.sweepRemove(entry.getKey(), queue);
+        }
+      }
+    } finally {
+      this.sweeping.set(false);
+    }
+  }
+
+  /*
+   * Remove an empty per-key queue. An entry may be offered to the queue
+   * after it was found to be empty; any such entries that are still free
+   * are offered to the queue that replaces it, so that they remain
+   * reachable by key. The node counts are approximate after such a race,
+   * which only affects when the next sweep happens.
+   */
+
+  private void sweepRemove(
+    final K key,
+    final Queue<Entry<K, T>> queue)
+  {
+    if (!this.entries_free.remove(key, queue)) {
+      return;
+    }
+
+    while (true) {
+      final Entry<K, T> e = queue.poll();
+      if (e == null) {
+        return;
+      }
+      if (!e.isClaimed()) {
+        this.freeQueue(key).offer(e);
+      }
+    }
+  }
+
+  private void sweep(
+    final Queue<Entry<K, T>> queue)
+  {
+    final Iterator<Entry<K, T>> iter = queue.iterator();
+    while (iter.hasNext()) {
+      final Entry<K, T> e = iter.next();
+      if (e.isClaimed()) {
+        iter.remove();
+        this.nodes.decrement();
+        this.nodes_stale.decrement();
+      }
+    }
+  }
+
+  @Override
+  public long size()
+  {
+    this.checkNotDeleted();
+    return this.size.size();
+  }
+
+  @Override
+  public void deleteSafely(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+
+    if (!this.entries_used.isEmpty()) {
+      throw this.errorNotEmpty();
+    }
+
+    this.deleteActual(context);
+  }
+
+  @Override
+  public void deleteUnsafely(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+    this.deleteActual(context);
+  }
+
+  private void deleteActual(
+    final C context)
+  {
+    try {
+      final ObjectArrayList<Entry<K, T>> xs =
+        new ObjectArrayList<>(this.entries_used.values());
+
+      for (int index = 0; index < xs.size(); ++index) {
+        final Entry<K, T> e = xs.get(index);
+        this.returnValue(context, e.value);
+      }
+
+      while (true) {
+        final Entry<K, T> e = this.entries_free_timed.poll();
+        if (e == null) {
+          break;
+        }
+        if (e.claim()) {
+          this.delete(context, e);
+        }
+      }
+
+      this.entries_free.clear();
+      this.nodes.reset();
+      this.nodes_stale.reset();
+    } finally {
+      this.deleted = true;
+    }
+  }
+
+  private JPPoolObjectsNotReturnedException errorNotEmpty()
+  {
+    final StringBuilder sb = new StringBuilder(256);
+
+    int count = 0;
+    final Iterator<Entry<K, T>> iter =
+      this.entries_used.values().iterator();
+
+    sb.append("Attempted to delete a pool with items not yet returned.");
+    sb.append(SEPARATOR);
+    sb.append("The first 10 items:");
+    sb.append(SEPARATOR);
+
+    while (iter.hasNext()) {
+      if (count == 10) {
+        break;
+      }
+      ++count;
+
+      final Entry<K, T> e = iter.next();
+      sb.append(e.value);
+      sb.append(" -> ");
+      sb.append(e.key);
+      sb.append(SEPARATOR);
+    }
+
+    return new JPPoolObjectsNotReturnedException(sb.toString());
+  }
+
+  /*
+   * A key that compares values by identity.
+   */
+
+  private static final class Identity
+  {
+    private final Object value;
+
+    Identity(
+      final Object in_value)
+    {
+      this.value = in_value;
+    }
+
+    @Override
+    public boolean equals(
+      final Object o)
+    {
+      return o instanceof Identity && ((Identity) o).value == this.value;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return System.identityHashCode(this.value);
+    }
+  }
+
+  private static final class Entry<K, T>
+  {
+    private static final VarHandle CLAIMED;
+
+    static {
+      try {
+        CLAIMED = MethodHandles.lookup()
+          .findVarHandle(Entry.class, "claimed", boolean.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final K key;
+    private final T value;
+    private final long size;
+    private volatile boolean claimed;
+
+    Entry(
+      final K in_key,
+      final T in_value,
+      final long in_size)
+    {
+      this.key = in_key;
+      this.value = in_value;
+      this.size = in_size;
+    }
+
+    boolean claim()
+    {
+      return CLAIMED.compareAndSet(this, false, true);
+    }
+
+    boolean isClaimed()
+    {
+      return this.claimed;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import java.time.Duration;
+
+/**
+ * The type of synchronous pools that may be safely accessed from multiple
+ * threads at once. Listeners used with concurrent pools must themselves be
+ * safe to call from multiple threads.
+ *
+ * <p>Implementations are safe to use from virtual threads: They never hold
+ * a monitor, they never call listener methods whilst holding any lock, and
+ * threads that wait for space in {@link #get(Object, Object, Duration)} park
+ * using {@link java.util.concurrent.locks.LockSupport}. A listener that
+ * blocks on I/O in {@code onCreate} therefore never pins a carrier thread on
+ * behalf of the pool.</p>
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of pooled values
+ * @param <U> The type of externally visible pooled values
+ * @param <C> The type of context values
+ */
+
+public interface JPPoolConcurrentType<K, T extends U, U, C> extends
+  JPPoolSynchronousType<K, T, U, C>
+{
+  /**
+   * Retrieve an object from the pool, waiting for space to become available
+   * if creating the object would exceed the hard limit. While waiting, free
+   * objects of other keys are deleted to make room, and the call returns as
+   * soon as either an object for {@code key} is returned to the pool, or
+   * enough space is released by other threads. Waiting threads are served
+   * in arrival order, with returned objects handed preferentially to threads
+   * waiting for the same key. No time is spent waiting if the object can be
+   * retrieved or created immediately.
+   *
+   * @param context A contextual value passed to the listener
+   * @param key     The key
+   * @param timeout The maximum time to wait for space
+   *
+   * @return A value from the pool
+   *
+   * @throws JPPoolHardLimitExceededException If no space became available
+   *                                          within {@code timeout}
+   * @throws JPPoolInterruptedException       If the calling thread is
+   *                                          interrupted while waiting
+   * @throws JPPoolException                  On errors
+   *
+   * @see #get(Object, Object)
+   */
+
+  U get(
+    C context,
+    K key,
+    Duration timeout)
+    throws JPPoolException;
+}
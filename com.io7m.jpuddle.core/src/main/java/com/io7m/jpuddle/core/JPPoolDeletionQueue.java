@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The default deletion queue. Objects are held in a ring buffer that grows
+ * as required, so that enqueueing does not allocate in the steady state.
+ * The listener is called outside the lock, so that a slow deletion on one
+ * thread does not block the pool's thread from enqueueing. The size and
+ * count are only reduced once the listener has returned, so that objects
+ * that are being deleted are still counted.
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of values
+ * @param <C> The type of context values
+ */
+
+final class JPPoolDeletionQueue<K, T, C> implements JPPoolDeletionQueueType<C>
+{
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final JPPoolableListenerType<K, T, C> listener;
+  private final ReentrantLock lock;
+  private final AtomicLong size;
+  private final AtomicInteger count;
+  private Object[] keys;
+  private Object[] values;
+  private long[] sizes;
+  private int head;
+  private int queued;
+
+  JPPoolDeletionQueue(
+    final JPPoolableListenerType<K, T, C> in_listener)
+  {
+    this.listener = Objects.requireNonNull(in_listener, "Listener");
+    this.lock = new ReentrantLock();
+    this.size = new AtomicLong();
+    this.count = new AtomicInteger();
+    this.keys = new Object[INITIAL_CAPACITY];
+    this.values = new Object[INITIAL_CAPACITY];
+    this.sizes = new long[INITIAL_CAPACITY];
+    this.head = 0;
+    this.queued = 0;
+  }
+
+  void enqueue(
+    final K key,
+    final T value,
+    final long value_size)
+  {
+    this.count.incrementAndGet();
+    this.size.addAndGet(value_size);
+
+    this.lock.lock();
+    try {
+      if (this.queued == this.keys.length) {
+        this.grow();
+      }
+      final int index = (this.head + this.queued) & (this.keys.length - 1);
+      this.keys[index] = key;
+      this.values[index] = value;
+      this.sizes[index] = value_size;
+      ++this.queued;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void grow()
+  {
+    final int capacity = this.keys.length;
+    final Object[] new_keys = new Object[capacity * 2];
+    final Object[] new_values = new Object[capacity * 2];
+    final long[] new_sizes = new long[capacity * 2];
+
+    for (int index = 0; index < this.queued; ++index) {
+      final int from = (this.head + index) & (capacity - 1);
+      new_keys[index] = this.keys[from];
+      new_values[index] = this.values[from];
+      new_sizes[index] = this.sizes[from];
+    }
+
+    this.keys = new_keys;
+    this.values = new_values;
+    this.sizes = new_sizes;
+    this.head = 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public int drain(
+    final C context,
+    final int max_count)
+  {
+    Objects.requireNonNull(context, "Context");
+
+    int deleted = 0;
+    while (deleted < max_count) {
+      final K key;
+      final T value;
+      final long value_size;
+
+      this.lock.lock();
+      try {
+        if (this.queued == 0) {
+          break;
+        }
+        final int index = this.head;
+        key = (K) this.keys[index];
+        value = (T) this.values[index];
+        value_size = this.sizes[index];
+        this.keys[index] = null;
+        this.values[index] = null;
+        this.head = (index + 1) & (this.keys.length - 1);
+        --this.queued;
+      } finally {
+        this.lock.unlock();
+      }
+
+      try {
+        this.listener.onDelete(context, key, value);
+      } finally {
+        this.size.addAndGet(-value_size);
+        this.count.decrementAndGet();
+      }
+      ++deleted;
+    }
+    return deleted;
+  }
+
+  @Override
+  public int count()
+  {
+    return this.count.get();
+  }
+
+  @Override
+  public long size()
+  {
+    return this.size.get();
+  }
+}
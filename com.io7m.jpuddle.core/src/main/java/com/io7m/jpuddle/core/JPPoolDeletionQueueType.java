@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * A queue of objects that have been evicted from a pool but not yet
+ * deleted. Draining the queue calls the pool listener's {@code onDelete}
+ * method for each object. Queues are thread-safe: a queue may be drained
+ * by the thread that owns the pool, at a time of its choosing, or by a
+ * worker thread such as a periodic task, while the pool is in use. The
+ * listener's {@code onDelete} method must therefore tolerate being called
+ * from the draining thread.
+ *
+ * @param <C> The type of context values
+ */
+
+public interface JPPoolDeletionQueueType<C>
+{
+  /**
+   * Delete at most {@code max_count} queued objects, oldest first.
+   *
+   * @param context   A context value passed to the listener
+   * @param max_count The maximum number of objects to delete
+   *
+   * @return The number of objects deleted
+   */
+
+  int drain(
+    C context,
+    int max_count);
+
+  /**
+   * Delete all queued objects.
+   *
+   * @param context A context value passed to the listener
+   *
+   * @return The number of objects deleted
+   */
+
+  default int drainAll(
+    final C context)
+  {
+    return this.drain(context, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return The number of objects that are queued or being deleted
+   */
+
+  int count();
+
+  /**
+   * @return The total size of the objects that are queued or being deleted
+   */
+
+  long size();
+}
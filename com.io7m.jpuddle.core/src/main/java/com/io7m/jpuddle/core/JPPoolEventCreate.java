@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Unsigned;
+
+/**
+ * An object was created, and added to a pool, to satisfy a request. The
+ * duration of the event covers the listener's {@code onCreate} and
+ * {@code onGetSize} methods, and the checks against the hard limits.
+ */
+
+@Name("jpuddle.Create")
+@Label("Pool Object Created")
+@Category("jpuddle")
+@Description("An object was created to satisfy a request")
+@Enabled(false)
+@StackTrace(false)
+final class JPPoolEventCreate extends Event
+{
+  @Label("Key")
+  String key;
+
+  @Label("Size")
+  @Unsigned
+  long size;
+
+  @Label("Pool Size")
+  @Description("The size of the pool after the object was added")
+  @Unsigned
+  long poolSize;
+
+  JPPoolEventCreate()
+  {
+
+  }
+}
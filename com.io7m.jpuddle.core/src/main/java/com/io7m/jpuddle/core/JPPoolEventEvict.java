@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Unsigned;
+
+/**
+ * A free object was evicted from a pool. The duration of the event covers
+ * the listener's {@code onDelete} method, or the placing of the object on
+ * a deletion queue if deletion is deferred.
+ */
+
+@Name("jpuddle.Evict")
+@Label("Pool Object Evicted")
+@Category("jpuddle")
+@Description("A free object was evicted from a pool")
+@Enabled(false)
+@StackTrace(false)
+final class JPPoolEventEvict extends Event
+{
+  @Label("Key")
+  String key;
+
+  @Label("Size")
+  @Unsigned
+  long size;
+
+  @Label("Pool Size")
+  @Description("The size of the pool after the object was evicted")
+  @Unsigned
+  long poolSize;
+
+  @Label("Deferred")
+  @Description("True if the object was placed on a deletion queue")
+  boolean deferred;
+
+  JPPoolEventEvict()
+  {
+
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Unsigned;
+
+/**
+ * A request failed because a hard limit would have been exceeded.
+ */
+
+@Name("jpuddle.HardLimitExceeded")
+@Label("Pool Hard Limit Exceeded")
+@Category("jpuddle")
+@Description("A request failed because a hard limit would be exceeded")
+@Enabled(false)
+final class JPPoolEventHardLimitExceeded extends Event
+{
+  @Label("Key")
+  @Description("The requested key, or null for a batch request")
+  String key;
+
+  @Label("Quota Class")
+  @Description("The quota class, or null if the pool's own limit was hit")
+  String quotaClass;
+
+  @Label("Limit")
+  @Unsigned
+  long limit;
+
+  @Label("Size")
+  @Description("The size that would have resulted from the request")
+  @Unsigned
+  long size;
+
+  @Label("Pool Size")
+  @Unsigned
+  long poolSize;
+
+  JPPoolEventHardLimitExceeded()
+  {
+
+  }
+}
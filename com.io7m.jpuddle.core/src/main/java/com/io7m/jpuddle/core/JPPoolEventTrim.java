@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Unsigned;
+
+/**
+ * A pool was trimmed. Only trims that evicted at least one object are
+ * recorded.
+ */
+
+@Name("jpuddle.Trim")
+@Label("Pool Trimmed")
+@Category("jpuddle")
+@Description("Free objects were evicted to bring a pool within its limits")
+@Enabled(false)
+@StackTrace(false)
+final class JPPoolEventTrim extends Event
+{
+  @Label("Evicted")
+  @Description("The number of objects evicted")
+  long evicted;
+
+  @Label("Size Evicted")
+  @Unsigned
+  long sizeEvicted;
+
+  @Label("Pool Size")
+  @Description("The size of the pool after trimming")
+  @Unsigned
+  long poolSize;
+
+  JPPoolEventTrim()
+  {
+
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import com.io7m.junreachable.UnimplementedCodeException;
+
+/**
+ * Functions to emit JDK Flight Recorder events. Every event type is
+ * disabled by default, and must be enabled in the recording settings (for
+ * example, {@code jpuddle.Create#enabled=true}). When an event type is
+ * disabled, emitting an event costs a single check of a flag that the JIT
+ * compiler can fold away, and nothing is allocated; event objects are only
+ * created, and keys only converted to strings, for enabled types.
+ */
+
+final class JPPoolEvents
+{
+  private static final JPPoolEventCreate CREATE =
+    new JPPoolEventCreate();
+  private static final JPPoolEventEvict EVICT =
+    new JPPoolEventEvict();
+  private static final JPPoolEventHardLimitExceeded HARD_LIMIT =
+    new JPPoolEventHardLimitExceeded();
+  private static final JPPoolEventTrim TRIM =
+    new JPPoolEventTrim();
+
+  private JPPoolEvents()
+  {
+    throw new UnimplementedCodeException();
+  }
+
+  static JPPoolEventCreate createBegin()
+  {
+    if (CREATE.isEnabled()) {
+      final JPPoolEventCreate event = new JPPoolEventCreate();
+      event.begin();
+      return event;
+    }
+    return null;
+  }
+
+  static void createEnd(
+    final JPPoolEventCreate event,
+    final Object key,
+    final long size,
+    final long pool_size)
+  {
+    if (event != null) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.key = String.valueOf(key);
+        event.size = size;
+        event.poolSize = pool_size;
+        event.commit();
+      }
+    }
+  }
+
+  static JPPoolEventEvict evictBegin()
+  {
+    if (EVICT.isEnabled()) {
+      final JPPoolEventEvict event = new JPPoolEventEvict();
+      event.begin();
+      return event;
+    }
+    return null;
+  }
+
+  static void evictEnd(
+    final JPPoolEventEvict event,
+    final Object key,
+    final long size,
+    final long pool_size,
+    final boolean deferred)
+  {
+    if (event != null) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.key = String.valueOf(key);
+        event.size = size;
+        event.poolSize = pool_size;
+        event.deferred = deferred;
+        event.commit();
+      }
+    }
+  }
+
+  static void hardLimitExceeded(
+    final Object key,
+    final Object quota_class,
+    final long limit,
+    final long size,
+    final long pool_size)
+  {
+    if (HARD_LIMIT.isEnabled()) {
+      final JPPoolEventHardLimitExceeded event =
+        new JPPoolEventHardLimitExceeded();
+      if (event.shouldCommit()) {
+        event.key = key == null ? null : String.valueOf(key);
+        event.quotaClass =
+          quota_class == null ? null : String.valueOf(quota_class);
+        event.limit = limit;
+        event.size = size;
+        event.poolSize = pool_size;
+        event.commit();
+      }
+    }
+  }
+
+  static JPPoolEventTrim trimBegin()
+  {
+    if (TRIM.isEnabled()) {
+      final JPPoolEventTrim event = new JPPoolEventTrim();
+      event.begin();
+      return event;
+    }
+    return null;
+  }
+
+  static void trimEnd(
+    final JPPoolEventTrim event,
+    final long evicted,
+    final long size_evicted,
+    final long pool_size)
+  {
+    if (event != null && evicted > 0L) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.evicted = evicted;
+        event.sizeEvicted = size_evicted;
+        event.poolSize = pool_size;
+        event.commit();
+      }
+    }
+  }
+}
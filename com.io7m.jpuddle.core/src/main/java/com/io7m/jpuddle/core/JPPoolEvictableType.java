@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * An object within a pool, as seen by an eviction policy.
+ *
+ * @param <K> The type of keys
+ *
+ * @see JPPoolEvictionPolicyType
+ */
+
+public interface JPPoolEvictableType<K>
+{
+  /**
+   * @return The key used to create the object
+   */
+
+  K key();
+
+  /**
+   * @return The size of the object, as reported by the pool's listener
+   */
+
+  long size();
+
+  /**
+   * @return The value most recently given to {@link #setPolicyData(Object)},
+   * or {@code null} if no value has been given
+   */
+
+  Object policyData();
+
+  /**
+   * Attach a value to the object for the exclusive use of the pool's
+   * eviction policy. Pools may reuse the internal structures that represent
+   * objects, so a policy may find its own value already attached when it is
+   * told that an object has been created, and should reset and reuse it.
+   *
+   * @param data The value
+   */
+
+  void setPolicyData(Object data);
+}
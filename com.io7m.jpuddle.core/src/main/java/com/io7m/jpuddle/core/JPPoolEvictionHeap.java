@@ -0,0 +1,225 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of free objects, ordered by priority and then by the
+ * order in which the objects became free. Each node records its own
+ * position in the heap, so that arbitrary nodes can be removed in
+ * logarithmic time.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolEvictionHeap<K>
+{
+  private Node<K>[] nodes;
+  private int size;
+  private long sequence;
+
+  @SuppressWarnings("unchecked")
+  JPPoolEvictionHeap()
+  {
+    this.nodes = (Node<K>[]) new Node<?>[64];
+    this.size = 0;
+    this.sequence = 0L;
+  }
+
+  private static <K> boolean less(
+    final Node<K> a,
+    final Node<K> b)
+  {
+    final int c = Double.compare(a.priority, b.priority);
+    if (c != 0) {
+      return c < 0;
+    }
+    return a.sequence < b.sequence;
+  }
+
+  /**
+   * Obtain the node for the given object, creating or resetting it.
+   *
+   * @param e   The object
+   * @param <K> The type of keys
+   *
+   * @return The node
+   */
+
+  @SuppressWarnings("unchecked")
+  static <K> Node<K> nodeReset(
+    final JPPoolEvictableType<K> e)
+  {
+    Node<K> n = (Node<K>) e.policyData();
+    if (n == null) {
+      n = new Node<>(e);
+      e.setPolicyData(n);
+    }
+    n.priority = 0.0;
+    n.frequency = 1L;
+    n.index = -1;
+    return n;
+  }
+
+  /**
+   * @param e   The object
+   * @param <K> The type of keys
+   *
+   * @return The node for the given object
+   */
+
+  @SuppressWarnings("unchecked")
+  static <K> Node<K> node(
+    final JPPoolEvictableType<K> e)
+  {
+    return (Node<K>) e.policyData();
+  }
+
+  /**
+   * Add a node to the heap.
+   *
+   * @param n The node
+   */
+
+  void add(
+    final Node<K> n)
+  {
+    Preconditions.checkPreconditionI(
+      n.index,
+      n.index == -1,
+      i -> "Node must not be in the heap");
+
+    if (this.size == this.nodes.length) {
+      this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+    }
+
+    n.sequence = this.sequence++;
+    n.index = this.size;
+    this.nodes[this.size] = n;
+    ++this.size;
+    this.siftUp(n.index);
+  }
+
+  /**
+   * Remove a node from the heap, if it is present.
+   *
+   * @param n The node
+   */
+
+  void remove(
+    final Node<K> n)
+  {
+    final int index = n.index;
+    if (index == -1) {
+      return;
+    }
+
+    --this.size;
+    final Node<K> last = this.nodes[this.size];
+    this.nodes[this.size] = null;
+    n.index = -1;
+
+    if (last != n) {
+      this.nodes[index] = last;
+      last.index = index;
+      this.siftDown(index);
+      this.siftUp(last.index);
+    }
+  }
+
+  /**
+   * @return The node with the lowest priority, or {@code null}
+   */
+
+  Node<K> peek()
+  {
+    return this.size == 0 ? null : this.nodes[0];
+  }
+
+  private void siftUp(
+    final int start)
+  {
+    int index = start;
+    final Node<K> n = this.nodes[index];
+    while (index > 0) {
+      final int parent = (index - 1) >>> 1;
+      final Node<K> p = this.nodes[parent];
+      if (!less(n, p)) {
+        break;
+      }
+      this.nodes[index] = p;
+      p.index = index;
+      index = parent;
+    }
+    this.nodes[index] = n;
+    n.index = index;
+  }
+
+  private void siftDown(
+    final int start)
+  {
+    int index = start;
+    final Node<K> n = this.nodes[index];
+    final int half = this.size >>> 1;
+    while (index < half) {
+      int child = (index << 1) + 1;
+      final int right = child + 1;
+      if (right < this.size && less(this.nodes[right], this.nodes[child])) {
+        child = right;
+      }
+      final Node<K> c = this.nodes[child];
+      if (!less(c, n)) {
+        break;
+      }
+      this.nodes[index] = c;
+      c.index = index;
+      index = child;
+    }
+    this.nodes[index] = n;
+    n.index = index;
+  }
+
+  /**
+   * The policy state of a single object.
+   *
+   * @param <K> The type of keys
+   */
+
+  static final class Node<K>
+  {
+    private final JPPoolEvictableType<K> entry;
+    private int index;
+    private long sequence;
+    double priority;
+    long frequency;
+
+    Node(
+      final JPPoolEvictableType<K> in_entry)
+    {
+      this.entry = in_entry;
+      this.index = -1;
+    }
+
+    JPPoolEvictableType<K> entry()
+    {
+      return this.entry;
+    }
+  }
+}
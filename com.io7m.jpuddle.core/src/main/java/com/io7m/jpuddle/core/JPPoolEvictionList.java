@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * A doubly linked list of free objects, in the order in which they became
+ * free. Each node records the list that holds it, so that nodes can be
+ * removed in constant time without knowing which list holds them.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolEvictionList<K>
+{
+  private Node<K> oldest;
+  private Node<K> newest;
+  private int size;
+
+  JPPoolEvictionList()
+  {
+    this.size = 0;
+  }
+
+  /**
+   * Obtain the node for the given object, creating or resetting it.
+   *
+   * @param e   The object
+   * @param <K> The type of keys
+   *
+   * @return The node
+   */
+
+  @SuppressWarnings("unchecked")
+  static <K> Node<K> nodeReset(
+    final JPPoolEvictableType<K> e)
+  {
+    Node<K> n = (Node<K>) e.policyData();
+    if (n == null) {
+      n = new Node<>(e);
+      e.setPolicyData(n);
+    }
+    n.list = null;
+    n.older = null;
+    n.newer = null;
+    n.frequent = false;
+    return n;
+  }
+
+  /**
+   * @param e   The object
+   * @param <K> The type of keys
+   *
+   * @return The node for the given object
+   */
+
+  @SuppressWarnings("unchecked")
+  static <K> Node<K> node(
+    final JPPoolEvictableType<K> e)
+  {
+    return (Node<K>) e.policyData();
+  }
+
+  /**
+   * Remove a node from whichever list holds it, if any.
+   *
+   * @param n   The node
+   * @param <K> The type of keys
+   */
+
+  static <K> void unlink(
+    final Node<K> n)
+  {
+    final JPPoolEvictionList<K> list = n.list;
+    if (list == null) {
+      return;
+    }
+
+    final Node<K> older = n.older;
+    final Node<K> newer = n.newer;
+    if (older == null) {
+      list.oldest = newer;
+    } else {
+      older.newer = newer;
+    }
+    if (newer == null) {
+      list.newest = older;
+    } else {
+      newer.older = older;
+    }
+
+    n.older = null;
+    n.newer = null;
+    n.list = null;
+    --list.size;
+  }
+
+  /**
+   * Append a node at the newest end of the list.
+   *
+   * @param n The node
+   */
+
+  void link(
+    final Node<K> n)
+  {
+    unlink(n);
+
+    final Node<K> last = this.newest;
+    n.older = last;
+    n.newer = null;
+    if (last == null) {
+      this.oldest = n;
+    } else {
+      last.newer = n;
+    }
+    this.newest = n;
+    n.list = this;
+    ++this.size;
+  }
+
+  /**
+   * @return The oldest node, or {@code null} if the list is empty
+   */
+
+  Node<K> oldest()
+  {
+    return this.oldest;
+  }
+
+  /**
+   * @return The number of nodes in the list
+   */
+
+  int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * The policy state of a single object.
+   *
+   * @param <K> The type of keys
+   */
+
+  static final class Node<K>
+  {
+    private final JPPoolEvictableType<K> entry;
+    private JPPoolEvictionList<K> list;
+    private Node<K> older;
+    private Node<K> newer;
+    boolean frequent;
+
+    Node(
+      final JPPoolEvictableType<K> in_entry)
+    {
+      this.entry = in_entry;
+    }
+
+    JPPoolEvictableType<K> entry()
+    {
+      return this.entry;
+    }
+
+    JPPoolEvictionList<K> list()
+    {
+      return this.list;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import com.io7m.jranges.RangeCheck;
+import com.io7m.jranges.RangeInclusiveI;
+import com.io7m.junreachable.UnimplementedCodeException;
+
+/**
+ * The standard eviction policies. Each call returns a new policy, and a
+ * policy must not be shared between pools.
+ */
+
+public final class JPPoolEvictionPolicies
+{
+  private static final RangeInclusiveI GHOST_RANGE =
+    RangeInclusiveI.of(1, Integer.MAX_VALUE);
+
+  private JPPoolEvictionPolicies()
+  {
+    throw new UnimplementedCodeException();
+  }
+
+  /**
+   * A least recently used policy. This is the policy that pools use when
+   * no policy is specified; pools use a specialized implementation in that
+   * case.
+   *
+   * @param <K> The type of keys
+   *
+   * @return A new policy
+   */
+
+  public static <K> JPPoolEvictionPolicyType<K> lru()
+  {
+    return new JPPoolEvictionPolicyLRU<>();
+  }
+
+  /**
+   * A least frequently used policy. The free object that has been borrowed
+   * the fewest times is evicted first, with ties broken in least recently
+   * used order.
+   *
+   * @param <K> The type of keys
+   *
+   * @return A new policy
+   */
+
+  public static <K> JPPoolEvictionPolicyType<K> lfu()
+  {
+    return new JPPoolEvictionPolicyLFU<>();
+  }
+
+  /**
+   * An adaptive replacement (ARC) policy, which balances recency against
+   * frequency and resists being flushed by scans over many keys.
+   *
+   * @param ghost_capacity The number of keys of evicted objects that are
+   *                       remembered in each ghost list; typically the
+   *                       number of objects that fit under the soft limit
+   * @param <K>            The type of keys
+   *
+   * @return A new policy
+   */
+
+  public static <K> JPPoolEvictionPolicyType<K> arc(
+    final int ghost_capacity)
+  {
+    return new JPPoolEvictionPolicyARC<>(
+      RangeCheck.checkIncludedInInteger(
+        ghost_capacity,
+        "Ghost capacity",
+        GHOST_RANGE,
+        "Valid ghost capacities"));
+  }
+
+  /**
+   * A GreedyDual-Size-Frequency policy, which prefers to evict large and
+   * rarely used objects.
+   *
+   * @param <K> The type of keys
+   *
+   * @return A new policy
+   */
+
+  public static <K> JPPoolEvictionPolicyType<K> gdsf()
+  {
+    return new JPPoolEvictionPolicyGDSF<>();
+  }
+}
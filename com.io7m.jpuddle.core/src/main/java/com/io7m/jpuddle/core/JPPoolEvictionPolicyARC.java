@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+
+/**
+ * An adaptive replacement (ARC) policy.
+ *
+ * <p>Free objects that have only been borrowed once are held in a
+ * <i>recent</i> list, and free objects that have been borrowed more than
+ * once are held in a <i>frequent</i> list. The keys of evicted objects are
+ * remembered, up to a fixed capacity, in a ghost list corresponding to the
+ * list from which they were evicted. A miss on a key in the recent ghost
+ * list indicates that the recent list is too small, and raises the target
+ * size of the recent list; a miss on a key in the frequent ghost list
+ * lowers it. Objects created after a miss on a ghost key are treated as
+ * frequent. Victims are taken from the recent list while it exceeds its
+ * target size, and from the frequent list otherwise, so that a single scan
+ * over many keys cannot flush the frequently used objects from the
+ * pool.</p>
+ *
+ * <p>As the pool's limits are expressed in sizes rather than object counts,
+ * the ghost capacity and the target size of the recent list are counted in
+ * objects, independently of the soft limit.</p>
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolEvictionPolicyARC<K> implements JPPoolEvictionPolicyType<K>
+{
+  private final int capacity;
+  private final JPPoolEvictionList<K> recent;
+  private final JPPoolEvictionList<K> frequent;
+  private final ObjectLinkedOpenHashSet<K> ghosts_recent;
+  private final ObjectLinkedOpenHashSet<K> ghosts_frequent;
+  private int target;
+
+  JPPoolEvictionPolicyARC(
+    final int in_capacity)
+  {
+    this.capacity = in_capacity;
+    this.recent = new JPPoolEvictionList<>();
+    this.frequent = new JPPoolEvictionList<>();
+    this.ghosts_recent = new ObjectLinkedOpenHashSet<>();
+    this.ghosts_frequent = new ObjectLinkedOpenHashSet<>();
+    this.target = 0;
+  }
+
+  private void addGhost(
+    final ObjectLinkedOpenHashSet<K> ghosts,
+    final ObjectLinkedOpenHashSet<K> other,
+    final K key)
+  {
+    other.remove(key);
+    ghosts.addAndMoveToLast(key);
+    if (ghosts.size() > this.capacity) {
+      ghosts.removeFirst();
+    }
+  }
+
+  @Override
+  public void onCreate(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionList.Node<K> n = JPPoolEvictionList.nodeReset(e);
+    final K key = e.key();
+
+    if (this.ghosts_recent.remove(key)) {
+      final int b1 = this.ghosts_recent.size() + 1;
+      final int b2 = this.ghosts_frequent.size();
+      final int delta = Math.max(1, b2 / b1);
+      this.target = (int) Math.min(this.capacity, (long) this.target + delta);
+      n.frequent = true;
+      return;
+    }
+
+    if (this.ghosts_frequent.remove(key)) {
+      final int b1 = this.ghosts_recent.size();
+      final int b2 = this.ghosts_frequent.size() + 1;
+      final int delta = Math.max(1, b1 / b2);
+      this.target = Math.max(0, this.target - delta);
+      n.frequent = true;
+    }
+  }
+
+  @Override
+  public void onReuse(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionList.Node<K> n = JPPoolEvictionList.node(e);
+    JPPoolEvictionList.unlink(n);
+    n.frequent = true;
+  }
+
+  @Override
+  public void onReturn(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionList.Node<K> n = JPPoolEvictionList.node(e);
+    if (n.frequent) {
+      this.frequent.link(n);
+    } else {
+      this.recent.link(n);
+    }
+  }
+
+  @Override
+  public void onDelete(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionList.Node<K> n = JPPoolEvictionList.node(e);
+    final JPPoolEvictionList<K> list = n.list();
+    JPPoolEvictionList.unlink(n);
+
+    if (list == this.recent) {
+      this.addGhost(this.ghosts_recent, this.ghosts_frequent, e.key());
+    } else {
+      this.addGhost(this.ghosts_frequent, this.ghosts_recent, e.key());
+    }
+  }
+
+  @Override
+  public JPPoolEvictableType<K> victim()
+  {
+    final int t1 = this.recent.size();
+    final JPPoolEvictionList.Node<K> n;
+    if (t1 > 0 && (t1 > this.target || this.frequent.size() == 0)) {
+      n = this.recent.oldest();
+    } else {
+      n = this.frequent.oldest();
+    }
+    return n == null ? null : n.entry();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * A GreedyDual-Size-Frequency policy. Each free object is given the
+ * priority {@code L + F / S}, where {@code F} is the number of times that
+ * the object has been borrowed, {@code S} is its size, and {@code L} is an
+ * inflation value that is raised to the priority of each deleted object.
+ * The free object with the lowest priority is evicted first. Large objects
+ * and rarely used objects are therefore evicted in preference to small,
+ * frequently used objects, and the inflation value ages objects that have
+ * not been used recently.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolEvictionPolicyGDSF<K> implements JPPoolEvictionPolicyType<K>
+{
+  private final JPPoolEvictionHeap<K> free;
+  private double inflation;
+
+  JPPoolEvictionPolicyGDSF()
+  {
+    this.free = new JPPoolEvictionHeap<>();
+    this.inflation = 0.0;
+  }
+
+  @Override
+  public void onCreate(
+    final JPPoolEvictableType<K> e)
+  {
+    JPPoolEvictionHeap.nodeReset(e);
+  }
+
+  @Override
+  public void onReuse(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionHeap.Node<K> n = JPPoolEvictionHeap.node(e);
+    this.free.remove(n);
+    ++n.frequency;
+  }
+
+  @Override
+  public void onReturn(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionHeap.Node<K> n = JPPoolEvictionHeap.node(e);
+
+    /*
+     * Sizes are unsigned. Objects of size zero are treated as having size
+     * one so that they do not acquire an infinite priority.
+     */
+
+    final long size = e.size();
+    final double s;
+    if (size == 0L) {
+      s = 1.0;
+    } else if (size < 0L) {
+      s = 0x1.0p64 + (double) size;
+    } else {
+      s = (double) size;
+    }
+
+    n.priority = this.inflation + (double) n.frequency / s;
+    this.free.add(n);
+  }
+
+  @Override
+  public void onDelete(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionHeap.Node<K> n = JPPoolEvictionHeap.node(e);
+    this.free.remove(n);
+    this.inflation = Math.max(this.inflation, n.priority);
+  }
+
+  @Override
+  public JPPoolEvictableType<K> victim()
+  {
+    final JPPoolEvictionHeap.Node<K> n = this.free.peek();
+    return n == null ? null : n.entry();
+  }
+}
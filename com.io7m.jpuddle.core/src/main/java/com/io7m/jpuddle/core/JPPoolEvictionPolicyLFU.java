@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * A least frequently used policy: The free object that has been borrowed
+ * the fewest times is evicted first, with ties broken in least recently
+ * used order. Frequencies are never aged, so objects that were once heavily
+ * used remain in the pool in preference to newer objects.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolEvictionPolicyLFU<K> implements JPPoolEvictionPolicyType<K>
+{
+  private final JPPoolEvictionHeap<K> free;
+
+  JPPoolEvictionPolicyLFU()
+  {
+    this.free = new JPPoolEvictionHeap<>();
+  }
+
+  @Override
+  public void onCreate(
+    final JPPoolEvictableType<K> e)
+  {
+    JPPoolEvictionHeap.nodeReset(e);
+  }
+
+  @Override
+  public void onReuse(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionHeap.Node<K> n = JPPoolEvictionHeap.node(e);
+    this.free.remove(n);
+    ++n.frequency;
+  }
+
+  @Override
+  public void onReturn(
+    final JPPoolEvictableType<K> e)
+  {
+    final JPPoolEvictionHeap.Node<K> n = JPPoolEvictionHeap.node(e);
+    n.priority = (double) n.frequency;
+    this.free.add(n);
+  }
+
+  @Override
+  public void onDelete(
+    final JPPoolEvictableType<K> e)
+  {
+    this.free.remove(JPPoolEvictionHeap.node(e));
+  }
+
+  @Override
+  public JPPoolEvictableType<K> victim()
+  {
+    final JPPoolEvictionHeap.Node<K> n = this.free.peek();
+    return n == null ? null : n.entry();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * A least recently used policy: The object that has been free for the
+ * longest time is evicted first.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolEvictionPolicyLRU<K> implements JPPoolEvictionPolicyType<K>
+{
+  private final JPPoolEvictionList<K> free;
+
+  JPPoolEvictionPolicyLRU()
+  {
+    this.free = new JPPoolEvictionList<>();
+  }
+
+  @Override
+  public void onCreate(
+    final JPPoolEvictableType<K> e)
+  {
+    JPPoolEvictionList.nodeReset(e);
+  }
+
+  @Override
+  public void onReuse(
+    final JPPoolEvictableType<K> e)
+  {
+    JPPoolEvictionList.unlink(JPPoolEvictionList.node(e));
+  }
+
+  @Override
+  public void onReturn(
+    final JPPoolEvictableType<K> e)
+  {
+    this.free.link(JPPoolEvictionList.node(e));
+  }
+
+  @Override
+  public void onDelete(
+    final JPPoolEvictableType<K> e)
+  {
+    JPPoolEvictionList.unlink(JPPoolEvictionList.node(e));
+  }
+
+  @Override
+  public JPPoolEvictableType<K> victim()
+  {
+    final JPPoolEvictionList.Node<K> n = this.free.oldest();
+    return n == null ? null : n.entry();
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * A policy that chooses which free objects a pool deletes when the pool
+ * exceeds its soft limit.
+ *
+ * <p>A policy tracks the set of free objects, which are the only objects
+ * that may be evicted, by observing the life of each object: An object is
+ * created and then borrowed, returned (and so becomes free), possibly
+ * borrowed again and returned again any number of times, and is finally
+ * deleted while free. The pool asks the policy for a victim each time it
+ * must delete an object to return to its soft limit. Objects deleted for
+ * other reasons, such as having been idle for too long, are reported to the
+ * policy in the same way as victims.</p>
+ *
+ * <p>A policy instance belongs to exactly one pool, and is only called by
+ * that pool while the pool is being modified. Policies must not call the
+ * pool.</p>
+ *
+ * @param <K> The type of keys
+ *
+ * @see JPPoolEvictionPolicies
+ */
+
+public interface JPPoolEvictionPolicyType<K>
+{
+  /**
+   * An object was created because no free object existed for its key. The
+   * object is in use.
+   *
+   * @param e The object
+   */
+
+  void onCreate(JPPoolEvictableType<K> e);
+
+  /**
+   * A free object was borrowed. The object is no longer free.
+   *
+   * @param e The object
+   */
+
+  void onReuse(JPPoolEvictableType<K> e);
+
+  /**
+   * An object was returned to the pool. The object is now free.
+   *
+   * @param e The object
+   */
+
+  void onReturn(JPPoolEvictableType<K> e);
+
+  /**
+   * A free object was deleted. The object no longer exists.
+   *
+   * @param e The object
+   */
+
+  void onDelete(JPPoolEvictableType<K> e);
+
+  /**
+   * Choose the free object that should be deleted next. The object is not
+   * deleted until {@link #onDelete(JPPoolEvictableType)} is called.
+   *
+   * @return A free object, or {@code null} if there are no free objects
+   */
+
+  JPPoolEvictableType<K> victim();
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.util.Comparator;
+
+/**
+ * A compatibility relation over keys, allowing a pool to satisfy a request
+ * for one key with a free object that was created for another key. For
+ * example, a pool of buffers keyed by size might allow a request for a
+ * 1000-byte buffer to be satisfied by a free 1024-byte buffer.
+ *
+ * <p>Keys are ordered by {@link #compare(Object, Object)}, which must be
+ * consistent with {@link Object#equals(Object)}. A free object with key
+ * {@code a} may only be used for a request for key {@code r} if {@code a}
+ * is ordered after {@code r} and {@link #isCompatible(Object, Object)}
+ * holds. The relation must be monotonic: if {@code a} is not compatible
+ * with {@code r}, then no key ordered after {@code a} is compatible with
+ * {@code r}. This allows the pool to find the smallest compatible free
+ * object without examining any other free objects.</p>
+ *
+ * @param <K> The type of keys
+ */
+
+public interface JPPoolKeyCompatibilityType<K> extends Comparator<K>
+{
+  /**
+   * Determine whether a free object created for key {@code available} can
+   * be used to satisfy a request for key {@code requested}. The pool only
+   * calls this method when {@code available} is ordered after {@code
+   * requested}.
+   *
+   * @param requested The requested key
+   * @param available The key of the free object
+   *
+   * @return {@code true} if the free object can be used
+   */
+
+  boolean isCompatible(
+    K requested,
+    K available);
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import it.unimi.dsi.fastutil.objects.Object2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A space-saving sketch of per-key statistics. The tracked keys are held in
+ * a binary min-heap ordered by activity, so that the least active key is
+ * found in constant time and an update costs at most a logarithmic number
+ * of swaps. All slots are allocated up front, and the index is sized so
+ * that it never grows, so updates do not allocate.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolKeySketch<K>
+{
+  private static final Comparator<JPPoolKeyStatisticsType<?>> BY_ACTIVITY =
+    Comparator.comparingLong(JPPoolKeyStatisticsType<?>::activity)
+      .reversed();
+
+  private final Object2ReferenceOpenHashMap<K, Slot<K>> index;
+  private final Slot<K>[] heap;
+  private int count;
+
+  @SuppressWarnings("unchecked")
+  JPPoolKeySketch(
+    final int capacity)
+  {
+    this.index = new Object2ReferenceOpenHashMap<>(capacity);
+    this.heap = (Slot<K>[]) new Slot<?>[capacity];
+    for (int position = 0; position < capacity; ++position) {
+      this.heap[position] = new Slot<>(position);
+    }
+    this.count = 0;
+  }
+
+  void onHit(
+    final K key)
+  {
+    final Slot<K> slot = this.touch(key);
+    ++slot.hits;
+    slot.borrow();
+  }
+
+  void onMiss(
+    final K key)
+  {
+    ++this.touch(key).misses;
+  }
+
+  void onCreate(
+    final K key,
+    final long size)
+  {
+    final Slot<K> slot = this.index.get(key);
+    if (slot != null) {
+      slot.size_created += size;
+      slot.borrow();
+    }
+  }
+
+  void onReturn(
+    final K key)
+  {
+    final Slot<K> slot = this.index.get(key);
+    if (slot != null && slot.borrowed > 0L) {
+      --slot.borrowed;
+    }
+  }
+
+  void onEvict(
+    final K key)
+  {
+    ++this.touch(key).evictions;
+  }
+
+  List<JPPoolKeyStatisticsType<K>> report()
+  {
+    final ObjectArrayList<JPPoolKeyStatisticsType<K>> results =
+      new ObjectArrayList<>(this.count);
+    for (int position = 0; position < this.count; ++position) {
+      results.add(this.heap[position].snapshot());
+    }
+    results.sort(BY_ACTIVITY);
+    return results;
+  }
+
+  /*
+   * Record activity for a key, admitting it to the sketch if necessary by
+   * replacing the least active key.
+   */
+
+  private Slot<K> touch(
+    final K key)
+  {
+    Slot<K> slot = this.index.get(key);
+    if (slot == null) {
+      if (this.count < this.heap.length) {
+        slot = this.heap[this.count];
+        ++this.count;
+        slot.reset(key, 0L);
+      } else {
+        slot = this.heap[0];
+        this.index.remove(slot.key);
+        slot.reset(key, slot.activity);
+      }
+      this.index.put(key, slot);
+    }
+
+    ++slot.activity;
+    this.siftDown(slot.position);
+    return slot;
+  }
+
+  private void siftDown(
+    final int start)
+  {
+    int position = start;
+    final Slot<K> slot = this.heap[position];
+
+    while (true) {
+      final int left = (position << 1) + 1;
+      if (left >= this.count) {
+        break;
+      }
+
+      int smallest = left;
+      final int right = left + 1;
+      if (right < this.count
+        && this.heap[right].activity < this.heap[left].activity) {
+        smallest = right;
+      }
+
+      final Slot<K> child = this.heap[smallest];
+      if (child.activity >= slot.activity) {
+        break;
+      }
+
+      this.heap[position] = child;
+      child.position = position;
+      position = smallest;
+    }
+
+    this.heap[position] = slot;
+    slot.position = position;
+  }
+
+  private static final class Slot<K>
+  {
+    private K key;
+    private int position;
+    private long activity;
+    private long activity_error;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long borrowed;
+    private long borrowed_peak;
+    private long size_created;
+
+    Slot(
+      final int in_position)
+    {
+      this.position = in_position;
+    }
+
+    void reset(
+      final K in_key,
+      final long in_activity)
+    {
+      this.key = in_key;
+      this.activity = in_activity;
+      this.activity_error = in_activity;
+      this.hits = 0L;
+      this.misses = 0L;
+      this.evictions = 0L;
+      this.borrowed = 0L;
+      this.borrowed_peak = 0L;
+      this.size_created = 0L;
+    }
+
+    void borrow()
+    {
+      ++this.borrowed;
+      this.borrowed_peak = Math.max(this.borrowed_peak, this.borrowed);
+    }
+
+    JPPoolKeyStatisticsType<K> snapshot()
+    {
+      return new JPPoolKeyStatistics<>(
+        this.key,
+        this.activity,
+        this.activity_error,
+        this.hits,
+        this.misses,
+        this.evictions,
+        this.borrowed,
+        this.borrowed_peak,
+        this.size_created);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * An immutable snapshot of the statistics of a single key.
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolKeyStatistics<K> implements JPPoolKeyStatisticsType<K>
+{
+  private final K key;
+  private final long activity;
+  private final long activity_error;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long borrowed;
+  private final long borrowed_peak;
+  private final long size_created;
+
+  JPPoolKeyStatistics(
+    final K in_key,
+    final long in_activity,
+    final long in_activity_error,
+    final long in_hits,
+    final long in_misses,
+    final long in_evictions,
+    final long in_borrowed,
+    final long in_borrowed_peak,
+    final long in_size_created)
+  {
+    this.key = in_key;
+    this.activity = in_activity;
+    this.activity_error = in_activity_error;
+    this.hits = in_hits;
+    this.misses = in_misses;
+    this.evictions = in_evictions;
+    this.borrowed = in_borrowed;
+    this.borrowed_peak = in_borrowed_peak;
+    this.size_created = in_size_created;
+  }
+
+  @Override
+  public K key()
+  {
+    return this.key;
+  }
+
+  @Override
+  public long activity()
+  {
+    return this.activity;
+  }
+
+  @Override
+  public long activityError()
+  {
+    return this.activity_error;
+  }
+
+  @Override
+  public long hits()
+  {
+    return this.hits;
+  }
+
+  @Override
+  public long misses()
+  {
+    return this.misses;
+  }
+
+  @Override
+  public long evictions()
+  {
+    return this.evictions;
+  }
+
+  @Override
+  public long borrowed()
+  {
+    return this.borrowed;
+  }
+
+  @Override
+  public long borrowedPeak()
+  {
+    return this.borrowed_peak;
+  }
+
+  @Override
+  public long sizeCreated()
+  {
+    return this.size_created;
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(128)
+      .append("[JPPoolKeyStatistics ")
+      .append(this.key)
+      .append(" activity=")
+      .append(this.activity)
+      .append("±")
+      .append(this.activity_error)
+      .append(" hits=")
+      .append(this.hits)
+      .append(" misses=")
+      .append(this.misses)
+      .append(" evictions=")
+      .append(this.evictions)
+      .append(" borrowed=")
+      .append(this.borrowed)
+      .append('/')
+      .append(this.borrowed_peak)
+      .append(" created=")
+      .append(Long.toUnsignedString(this.size_created))
+      .append(']')
+      .toString();
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * The statistics of a single key. Pools track the keys with the most
+ * activity (requests and evictions) using a space-saving sketch of a fixed
+ * capacity: when a key that is not tracked becomes active and the sketch
+ * is full, the least active tracked key is forgotten and the new key takes
+ * its place, inheriting its activity count as an {@link #activityError()
+ * error bound}. The activity of a key is therefore overestimated by at most
+ * its error bound, any key whose activity exceeds the total activity divided
+ * by the capacity is guaranteed to be tracked, and the remaining counters of
+ * a key only cover the period since it was last admitted to the sketch.
+ *
+ * @param <K> The type of keys
+ */
+
+public interface JPPoolKeyStatisticsType<K>
+{
+  /**
+   * @return The key
+   */
+
+  K key();
+
+  /**
+   * @return The estimated number of requests and evictions for the key
+   */
+
+  long activity();
+
+  /**
+   * @return The maximum amount by which {@link #activity()} overestimates
+   * the true activity of the key
+   */
+
+  long activityError();
+
+  /**
+   * @return The number of requests satisfied by a free object of the key
+   */
+
+  long hits();
+
+  /**
+   * @return The number of requests for the key that required a new object
+   */
+
+  long misses();
+
+  /**
+   * @return The number of free objects of the key that were evicted
+   */
+
+  long evictions();
+
+  /**
+   * @return The number of objects of the key currently in use
+   */
+
+  long borrowed();
+
+  /**
+   * @return The largest number of objects of the key in use at once
+   */
+
+  long borrowedPeak();
+
+  /**
+   * @return The total size of the objects created for the key
+   */
+
+  long sizeCreated();
+}
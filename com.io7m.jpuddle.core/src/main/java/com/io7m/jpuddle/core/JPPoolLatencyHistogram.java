@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.jranges.RangeCheck;
+import com.io7m.jranges.RangeInclusiveI;
+
+/**
+ * An immutable latency histogram. Latencies are measured in nanoseconds and
+ * counted in buckets whose widths are powers of two: bucket {@code 0} counts
+ * latencies of zero, and bucket {@code i > 0} counts latencies in the range
+ * {@code [2^(i-1), 2^i - 1]}. Quantiles are therefore accurate to within a
+ * factor of two, which is sufficient to distinguish a cheap operation from
+ * an expensive one.
+ */
+
+public final class JPPoolLatencyHistogram
+{
+  /**
+   * The number of buckets in a histogram.
+   */
+
+  public static final int BUCKETS = 64;
+
+  private static final RangeInclusiveI BUCKET_RANGE =
+    RangeInclusiveI.of(0, BUCKETS - 1);
+
+  private final long[] counts;
+  private final long count;
+  private final long total;
+
+  JPPoolLatencyHistogram(
+    final long[] in_counts,
+    final long in_total)
+  {
+    this.counts = in_counts;
+    this.total = in_total;
+
+    long sum = 0L;
+    for (int index = 0; index < in_counts.length; ++index) {
+      sum += in_counts[index];
+    }
+    this.count = sum;
+  }
+
+  static int bucketOf(
+    final long nanos)
+  {
+    if (nanos <= 0L) {
+      return 0;
+    }
+    return Long.SIZE - Long.numberOfLeadingZeros(nanos);
+  }
+
+  /**
+   * @return The number of recorded latencies
+   */
+
+  public long count()
+  {
+    return this.count;
+  }
+
+  /**
+   * @return The sum of all recorded latencies, in nanoseconds
+   */
+
+  public long totalNanos()
+  {
+    return this.total;
+  }
+
+  /**
+   * @return The mean of all recorded latencies in nanoseconds, or {@code 0}
+   * if no latencies have been recorded
+   */
+
+  public double meanNanos()
+  {
+    if (this.count == 0L) {
+      return 0.0;
+    }
+    return (double) this.total / (double) this.count;
+  }
+
+  /**
+   * @param bucket The bucket, in the range {@code [0, BUCKETS - 1]}
+   *
+   * @return The number of latencies recorded in the given bucket
+   */
+
+  public long bucketCount(
+    final int bucket)
+  {
+    return this.counts[
+      RangeCheck.checkIncludedInInteger(
+        bucket, "Bucket", BUCKET_RANGE, "Valid buckets")];
+  }
+
+  /**
+   * @param bucket The bucket, in the range {@code [0, BUCKETS - 1]}
+   *
+   * @return The largest latency, in nanoseconds, counted by the given bucket
+   */
+
+  public static long bucketUpperBoundNanos(
+    final int bucket)
+  {
+    RangeCheck.checkIncludedInInteger(
+      bucket, "Bucket", BUCKET_RANGE, "Valid buckets");
+    return (1L << bucket) - 1L;
+  }
+
+  /**
+   * Estimate a quantile of the recorded latencies. The result is the upper
+   * bound of the bucket that contains the quantile, and so is never smaller
+   * than the true value.
+   *
+   * @param q The quantile, in the range {@code [0.0, 1.0]}
+   *
+   * @return The estimated quantile in nanoseconds, or {@code 0} if no
+   * latencies have been recorded
+   */
+
+  public long quantileNanos(
+    final double q)
+  {
+    Preconditions.checkPreconditionD(
+      q,
+      q >= 0.0 && q <= 1.0,
+      x -> "Quantile " + x + " must be in the range [0.0, 1.0]");
+
+    if (this.count == 0L) {
+      return 0L;
+    }
+
+    final long rank = Math.max(1L, (long) Math.ceil(q * (double) this.count));
+    long seen = 0L;
+    for (int index = 0; index < this.counts.length; ++index) {
+      seen += this.counts[index];
+      if (seen >= rank) {
+        return bucketUpperBoundNanos(index);
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(128)
+      .append("[JPPoolLatencyHistogram count=")
+      .append(this.count)
+      .append(" mean=")
+      .append((long) this.meanNanos())
+      .append("ns p50<=")
+      .append(this.quantileNanos(0.5))
+      .append("ns p99<=")
+      .append(this.quantileNanos(0.99))
+      .append("ns]")
+      .toString();
+  }
+}
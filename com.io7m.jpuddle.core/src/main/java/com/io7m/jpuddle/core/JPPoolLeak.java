@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * An immutable leak report.
+ *
+ * @param <K> The type of keys
+ * @param <U> The type of user-visible pooled values
+ */
+
+final class JPPoolLeak<K, U> implements JPPoolLeakType<K, U>
+{
+  private final K key;
+  private final U value;
+  private final Duration held_for;
+  private final Throwable borrow_site;
+
+  JPPoolLeak(
+    final K in_key,
+    final U in_value,
+    final Duration in_held_for,
+    final Throwable in_borrow_site)
+  {
+    this.key = Objects.requireNonNull(in_key, "Key");
+    this.value = Objects.requireNonNull(in_value, "Value");
+    this.held_for = Objects.requireNonNull(in_held_for, "Held for");
+    this.borrow_site = Objects.requireNonNull(in_borrow_site, "Borrow site");
+  }
+
+  @Override
+  public K key()
+  {
+    return this.key;
+  }
+
+  @Override
+  public U value()
+  {
+    return this.value;
+  }
+
+  @Override
+  public Duration heldFor()
+  {
+    return this.held_for;
+  }
+
+  @Override
+  public Throwable borrowSite()
+  {
+    return this.borrow_site;
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(128)
+      .append("[JPPoolLeak ")
+      .append(this.key)
+      .append(" -> ")
+      .append(this.value)
+      .append(" held for ")
+      .append(this.held_for)
+      .append(']')
+      .toString();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * A receiver of leak reports. Reporters are called on the thread that uses
+ * the pool, during a call to {@code get}, and so should return quickly.
+ *
+ * @param <K> The type of keys
+ * @param <U> The type of user-visible pooled values
+ */
+
+@FunctionalInterface
+public interface JPPoolLeakReporterType<K, U>
+{
+  /**
+   * @param <K> The type of keys
+   * @param <U> The type of user-visible pooled values
+   *
+   * @return A reporter that logs each leak, with its borrow site, as a
+   * warning
+   */
+
+  static <K, U> JPPoolLeakReporterType<K, U> logging()
+  {
+    final Logger log = LoggerFactory.getLogger(JPPoolLeakReporterType.class);
+    return leaks -> {
+      for (final JPPoolLeakType<K, U> leak : leaks) {
+        log.warn(
+          "possible leak: {} -> {} held for {}",
+          leak.key(),
+          leak.value(),
+          leak.heldFor(),
+          leak.borrowSite());
+      }
+    };
+  }
+
+  /**
+   * Objects have been held for longer than the pool's threshold. Each
+   * object is reported at most once per borrow.
+   *
+   * @param leaks The newly detected leaks, oldest first
+   */
+
+  void onLeaksDetected(List<JPPoolLeakType<K, U>> leaks);
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.time.Duration;
+
+/**
+ * An object that has been held for longer than the leak detection
+ * threshold of a pool.
+ *
+ * @param <K> The type of keys
+ * @param <U> The type of user-visible pooled values
+ *
+ * @see JPPoolSynchronousBuilder#setLeakDetection(int, Duration,
+ * JPPoolLeakReporterType)
+ */
+
+public interface JPPoolLeakType<K, U>
+{
+  /**
+   * @return The key of the object
+   */
+
+  K key();
+
+  /**
+   * @return The object
+   */
+
+  U value();
+
+  /**
+   * @return The time for which the object had been held when the leak was
+   * detected
+   */
+
+  Duration heldFor();
+
+  /**
+   * @return An exception whose stack trace is that of the call that
+   * borrowed the object
+   */
+
+  Throwable borrowSite();
+}
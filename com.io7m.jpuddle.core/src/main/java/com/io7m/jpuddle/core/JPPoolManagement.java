@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+/**
+ * The platform MBean of a synchronous pool.
+ */
+
+final class JPPoolManagement implements JPPoolManagementMBean
+{
+  private final JPPoolSynchronous<?, ?, ?, ?> pool;
+
+  private JPPoolManagement(
+    final JPPoolSynchronous<?, ?, ?, ?> in_pool)
+  {
+    this.pool = Objects.requireNonNull(in_pool, "Pool");
+  }
+
+  static ObjectName objectName(
+    final String name)
+  {
+    try {
+      return new ObjectName(
+        "com.io7m.jpuddle:type=JPPoolSynchronous,name="
+          + ObjectName.quote(name));
+    } catch (final MalformedObjectNameException e) {
+      throw new JPPoolManagementException(e.getMessage(), e);
+    }
+  }
+
+  static ObjectName register(
+    final JPPoolSynchronous<?, ?, ?, ?> pool,
+    final String name)
+  {
+    final ObjectName object_name = objectName(name);
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.registerMBean(
+        new StandardMBean(
+          new JPPoolManagement(pool), JPPoolManagementMBean.class),
+        object_name);
+    } catch (final JMException e) {
+      throw new JPPoolManagementException(
+        "Could not register pool " + object_name, e);
+    }
+    return object_name;
+  }
+
+  static void unregister(
+    final ObjectName object_name)
+  {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.unregisterMBean(object_name);
+    } catch (final JMException e) {
+      throw new JPPoolManagementException(
+        "Could not unregister pool " + object_name, e);
+    }
+  }
+
+  @Override
+  public long getSize()
+  {
+    final JPPoolStatisticsType s = this.pool.statistics();
+    return s.usedSize() + s.freeSize();
+  }
+
+  @Override
+  public long getSoftLimit()
+  {
+    return this.pool.sizeLimitSoft();
+  }
+
+  @Override
+  public void setSoftLimit(
+    final long limit)
+  {
+    this.pool.setSizeLimitSoft(limit);
+  }
+
+  @Override
+  public long getHardLimit()
+  {
+    return this.pool.sizeLimitHard();
+  }
+
+  @Override
+  public long getUsedCount()
+  {
+    return this.pool.statistics().usedCount();
+  }
+
+  @Override
+  public long getFreeCount()
+  {
+    return this.pool.statistics().freeCount();
+  }
+
+  @Override
+  public long getUsedSize()
+  {
+    return this.pool.statistics().usedSize();
+  }
+
+  @Override
+  public long getFreeSize()
+  {
+    return this.pool.statistics().freeSize();
+  }
+
+  @Override
+  public long getHits()
+  {
+    return this.pool.statistics().hits();
+  }
+
+  @Override
+  public long getMisses()
+  {
+    return this.pool.statistics().misses();
+  }
+
+  @Override
+  public double getHitRatio()
+  {
+    return this.pool.statistics().hitRatio();
+  }
+
+  @Override
+  public long getEvictions()
+  {
+    return this.pool.statistics().evictions();
+  }
+
+  @Override
+  public long getHardLimitFailures()
+  {
+    return this.pool.statistics().hardLimitFailures();
+  }
+
+  @Override
+  public boolean isTrimPending()
+  {
+    return this.pool.isTrimRequested();
+  }
+
+  @Override
+  public void trim()
+  {
+    this.pool.requestTrim();
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * The management interface of a pool, as registered with the platform MBean
+ * server. Attributes may be read, and operations invoked, from any thread:
+ * attributes are read from the pool's {@link JPPoolStatisticsType
+ * statistics}, and changes are applied by the thread that uses the pool, on
+ * its next call to the pool.
+ *
+ * @see JPPoolSynchronousBuilder#setManagementName(String)
+ */
+
+public interface JPPoolManagementMBean
+{
+  /**
+   * @return The current size of the pool
+   */
+
+  long getSize();
+
+  /**
+   * @return The soft size limit
+   */
+
+  long getSoftLimit();
+
+  /**
+   * Set the soft size limit. The new limit takes effect on the pool's next
+   * get or return: a pool that exceeds the new limit is not trimmed until
+   * then.
+   *
+   * @param limit The new soft size limit
+   *
+   * @see JPPoolSynchronous#setSizeLimitSoft(long)
+   */
+
+  void setSoftLimit(long limit);
+
+  /**
+   * @return The hard size limit
+   */
+
+  long getHardLimit();
+
+  /**
+   * @return The number of objects in use
+   */
+
+  long getUsedCount();
+
+  /**
+   * @return The number of free objects
+   */
+
+  long getFreeCount();
+
+  /**
+   * @return The total size of the objects in use
+   */
+
+  long getUsedSize();
+
+  /**
+   * @return The total size of the free objects
+   */
+
+  long getFreeSize();
+
+  /**
+   * @return The number of requests satisfied by free objects
+   */
+
+  long getHits();
+
+  /**
+   * @return The number of requests that required new objects
+   */
+
+  long getMisses();
+
+  /**
+   * @return The ratio of hits to requests
+   */
+
+  double getHitRatio();
+
+  /**
+   * @return The number of objects evicted
+   */
+
+  long getEvictions();
+
+  /**
+   * @return The number of requests that failed due to hard limits
+   */
+
+  long getHardLimitFailures();
+
+  /**
+   * @return {@code true} if a trim has been requested with {@link #trim()}
+   * and has not yet taken effect
+   *
+   * @see JPPoolSynchronous#isTrimRequested()
+   */
+
+  boolean isTrimPending();
+
+  /**
+   * Request that the pool be trimmed. The trim takes effect on the pool's
+   * next get or return, and so an idle pool is not trimmed;
+   * {@link #isTrimPending()} remains {@code true} until then.
+   *
+   * @see JPPoolSynchronous#requestTrim()
+   */
+
+  void trim();
+}
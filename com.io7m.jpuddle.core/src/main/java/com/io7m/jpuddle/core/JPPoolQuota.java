@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import com.io7m.junsigned.ranges.UnsignedRangeCheck;
+
+/**
+ * A quota: a soft and hard size limit that apply to the objects of a class
+ * of keys, in addition to the limits of the pool as a whole. Sizes are
+ * treated as unsigned values, as with the pool's own limits.
+ */
+
+public final class JPPoolQuota
+{
+  private final long size_limit_soft;
+  private final long size_limit_hard;
+
+  private JPPoolQuota(
+    final long in_size_limit_soft,
+    final long in_size_limit_hard)
+  {
+    this.size_limit_soft = in_size_limit_soft;
+    this.size_limit_hard = in_size_limit_hard;
+  }
+
+  /**
+   * Construct a quota.
+   *
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   *
+   * @return A new quota
+   */
+
+  public static JPPoolQuota of(
+    final long soft_limit,
+    final long hard_limit)
+  {
+    return new JPPoolQuota(
+      soft_limit,
+      UnsignedRangeCheck.checkGreaterEqualLong(
+        hard_limit,
+        "Hard limit",
+        soft_limit,
+        "Smallest hard limit"));
+  }
+
+  /**
+   * @return The soft size limit
+   */
+
+  public long sizeLimitSoft()
+  {
+    return this.size_limit_soft;
+  }
+
+  /**
+   * @return The hard size limit
+   */
+
+  public long sizeLimitHard()
+  {
+    return this.size_limit_hard;
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(64)
+      .append("[JPPoolQuota soft=")
+      .append(Long.toUnsignedString(this.size_limit_soft))
+      .append(" hard=")
+      .append(Long.toUnsignedString(this.size_limit_hard))
+      .append(']')
+      .toString();
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * An exception raised by attempting to create a new object in a pool when
+ * that object would exceed the hard size limit of the quota of its key.
+ *
+ * @see JPPoolQuotasType
+ */
+
+public final class JPPoolQuotaHardLimitExceededException
+  extends JPPoolException
+{
+  private final transient Object quota_class;
+  private final long limit;
+  private final long size;
+
+  private JPPoolQuotaHardLimitExceededException(
+    final String message,
+    final Object in_quota_class,
+    final long in_limit,
+    final long in_size)
+  {
+    super(message);
+    this.quota_class = in_quota_class;
+    this.limit = in_limit;
+    this.size = in_size;
+  }
+
+  /**
+   * Construct a new exception.
+   *
+   * @param quota_class The quota class
+   * @param limit       The hard limit of the quota
+   * @param size        The size that exceeded the limit
+   *
+   * @return A new exception
+   */
+
+  public static JPPoolQuotaHardLimitExceededException newException(
+    final Object quota_class,
+    final long limit,
+    final long size)
+  {
+    final String separator = System.lineSeparator();
+    final StringBuilder sb = new StringBuilder(128);
+    sb.append("Quota hard size limit exceeded.");
+    sb.append(separator);
+    sb.append("Quota class: ");
+    sb.append(quota_class);
+    sb.append(separator);
+    sb.append("Hard limit:  ");
+    sb.append(Long.toUnsignedString(limit));
+    sb.append(separator);
+    sb.append("Size:        ");
+    sb.append(Long.toUnsignedString(size));
+    sb.append(separator);
+    return new JPPoolQuotaHardLimitExceededException(
+      sb.toString(), quota_class, limit, size);
+  }
+
+  /**
+   * Quota classes are arbitrary objects and need not be serializable, and
+   * so the quota class is not serialized with the exception. The message
+   * of the exception includes the quota class in string form.
+   *
+   * @return The quota class whose limit was exceeded, or {@code null} if
+   * the exception has been deserialized
+   */
+
+  public Object getQuotaClass()
+  {
+    return this.quota_class;
+  }
+
+  /**
+   * @return The hard limit of the quota
+   */
+
+  public long getLimit()
+  {
+    return this.limit;
+  }
+
+  /**
+   * @return The size that exceeded the limit
+   */
+
+  public long getSize()
+  {
+    return this.size;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.util.Objects;
+
+/**
+ * A function that assigns keys to quota classes, and quotas to those
+ * classes. All keys whose quota classes are equal share a single quota, so
+ * that a quota may be applied to each key individually, or to groups of
+ * keys.
+ *
+ * @param <K> The type of keys
+ */
+
+public interface JPPoolQuotasType<K>
+{
+  /**
+   * A quota function that gives each key its own copy of {@code quota}.
+   *
+   * @param quota The quota
+   * @param <K>   The type of keys
+   *
+   * @return A quota function
+   */
+
+  static <K> JPPoolQuotasType<K> perKey(
+    final JPPoolQuota quota)
+  {
+    Objects.requireNonNull(quota, "Quota");
+    return new JPPoolQuotasType<>()
+    {
+      @Override
+      public Object quotaClass(
+        final K key)
+      {
+        return key;
+      }
+
+      @Override
+      public JPPoolQuota quota(
+        final Object quota_class)
+      {
+        return quota;
+      }
+    };
+  }
+
+  /**
+   * Determine the quota class of a key. This is called when an object is
+   * created for a key, and must return equal classes for equal keys.
+   *
+   * @param key The key
+   *
+   * @return The quota class of {@code key}, or {@code null} if objects with
+   * the given key are limited only by the limits of the pool
+   */
+
+  Object quotaClass(K key);
+
+  /**
+   * Determine the quota of a class. This is called when the pool first
+   * holds objects of the given class, and again if the pool later holds
+   * objects of that class after having held none.
+   *
+   * @param quota_class The quota class
+   *
+   * @return The quota
+   */
+
+  JPPoolQuota quota(Object quota_class);
+}
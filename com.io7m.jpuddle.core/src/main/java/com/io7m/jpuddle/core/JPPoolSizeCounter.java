@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import com.io7m.junsigned.ranges.UnsignedRangeCheck;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An atomic, CAS-based pool size counter that enforces soft and hard limits.
+ * Sizes are treated as unsigned values. A waiting thread, if there is one,
+ * is woken whenever space is released, including when a reservation is
+ * exchanged for a smaller amount.
+ */
+
+final class JPPoolSizeCounter
+{
+  private final AtomicLong size_now;
+  private final long size_limit_soft;
+  private final long size_limit_hard;
+  private final JPPoolWaiters<?> waiters;
+
+  JPPoolSizeCounter(
+    final long in_size_limit_soft,
+    final long in_size_limit_hard,
+    final JPPoolWaiters<?> in_waiters)
+  {
+    this.size_limit_soft =
+      UnsignedRangeCheck.checkGreaterEqualLong(
+        in_size_limit_soft,
+        "Soft limit",
+        0L,
+        "Smallest soft limit");
+    this.size_limit_hard =
+      UnsignedRangeCheck.checkGreaterEqualLong(
+        in_size_limit_hard,
+        "Hard limit",
+        this.size_limit_soft,
+        "Smallest hard limit");
+
+    this.size_now = new AtomicLong(0L);
+    this.waiters = Objects.requireNonNull(in_waiters, "Waiters");
+  }
+
+  long size()
+  {
+    return this.size_now.get();
+  }
+
+  long softLimit()
+  {
+    return this.size_limit_soft;
+  }
+
+  long hardLimit()
+  {
+    return this.size_limit_hard;
+  }
+
+  boolean isOverSoftLimit()
+  {
+    return Long.compareUnsigned(this.size_now.get(), this.size_limit_soft) > 0;
+  }
+
+  boolean isUnderHardLimit()
+  {
+    return Long.compareUnsigned(this.size_now.get(), this.size_limit_hard) < 0;
+  }
+
+  /**
+   * Reserve {@code amount} against the hard limit.
+   *
+   * @param amount The amount to reserve
+   *
+   * @throws JPPoolInternalOverflowException   On arithmetic overflow
+   * @throws JPPoolHardLimitExceededException If the hard limit would be
+   *                                           exceeded
+   */
+
+  void reserve(
+    final long amount)
+    throws JPPoolInternalOverflowException, JPPoolHardLimitExceededException
+  {
+    if (!this.tryReserve(amount)) {
+      throw this.errorHardLimit(amount);
+    }
+  }
+
+  /**
+   * Reserve {@code amount} against the hard limit, if possible.
+   *
+   * @param amount The amount to reserve
+   *
+   * @return {@code false} iff the hard limit would be exceeded
+   *
+   * @throws JPPoolInternalOverflowException On arithmetic overflow
+   */
+
+  boolean tryReserve(
+    final long amount)
+    throws JPPoolInternalOverflowException
+  {
+    while (true) {
+      final long current = this.size_now.get();
+      final long next;
+
+      try {
+        next = BigUnsigned.checkedAddLong(current, amount);
+      } catch (final ArithmeticException e) {
+        throw new JPPoolInternalOverflowException(e);
+      }
+
+      if (Long.compareUnsigned(next, this.size_limit_hard) > 0) {
+        return false;
+      }
+
+      if (this.size_now.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  JPPoolHardLimitExceededException errorHardLimit(
+    final long amount)
+  {
+    long next;
+    try {
+      next = BigUnsigned.checkedAddLong(this.size_now.get(), amount);
+    } catch (final ArithmeticException e) {
+      next = 0xffff_ffff_ffff_ffffL;
+    }
+    return JPPoolHardLimitExceededException.newException(
+      this.size_limit_hard,
+      next);
+  }
+
+  /**
+   * Exchange an existing reservation of {@code reserved} for {@code amount}.
+   * If the hard limit would be exceeded, the reservation is released and an
+   * exception is raised.
+   *
+   * @param reserved The existing reservation
+   * @param amount   The new amount
+   *
+   * @throws JPPoolInternalOverflowException   On arithmetic overflow
+   * @throws JPPoolHardLimitExceededException If the hard limit would be
+   *                                           exceeded
+   */
+
+  void exchange(
+    final long reserved,
+    final long amount)
+    throws JPPoolInternalOverflowException, JPPoolHardLimitExceededException
+  {
+    while (true) {
+      final long current = this.size_now.get();
+      final long next;
+
+      try {
+        next = BigUnsigned.checkedAddLong(
+          BigUnsigned.checkedSubtractLong(current, reserved), amount);
+      } catch (final ArithmeticException e) {
+        this.subtract(reserved);
+        throw new JPPoolInternalOverflowException(e);
+      }
+
+      if (Long.compareUnsigned(next, this.size_limit_hard) > 0) {
+        this.subtract(reserved);
+        throw JPPoolHardLimitExceededException.newException(
+          this.size_limit_hard,
+          next);
+      }
+
+      if (this.size_now.compareAndSet(current, next)) {
+        if (Long.compareUnsigned(next, current) < 0) {
+          this.waiters.signalAny();
+        }
+        return;
+      }
+    }
+  }
+
+  void subtract(
+    final long amount)
+  {
+    while (true) {
+      final long current = this.size_now.get();
+      final long next = BigUnsigned.checkedSubtractLong(current, amount);
+      if (this.size_now.compareAndSet(current, next)) {
+        this.waiters.signalAny();
+        return;
+      }
+    }
+  }
+}
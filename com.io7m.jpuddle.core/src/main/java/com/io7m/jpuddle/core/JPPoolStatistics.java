@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the statistics of a pool.
+ */
+
+final class JPPoolStatistics implements JPPoolStatisticsType
+{
+  private final long hits;
+  private final long misses;
+  private final long creations;
+  private final long evictions;
+  private final long returns;
+  private final long hard_limit_failures;
+  private final long used_count;
+  private final long free_count;
+  private final long used_size;
+  private final long free_size;
+  private final JPPoolLatencyHistogram creation_latency;
+  private final JPPoolLatencyHistogram deletion_latency;
+
+  JPPoolStatistics(
+    final long[] values,
+    final JPPoolLatencyHistogram in_creation_latency,
+    final JPPoolLatencyHistogram in_deletion_latency)
+  {
+    this.hits = values[JPPoolStatisticsCounters.HITS];
+    this.misses = values[JPPoolStatisticsCounters.MISSES];
+    this.creations = values[JPPoolStatisticsCounters.CREATIONS];
+    this.evictions = values[JPPoolStatisticsCounters.EVICTIONS];
+    this.returns = values[JPPoolStatisticsCounters.RETURNS];
+    this.hard_limit_failures =
+      values[JPPoolStatisticsCounters.HARD_LIMIT_FAILURES];
+    this.used_count = values[JPPoolStatisticsCounters.USED_COUNT];
+    this.free_count = values[JPPoolStatisticsCounters.FREE_COUNT];
+    this.used_size = values[JPPoolStatisticsCounters.USED_SIZE];
+    this.free_size = values[JPPoolStatisticsCounters.FREE_SIZE];
+    this.creation_latency =
+      Objects.requireNonNull(in_creation_latency, "Creation latency");
+    this.deletion_latency =
+      Objects.requireNonNull(in_deletion_latency, "Deletion latency");
+  }
+
+  @Override
+  public long hits()
+  {
+    return this.hits;
+  }
+
+  @Override
+  public long misses()
+  {
+    return this.misses;
+  }
+
+  @Override
+  public long creations()
+  {
+    return this.creations;
+  }
+
+  @Override
+  public long evictions()
+  {
+    return this.evictions;
+  }
+
+  @Override
+  public long returns()
+  {
+    return this.returns;
+  }
+
+  @Override
+  public long hardLimitFailures()
+  {
+    return this.hard_limit_failures;
+  }
+
+  @Override
+  public long usedCount()
+  {
+    return this.used_count;
+  }
+
+  @Override
+  public long freeCount()
+  {
+    return this.free_count;
+  }
+
+  @Override
+  public long usedSize()
+  {
+    return this.used_size;
+  }
+
+  @Override
+  public long freeSize()
+  {
+    return this.free_size;
+  }
+
+  @Override
+  public JPPoolLatencyHistogram creationLatency()
+  {
+    return this.creation_latency;
+  }
+
+  @Override
+  public JPPoolLatencyHistogram deletionLatency()
+  {
+    return this.deletion_latency;
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(256)
+      .append("[JPPoolStatistics hits=")
+      .append(this.hits)
+      .append(" misses=")
+      .append(this.misses)
+      .append(" creations=")
+      .append(this.creations)
+      .append(" evictions=")
+      .append(this.evictions)
+      .append(" returns=")
+      .append(this.returns)
+      .append(" hard_limit_failures=")
+      .append(this.hard_limit_failures)
+      .append(" used=")
+      .append(this.used_count)
+      .append('/')
+      .append(Long.toUnsignedString(this.used_size))
+      .append(" free=")
+      .append(this.free_count)
+      .append('/')
+      .append(Long.toUnsignedString(this.free_size))
+      .append(']')
+      .toString();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The live statistics of a pool. The counters are written only by the
+ * thread that owns the pool, so each update is a plain read followed by an
+ * opaque write: hits and returns involve no locks, fences, or
+ * read-modify-write instructions, and the counters can still be read
+ * atomically from any thread. Latencies may be recorded from any thread
+ * (such as the threads that drain a deletion queue), and so each recorded
+ * creation or deletion performs two atomic read-modify-write increments:
+ * one on a histogram bucket and one on the running total. Nothing is
+ * allocated per event.
+ */
+
+final class JPPoolStatisticsCounters
+{
+  static final int HITS = 0;
+  static final int MISSES = 1;
+  static final int CREATIONS = 2;
+  static final int EVICTIONS = 3;
+  static final int RETURNS = 4;
+  static final int HARD_LIMIT_FAILURES = 5;
+  static final int USED_COUNT = 6;
+  static final int FREE_COUNT = 7;
+  static final int USED_SIZE = 8;
+  static final int FREE_SIZE = 9;
+  private static final int COUNTERS = 10;
+
+  private static final VarHandle VALUES =
+    MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final long[] values;
+  private final Latencies creation;
+  private final Latencies deletion;
+
+  JPPoolStatisticsCounters()
+  {
+    this.values = new long[COUNTERS];
+    this.creation = new Latencies();
+    this.deletion = new Latencies();
+  }
+
+  private void add(
+    final int counter,
+    final long delta)
+  {
+    final long[] v = this.values;
+    VALUES.setOpaque(v, counter, v[counter] + delta);
+  }
+
+  void onHit(
+    final long size)
+  {
+    this.add(HITS, 1L);
+    this.add(FREE_COUNT, -1L);
+    this.add(FREE_SIZE, -size);
+    this.add(USED_COUNT, 1L);
+    this.add(USED_SIZE, size);
+  }
+
+  void onMiss()
+  {
+    this.add(MISSES, 1L);
+  }
+
+  void onCreate(
+    final long size)
+  {
+    this.add(CREATIONS, 1L);
+    this.add(USED_COUNT, 1L);
+    this.add(USED_SIZE, size);
+  }
+
+  void onFree(
+    final long size)
+  {
+    this.add(USED_COUNT, -1L);
+    this.add(USED_SIZE, -size);
+    this.add(FREE_COUNT, 1L);
+    this.add(FREE_SIZE, size);
+  }
+
+  void onReturn(
+    final int count)
+  {
+    this.add(RETURNS, count);
+  }
+
+  void onEvict(
+    final long size)
+  {
+    this.add(EVICTIONS, 1L);
+    this.add(FREE_COUNT, -1L);
+    this.add(FREE_SIZE, -size);
+  }
+
+  void onHardLimitFailure()
+  {
+    this.add(HARD_LIMIT_FAILURES, 1L);
+  }
+
+  void recordCreation(
+    final long nanos)
+  {
+    this.creation.record(nanos);
+  }
+
+  void recordDeletion(
+    final long nanos)
+  {
+    this.deletion.record(nanos);
+  }
+
+  JPPoolStatisticsType snapshot()
+  {
+    final long[] copy = new long[COUNTERS];
+    for (int index = 0; index < COUNTERS; ++index) {
+      copy[index] = (long) VALUES.getOpaque(this.values, index);
+    }
+    return new JPPoolStatistics(
+      copy,
+      this.creation.snapshot(),
+      this.deletion.snapshot());
+  }
+
+  private static final class Latencies
+  {
+    private final AtomicLongArray buckets;
+    private final AtomicLong total;
+
+    Latencies()
+    {
+      this.buckets = new AtomicLongArray(JPPoolLatencyHistogram.BUCKETS);
+      this.total = new AtomicLong();
+    }
+
+    void record(
+      final long nanos)
+    {
+      this.buckets.incrementAndGet(JPPoolLatencyHistogram.bucketOf(nanos));
+      this.total.addAndGet(Math.max(0L, nanos));
+    }
+
+    JPPoolLatencyHistogram snapshot()
+    {
+      final long[] counts = new long[JPPoolLatencyHistogram.BUCKETS];
+      for (int index = 0; index < counts.length; ++index) {
+        counts[index] = this.buckets.get(index);
+      }
+      return new JPPoolLatencyHistogram(counts, this.total.get());
+    }
+  }
+}
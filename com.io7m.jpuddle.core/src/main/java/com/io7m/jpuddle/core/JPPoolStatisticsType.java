@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+/**
+ * A snapshot of the statistics of a pool. Counts of events are cumulative
+ * over the lifetime of the pool. Each value is read atomically, but values
+ * are not read at the same instant, so a snapshot taken while the pool is
+ * in use may be slightly inconsistent: the sum of the used and free sizes
+ * may differ momentarily from the size of the pool, for example.
+ */
+
+public interface JPPoolStatisticsType
+{
+  /**
+   * @return The number of requests satisfied by a free object
+   */
+
+  long hits();
+
+  /**
+   * @return The number of requests that required a new object
+   */
+
+  long misses();
+
+  /**
+   * @return The ratio of hits to requests, or {@code 0} if there have been
+   * no requests
+   */
+
+  default double hitRatio()
+  {
+    final long hits = this.hits();
+    final long requests = hits + this.misses();
+    if (requests == 0L) {
+      return 0.0;
+    }
+    return (double) hits / (double) requests;
+  }
+
+  /**
+   * @return The number of objects created and added to the pool
+   */
+
+  long creations();
+
+  /**
+   * @return The number of free objects evicted from the pool
+   */
+
+  long evictions();
+
+  /**
+   * @return The number of objects returned to the pool
+   */
+
+  long returns();
+
+  /**
+   * @return The number of requests that failed because a hard limit, or
+   * the hard limit of a quota, would have been exceeded
+   */
+
+  long hardLimitFailures();
+
+  /**
+   * @return The number of objects currently in use
+   */
+
+  long usedCount();
+
+  /**
+   * @return The number of free objects currently in the pool
+   */
+
+  long freeCount();
+
+  /**
+   * @return The total size of the objects currently in use
+   */
+
+  long usedSize();
+
+  /**
+   * @return The total size of the free objects currently in the pool
+   */
+
+  long freeSize();
+
+  /**
+   * @return The latencies of the listener's {@code onCreate} method
+   */
+
+  JPPoolLatencyHistogram creationLatency();
+
+  /**
+   * @return The latencies of the listener's {@code onDelete} method
+   */
+
+  JPPoolLatencyHistogram deletionLatency();
+}
@@ -16,26 +16,98 @@
 
 package com.io7m.jpuddle.core;
 
+import com.io7m.jaffirm.core.Invariants;
 import com.io7m.jaffirm.core.Postconditions;
 import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.jranges.RangeCheck;
+import com.io7m.jranges.RangeInclusiveI;
 import com.io7m.junsigned.ranges.UnsignedRangeCheck;
 import it.unimi.dsi.fastutil.objects.Object2ReferenceOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-import it.unimi.dsi.fastutil.objects.ObjectBidirectionalIterator;
-import it.unimi.dsi.fastutil.objects.ObjectRBTreeSet;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
 
+import javax.management.ObjectName;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The default implementation of the {@link JPPoolSynchronousType} interface.
  *
+ * <p>Pools created with {@link #newPoolWithIdleExpiry(JPPoolableListenerType,
+ * long, long, Duration, JPPoolClockType, JPPoolTrimSchedulerType)} also
+ * delete free objects that have not been used for a given length of time,
+ * even when the pool is under its soft limit. Free objects are held in the
+ * order in which they were returned, so expired objects are always found at
+ * the head of that order and are deleted without examining any other
+ * objects. At most a small batch of expired objects are deleted on each
+ * call to {@code get} or {@code returnValue}; {@link #trim(Object)} deletes
+ * all of them.</p>
+ *
+ * <p>Pools with other combinations of options, such as a custom
+ * {@link JPPoolEvictionPolicyType}, are created with
+ * {@link #builder(JPPoolableListenerType, long, long)}. When no eviction
+ * policy is given, the least recently used free object is evicted first,
+ * using the same return order that is used for idle expiry, so that the
+ * default policy costs nothing beyond that order.</p>
+ *
+ * <p>Pools with {@link JPPoolQuotasType quotas} track the size of each
+ * quota class separately, and keep the free objects of each class in a
+ * separate return order. Free objects of classes that exceed their soft
+ * limits are therefore found, and deleted, before any others without
+ * examining the rest of the pool. A class is forgotten as soon as the pool
+ * holds no objects of that class.</p>
+ *
+ * <p>Pools with a {@link JPPoolKeyCompatibilityType key compatibility
+ * relation} additionally hold the keys that have free objects in a
+ * navigable set ordered by the relation. A request that cannot be
+ * satisfied by a free object with an equal key is satisfied by the free
+ * object with the smallest compatible key, if any.</p>
+ *
+ * <p>Pools with deferred deletion place evicted objects on a
+ * {@link #deletionQueue() deletion queue} rather than deleting them during
+ * the call that evicted them.</p>
+ *
+ * <p>Every pool keeps {@link #statistics() statistics} of its use. The
+ * counters are updated with plain writes by the thread that uses the pool,
+ * and may be read from any thread.</p>
+ *
+ * <p>Pools emit JDK Flight Recorder events named {@code jpuddle.Create},
+ * {@code jpuddle.Evict}, {@code jpuddle.HardLimitExceeded}, and
+ * {@code jpuddle.Trim}. The events are disabled by default.</p>
+ *
+ * <p>The soft limit of a pool may be changed, and a trim requested, from
+ * any thread; for example, through the pool's
+ * {@link JPPoolManagementMBean platform MBean}. Such changes are applied by
+ * the thread that uses the pool, on its next call to the pool.</p>
+ *
+ * <p>Pools may additionally track {@link #keyStatistics() per-key
+ * statistics} for a bounded number of the most active keys.</p>
+ *
+ * <p>Pools with leak detection record the borrow sites of a sample of the
+ * objects they hand out. The sampled objects that are held are linked into
+ * a list in the order in which they were borrowed, so that objects held
+ * for longer than the threshold are found at the head of the list without
+ * examining any others.</p>
+ *
+ * <p>Objects borrowed with {@link #lease(Object, Object)} are held in a
+ * table of slots rather than in the identity map used by
+ * {@link #returnValue(Object, Object)}. Each lease carries its slot and the
+ * generation of the slot at the time of borrowing, and so closing a lease
+ * is an array access. The generation of a slot changes each time a lease
+ * on it is closed, so a lease that is closed twice is detected even when
+ * the slot has since been reused. Deleting the pool with
+ * {@link #deleteUnsafely(Object)} releases every slot, and closing a lease
+ * after that has no effect.</p>
+ *
  * @param <K> The type of keys
  * @param <T> The type of internal pooled values
  * @param <U> The type of user-visible pooled values
@@ -45,78 +117,386 @@ import java.util.SortedSet;
 public final class JPPoolSynchronous<K, T extends U, U, C> implements
   JPPoolSynchronousType<K, T, U, C>
 {
-  private static final Logger LOG;
   private static final String SEPARATOR = System.lineSeparator();
-
-  static {
-    LOG = LoggerFactory.getLogger(JPPoolSynchronous.class);
-  }
+  private static final int ENTRY_CACHE_LIMIT = 64;
+  private static final int EXPIRY_BATCH = 32;
+  private static final int LEASE_SLOTS_INITIAL = 16;
+  private static final RangeInclusiveI COUNT_RANGE =
+    RangeInclusiveI.of(0, Integer.MAX_VALUE);
 
   private final JPPoolableListenerType<K, T, C> listener;
-  private final Map<K, SortedSet<TimedEntry<K, T>>> entries_free;
-  private final ObjectRBTreeSet<TimedEntry<K, T>> entries_free_timed;
+  private final Map<K, TimedEntry<K, T>> entries_free;
   private final Map<T, TimedEntry<K, T>> entries_used;
-  private final long size_limit_soft;
+  private final ObjectArrayList<TimedEntry<K, T>> entries_cache;
   private final long size_limit_hard;
+  private final JPPoolTrimSchedulerType<C> trim_scheduler;
+  private final boolean trim_inline;
+  private final JPPoolClockType clock;
+  private final boolean idle_expiry;
+  private final long idle_max;
+  private final JPPoolEvictionPolicyType<K> policy;
+  private final JPPoolQuotasType<K> quotas;
+  private final Map<Object, QuotaUsage<K, T>> quota_usage;
+  private final ReferenceLinkedOpenHashSet<QuotaUsage<K, T>> quotas_over;
+  private final JPPoolKeyCompatibilityType<K> key_compatibility;
+  private final TreeSet<K> free_keys;
+  private final ObjectArrayList<TimedEntry<K, T>> batch_entries;
+  private final JPPoolDeletionQueue<K, T, C> deletions;
+  private final JPPoolStatisticsCounters statistics;
+  private final ObjectName management;
+  private final JPPoolKeySketch<K> key_sketch;
+  private final int leak_interval;
+  private final long leak_threshold;
+  private final JPPoolLeakReporterType<K, U> leak_reporter;
+  private volatile long size_limit_soft;
+  private volatile boolean trim_requested;
+  private boolean trim_pending;
+  private TimedEntry<K, T> free_oldest;
+  private TimedEntry<K, T> free_newest;
   private long size_now;
   private long time;
   private boolean deleted;
-
-  private JPPoolSynchronous(
-    final JPPoolableListenerType<K, T, C> in_listener,
-    final long in_size_limit_soft,
-    final long in_size_limit_hard)
+  private int leak_countdown;
+  private long leak_check_next;
+  private TimedEntry<K, T> leak_oldest;
+  private TimedEntry<K, T> leak_newest;
+  private TimedEntry<K, T>[] lease_entries;
+  private long[] lease_generations;
+  private int[] lease_free;
+  private int lease_free_count;
+  private int lease_high;
+  private int lease_count;
+
+  JPPoolSynchronous(
+    final JPPoolSynchronousBuilder<K, T, U, C> builder)
   {
+    this.clock = Objects.requireNonNull(builder.clock(), "Clock");
+    this.statistics = new JPPoolStatisticsCounters();
     this.listener =
-      new CheckedListener<>(Objects.requireNonNull(in_listener, "Listener"));
+      new JPPoolTimedListener<>(
+        new JPPoolCheckedListener<>(
+          Objects.requireNonNull(builder.listener(), "Listener")),
+        this.statistics,
+        this.clock);
     this.entries_free =
       new Object2ReferenceOpenHashMap<>(1024);
     this.entries_used =
       new Reference2ReferenceOpenHashMap<>(1024);
-    this.entries_free_timed =
-      new ObjectRBTreeSet<>();
+    this.entries_cache =
+      new ObjectArrayList<>(ENTRY_CACHE_LIMIT);
+    this.lease_entries = newEntryArray(LEASE_SLOTS_INITIAL);
+    this.lease_generations = new long[LEASE_SLOTS_INITIAL];
+    this.lease_free = new int[LEASE_SLOTS_INITIAL];
+    this.batch_entries =
+      new ObjectArrayList<>();
 
     this.size_limit_soft =
       UnsignedRangeCheck.checkGreaterEqualLong(
-        in_size_limit_soft,
+        builder.sizeLimitSoft(),
         "Soft limit",
         0L,
         "Smallest soft limit");
     this.size_limit_hard =
       UnsignedRangeCheck.checkGreaterEqualLong(
-        in_size_limit_hard,
+        builder.sizeLimitHard(),
         "Hard limit",
         this.size_limit_soft,
         "Smallest hard limit");
 
+    this.trim_scheduler =
+      Objects.requireNonNull(builder.trimScheduler(), "Trim scheduler");
+    this.trim_inline = this.trim_scheduler.isInline();
+    this.trim_pending = false;
+
+    this.idle_max = builder.idleMax();
+    this.idle_expiry = this.idle_max != Long.MAX_VALUE;
+    this.policy = builder.evictionPolicy();
+    if (builder.deletionDeferred()) {
+      this.deletions = new JPPoolDeletionQueue<>(this.listener);
+    } else {
+      this.deletions = null;
+    }
+    this.quotas = builder.quotas();
+    this.quota_usage = new Object2ReferenceOpenHashMap<>();
+    this.quotas_over = new ReferenceLinkedOpenHashSet<>();
+    this.key_compatibility = builder.keyCompatibility();
+    if (this.key_compatibility != null) {
+      this.free_keys = new TreeSet<>(this.key_compatibility);
+    } else {
+      this.free_keys = null;
+    }
+
     this.size_now = 0L;
     this.time = 0L;
     this.deleted = false;
+    this.trim_requested = false;
+
+    this.leak_interval = builder.leakInterval();
+    this.leak_threshold = builder.leakThreshold();
+    this.leak_reporter = builder.leakReporter();
+    this.leak_countdown = this.leak_interval;
+    this.leak_check_next = this.clock.nanoTime();
+
+    if (builder.keyStatisticsCapacity() > 0) {
+      this.key_sketch = new JPPoolKeySketch<>(builder.keyStatisticsCapacity());
+    } else {
+      this.key_sketch = null;
+    }
+
+    if (builder.managementName() != null) {
+      this.management =
+        JPPoolManagement.register(this, builder.managementName());
+    } else {
+      this.management = null;
+    }
+  }
+
+  /*
+   * All free entries are linked into a single list, through the entries
+   * themselves, in the order in which they were returned. The oldest entry
+   * is the least recently used, and entries are only ever appended at the
+   * newest end, so the list is ordered by time without ever comparing
+   * times. Linking and unlinking are constant time and do not allocate.
+   */
+
+  private void freeLink(
+    final TimedEntry<K, T> e)
+  {
+    final TimedEntry<K, T> newest = this.free_newest;
+    e.free_older = newest;
+    e.free_newer = null;
+    if (newest == null) {
+      this.free_oldest = e;
+    } else {
+      newest.free_newer = e;
+    }
+    this.free_newest = e;
+  }
+
+  private void freeUnlink(
+    final TimedEntry<K, T> e)
+  {
+    final TimedEntry<K, T> older = e.free_older;
+    final TimedEntry<K, T> newer = e.free_newer;
+    if (older == null) {
+      this.free_oldest = newer;
+    } else {
+      older.free_newer = newer;
+    }
+    if (newer == null) {
+      this.free_newest = older;
+    } else {
+      newer.free_older = older;
+    }
+    e.free_older = null;
+    e.free_newer = null;
   }
 
-  private static <K, T> T mapListTake(
-    final Map<K, SortedSet<T>> m,
+  /*
+   * The free entries for each key are linked into a chain, through the
+   * entries themselves, in the order in which they were returned. The map
+   * holds the oldest free entry for each key, and the oldest entry also
+   * holds the newest entry so that entries can be appended in constant
+   * time. A key with a single free entry therefore costs nothing beyond the
+   * map slot, and a key is removed from the map as soon as it has no free
+   * entries, so keys that are used briefly do not accumulate. The chain is
+   * doubly linked so that an eviction policy may choose any free entry.
+   * When keys may be reused for compatible requests, the keys present in
+   * the map are also held in free_keys.
+   *
+   * free_keys is a java.util.TreeSet rather than a fastutil sorted set. The
+   * same lookup is available from fastutil through tailSet(key).first(),
+   * but the tail set is a view object that is allocated on every lookup,
+   * and it is not reliably removed by escape analysis on this path: a
+   * compatible hit and return allocates about 40 bytes with TreeSet.higher
+   * and about 104 bytes with tailSet. Both sets allocate a node whenever a
+   * key is added back to the set.
+   */
+
+  private TimedEntry<K, T> keyTake(
     final K key)
   {
-    final SortedSet<T> xs = m.get(key);
-    if (xs != null && !xs.isEmpty()) {
-      final T first = xs.first();
-      xs.remove(first);
-      return first;
+    final TimedEntry<K, T> oldest = this.entries_free.get(key);
+    if (oldest != null) {
+      this.keyRemoveOldest(oldest);
     }
-    return null;
+    return oldest;
   }
 
-  private static <K, T> void mapListPut(
-    final Map<K, SortedSet<T>> m,
-    final K key,
-    final T value)
+  private TimedEntry<K, T> keyTakeCompatible(
+    final K key)
+  {
+    final K available = this.free_keys.higher(key);
+    if (available == null) {
+      return null;
+    }
+    if (!this.key_compatibility.isCompatible(key, available)) {
+      return null;
+    }
+    return this.keyTake(available);
+  }
+
+  private void keyRemoveOldest(
+    final TimedEntry<K, T> oldest)
+  {
+    final TimedEntry<K, T> next = oldest.key_newer;
+    if (next == null) {
+      this.entries_free.remove(oldest.key);
+      if (this.free_keys != null) {
+        this.free_keys.remove(oldest.key);
+      }
+    } else {
+      next.key_older = null;
+      next.key_newest = oldest.key_newest;
+      this.entries_free.put(oldest.key, next);
+    }
+    oldest.key_newer = null;
+    oldest.key_newest = null;
+  }
+
+  private void keyRemove(
+    final TimedEntry<K, T> e)
+  {
+    final TimedEntry<K, T> older = e.key_older;
+    if (older == null) {
+      this.keyRemoveOldest(e);
+      return;
+    }
+
+    final TimedEntry<K, T> newer = e.key_newer;
+    older.key_newer = newer;
+    if (newer == null) {
+      this.entries_free.get(e.key).key_newest = older;
+    } else {
+      newer.key_older = older;
+    }
+    e.key_older = null;
+    e.key_newer = null;
+  }
+
+  private void keyPut(
+    final TimedEntry<K, T> e)
+  {
+    final TimedEntry<K, T> oldest = this.entries_free.get(e.key);
+    if (oldest == null) {
+      e.key_older = null;
+      e.key_newest = e;
+      this.entries_free.put(e.key, e);
+      if (this.free_keys != null) {
+        this.free_keys.add(e.key);
+      }
+    } else {
+      e.key_older = oldest.key_newest;
+      oldest.key_newest.key_newer = e;
+      oldest.key_newest = e;
+    }
+  }
+
+  /*
+   * The usage of a quota class is created when an object of the class is
+   * about to be created, but is only held in quota_usage while the pool
+   * holds objects of the class. The free entries of each class are linked
+   * into a list, through the entries themselves, in the order in which they
+   * were returned. Classes that exceed their soft limits and have free
+   * entries are held in quotas_over, so that the least recently used free
+   * entry of such a class is found in constant time.
+   */
+
+  private QuotaUsage<K, T> quotaFor(
+    final K key)
+  {
+    if (this.quotas == null) {
+      return null;
+    }
+
+    final Object quota_class = this.quotas.quotaClass(key);
+    if (quota_class == null) {
+      return null;
+    }
+
+    final QuotaUsage<K, T> q = this.quota_usage.get(quota_class);
+    if (q != null) {
+      return q;
+    }
+
+    return new QuotaUsage<>(
+      quota_class,
+      Objects.requireNonNull(this.quotas.quota(quota_class), "Quota"));
+  }
+
+  private void quotaAdd(
+    final TimedEntry<K, T> e,
+    final QuotaUsage<K, T> q)
+  {
+    if (q.entries == 0L) {
+      this.quota_usage.put(q.quota_class, q);
+    }
+    ++q.entries;
+    q.size = BigUnsigned.checkedAddLong(q.size, e.size);
+    e.quota = q;
+    this.quotaCheckOver(q);
+  }
+
+  private void quotaRelease(
+    final TimedEntry<K, T> e)
+  {
+    final QuotaUsage<K, T> q = e.quota;
+    e.quota = null;
+    --q.entries;
+    q.size = BigUnsigned.checkedSubtractLong(q.size, e.size);
+    if (q.entries == 0L) {
+      this.quota_usage.remove(q.quota_class);
+      this.quotas_over.remove(q);
+    } else {
+      this.quotaCheckOver(q);
+    }
+  }
+
+  private void quotaLink(
+    final TimedEntry<K, T> e)
+  {
+    final QuotaUsage<K, T> q = e.quota;
+    final TimedEntry<K, T> newest = q.free_newest;
+    e.quota_older = newest;
+    e.quota_newer = null;
+    if (newest == null) {
+      q.free_oldest = e;
+    } else {
+      newest.quota_newer = e;
+    }
+    q.free_newest = e;
+    this.quotaCheckOver(q);
+  }
+
+  private void quotaUnlink(
+    final TimedEntry<K, T> e)
   {
-    final SortedSet<T> xs =
-      m.getOrDefault(key, new ObjectRBTreeSet<>());
+    final QuotaUsage<K, T> q = e.quota;
+    final TimedEntry<K, T> older = e.quota_older;
+    final TimedEntry<K, T> newer = e.quota_newer;
+    if (older == null) {
+      q.free_oldest = newer;
+    } else {
+      older.quota_newer = newer;
+    }
+    if (newer == null) {
+      q.free_newest = older;
+    } else {
+      newer.quota_older = older;
+    }
+    e.quota_older = null;
+    e.quota_newer = null;
+    this.quotaCheckOver(q);
+  }
 
-    xs.add(value);
-    m.put(key, xs);
+  private void quotaCheckOver(
+    final QuotaUsage<K, T> q)
+  {
+    if (q.free_oldest != null && q.isOverSoftLimit()) {
+      this.quotas_over.add(q);
+    } else {
+      this.quotas_over.remove(q);
+    }
   }
 
   /**
@@ -142,7 +522,108 @@ public final class JPPoolSynchronous<K, T extends U, U, C> implements
     final long soft_limit,
     final long hard_limit)
   {
-    return new JPPoolSynchronous<>(listener, soft_limit, hard_limit);
+    return JPPoolSynchronous.<K, T, U, C>builder(
+        listener, soft_limit, hard_limit)
+      .build();
+  }
+
+  /**
+   * Create a builder for a new pool. The size of the pool will never exceed
+   * {@code hard_limit}, and free (unused) objects within the pool will be
+   * trimmed so that the size of the pool stays at (at most) {@code
+   * soft_limit}.
+   *
+   * @param listener   The listener that will manipulate objects within the
+   *                   pool
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   * @param <K>        The type of keys
+   * @param <T>        The type of values
+   * @param <U>        The type of user-visible pooled values
+   * @param <C>        The type of contextual values
+   *
+   * @return A new builder
+   */
+
+  public static <K, T extends U, U, C> JPPoolSynchronousBuilder<K, T, U, C>
+  builder(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit)
+  {
+    return new JPPoolSynchronousBuilder<>(listener, soft_limit, hard_limit);
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be trimmed,
+   * at times determined by {@code trim_scheduler}, so that the size of the
+   * pool stays at (at most) {@code soft_limit}.
+   *
+   * @param listener       The listener that will manipulate objects within
+   *                       the pool
+   * @param soft_limit     The soft size limit
+   * @param hard_limit     The hard size limit
+   * @param trim_scheduler The trim scheduler, which must not trim the pool
+   *                       from other threads
+   * @param <K>            The type of keys
+   * @param <T>            The type of values
+   * @param <U>            The type of user-visible pooled values
+   * @param <C>            The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolSynchronous<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return JPPoolSynchronous.<K, T, U, C>builder(
+        listener, soft_limit, hard_limit)
+      .setTrimScheduler(trim_scheduler)
+      .build();
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be trimmed,
+   * at times determined by {@code trim_scheduler}, so that the size of the
+   * pool stays at (at most) {@code soft_limit}. Free objects that have not
+   * been used for at least {@code max_idle}, as measured by {@code clock},
+   * will be trimmed regardless of the size of the pool.
+   *
+   * @param listener       The listener that will manipulate objects within
+   *                       the pool
+   * @param soft_limit     The soft size limit
+   * @param hard_limit     The hard size limit
+   * @param max_idle       The maximum time that an object may remain free
+   * @param clock          The clock used to measure idle times
+   * @param trim_scheduler The trim scheduler, which must not trim the pool
+   *                       from other threads
+   * @param <K>            The type of keys
+   * @param <T>            The type of values
+   * @param <U>            The type of user-visible pooled values
+   * @param <C>            The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <K, T extends U, U, C> JPPoolSynchronous<K, T, U, C>
+  newPoolWithIdleExpiry(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final Duration max_idle,
+    final JPPoolClockType clock,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return JPPoolSynchronous.<K, T, U, C>builder(
+        listener, soft_limit, hard_limit)
+      .setIdleExpiry(max_idle, clock)
+      .setTrimScheduler(trim_scheduler)
+      .build();
   }
 
   @Override
@@ -156,239 +637,1315 @@ public final class JPPoolSynchronous<K, T extends U, U, C> implements
     throws JPPoolException
   {
     Objects.requireNonNull(context, "Context");
+    this.trim_requested = false;
+    this.trimAtMost(context, Long.MAX_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Request that the pool be trimmed, as if by {@link #trim(Object)}, on
+   * the next call to {@code get}, {@code getAll}, {@code returnValue}, or
+   * {@code returnAll}. Unlike the other methods of the pool, this method
+   * may be called from any thread.
+   */
+
+  public void requestTrim()
+  {
+    this.trim_requested = true;
+  }
+
+  /**
+   * This method may be called from any thread.
+   *
+   * @return {@code true} if a trim has been requested with
+   * {@link #requestTrim()} and the pool has not yet been trimmed
+   */
+
+  public boolean isTrimRequested()
+  {
+    return this.trim_requested;
+  }
+
+  /**
+   * @return The soft size limit
+   */
+
+  public long sizeLimitSoft()
+  {
+    return this.size_limit_soft;
+  }
+
+  /**
+   * @return The hard size limit
+   */
+
+  public long sizeLimitHard()
+  {
+    return this.size_limit_hard;
+  }
+
+  /**
+   * Set the soft size limit. If the pool exceeds the new limit, it is
+   * trimmed (or the trim scheduler is notified) on the next call to
+   * {@code get}, {@code getAll}, {@code returnValue}, or {@code returnAll}.
+   * Unlike the other methods of the pool, this method may be called from
+   * any thread.
+   *
+   * @param limit The new soft size limit, which must not exceed the hard
+   *              size limit
+   */
+
+  public void setSizeLimitSoft(
+    final long limit)
+  {
+    this.size_limit_soft =
+      UnsignedRangeCheck.checkLessEqualLong(
+        limit,
+        "Soft limit",
+        this.size_limit_hard,
+        "Hard limit");
+  }
+
+  @Override
+  public boolean trimBatch(
+    final C context,
+    final int max_count)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    if (this.deleted) {
+      return false;
+    }
+    return this.trimAtMost(context, max_count, max_count);
+  }
+
+  /*
+   * Trim at most max_count values, of which at most max_expired may be
+   * values that are removed only because they have been idle for too long.
+   */
 
+  private boolean trimAtMost(
+    final C context,
+    final long max_count,
+    final long max_expired)
+  {
     /*
-     * Remove the least recently fetched values first.
+     * Remove the least recently used values first. Free values are ordered
+     * by the time at which they were returned to the pool, and so the
+     * longest idle value is always the first.
      */
 
-    while (true) {
-      if (Long.compareUnsigned(this.size_now, this.size_limit_soft) <= 0) {
-        return;
+    final JPPoolEventTrim event = JPPoolEvents.trimBegin();
+    final long size_then = this.size_now;
+    final long now = this.now();
+    long expired = 0L;
+    long count = 0L;
+    boolean more = true;
+
+    for (; count < max_count; ++count) {
+      final TimedEntry<K, T> oldest = this.free_oldest;
+      if (oldest == null) {
+        more = false;
+        break;
       }
 
-      if (this.entries_free_timed.isEmpty()) {
-        return;
+      final TimedEntry<K, T> victim;
+      if (!this.quotas_over.isEmpty()) {
+        victim = this.quotas_over.first().free_oldest;
+      } else if (this.isOverSoftLimit()) {
+        victim = this.victim(oldest);
+      } else {
+        if (expired == max_expired || !this.isExpired(oldest, now)) {
+          more = false;
+          break;
+        }
+        ++expired;
+        victim = oldest;
       }
 
-      final TimedEntry<K, T> oldest = this.entries_free_timed.first();
-      this.evict(context, oldest);
-    }
+      this.evict(context, victim);
+    }
+
+    if (more) {
+      more = this.isTrimPossible(now);
+    }
+    this.trim_pending = more;
+    JPPoolEvents.trimEnd(
+      event, count, size_then - this.size_now, this.size_now);
+    return more;
+  }
+
+  /*
+   * Choose the victim used to bring the pool under its soft limit. Without
+   * an eviction policy, the victim is the least recently used free entry.
+   */
+
+  @SuppressWarnings("unchecked")
+  private TimedEntry<K, T> victim(
+    final TimedEntry<K, T> oldest)
+  {
+    if (this.policy == null) {
+      return oldest;
+    }
+
+    final TimedEntry<K, T> victim = (TimedEntry<K, T>) this.policy.victim();
+    Invariants.checkInvariant(
+      victim != null,
+      "Eviction policy must choose a victim when free entries exist");
+    return victim;
+  }
+
+  private long now()
+  {
+    return this.idle_expiry ? this.clock.nanoTime() : 0L;
+  }
+
+  private boolean isExpired(
+    final TimedEntry<K, T> e,
+    final long now)
+  {
+    return this.idle_expiry && now - e.idle_since >= this.idle_max;
+  }
+
+  private boolean isOverSoftLimit()
+  {
+    return Long.compareUnsigned(this.size_now, this.size_limit_soft) > 0;
+  }
+
+  private boolean isTrimPossible(
+    final long now)
+  {
+    final TimedEntry<K, T> oldest = this.free_oldest;
+    if (oldest == null) {
+      return false;
+    }
+    return this.isOverSoftLimit()
+      || !this.quotas_over.isEmpty()
+      || this.isExpired(oldest, now);
+  }
+
+  /*
+   * Trim the pool inline, or notify the trim scheduler that the pool
+   * requires trimming.
+   */
+
+  private void trimOrSchedule(
+    final C context)
+  {
+    if (this.trim_requested) {
+      this.trim(context);
+      return;
+    }
+
+    if (this.trim_inline) {
+      this.trimAtMost(context, Long.MAX_VALUE, EXPIRY_BATCH);
+      return;
+    }
+
+    if (!this.trim_pending && this.isTrimPossible(this.now())) {
+      this.trim_pending = true;
+      this.trim_scheduler.onTrimRequired(this);
+    }
+  }
+
+  private void checkNotDeleted()
+  {
+    if (this.deleted) {
+      throw new JPPoolDeletedException("Pool has been deleted.");
+    }
+  }
+
+  @Override
+  public T get(
+    final C context,
+    final K key)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+
+    this.checkNotDeleted();
+
+    /*
+     * Trim the pool down to the soft limit, if possible.
+     */
+
+    this.trimOrSchedule(context);
+
+    final TimedEntry<K, T> e = this.borrow(context, key);
+    this.entries_used.put(e.value, e);
+    return e.value;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned lease refers to the borrowed object by a slot index,
+   * and closing it does not look up the object by identity. A leased
+   * object cannot be returned with {@link #returnValue(Object, Object)}.
+   * Leases that are still open when the pool is deleted with
+   * {@link #deleteUnsafely(Object)} are closed by the pool.</p>
+   */
+
+  @Override
+  public JPLeaseType<U> lease(
+    final C context,
+    final K key)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(key, "Key");
+
+    this.checkNotDeleted();
+    this.trimOrSchedule(context);
+
+    final TimedEntry<K, T> e = this.borrow(context, key);
+    final int slot = this.leaseSlot();
+    this.lease_entries[slot] = e;
+    ++this.lease_count;
+    return new Lease<>(
+      this, context, e.value, slot, this.lease_generations[slot]);
+  }
+
+  private TimedEntry<K, T> borrow(
+    final C context,
+    final K key)
+  {
+    /*
+     * Check if there is a free element that matches the current key, or
+     * failing that, a compatible key.
+     */
+
+    final TimedEntry<K, T> free = this.takeFree(key);
+    if (free != null) {
+      return this.reuse(context, free);
+    }
+
+    this.statistics.onMiss();
+    if (this.key_sketch != null) {
+      this.key_sketch.onMiss(key);
+    }
+
+    /*
+     * Check the estimated size against the hard limits.
+     */
+
+    final QuotaUsage<K, T> quota = this.quotaFor(key);
+    final long e_size = this.estimateSize(context, key);
+    this.checkEstimatedSizeAgainstQuota(context, key, quota, e_size);
+    this.checkEstimatedSizeAgainstLimit(context, key, e_size);
+    return this.create(context, key, quota);
+  }
+
+  @Override
+  public List<U> getAll(
+    final C context,
+    final List<? extends K> keys)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(keys, "Keys");
+
+    final int count = keys.size();
+    for (int index = 0; index < count; ++index) {
+      Objects.requireNonNull(keys.get(index), "Key");
+    }
+
+    this.checkNotDeleted();
+    this.trimOrSchedule(context);
+
+    /*
+     * Take free objects for as many keys as possible, and then check the
+     * estimated size of all the objects that must be created against the
+     * hard limit at once. A null value marks a key that requires a new
+     * object.
+     */
+
+    final ObjectArrayList<U> values = new ObjectArrayList<>(count);
+    values.size(count);
+
+    try {
+      long e_total = 0L;
+      long[] e_sizes = null;
+
+      for (int index = 0; index < count; ++index) {
+        final K key = keys.get(index);
+        final TimedEntry<K, T> free = this.takeFree(key);
+        if (free != null) {
+          values.set(index, this.used(this.reuse(context, free)));
+          continue;
+        }
+
+        this.statistics.onMiss();
+        if (this.key_sketch != null) {
+          this.key_sketch.onMiss(key);
+        }
+        if (e_sizes == null) {
+          e_sizes = new long[count];
+        }
+        final long e_size = this.estimateSize(context, key);
+        e_sizes[index] = e_size;
+        try {
+          e_total = BigUnsigned.checkedAddLong(e_total, e_size);
+        } catch (final ArithmeticException e) {
+          throw new JPPoolInternalOverflowException(e);
+        }
+      }
+
+      if (e_sizes == null) {
+        return values;
+      }
+
+      this.checkEstimatedSizeAgainstLimit(context, null, e_total);
+
+      for (int index = 0; index < count; ++index) {
+        if (values.get(index) == null) {
+          final K key = keys.get(index);
+          final QuotaUsage<K, T> quota = this.quotaFor(key);
+          this.checkEstimatedSizeAgainstQuota(
+            context, key, quota, e_sizes[index]);
+          values.set(index, this.used(this.create(context, key, quota)));
+        }
+      }
+      return values;
+    } catch (final RuntimeException e) {
+      this.rollBack(values);
+
+      /*
+       * The returned objects may have taken the pool over its soft limit.
+       * A failure to trim must not hide the original failure.
+       */
+
+      try {
+        this.trimOrSchedule(context);
+      } catch (final RuntimeException x) {
+        e.addSuppressed(x);
+      }
+      throw e;
+    }
+  }
+
+  /*
+   * Return every object retrieved by a failed batch.
+   */
+
+  private void rollBack(
+    final ObjectArrayList<U> values)
+  {
+    final long now = this.now();
+    for (int index = 0; index < values.size(); ++index) {
+      final U value = values.get(index);
+      if (value != null) {
+        this.returnBorrowed(this.entries_used.remove(value), now);
+      }
+    }
+  }
+
+  private TimedEntry<K, T> takeFree(
+    final K key)
+  {
+    if (this.free_oldest == null) {
+      return null;
+    }
+
+    final TimedEntry<K, T> r = this.keyTake(key);
+    if (r == null && this.free_keys != null) {
+      return this.keyTakeCompatible(key);
+    }
+    return r;
+  }
+
+  private T used(
+    final TimedEntry<K, T> e)
+  {
+    this.entries_used.put(e.value, e);
+    return e.value;
+  }
+
+  private TimedEntry<K, T> reuse(
+    final C context,
+    final TimedEntry<K, T> r)
+  {
+    this.freeUnlink(r);
+    this.statistics.onHit(r.size);
+    if (this.key_sketch != null) {
+      this.key_sketch.onHit(r.key);
+    }
+    if (r.quota != null) {
+      this.quotaUnlink(r);
+    }
+    ++this.time;
+    r.time = this.time;
+    if (this.policy != null) {
+      this.policy.onReuse(r);
+    }
+
+    this.listener.onReuse(context, r.key, r.value);
+    this.leakSample(r);
+    return r;
+  }
+
+  private TimedEntry<K, T> create(
+    final C context,
+    final K key,
+    final QuotaUsage<K, T> quota)
+  {
+    final JPPoolEventCreate event = JPPoolEvents.createBegin();
+    final T r = this.createValue(context, key);
+    final long size = this.sizeOfCreated(context, key, r);
+
+    /*
+     * Check the size of the created object against the hard limit. Fail
+     * and delete it if the limit is exceeded.
+     */
+
+    final long new_size = this.checkNewSize(context, key, r, size, quota);
+
+    /*
+     * Add a new entry for the object.
+     */
+
+    final TimedEntry<K, T> e = this.addNewEntry(key, r, size, new_size, quota);
+    if (this.key_sketch != null) {
+      this.key_sketch.onCreate(key, size);
+    }
+    this.leakSample(e);
+    JPPoolEvents.createEnd(event, key, size, new_size);
+    return e;
+  }
+
+  private TimedEntry<K, T> addNewEntry(
+    final K key,
+    final T value,
+    final long size,
+    final long new_size,
+    final QuotaUsage<K, T> quota)
+  {
+    ++this.time;
+    this.size_now = new_size;
+    this.statistics.onCreate(size);
+
+    final TimedEntry<K, T> te;
+    if (this.entries_cache.isEmpty()) {
+      te = new TimedEntry<>();
+    } else {
+      te = this.entries_cache.pop();
+    }
+
+    te.key = key;
+    te.size = size;
+    te.time = this.time;
+    te.value = value;
+    if (quota != null) {
+      this.quotaAdd(te, quota);
+    }
+    if (this.policy != null) {
+      this.policy.onCreate(te);
+    }
+    return te;
+  }
+
+  /*
+   * Record the borrow site of one in every leak_interval borrowed objects,
+   * and check the sampled objects for leaks.
+   */
+
+  private void leakSample(
+    final TimedEntry<K, T> e)
+  {
+    if (this.leak_interval == 0 || --this.leak_countdown != 0) {
+      return;
+    }
+
+    this.leak_countdown = this.leak_interval;
+
+    final long now = this.clock.nanoTime();
+    e.borrow_site = new Throwable("Borrow site");
+    e.borrowed_at = now;
+    e.leak_reported = false;
+    e.leak_older = this.leak_newest;
+    e.leak_newer = null;
+    if (this.leak_newest != null) {
+      this.leak_newest.leak_newer = e;
+    } else {
+      this.leak_oldest = e;
+    }
+    this.leak_newest = e;
+
+    if (now - this.leak_check_next >= 0L) {
+      this.leak_check_next = now + this.leak_threshold;
+      this.leakReport(now);
+    }
+  }
+
+  private void leakUnlink(
+    final TimedEntry<K, T> e)
+  {
+    if (e.leak_older != null) {
+      e.leak_older.leak_newer = e.leak_newer;
+    } else {
+      this.leak_oldest = e.leak_newer;
+    }
+    if (e.leak_newer != null) {
+      e.leak_newer.leak_older = e.leak_older;
+    } else {
+      this.leak_newest = e.leak_older;
+    }
+    e.leak_older = null;
+    e.leak_newer = null;
+    e.borrow_site = null;
+  }
+
+  private void leakReport(
+    final long now)
+  {
+    ObjectArrayList<JPPoolLeakType<K, U>> leaks = null;
+    for (TimedEntry<K, T> e = this.leak_oldest;
+         e != null && now - e.borrowed_at >= this.leak_threshold;
+         e = e.leak_newer) {
+      if (!e.leak_reported) {
+        e.leak_reported = true;
+        if (leaks == null) {
+          leaks = new ObjectArrayList<>();
+        }
+        leaks.add(leakOf(e, now));
+      }
+    }
+
+    if (leaks != null) {
+      this.leak_reporter.onLeaksDetected(leaks);
+    }
+  }
+
+  private static <K, T extends U, U> JPPoolLeakType<K, U> leakOf(
+    final TimedEntry<K, T> e,
+    final long now)
+  {
+    return new JPPoolLeak<>(
+      e.key,
+      e.value,
+      Duration.ofNanos(now - e.borrowed_at),
+      e.borrow_site);
+  }
+
+  /*
+   * Check the size of the created object against the hard limits. Fail
+   * and delete it if a limit is exceeded.
+   */
+
+  private long checkNewSize(
+    final C context,
+    final K key,
+    final T r,
+    final long size,
+    final QuotaUsage<K, T> quota)
+  {
+    final long new_size;
+    long committed;
+    try {
+      new_size = BigUnsigned.checkedAddLong(this.size_now, size);
+      committed = BigUnsigned.checkedAddLong(new_size, this.sizeQueued());
+    } catch (final ArithmeticException e) {
+      this.listener.onDelete(context, key, r);
+      throw new JPPoolInternalOverflowException(e);
+    }
+
+    if (Long.compareUnsigned(committed, this.size_limit_hard) > 0
+      && this.deletions != null) {
+      this.deletions.drainAll(context);
+      committed = new_size + this.sizeQueued();
+    }
+
+    if (Long.compareUnsigned(committed, this.size_limit_hard) > 0) {
+      this.listener.onDelete(context, key, r);
+      this.hardLimitExceeded(key, null, this.size_limit_hard, committed);
+      throw JPPoolHardLimitExceededException.newException(
+        this.size_limit_hard,
+        committed);
+    }
+
+    if (quota != null) {
+      final long quota_size;
+      try {
+        quota_size = BigUnsigned.checkedAddLong(quota.size, size);
+      } catch (final ArithmeticException e) {
+        this.listener.onDelete(context, key, r);
+        throw new JPPoolInternalOverflowException(e);
+      }
+
+      if (Long.compareUnsigned(quota_size, quota.size_limit_hard) > 0) {
+        this.listener.onDelete(context, key, r);
+        this.hardLimitExceeded(
+          key, quota.quota_class, quota.size_limit_hard, quota_size);
+        throw JPPoolQuotaHardLimitExceededException.newException(
+          quota.quota_class,
+          quota.size_limit_hard,
+          quota_size);
+      }
+    }
+    return new_size;
+  }
+
+  private T createValue(
+    final C context,
+    final K key)
+  {
+    try {
+      return this.listener.onCreate(context, key);
+    } catch (final Throwable e) {
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  private long sizeOfCreated(
+    final C context,
+    final K key,
+    final T r)
+  {
+    try {
+      return this.listener.onGetSize(context, key, r);
+    } catch (final Throwable e) {
+      this.listener.onDelete(context, key, r);
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  private long estimateSize(
+    final C context,
+    final K key)
+  {
+    try {
+      return this.listener.onEstimateSize(context, key);
+    } catch (final Throwable e) {
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  /*
+   * Check the estimated size against the hard limit of a quota, if any.
+   * Free objects of the same quota class are deleted if the estimated size
+   * would not fit within the quota.
+   */
+
+  private void checkEstimatedSizeAgainstQuota(
+    final C context,
+    final K key,
+    final QuotaUsage<K, T> quota,
+    final long e_size)
+  {
+    if (quota == null) {
+      return;
+    }
+
+    while (quota.free_oldest != null && quota.isOverHardLimit(e_size)) {
+      this.evict(context, quota.free_oldest);
+    }
+
+    if (quota.isOverHardLimit(e_size)) {
+      final long size = BigUnsigned.checkedAddLong(quota.size, e_size);
+      this.hardLimitExceeded(
+        key, quota.quota_class, quota.size_limit_hard, size);
+      throw JPPoolQuotaHardLimitExceededException.newException(
+        quota.quota_class,
+        quota.size_limit_hard,
+        size);
+    }
+  }
+
+  /*
+   * Check the estimated size against the hard limit. If trimming has been
+   * deferred, trim the pool first if the estimated size would not fit.
+   */
+
+  private void checkEstimatedSizeAgainstLimit(
+    final C context,
+    final K key,
+    final long e_size)
+  {
+    if (this.isEstimateOverHardLimit(e_size) && !this.trim_inline) {
+      this.trimAtMost(context, Long.MAX_VALUE, 0L);
+    }
+
+    if (this.isEstimateOverHardLimit(e_size) && this.deletions != null) {
+      this.deletions.drainAll(context);
+    }
+
+    if (this.isEstimateOverHardLimit(e_size)) {
+      final long size =
+        BigUnsigned.checkedAddLong(this.sizeCommitted(), e_size);
+      this.hardLimitExceeded(key, null, this.size_limit_hard, size);
+      throw JPPoolHardLimitExceededException.newException(
+        this.size_limit_hard,
+        size);
+    }
+  }
+
+  private void hardLimitExceeded(
+    final K key,
+    final Object quota_class,
+    final long limit,
+    final long size)
+  {
+    this.statistics.onHardLimitFailure();
+    JPPoolEvents.hardLimitExceeded(
+      key, quota_class, limit, size, this.size_now);
+  }
+
+  private long sizeQueued()
+  {
+    return this.deletions == null ? 0L : this.deletions.size();
+  }
+
+  /*
+   * The size of all objects that have not yet been deleted: the objects in
+   * the pool, and the objects in the deletion queue, if any.
+   */
+
+  private long sizeCommitted()
+  {
+    try {
+      return BigUnsigned.checkedAddLong(this.size_now, this.sizeQueued());
+    } catch (final ArithmeticException e) {
+      throw new JPPoolInternalOverflowException(e);
+    }
+  }
+
+  private boolean isEstimateOverHardLimit(
+    final long e_size)
+  {
+    final long estimated_new;
+
+    try {
+      estimated_new = BigUnsigned.checkedAddLong(this.sizeCommitted(), e_size);
+    } catch (final ArithmeticException e) {
+      throw new JPPoolInternalOverflowException(e);
+    }
+
+    return Long.compareUnsigned(estimated_new, this.size_limit_hard) > 0;
+  }
+
+  private void evict(
+    final C context,
+    final TimedEntry<K, T> e)
+  {
+    Preconditions.checkPrecondition(
+      e.key,
+      this.entries_free.containsKey(e.key),
+      k -> "Key " + k + " must be free");
+
+    Preconditions.checkPreconditionL(
+      this.size_now,
+      Long.compareUnsigned(this.size_now, 0L) > 0,
+      x -> "Size " + x + " must be > 0");
+
+    this.keyRemove(e);
+    this.freeUnlink(e);
+    if (e.quota != null) {
+      this.quotaUnlink(e);
+      this.quotaRelease(e);
+    }
+    if (this.policy != null) {
+      this.policy.onDelete(e);
+    }
+
+    this.size_now = BigUnsigned.checkedSubtractLong(this.size_now, e.size);
+    this.statistics.onEvict(e.size);
+    if (this.key_sketch != null) {
+      this.key_sketch.onEvict(e.key);
+    }
+
+    Postconditions.checkPostconditionL(
+      this.size_now,
+      Long.compareUnsigned(this.size_now, 0L) >= 0,
+      x -> "Size " + x + " must be >= 0");
+
+    final JPPoolEventEvict event = JPPoolEvents.evictBegin();
+    final boolean deferred = this.deletions != null;
+    if (deferred) {
+      this.deletions.enqueue(e.key, e.value, e.size);
+    } else {
+      this.listener.onDelete(context, e.key, e.value);
+    }
+    JPPoolEvents.evictEnd(event, e.key, e.size, this.size_now, deferred);
+
+    if (this.entries_cache.size() < ENTRY_CACHE_LIMIT) {
+      e.key = null;
+      e.value = null;
+      this.entries_cache.push(e);
+    }
+  }
+
+  @Override
+  public void returnValue(
+    final C context,
+    final U value)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(value, "Value");
+
+    this.checkNotDeleted();
+
+    final TimedEntry<K, T> e = this.entries_used.remove(value);
+    if (e != null) {
+      this.returnBorrowed(e, this.now());
+      this.statistics.onReturn(1);
+      this.trimOrSchedule(context);
+      return;
+    }
+
+    throw errorNotActive(value);
+  }
+
+  @Override
+  public void returnAll(
+    final C context,
+    final List<? extends U> values)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(values, "Values");
+
+    final int count = values.size();
+    for (int index = 0; index < count; ++index) {
+      Objects.requireNonNull(values.get(index), "Value");
+    }
+
+    this.checkNotDeleted();
+
+    /*
+     * Remove every value from the set of used values before returning any
+     * of them, so that a batch containing a value that is not active, or
+     * that contains a value twice, is rejected as a whole.
+     */
+
+    final ObjectArrayList<TimedEntry<K, T>> batch = this.batch_entries;
+    try {
+      for (int index = 0; index < count; ++index) {
+        final U value = values.get(index);
+        final TimedEntry<K, T> e = this.entries_used.remove(value);
+        if (e == null) {
+          for (int undo = 0; undo < batch.size(); ++undo) {
+            final TimedEntry<K, T> u = batch.get(undo);
+            this.entries_used.put(u.value, u);
+          }
+          throw errorNotActive(value);
+        }
+        batch.add(e);
+      }
+
+      final long now = this.now();
+      for (int index = 0; index < count; ++index) {
+        this.returnBorrowed(batch.get(index), now);
+      }
+    } finally {
+      batch.clear();
+    }
+
+    this.statistics.onReturn(count);
+    this.trimOrSchedule(context);
+  }
+
+  private void returnBorrowed(
+    final TimedEntry<K, T> e,
+    final long now)
+  {
+    if (this.key_sketch != null) {
+      this.key_sketch.onReturn(e.key);
+    }
+    if (e.borrow_site != null) {
+      this.leakUnlink(e);
+    }
+    this.returnEntry(e, now);
+  }
+
+  /*
+   * Take a free lease slot, growing the slot table if necessary. Slots are
+   * reused most recently freed first.
+   */
+
+  private int leaseSlot()
+  {
+    if (this.lease_free_count > 0) {
+      --this.lease_free_count;
+      return this.lease_free[this.lease_free_count];
+    }
+
+    final int slot = this.lease_high;
+    if (slot == this.lease_entries.length) {
+      final int capacity = Math.multiplyExact(slot, 2);
+      final TimedEntry<K, T>[] entries = newEntryArray(capacity);
+      System.arraycopy(this.lease_entries, 0, entries, 0, slot);
+      this.lease_entries = entries;
+      this.lease_generations =
+        Arrays.copyOf(this.lease_generations, capacity);
+      this.lease_free = Arrays.copyOf(this.lease_free, capacity);
+    }
+    ++this.lease_high;
+    return slot;
+  }
+
+  /*
+   * Release a lease slot, changing its generation so that any lease that
+   * still refers to it is recognized as closed. Generations are long
+   * values so that a slot cannot wrap around to the generation of a
+   * lease that is still held, however many leases are taken.
+   */
+
+  private TimedEntry<K, T> leaseRelease(
+    final int slot)
+  {
+    final TimedEntry<K, T> e = this.lease_entries[slot];
+    this.lease_entries[slot] = null;
+    ++this.lease_generations[slot];
+    this.lease_free[this.lease_free_count] = slot;
+    ++this.lease_free_count;
+    --this.lease_count;
+    return e;
+  }
+
+  private void leaseClose(
+    final C context,
+    final int slot,
+    final long generation)
+  {
+    /*
+     * Deletion releases every slot, and so a lease that is open when the
+     * pool is deleted no longer matches the generation of its slot.
+     */
+
+    if (this.lease_generations[slot] != generation) {
+      if (this.deleted) {
+        return;
+      }
+      throw new JPPoolObjectReturnException("Lease has already been closed.");
+    }
+
+    this.checkNotDeleted();
+    this.returnBorrowed(this.leaseRelease(slot), this.now());
+    this.statistics.onReturn(1);
+    this.trimOrSchedule(context);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, T> TimedEntry<K, T>[] newEntryArray(
+    final int size)
+  {
+    return (TimedEntry<K, T>[]) new TimedEntry<?, ?>[size];
+  }
+
+  private void returnEntry(
+    final TimedEntry<K, T> e,
+    final long now)
+  {
+    ++this.time;
+    e.time = this.time;
+    e.idle_since = now;
+    this.statistics.onFree(e.size);
+    this.keyPut(e);
+    this.freeLink(e);
+    if (e.quota != null) {
+      this.quotaLink(e);
+    }
+    if (this.policy != null) {
+      this.policy.onReturn(e);
+    }
+  }
+
+  private static JPPoolObjectReturnException errorNotActive(
+    final Object value)
+  {
+    final StringBuilder sb = new StringBuilder(128);
+    sb.append("Returned value not active!");
+    sb.append(SEPARATOR);
+    sb.append("Value: ");
+    sb.append(value);
+    sb.append(SEPARATOR);
+    return new JPPoolObjectReturnException(sb.toString());
+  }
+
+  /**
+   * Create free objects ahead of time, so that later calls to {@code get}
+   * for the given keys are satisfied without creating objects. Objects are
+   * created on the calling thread until the pool holds at least the given
+   * number of free objects for each key, or until another object would take
+   * the pool over its soft limit, or over the soft limit of the quota of its
+   * key. Keys are visited in the iteration order of {@code counts}.
+   *
+   * @param context A context value
+   * @param counts  The number of free objects required for each key
+   *
+   * @return The number of objects created
+   *
+   * @throws JPPoolObjectCreationException On exceptions raised during creation
+   *                                       of objects
+   * @throws JPPoolException               On errors
+   */
+
+  public int prewarm(
+    final C context,
+    final Map<K, Integer> counts)
+    throws JPPoolException
+  {
+    return this.prewarmActual(context, counts, null);
   }
 
-  private void checkNotDeleted()
+  /**
+   * Create free objects ahead of time, as with {@link #prewarm(Object,
+   * Map)}. If the pool's listener declares that creation is thread-safe,
+   * objects are created and measured in parallel by tasks submitted to
+   * {@code executor}, and this method waits for all of the tasks to
+   * complete. Otherwise, objects are created on the calling thread. Objects
+   * are always added to the pool, and deleted if they do not fit, on the
+   * calling thread. If any creation fails, the objects that were created
+   * successfully are still added to the pool before the failure is raised.
+   *
+   * @param context  A context value
+   * @param counts   The number of free objects required for each key
+   * @param executor The executor used to create objects
+   *
+   * @return The number of objects created
+   *
+   * @throws JPPoolObjectCreationException On exceptions raised during creation
+   *                                       of objects
+   * @throws JPPoolException               On errors
+   * @see JPPoolableListenerType#isCreationThreadSafe()
+   */
+
+  public int prewarm(
+    final C context,
+    final Map<K, Integer> counts,
+    final Executor executor)
+    throws JPPoolException
   {
-    if (this.deleted) {
-      throw new JPPoolDeletedException("Pool has been deleted.");
+    Objects.requireNonNull(executor, "Executor");
+
+    if (this.listener.isCreationThreadSafe()) {
+      return this.prewarmActual(context, counts, executor);
     }
+    return this.prewarmActual(context, counts, null);
   }
 
-  @Override
-  public T get(
+  private int prewarmActual(
     final C context,
-    final K key)
-    throws JPPoolException
+    final Map<K, Integer> counts,
+    final Executor executor)
   {
     Objects.requireNonNull(context, "Context");
-    Objects.requireNonNull(key, "Key");
+    Objects.requireNonNull(counts, "Counts");
 
     this.checkNotDeleted();
 
     /*
-     * Trim the pool down to the soft limit, if possible.
-     */
-
-    this.trim(context);
-
-    /*
-     * Check if there is a free element that matches the current key.
+     * Plan the objects to be created using the listener's estimates, so that
+     * creation can be distributed before any actual sizes are known. Each
+     * object is checked against the soft limits again, using its actual
+     * size, as it is added.
      */
 
-    if (!this.entries_free_timed.isEmpty()) {
-      final TimedEntry<K, T> r =
-        mapListTake(this.entries_free, key);
-
-      if (r != null) {
-        this.entries_free_timed.remove(r);
-        ++this.time;
-        r.time = this.time;
-
-        this.entries_used.put(r.value, r);
-        this.listener.onReuse(context, r.key, r.value);
-        return r.value;
+    final ObjectArrayList<K> plan = new ObjectArrayList<>();
+    long planned = this.size_now;
+
+    for (final Map.Entry<K, Integer> entry : counts.entrySet()) {
+      final K key = Objects.requireNonNull(entry.getKey(), "Key");
+      final int count =
+        RangeCheck.checkIncludedInInteger(
+          entry.getValue().intValue(),
+          "Count",
+          COUNT_RANGE,
+          "Valid counts");
+
+      for (int index = this.freeCount(key); index < count; ++index) {
+        final long next =
+          planned + this.estimateSize(context, key);
+        if (Long.compareUnsigned(next, planned) < 0
+          || Long.compareUnsigned(next, this.size_limit_soft) > 0) {
+          break;
+        }
+        planned = next;
+        plan.add(key);
       }
     }
 
-    /*
-     * Check the estimated size against the hard limit.
-     */
-
-    this.checkEstimatedSizeAgainstLimit(context, key);
+    if (executor == null) {
+      int created = 0;
+      for (int index = 0; index < plan.size(); ++index) {
+        final K key = plan.get(index);
+        final T value = this.createValue(context, key);
+        final long size = this.sizeOfCreated(context, key, value);
+        if (this.prewarmAdd(context, key, value, size)) {
+          ++created;
+        }
+      }
+      return created;
+    }
 
-    /*
-     * Create a new value.
-     */
+    return this.prewarmParallel(context, plan, executor);
+  }
 
-    final T r;
-    final long size;
+  private int prewarmParallel(
+    final C context,
+    final ObjectArrayList<K> plan,
+    final Executor executor)
+  {
+    final int count = plan.size();
+    final ObjectArrayList<Prewarmed<K, T, C>> tasks =
+      new ObjectArrayList<>(count);
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
 
+    Throwable failure = null;
+    int submitted = 0;
     try {
-      r = this.listener.onCreate(context, key);
-    } catch (final Throwable e) {
-      throw new JPPoolObjectCreationException(e);
+      for (int index = 0; index < count; ++index) {
+        final Prewarmed<K, T, C> task =
+          new Prewarmed<>(this.listener, context, plan.get(index));
+        futures[index] = CompletableFuture.runAsync(task, executor);
+        tasks.add(task);
+        ++submitted;
+      }
+    } catch (final RuntimeException e) {
+      failure = e;
     }
 
-    try {
-      size = this.listener.onGetSize(context, key, r);
-    } catch (final Throwable e) {
-      this.listener.onDelete(context, key, r);
-      throw new JPPoolObjectCreationException(e);
+    for (int index = 0; index < submitted; ++index) {
+      futures[index].join();
     }
 
-    /*
-     * Check the size of the created object against the hard limit. Fail
-     * and delete it if the limit is exceeded.
-     */
-
-    final long new_size = this.checkNewSize(context, key, r, size);
-
-    /*
-     * Add a new entry for the object.
-     */
-
-    this.addNewEntry(key, r, size, new_size);
-    return r;
-  }
+    int created = 0;
+    for (int index = 0; index < submitted; ++index) {
+      final Prewarmed<K, T, C> task = tasks.get(index);
+      if (task.error != null) {
+        if (task.value != null) {
+          this.listener.onDelete(context, task.key, task.value);
+        }
+        if (failure == null) {
+          failure = task.error;
+        } else {
+          failure.addSuppressed(task.error);
+        }
+        continue;
+      }
 
-  private void addNewEntry(
-    final K key,
-    final T value,
-    final long size,
-    final long new_size)
-  {
-    ++this.time;
-    this.size_now = new_size;
+      if (this.prewarmAdd(context, task.key, task.value, task.size)) {
+        ++created;
+      }
+    }
 
-    final TimedEntry<K, T> te = new TimedEntry<>();
-    te.key = key;
-    te.size = size;
-    te.time = this.time;
-    te.value = value;
-    this.entries_used.put(te.value, te);
+    if (failure != null) {
+      throw new JPPoolObjectCreationException(failure);
+    }
+    return created;
   }
 
   /*
-   * Check the size of the created object against the hard limit. Fail
-   * and delete it if the limit is exceeded.
+   * Add a new object as a free object, if it fits within the soft limits.
+   * Otherwise, delete it.
    */
 
-  private long checkNewSize(
+  private boolean prewarmAdd(
     final C context,
     final K key,
-    final T r,
+    final T value,
     final long size)
   {
-    final long new_size;
-    try {
-      new_size = BigUnsigned.checkedAddLong(this.size_now, size);
-    } catch (final ArithmeticException e) {
-      this.listener.onDelete(context, key, r);
-      throw new JPPoolInternalOverflowException(e);
-    }
+    final QuotaUsage<K, T> quota = this.quotaFor(key);
+    final long new_size = this.size_now + size;
 
-    if (Long.compareUnsigned(new_size, this.size_limit_hard) > 0) {
-      this.listener.onDelete(context, key, r);
-      throw JPPoolHardLimitExceededException.newException(
-        this.size_limit_hard,
-        new_size);
+    final boolean fits =
+      Long.compareUnsigned(new_size, this.size_now) >= 0
+        && Long.compareUnsigned(new_size, this.size_limit_soft) <= 0
+        && (quota == null || quota.fitsSoftLimit(size));
+
+    if (!fits) {
+      this.listener.onDelete(context, key, value);
+      return false;
     }
-    return new_size;
-  }
 
-  /*
-   * Check the estimated size against the hard limit.
-   */
+    this.returnEntry(
+      this.addNewEntry(key, value, size, new_size, quota),
+      this.now());
+    return true;
+  }
 
-  private void checkEstimatedSizeAgainstLimit(
-    final C context,
+  private int freeCount(
     final K key)
   {
-    final long e_size;
-
-    try {
-      e_size = this.listener.onEstimateSize(context, key);
-    } catch (final Throwable e) {
-      throw new JPPoolObjectCreationException(e);
-    }
-
-    final long estimated_new;
-
-    try {
-      estimated_new = BigUnsigned.checkedAddLong(this.size_now, e_size);
-    } catch (final ArithmeticException e) {
-      throw new JPPoolInternalOverflowException(e);
-    }
-
-    if (Long.compareUnsigned(estimated_new, this.size_limit_hard) > 0) {
-      throw JPPoolHardLimitExceededException.newException(
-        this.size_limit_hard,
-        estimated_new);
+    int count = 0;
+    for (TimedEntry<K, T> e = this.entries_free.get(key);
+         e != null;
+         e = e.key_newer) {
+      ++count;
     }
+    return count;
   }
 
-  private void evict(
-    final C context,
-    final TimedEntry<K, T> e)
+  /**
+   * @return The deletion queue, if the pool defers deletion
+   *
+   * @see JPPoolSynchronousBuilder#setDeletionDeferred(boolean)
+   */
+
+  public Optional<JPPoolDeletionQueueType<C>> deletionQueue()
   {
-    Preconditions.checkPrecondition(
-      e.key,
-      this.entries_free.containsKey(e.key),
-      k -> "Key " + k + " must be free");
+    return Optional.ofNullable(this.deletions);
+  }
 
-    Preconditions.checkPreconditionL(
-      this.size_now,
-      Long.compareUnsigned(this.size_now, 0L) > 0,
-      x -> "Size " + x + " must be > 0");
+  /**
+   * Take a snapshot of the statistics of the pool. Unlike the other methods
+   * of the pool, this method may be called from any thread.
+   *
+   * @return The current statistics
+   */
 
-    final SortedSet<TimedEntry<K, T>> free = this.entries_free.get(e.key);
-    free.remove(e);
-    this.entries_free_timed.remove(e);
-    this.size_now = BigUnsigned.checkedSubtractLong(this.size_now, e.size);
+  public JPPoolStatisticsType statistics()
+  {
+    return this.statistics.snapshot();
+  }
 
-    Postconditions.checkPostconditionL(
-      this.size_now,
-      Long.compareUnsigned(this.size_now, 0L) >= 0,
-      x -> "Size " + x + " must be >= 0");
+  /**
+   * Report the statistics of the most active keys, in descending order of
+   * activity. The report is empty unless per-key statistics were enabled
+   * when the pool was built.
+   *
+   * @return The per-key statistics
+   *
+   * @see JPPoolSynchronousBuilder#setKeyStatisticsCapacity(int)
+   */
 
-    this.listener.onDelete(context, e.key, e.value);
+  public List<JPPoolKeyStatisticsType<K>> keyStatistics()
+  {
+    this.checkNotDeleted();
+    if (this.key_sketch == null) {
+      return List.of();
+    }
+    return this.key_sketch.report();
   }
 
-  @Override
-  public void returnValue(
-    final C context,
-    final U value)
-    throws JPPoolException
-  {
-    Objects.requireNonNull(context, "Context");
-    Objects.requireNonNull(value, "Value");
+  /**
+   * Report the sampled objects that are currently held, and that have been
+   * held for longer than the leak detection threshold, oldest first. The
+   * report is empty unless leak detection was enabled when the pool was
+   * built.
+   *
+   * @return The current leaks
+   *
+   * @see JPPoolSynchronousBuilder#setLeakDetection(int, Duration,
+   * JPPoolLeakReporterType)
+   */
 
+  public List<JPPoolLeakType<K, U>> leaks()
+  {
     this.checkNotDeleted();
 
-    final TimedEntry<K, T> e = this.entries_used.get(value);
-    if (e != null) {
-      this.entries_used.remove(value);
-      mapListPut(this.entries_free, e.key, e);
-      this.entries_free_timed.add(e);
-      this.trim(context);
-      return;
+    final long now = this.clock.nanoTime();
+    final ObjectArrayList<JPPoolLeakType<K, U>> leaks =
+      new ObjectArrayList<>();
+    for (TimedEntry<K, T> e = this.leak_oldest;
+         e != null && now - e.borrowed_at >= this.leak_threshold;
+         e = e.leak_newer) {
+      leaks.add(leakOf(e, now));
     }
-
-    final StringBuilder sb = new StringBuilder(128);
-    sb.append("Returned value not active!");
-    sb.append(SEPARATOR);
-    sb.append("Value: ");
-    sb.append(value);
-    sb.append(SEPARATOR);
-    throw new JPPoolObjectReturnException(sb.toString());
+    return leaks;
   }
 
   @Override
@@ -406,7 +1963,7 @@ public final class JPPoolSynchronous<K, T extends U, U, C> implements
 
     this.checkNotDeleted();
 
-    if (!this.entries_used.isEmpty()) {
+    if (!this.entries_used.isEmpty() || this.lease_count != 0) {
       throw this.errorNotEmpty();
     }
 
@@ -443,26 +2000,28 @@ public final class JPPoolSynchronous<K, T extends U, U, C> implements
           final TimedEntry<K, T> e = xs.get(index);
           this.returnValue(context, e.value);
         }
-      }
-
-      {
-        final ObjectArrayList<TimedEntry<K, T>> xs =
-          new ObjectArrayList<>();
-        final ObjectBidirectionalIterator<TimedEntry<K, T>> iter =
-          this.entries_free_timed.iterator();
 
-        while (iter.hasNext()) {
-          xs.add(iter.next());
+        final long now = this.now();
+        for (int slot = 0; slot < this.lease_high; ++slot) {
+          if (this.lease_entries[slot] != null) {
+            this.returnBorrowed(this.leaseRelease(slot), now);
+          }
         }
+      }
 
-        for (int index = 0; index < xs.size(); ++index) {
-          final TimedEntry<K, T> e = xs.get(index);
-          this.evict(context, e);
-        }
+      while (this.free_oldest != null) {
+        this.evict(context, this.free_oldest);
+      }
+      if (this.deletions != null) {
+        this.deletions.drainAll(context);
       }
 
     } finally {
+      this.entries_cache.clear();
       this.deleted = true;
+      if (this.management != null) {
+        JPPoolManagement.unregister(this.management);
+      }
     }
   }
 
@@ -490,144 +2049,210 @@ public final class JPPoolSynchronous<K, T extends U, U, C> implements
       sb.append(" -> ");
       sb.append(e.getValue().value);
       sb.append(SEPARATOR);
+      appendBorrowSite(sb, e.getValue());
+    }
+
+    for (int slot = 0; slot < this.lease_high; ++slot) {
+      if (count == 10) {
+        break;
+      }
+
+      final TimedEntry<K, T> e = this.lease_entries[slot];
+      if (e != null) {
+        ++count;
+        sb.append(e.value);
+        sb.append(" (leased)");
+        sb.append(SEPARATOR);
+        appendBorrowSite(sb, e);
+      }
     }
 
     return new JPPoolObjectsNotReturnedException(sb.toString());
   }
 
-  private static final class CheckedListener<K, T, C> implements
-    JPPoolableListenerType<K, T, C>
+  private static void appendBorrowSite(
+    final StringBuilder sb,
+    final TimedEntry<?, ?> e)
   {
-    private final JPPoolableListenerType<K, T, C> listener;
+    final Throwable site = e.borrow_site;
+    if (site != null) {
+      sb.append("  Borrowed at:");
+      sb.append(SEPARATOR);
+      for (final StackTraceElement element : site.getStackTrace()) {
+        sb.append("    ");
+        sb.append(element);
+        sb.append(SEPARATOR);
+      }
+    }
+  }
 
-    CheckedListener(
-      final JPPoolableListenerType<K, T, C> in_listener)
+  private static final class Lease<K, T extends U, U, C>
+    implements JPLeaseType<U>
+  {
+    private final JPPoolSynchronous<K, T, U, C> pool;
+    private final C context;
+    private final T value;
+    private final int slot;
+    private final long generation;
+
+    Lease(
+      final JPPoolSynchronous<K, T, U, C> in_pool,
+      final C in_context,
+      final T in_value,
+      final int in_slot,
+      final long in_generation)
     {
-      this.listener = Objects.requireNonNull(in_listener, "Listener");
+      this.pool = in_pool;
+      this.context = in_context;
+      this.value = in_value;
+      this.slot = in_slot;
+      this.generation = in_generation;
     }
 
     @Override
-    public long onEstimateSize(
-      final C c,
-      final K key)
+    public U value()
     {
-      try {
-        return this.listener.onEstimateSize(c, key);
-      } catch (final Throwable ex) {
-        try {
-          this.listener.onError(c, key, Optional.empty(), ex);
-        } catch (final Throwable z) {
-          LOG.error("suppressed exception: ", z);
-        }
-        throw ex;
-      }
+      return this.value;
     }
 
     @Override
-    public T onCreate(
-      final C c,
-      final K key)
+    public void close()
+      throws JPPoolException
     {
-      try {
-        return this.listener.onCreate(c, key);
-      } catch (final Throwable ex) {
-        try {
-          this.listener.onError(c, key, Optional.empty(), ex);
-        } catch (final Throwable z) {
-          LOG.error("suppressed exception: ", z);
-        }
-        throw ex;
-      }
+      this.pool.leaseClose(this.context, this.slot, this.generation);
+    }
+  }
+
+  private static final class TimedEntry<K, T>
+    implements JPPoolEvictableType<K>
+  {
+    private K key;
+    private T value;
+    private long time;
+    private long idle_since;
+    private long size;
+    private TimedEntry<K, T> free_older;
+    private TimedEntry<K, T> free_newer;
+    private TimedEntry<K, T> key_older;
+    private TimedEntry<K, T> key_newer;
+    private TimedEntry<K, T> key_newest;
+    private QuotaUsage<K, T> quota;
+    private TimedEntry<K, T> quota_older;
+    private TimedEntry<K, T> quota_newer;
+    private Object policy_data;
+    private Throwable borrow_site;
+    private long borrowed_at;
+    private boolean leak_reported;
+    private TimedEntry<K, T> leak_older;
+    private TimedEntry<K, T> leak_newer;
+
+    TimedEntry()
+    {
+
     }
 
     @Override
-    public long onGetSize(
-      final C c,
-      final K key,
-      final T value)
+    public K key()
     {
-      try {
-        return this.listener.onGetSize(c, key, value);
-      } catch (final Throwable ex) {
-        try {
-          this.listener.onError(c, key, Optional.empty(), ex);
-        } catch (final Throwable z) {
-          LOG.error("suppressed exception: ", z);
-        }
-        throw ex;
-      }
+      return this.key;
     }
 
     @Override
-    public void onReuse(
-      final C c,
-      final K key,
-      final T value)
+    public long size()
     {
-      try {
-        this.listener.onReuse(c, key, value);
-      } catch (final Throwable ex) {
-        try {
-          this.listener.onError(c, key, Optional.of(value), ex);
-        } catch (final Throwable z) {
-          LOG.error("suppressed exception: ", z);
-        }
-      }
+      return this.size;
     }
 
     @Override
-    public void onDelete(
-      final C c,
-      final K key,
-      final T value)
+    public Object policyData()
     {
-      try {
-        this.listener.onDelete(c, key, value);
-      } catch (final Throwable ex) {
-        try {
-          this.listener.onError(c, key, Optional.of(value), ex);
-        } catch (final Throwable z) {
-          LOG.error("suppressed exception: ", z);
-        }
-      }
+      return this.policy_data;
     }
 
     @Override
-    public void onError(
-      final C c,
-      final K key,
-      final Optional<T> value,
-      final Throwable e)
+    public void setPolicyData(
+      final Object data)
+    {
+      this.policy_data = data;
+    }
+  }
+
+  private static final class QuotaUsage<K, T>
+  {
+    private final Object quota_class;
+    private final long size_limit_soft;
+    private final long size_limit_hard;
+    private long size;
+    private long entries;
+    private TimedEntry<K, T> free_oldest;
+    private TimedEntry<K, T> free_newest;
+
+    QuotaUsage(
+      final Object in_quota_class,
+      final JPPoolQuota quota)
+    {
+      this.quota_class = in_quota_class;
+      this.size_limit_soft = quota.sizeLimitSoft();
+      this.size_limit_hard = quota.sizeLimitHard();
+    }
+
+    boolean isOverSoftLimit()
+    {
+      return Long.compareUnsigned(this.size, this.size_limit_soft) > 0;
+    }
+
+    boolean fitsSoftLimit(
+      final long e_size)
+    {
+      final long new_size = this.size + e_size;
+      return Long.compareUnsigned(new_size, this.size) >= 0
+        && Long.compareUnsigned(new_size, this.size_limit_soft) <= 0;
+    }
+
+    boolean isOverHardLimit(
+      final long e_size)
     {
+      final long estimated_new;
+
       try {
-        this.listener.onError(c, key, value, e);
-      } catch (final Throwable ex) {
-        try {
-          this.listener.onError(c, key, value, ex);
-        } catch (final Throwable z) {
-          LOG.error("suppressed exception: ", z);
-        }
+        estimated_new = BigUnsigned.checkedAddLong(this.size, e_size);
+      } catch (final ArithmeticException e) {
+        throw new JPPoolInternalOverflowException(e);
       }
+
+      return Long.compareUnsigned(estimated_new, this.size_limit_hard) > 0;
     }
   }
 
-  private static final class TimedEntry<K, T> implements
-    Comparable<TimedEntry<K, T>>
+  private static final class Prewarmed<K, T, C> implements Runnable
   {
-    private K key;
+    private final JPPoolableListenerType<K, T, C> listener;
+    private final C context;
+    private final K key;
     private T value;
-    private long time;
     private long size;
+    private Throwable error;
 
-    TimedEntry()
+    Prewarmed(
+      final JPPoolableListenerType<K, T, C> in_listener,
+      final C in_context,
+      final K in_key)
     {
-
+      this.listener = in_listener;
+      this.context = in_context;
+      this.key = in_key;
     }
 
     @Override
-    public int compareTo(final TimedEntry<K, T> o)
+    public void run()
     {
-      return Long.compare(this.time, o.time);
+      try {
+        this.value = this.listener.onCreate(this.context, this.key);
+        this.size =
+          this.listener.onGetSize(this.context, this.key, this.value);
+      } catch (final Throwable e) {
+        this.error = e;
+      }
     }
   }
 }
@@ -0,0 +1,396 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.jranges.RangeCheck;
+import com.io7m.jranges.RangeInclusiveI;
+import com.io7m.jranges.RangeInclusiveL;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A builder for {@link JPPoolSynchronous} pools. Builders are obtained from
+ * {@link JPPoolSynchronous#builder(JPPoolableListenerType, long, long)}.
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of internal pooled values
+ * @param <U> The type of user-visible pooled values
+ * @param <C> The type of context values
+ */
+
+public final class JPPoolSynchronousBuilder<K, T extends U, U, C>
+{
+  private static final RangeInclusiveL IDLE_RANGE =
+    RangeInclusiveL.of(1L, Long.MAX_VALUE);
+  private static final RangeInclusiveI KEY_STATISTICS_RANGE =
+    RangeInclusiveI.of(0, 1 << 20);
+  private static final RangeInclusiveI LEAK_INTERVAL_RANGE =
+    RangeInclusiveI.of(1, Integer.MAX_VALUE);
+
+  private final JPPoolableListenerType<K, T, C> listener;
+  private final long size_limit_soft;
+  private final long size_limit_hard;
+  private JPPoolTrimSchedulerType<C> trim_scheduler;
+  private JPPoolClockType clock;
+  private long idle_max;
+  private JPPoolEvictionPolicyType<K> eviction_policy;
+  private JPPoolQuotasType<K> quotas;
+  private JPPoolKeyCompatibilityType<K> key_compatibility;
+  private boolean deletion_deferred;
+  private String management_name;
+  private int key_statistics;
+  private int leak_interval;
+  private long leak_threshold;
+  private JPPoolLeakReporterType<K, U> leak_reporter;
+
+  JPPoolSynchronousBuilder(
+    final JPPoolableListenerType<K, T, C> in_listener,
+    final long in_size_limit_soft,
+    final long in_size_limit_hard)
+  {
+    this.listener = Objects.requireNonNull(in_listener, "Listener");
+    this.size_limit_soft = in_size_limit_soft;
+    this.size_limit_hard = in_size_limit_hard;
+    this.trim_scheduler = JPPoolTrimScheduler.inline();
+    this.clock = JPPoolClockType.system();
+    this.idle_max = Long.MAX_VALUE;
+    this.eviction_policy = null;
+    this.quotas = null;
+    this.key_compatibility = null;
+    this.deletion_deferred = false;
+    this.management_name = null;
+    this.key_statistics = 0;
+    this.leak_interval = 0;
+    this.leak_threshold = Long.MAX_VALUE;
+    this.leak_reporter = null;
+  }
+
+  /**
+   * Set the trim scheduler. The default is
+   * {@link JPPoolTrimScheduler#inline()}. As synchronous pools are not
+   * thread-safe, schedulers that trim pools from other threads, such as
+   * {@link JPPoolTrimScheduler#scheduled}, are rejected.
+   *
+   * @param scheduler The trim scheduler
+   *
+   * @return this
+   *
+   * @see JPPoolTrimSchedulerType#trimsFromOtherThreads()
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setTrimScheduler(
+    final JPPoolTrimSchedulerType<C> scheduler)
+  {
+    Objects.requireNonNull(scheduler, "Scheduler");
+    Preconditions.checkPrecondition(
+      scheduler,
+      !scheduler.trimsFromOtherThreads(),
+      s -> "Synchronous pools cannot be trimmed from other threads");
+    this.trim_scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * Delete free objects that have not been used for at least {@code
+   * max_idle}, as measured by {@code in_clock}, regardless of the size of
+   * the pool. By default, free objects never expire.
+   *
+   * @param max_idle The maximum time that an object may remain free
+   * @param in_clock The clock used to measure idle times
+   *
+   * @return this
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setIdleExpiry(
+    final Duration max_idle,
+    final JPPoolClockType in_clock)
+  {
+    Objects.requireNonNull(max_idle, "Maximum idle time");
+
+    this.idle_max =
+      RangeCheck.checkIncludedInLong(
+        JPPoolWaiters.toNanos(max_idle),
+        "Maximum idle time (ns)",
+        IDLE_RANGE,
+        "Valid idle times");
+    this.clock = Objects.requireNonNull(in_clock, "Clock");
+    return this;
+  }
+
+  /**
+   * Set the policy that chooses which free objects are deleted when the
+   * pool exceeds its soft limit. By default, the least recently used free
+   * object is deleted first. The policy must not be used by any other pool.
+   *
+   * @param policy The eviction policy
+   *
+   * @return this
+   *
+   * @see JPPoolEvictionPolicies
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setEvictionPolicy(
+    final JPPoolEvictionPolicyType<K> policy)
+  {
+    this.eviction_policy = Objects.requireNonNull(policy, "Policy");
+    return this;
+  }
+
+  /**
+   * Apply quotas to the objects of each key, in addition to the limits of
+   * the pool. A {@code get} that would exceed the hard limit of the quota of
+   * its key first deletes free objects of the same quota class, and then
+   * fails with {@link JPPoolQuotaHardLimitExceededException}. Free objects
+   * of quota classes that exceed their soft limits are deleted before any
+   * other objects, in least recently used order, whether or not the pool
+   * exceeds its own soft limit. By default, keys have no quotas.
+   *
+   * @param in_quotas The quota function
+   *
+   * @return this
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setQuotas(
+    final JPPoolQuotasType<K> in_quotas)
+  {
+    this.quotas = Objects.requireNonNull(in_quotas, "Quotas");
+    return this;
+  }
+
+  /**
+   * Allow requests for a key to be satisfied by free objects with other,
+   * compatible keys. A request is satisfied by a free object with an equal
+   * key if one exists, and otherwise by a free object with the smallest
+   * compatible key, found in logarithmic time. The listener's {@code
+   * onReuse} method is given the key of the reused object, rather than the
+   * requested key. By default, only objects with equal keys are reused.
+   *
+   * @param compatibility The key compatibility relation
+   *
+   * @return this
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setKeyCompatibility(
+    final JPPoolKeyCompatibilityType<K> compatibility)
+  {
+    this.key_compatibility =
+      Objects.requireNonNull(compatibility, "Compatibility");
+    return this;
+  }
+
+  /**
+   * Defer the deletion of evicted objects. Evicted objects are placed on a
+   * {@link JPPoolDeletionQueueType deletion queue} instead of being deleted
+   * by the call to {@code get}, {@code returnValue}, or {@code trim} that
+   * evicted them, and are deleted when the queue is drained. Queued objects
+   * are not included in the size of the pool, but still count towards its
+   * hard limit; if an object cannot be created because of queued objects,
+   * the queue is drained on the calling thread first. By default, evicted
+   * objects are deleted immediately.
+   *
+   * @param deferred {@code true} iff deletion should be deferred
+   *
+   * @return this
+   *
+   * @see JPPoolSynchronous#deletionQueue()
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setDeletionDeferred(
+    final boolean deferred)
+  {
+    this.deletion_deferred = deferred;
+    return this;
+  }
+
+  /**
+   * Register the pool with the platform MBean server under the given name.
+   * The pool is registered as
+   * {@code com.io7m.jpuddle:type=JPPoolSynchronous,name="<name>"}, and is
+   * unregistered when it is deleted. By default, pools are not registered.
+   *
+   * @param name The name, or {@code null} to not register the pool
+   *
+   * @return this
+   *
+   * @see JPPoolManagementMBean
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setManagementName(
+    final String name)
+  {
+    this.management_name = name;
+    return this;
+  }
+
+  /**
+   * Track the statistics of at most {@code capacity} of the most active
+   * keys. The memory used is proportional to {@code capacity}, regardless
+   * of the number of distinct keys. By default, per-key statistics are not
+   * tracked.
+   *
+   * @param capacity The number of keys to track, or {@code 0} to not track
+   *                 per-key statistics
+   *
+   * @return this
+   *
+   * @see JPPoolKeyStatisticsType
+   * @see JPPoolSynchronous#keyStatistics()
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setKeyStatisticsCapacity(
+    final int capacity)
+  {
+    this.key_statistics =
+      RangeCheck.checkIncludedInInteger(
+        capacity,
+        "Key statistics capacity",
+        KEY_STATISTICS_RANGE,
+        "Valid key statistics capacities");
+    return this;
+  }
+
+  /**
+   * Detect objects that are held for too long. One in every
+   * {@code sample_interval} calls to {@code get} records the stack trace of
+   * its caller, and the object it returns is reported as a possible leak if
+   * it is not returned within {@code threshold}, as measured by the pool's
+   * clock. Objects that are not sampled cost nothing beyond a decrement of
+   * a counter. Sampled objects are checked during sampled calls to
+   * {@code get}, at most once per {@code threshold}, and new leaks are
+   * passed to {@code reporter}. By default, leaks are not detected.
+   *
+   * @param sample_interval The number of calls to {@code get} per sample
+   * @param threshold       The time after which a held object is a leak
+   * @param reporter        The receiver of leak reports
+   *
+   * @return this
+   *
+   * @see JPPoolLeakReporterType#logging()
+   * @see JPPoolSynchronous#leaks()
+   */
+
+  public JPPoolSynchronousBuilder<K, T, U, C> setLeakDetection(
+    final int sample_interval,
+    final Duration threshold,
+    final JPPoolLeakReporterType<K, U> reporter)
+  {
+    Objects.requireNonNull(threshold, "Threshold");
+
+    this.leak_interval =
+      RangeCheck.checkIncludedInInteger(
+        sample_interval,
+        "Sample interval",
+        LEAK_INTERVAL_RANGE,
+        "Valid sample intervals");
+    this.leak_threshold =
+      RangeCheck.checkIncludedInLong(
+        JPPoolWaiters.toNanos(threshold),
+        "Leak threshold (ns)",
+        IDLE_RANGE,
+        "Valid leak thresholds");
+    this.leak_reporter = Objects.requireNonNull(reporter, "Reporter");
+    return this;
+  }
+
+  /**
+   * @return A new pool
+   *
+   * @throws JPPoolManagementException If the pool cannot be registered
+   */
+
+  public JPPoolSynchronous<K, T, U, C> build()
+  {
+    return new JPPoolSynchronous<>(this);
+  }
+
+  JPPoolableListenerType<K, T, C> listener()
+  {
+    return this.listener;
+  }
+
+  long sizeLimitSoft()
+  {
+    return this.size_limit_soft;
+  }
+
+  long sizeLimitHard()
+  {
+    return this.size_limit_hard;
+  }
+
+  JPPoolTrimSchedulerType<C> trimScheduler()
+  {
+    return this.trim_scheduler;
+  }
+
+  JPPoolClockType clock()
+  {
+    return this.clock;
+  }
+
+  long idleMax()
+  {
+    return this.idle_max;
+  }
+
+  JPPoolEvictionPolicyType<K> evictionPolicy()
+  {
+    return this.eviction_policy;
+  }
+
+  JPPoolQuotasType<K> quotas()
+  {
+    return this.quotas;
+  }
+
+  JPPoolKeyCompatibilityType<K> keyCompatibility()
+  {
+    return this.key_compatibility;
+  }
+
+  boolean deletionDeferred()
+  {
+    return this.deletion_deferred;
+  }
+
+  String managementName()
+  {
+    return this.management_name;
+  }
+
+  int keyStatisticsCapacity()
+  {
+    return this.key_statistics;
+  }
+
+  int leakInterval()
+  {
+    return this.leak_interval;
+  }
+
+  long leakThreshold()
+  {
+    return this.leak_threshold;
+  }
+
+  JPPoolLeakReporterType<K, U> leakReporter()
+  {
+    return this.leak_reporter;
+  }
+}
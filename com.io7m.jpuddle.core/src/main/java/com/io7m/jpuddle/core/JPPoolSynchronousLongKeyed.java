@@ -0,0 +1,509 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import com.io7m.jaffirm.core.Postconditions;
+import com.io7m.jaffirm.core.Preconditions;
+import com.io7m.junsigned.ranges.UnsignedRangeCheck;
+import it.unimi.dsi.fastutil.longs.Long2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An implementation of the {@link JPPoolSynchronousLongKeyedType}
+ * interface, for pools whose keys are {@code long} values.
+ *
+ * <p>The pool behaves as a {@link JPPoolSynchronous} created with
+ * {@link JPPoolSynchronous#newPool(JPPoolableListenerType, long, long)}:
+ * The pool is trimmed, least recently used free object first, on every call
+ * to {@code get} and {@code returnValue}. Free objects are held in a
+ * primitive map from keys to the chain of free objects for each key, so
+ * keys are never boxed, and a lookup hashes the key directly rather than
+ * calling {@code hashCode} and {@code equals} on a key object.</p>
+ *
+ * @param <T> The type of internal pooled values
+ * @param <U> The type of user-visible pooled values
+ * @param <C> The type of context values
+ */
+
+public final class JPPoolSynchronousLongKeyed<T extends U, U, C> implements
+  JPPoolSynchronousLongKeyedType<T, U, C>
+{
+  private static final String SEPARATOR = System.lineSeparator();
+  private static final int ENTRY_CACHE_LIMIT = 64;
+
+  private final JPPoolableLongKeyedListenerType<T, C> listener;
+  private final Long2ReferenceOpenHashMap<Entry<T>> entries_free;
+  private final Reference2ReferenceOpenHashMap<T, Entry<T>> entries_used;
+  private final ObjectArrayList<Entry<T>> entries_cache;
+  private final long size_limit_soft;
+  private final long size_limit_hard;
+  private Entry<T> free_oldest;
+  private Entry<T> free_newest;
+  private long size_now;
+  private boolean deleted;
+
+  private JPPoolSynchronousLongKeyed(
+    final JPPoolableLongKeyedListenerType<T, C> in_listener,
+    final long in_size_limit_soft,
+    final long in_size_limit_hard)
+  {
+    this.listener =
+      new JPPoolCheckedLongKeyedListener<>(
+        Objects.requireNonNull(in_listener, "Listener"));
+    this.entries_free =
+      new Long2ReferenceOpenHashMap<>(1024);
+    this.entries_used =
+      new Reference2ReferenceOpenHashMap<>(1024);
+    this.entries_cache =
+      new ObjectArrayList<>(ENTRY_CACHE_LIMIT);
+
+    this.size_limit_soft =
+      UnsignedRangeCheck.checkGreaterEqualLong(
+        in_size_limit_soft,
+        "Soft limit",
+        0L,
+        "Smallest soft limit");
+    this.size_limit_hard =
+      UnsignedRangeCheck.checkGreaterEqualLong(
+        in_size_limit_hard,
+        "Hard limit",
+        this.size_limit_soft,
+        "Smallest hard limit");
+
+    this.size_now = 0L;
+    this.deleted = false;
+  }
+
+  /**
+   * Construct a new pool. The size of the pool will never exceed {@code
+   * hard_limit}, and free (unused) objects within the pool will be frequently
+   * trimmed so that the size of the pool stays at (at most) {@code
+   * soft_limit}.
+   *
+   * @param listener   The listener that will manipulate objects within the
+   *                   pool
+   * @param soft_limit The soft size limit
+   * @param hard_limit The hard size limit
+   * @param <T>        The type of values
+   * @param <U>        The type of user-visible pooled values
+   * @param <C>        The type of contextual values
+   *
+   * @return A new pool
+   */
+
+  public static <T extends U, U, C> JPPoolSynchronousLongKeyed<T, U, C>
+  newPool(
+    final JPPoolableLongKeyedListenerType<T, C> listener,
+    final long soft_limit,
+    final long hard_limit)
+  {
+    return new JPPoolSynchronousLongKeyed<>(listener, soft_limit, hard_limit);
+  }
+
+  /*
+   * All free entries are linked into a single list in the order in which
+   * they were returned, and the free entries for each key are linked into
+   * a chain whose oldest entry is held in entries_free. See
+   * JPPoolSynchronous for the details.
+   */
+
+  private void freeLink(
+    final Entry<T> e)
+  {
+    final Entry<T> newest = this.free_newest;
+    e.free_older = newest;
+    e.free_newer = null;
+    if (newest == null) {
+      this.free_oldest = e;
+    } else {
+      newest.free_newer = e;
+    }
+    this.free_newest = e;
+  }
+
+  private void freeUnlink(
+    final Entry<T> e)
+  {
+    final Entry<T> older = e.free_older;
+    final Entry<T> newer = e.free_newer;
+    if (older == null) {
+      this.free_oldest = newer;
+    } else {
+      older.free_newer = newer;
+    }
+    if (newer == null) {
+      this.free_newest = older;
+    } else {
+      newer.free_older = older;
+    }
+    e.free_older = null;
+    e.free_newer = null;
+  }
+
+  private Entry<T> keyTake(
+    final long key)
+  {
+    final Entry<T> oldest = this.entries_free.get(key);
+    if (oldest != null) {
+      this.keyRemoveOldest(oldest);
+    }
+    return oldest;
+  }
+
+  private void keyRemoveOldest(
+    final Entry<T> oldest)
+  {
+    final Entry<T> next = oldest.key_newer;
+    if (next == null) {
+      this.entries_free.remove(oldest.key);
+    } else {
+      next.key_older = null;
+      next.key_newest = oldest.key_newest;
+      this.entries_free.put(oldest.key, next);
+    }
+    oldest.key_newer = null;
+    oldest.key_newest = null;
+  }
+
+  private void keyPut(
+    final Entry<T> e)
+  {
+    final Entry<T> oldest = this.entries_free.get(e.key);
+    if (oldest == null) {
+      e.key_older = null;
+      e.key_newest = e;
+      this.entries_free.put(e.key, e);
+    } else {
+      e.key_older = oldest.key_newest;
+      oldest.key_newest.key_newer = e;
+      oldest.key_newest = e;
+    }
+  }
+
+  @Override
+  public boolean isDeleted()
+  {
+    return this.deleted;
+  }
+
+  @Override
+  public void trim(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    /*
+     * Remove the least recently used values first. Only the oldest entry
+     * for a key is ever the oldest free entry overall, because entries are
+     * appended to both lists in the same order.
+     */
+
+    while (this.free_oldest != null && this.isOverSoftLimit()) {
+      this.evict(context, this.free_oldest);
+    }
+  }
+
+  private boolean isOverSoftLimit()
+  {
+    return Long.compareUnsigned(this.size_now, this.size_limit_soft) > 0;
+  }
+
+  private void checkNotDeleted()
+  {
+    if (this.deleted) {
+      throw new JPPoolDeletedException("Pool has been deleted.");
+    }
+  }
+
+  @Override
+  public T get(
+    final C context,
+    final long key)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+    this.trim(context);
+
+    final Entry<T> free =
+      this.free_oldest == null ? null : this.keyTake(key);
+
+    if (free != null) {
+      this.freeUnlink(free);
+      this.entries_used.put(free.value, free);
+      this.listener.onReuse(context, key, free.value);
+      return free.value;
+    }
+
+    this.checkEstimatedSizeAgainstLimit(this.estimateSize(context, key));
+    return this.create(context, key);
+  }
+
+  private T create(
+    final C context,
+    final long key)
+  {
+    final T r = this.createValue(context, key);
+    final long size = this.sizeOfCreated(context, key, r);
+
+    /*
+     * Check the size of the created object against the hard limit. Fail
+     * and delete it if the limit is exceeded.
+     */
+
+    final long new_size;
+    try {
+      new_size = BigUnsigned.checkedAddLong(this.size_now, size);
+    } catch (final ArithmeticException e) {
+      this.listener.onDelete(context, key, r);
+      throw new JPPoolInternalOverflowException(e);
+    }
+
+    if (Long.compareUnsigned(new_size, this.size_limit_hard) > 0) {
+      this.listener.onDelete(context, key, r);
+      throw JPPoolHardLimitExceededException.newException(
+        this.size_limit_hard,
+        new_size);
+    }
+
+    this.size_now = new_size;
+
+    final Entry<T> e;
+    if (this.entries_cache.isEmpty()) {
+      e = new Entry<>();
+    } else {
+      e = this.entries_cache.pop();
+    }
+
+    e.key = key;
+    e.size = size;
+    e.value = r;
+    this.entries_used.put(r, e);
+    return r;
+  }
+
+  private T createValue(
+    final C context,
+    final long key)
+  {
+    try {
+      return this.listener.onCreate(context, key);
+    } catch (final Throwable e) {
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  private long sizeOfCreated(
+    final C context,
+    final long key,
+    final T r)
+  {
+    try {
+      return this.listener.onGetSize(context, key, r);
+    } catch (final Throwable e) {
+      this.listener.onDelete(context, key, r);
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  private long estimateSize(
+    final C context,
+    final long key)
+  {
+    try {
+      return this.listener.onEstimateSize(context, key);
+    } catch (final Throwable e) {
+      throw new JPPoolObjectCreationException(e);
+    }
+  }
+
+  private void checkEstimatedSizeAgainstLimit(
+    final long e_size)
+  {
+    final long estimated_new;
+    try {
+      estimated_new = BigUnsigned.checkedAddLong(this.size_now, e_size);
+    } catch (final ArithmeticException e) {
+      throw new JPPoolInternalOverflowException(e);
+    }
+
+    if (Long.compareUnsigned(estimated_new, this.size_limit_hard) > 0) {
+      throw JPPoolHardLimitExceededException.newException(
+        this.size_limit_hard,
+        estimated_new);
+    }
+  }
+
+  private void evict(
+    final C context,
+    final Entry<T> e)
+  {
+    Preconditions.checkPreconditionL(
+      this.size_now,
+      Long.compareUnsigned(this.size_now, 0L) > 0,
+      x -> "Size " + x + " must be > 0");
+
+    this.keyRemoveOldest(e);
+    this.freeUnlink(e);
+    this.size_now = BigUnsigned.checkedSubtractLong(this.size_now, e.size);
+
+    Postconditions.checkPostconditionL(
+      this.size_now,
+      Long.compareUnsigned(this.size_now, 0L) >= 0,
+      x -> "Size " + x + " must be >= 0");
+
+    this.listener.onDelete(context, e.key, e.value);
+
+    if (this.entries_cache.size() < ENTRY_CACHE_LIMIT) {
+      e.value = null;
+      this.entries_cache.push(e);
+    }
+  }
+
+  @Override
+  public void returnValue(
+    final C context,
+    final U value)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(value, "Value");
+
+    this.checkNotDeleted();
+
+    final Entry<T> e = this.entries_used.remove(value);
+    if (e != null) {
+      this.keyPut(e);
+      this.freeLink(e);
+      this.trim(context);
+      return;
+    }
+
+    final StringBuilder sb = new StringBuilder(128);
+    sb.append("Returned value not active!");
+    sb.append(SEPARATOR);
+    sb.append("Value: ");
+    sb.append(value);
+    sb.append(SEPARATOR);
+    throw new JPPoolObjectReturnException(sb.toString());
+  }
+
+  @Override
+  public long size()
+  {
+    this.checkNotDeleted();
+    return this.size_now;
+  }
+
+  @Override
+  public void deleteSafely(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+
+    if (!this.entries_used.isEmpty()) {
+      throw this.errorNotEmpty();
+    }
+
+    this.deleteActual(context);
+  }
+
+  @Override
+  public void deleteUnsafely(final C context)
+    throws JPPoolException
+  {
+    Objects.requireNonNull(context, "Context");
+
+    this.checkNotDeleted();
+    this.deleteActual(context);
+  }
+
+  private void deleteActual(
+    final C context)
+  {
+    try {
+      final ObjectArrayList<Entry<T>> xs =
+        new ObjectArrayList<>(this.entries_used.values());
+      this.entries_used.clear();
+      for (int index = 0; index < xs.size(); ++index) {
+        final Entry<T> e = xs.get(index);
+        this.keyPut(e);
+        this.freeLink(e);
+      }
+
+      while (this.free_oldest != null) {
+        this.evict(context, this.free_oldest);
+      }
+    } finally {
+      this.entries_cache.clear();
+      this.deleted = true;
+    }
+  }
+
+  private JPPoolObjectsNotReturnedException errorNotEmpty()
+  {
+    final StringBuilder sb = new StringBuilder(256);
+
+    int count = 0;
+    final Iterator<Map.Entry<T, Entry<T>>> iter =
+      this.entries_used.entrySet().iterator();
+
+    sb.append("Attempted to delete a pool with items not yet returned.");
+    sb.append(SEPARATOR);
+    sb.append("The first 10 items:");
+    sb.append(SEPARATOR);
+
+    while (iter.hasNext()) {
+      if (count == 10) {
+        break;
+      }
+      ++count;
+
+      final Map.Entry<T, Entry<T>> e = iter.next();
+      sb.append(e.getValue().key);
+      sb.append(" -> ");
+      sb.append(e.getKey());
+      sb.append(SEPARATOR);
+    }
+
+    return new JPPoolObjectsNotReturnedException(sb.toString());
+  }
+
+  private static final class Entry<T>
+  {
+    private long key;
+    private T value;
+    private long size;
+    private Entry<T> free_older;
+    private Entry<T> free_newer;
+    private Entry<T> key_older;
+    private Entry<T> key_newer;
+    private Entry<T> key_newest;
+
+    Entry()
+    {
+
+    }
+  }
+}
@@ -16,6 +16,10 @@
 
 package com.io7m.jpuddle.core;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * The type of usable synchronous pools that yield values of type {@code T} for
  * keys of type {@code K}, using context values of type {@code C} to create new
@@ -36,7 +40,9 @@ public interface JPPoolSynchronousUsableType<K, T extends U, U, C>
   boolean isDeleted();
 
   /**
-   * Trim free objects within the pool to reduce the pool size.
+   * Trim free objects within the pool to reduce the pool size. Free objects
+   * that have been idle for longer than the pool's maximum idle time, if
+   * the pool has one, are also deleted.
    *
    * @param context A context value
    *
@@ -46,6 +52,34 @@ public interface JPPoolSynchronousUsableType<K, T extends U, U, C>
   void trim(C context)
     throws JPPoolException;
 
+  /**
+   * Trim at most {@code max_count} free objects within the pool, least
+   * recently used first, stopping early if the pool reaches its soft limit
+   * and holds no free objects that have exceeded its maximum idle time.
+   * This is intended to be called by, or on behalf of, a
+   * {@link JPPoolTrimSchedulerType} that is not inline. Trimming a pool that
+   * has been deleted has no effect. The default implementation calls
+   * {@link #trim(Object)}, which trims without a limit, and returns
+   * {@code false}.
+   *
+   * @param context   A context value
+   * @param max_count The maximum number of objects to trim
+   *
+   * @return {@code true} iff the pool still holds free objects that could
+   * be trimmed
+   *
+   * @throws JPPoolException On errors
+   */
+
+  default boolean trimBatch(
+    final C context,
+    final int max_count)
+    throws JPPoolException
+  {
+    this.trim(context);
+    return false;
+  }
+
   /**
    * Retrieve an object from the pool, creating it if necessary.
    *
@@ -82,6 +116,105 @@ public interface JPPoolSynchronousUsableType<K, T extends U, U, C>
     U value)
     throws JPPoolException, JPPoolObjectReturnException;
 
+  /**
+   * Retrieve one object from the pool for each of the given keys, creating
+   * objects if necessary. If any object cannot be retrieved, then all of
+   * the objects that were retrieved by this call are returned to the pool
+   * before the exception is raised, so that the caller holds none of them.
+   * Implementations may check the size of the whole batch against the
+   * pool's hard limit once, and trim the pool once, rather than once per
+   * object. The default implementation calls {@link #get(Object, Object)}
+   * for each key.
+   *
+   * @param context A context value
+   * @param keys    The keys, which may contain duplicates
+   *
+   * @return The objects, in the same order as {@code keys}
+   *
+   * @throws JPPoolObjectCreationException On exceptions raised during creation
+   *                                       of objects
+   * @throws JPPoolException               On errors
+   */
+
+  default List<U> getAll(
+    final C context,
+    final List<? extends K> keys)
+    throws JPPoolException, JPPoolObjectCreationException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(keys, "Keys");
+
+    final ArrayList<U> values = new ArrayList<>(keys.size());
+    try {
+      for (int index = 0; index < keys.size(); ++index) {
+        values.add(this.get(context, keys.get(index)));
+      }
+    } catch (final RuntimeException e) {
+      this.returnAll(context, values);
+      throw e;
+    }
+    return values;
+  }
+
+  /**
+   * Return objects to the pool for re-use. Implementations may trim the
+   * pool once for the whole batch, rather than once per object. The default
+   * implementation calls {@link #returnValue(Object, Object)} for each
+   * value, and so any values preceding a value that is rejected will have
+   * been returned; implementations that override this method may instead
+   * reject the whole batch.
+   *
+   * @param context A context value
+   * @param values  The values
+   *
+   * @throws JPPoolException             On errors
+   * @throws JPPoolObjectReturnException If any of the given values is not in
+   *                                     the pool, has already been returned,
+   *                                     or appears more than once
+   */
+
+  default void returnAll(
+    final C context,
+    final List<? extends U> values)
+    throws JPPoolException, JPPoolObjectReturnException
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(values, "Values");
+
+    for (int index = 0; index < values.size(); ++index) {
+      this.returnValue(context, values.get(index));
+    }
+  }
+
+  /**
+   * Retrieve an object from the pool, creating it if necessary, and return
+   * a lease that returns the object to the pool when closed. Closing a
+   * lease a second time raises {@link JPPoolObjectReturnException}.
+   * Implementations may return leased objects without looking them up by
+   * identity. The default implementation calls {@link #get(Object, Object)}
+   * and returns a lease that calls {@link #returnValue(Object, Object)}.
+   *
+   * @param context A context value, which is also used when the lease is
+   *                closed
+   * @param key     The key that will be used to construct or retrieve the
+   *                object
+   *
+   * @return A lease on a new (or reused) object
+   *
+   * @throws JPPoolObjectCreationException On exceptions raised during creation
+   *                                       of objects
+   * @throws JPPoolException               On errors
+   */
+
+  default JPLeaseType<U> lease(
+    final C context,
+    final K key)
+    throws JPPoolException, JPPoolObjectCreationException
+  {
+    Objects.requireNonNull(context, "Context");
+    return new JPLeaseReturning<>(this, context, this.get(context, key));
+  }
+
   /**
    * @return The current number of objects, active or free, within the pool
    */
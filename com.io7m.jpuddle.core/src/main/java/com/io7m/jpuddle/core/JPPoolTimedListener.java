@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.core;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A listener that measures the latencies of the {@code onCreate} and
+ * {@code onDelete} methods of another listener. Only successful creations
+ * are measured.
+ *
+ * @param <K> The type of keys
+ * @param <T> The type of values
+ * @param <C> The type of context values
+ */
+
+final class JPPoolTimedListener<K, T, C> implements
+  JPPoolableListenerType<K, T, C>
+{
+  private final JPPoolableListenerType<K, T, C> listener;
+  private final JPPoolStatisticsCounters statistics;
+  private final JPPoolClockType clock;
+
+  JPPoolTimedListener(
+    final JPPoolableListenerType<K, T, C> in_listener,
+    final JPPoolStatisticsCounters in_statistics,
+    final JPPoolClockType in_clock)
+  {
+    this.listener = Objects.requireNonNull(in_listener, "Listener");
+    this.statistics = Objects.requireNonNull(in_statistics, "Statistics");
+    this.clock = Objects.requireNonNull(in_clock, "Clock");
+  }
+
+  @Override
+  public long onEstimateSize(
+    final C c,
+    final K key)
+  {
+    return this.listener.onEstimateSize(c, key);
+  }
+
+  @Override
+  public T onCreate(
+    final C c,
+    final K key)
+  {
+    final long time_then = this.clock.nanoTime();
+    final T value = this.listener.onCreate(c, key);
+    this.statistics.recordCreation(this.clock.nanoTime() - time_then);
+    return value;
+  }
+
+  @Override
+  public boolean isCreationThreadSafe()
+  {
+    return this.listener.isCreationThreadSafe();
+  }
+
+  @Override
+  public long onGetSize(
+    final C c,
+    final K key,
+    final T value)
+  {
+    return this.listener.onGetSize(c, key, value);
+  }
+
+  @Override
+  public void onReuse(
+    final C c,
+    final K key,
+    final T value)
+  {
+    this.listener.onReuse(c, key, value);
+  }
+
+  @Override
+  public void onDelete(
+    final C c,
+    final K key,
+    final T value)
+  {
+    final long time_then = this.clock.nanoTime();
+    try {
+      this.listener.onDelete(c, key, value);
+    } finally {
+      this.statistics.recordDeletion(this.clock.nanoTime() - time_then);
+    }
+  }
+
+  @Override
+  public void onError(
+    final C c,
+    final K key,
+    final Optional<T> value,
+    final Throwable e)
+  {
+    this.listener.onError(c, key, value, e);
+  }
+}
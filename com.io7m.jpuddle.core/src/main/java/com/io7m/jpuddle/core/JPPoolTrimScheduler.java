@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import com.io7m.jranges.RangeCheck;
+import com.io7m.jranges.RangeInclusiveI;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The standard trim schedulers.
+ *
+ * @param <C> The type of context values
+ */
+
+public final class JPPoolTrimScheduler<C> implements JPPoolTrimSchedulerType<C>
+{
+  private static final RangeInclusiveI BATCH_RANGE =
+    RangeInclusiveI.of(1, Integer.MAX_VALUE);
+
+  private static final JPPoolTrimScheduler<?> INLINE =
+    new JPPoolTrimScheduler<>(true, null, 0L, 0, null);
+  private static final JPPoolTrimScheduler<?> DEFERRED =
+    new JPPoolTrimScheduler<>(false, null, 0L, 0, null);
+
+  private final boolean inline;
+  private final ScheduledExecutorService executor;
+  private final long delay_nanos;
+  private final int batch_size;
+  private final C context;
+
+  private JPPoolTrimScheduler(
+    final boolean in_inline,
+    final ScheduledExecutorService in_executor,
+    final long in_delay_nanos,
+    final int in_batch_size,
+    final C in_context)
+  {
+    this.inline = in_inline;
+    this.executor = in_executor;
+    this.delay_nanos = in_delay_nanos;
+    this.batch_size = in_batch_size;
+    this.context = in_context;
+  }
+
+  /**
+   * A scheduler that causes pools to trim themselves inline on every call
+   * to {@code get} and {@code returnValue}. This is the default.
+   *
+   * @param <C> The type of context values
+   *
+   * @return A scheduler
+   */
+
+  @SuppressWarnings("unchecked")
+  public static <C> JPPoolTrimScheduler<C> inline()
+  {
+    return (JPPoolTrimScheduler<C>) INLINE;
+  }
+
+  /**
+   * A scheduler that never trims pools itself. The thread that owns a pool
+   * is expected to call {@link JPPoolSynchronousUsableType#trimBatch(Object,
+   * int)} at times of its choosing; for example, once per frame.
+   *
+   * @param <C> The type of context values
+   *
+   * @return A scheduler
+   */
+
+  @SuppressWarnings("unchecked")
+  public static <C> JPPoolTrimScheduler<C> deferred()
+  {
+    return (JPPoolTrimScheduler<C>) DEFERRED;
+  }
+
+  /**
+   * A scheduler that trims pools on the given executor. When a pool
+   * requires trimming, a task is scheduled to run after {@code delay}. The
+   * task trims at most {@code batch_size} objects, and then resubmits itself
+   * to the executor if the pool still requires trimming, so that other
+   * tasks on the executor are not starved by a large trim. The listener's
+   * {@code onDelete} method is called on the executor's threads with the
+   * given context value, and so must be safe to call from those threads.
+   * The pool is trimmed from the executor's threads, and so this scheduler
+   * may only be used with thread-safe pools such as
+   * {@link JPPoolConcurrent}. {@link JPPoolSynchronous} pools are not
+   * thread-safe, and {@link JPPoolSynchronousBuilder} rejects this
+   * scheduler.
+   *
+   * @param executor   The executor
+   * @param delay      The delay before trimming begins
+   * @param batch_size The maximum number of objects trimmed per task
+   * @param context    The context value passed to the pool's listener
+   * @param <C>        The type of context values
+   *
+   * @return A scheduler
+   */
+
+  public static <C> JPPoolTrimScheduler<C> scheduled(
+    final ScheduledExecutorService executor,
+    final Duration delay,
+    final int batch_size,
+    final C context)
+  {
+    return new JPPoolTrimScheduler<>(
+      false,
+      Objects.requireNonNull(executor, "Executor"),
+      JPPoolWaiters.toNanos(Objects.requireNonNull(delay, "Delay")),
+      RangeCheck.checkIncludedInInteger(
+        batch_size,
+        "Batch size",
+        BATCH_RANGE,
+        "Valid batch sizes"),
+      Objects.requireNonNull(context, "Context"));
+  }
+
+  @Override
+  public boolean isInline()
+  {
+    return this.inline;
+  }
+
+  @Override
+  public boolean trimsFromOtherThreads()
+  {
+    return this.executor != null;
+  }
+
+  @Override
+  public void onTrimRequired(
+    final JPPoolSynchronousUsableType<?, ?, ?, C> pool)
+  {
+    Objects.requireNonNull(pool, "Pool");
+
+    if (this.executor == null) {
+      return;
+    }
+
+    try {
+      this.executor.schedule(
+        () -> this.run(pool), this.delay_nanos, TimeUnit.NANOSECONDS);
+    } catch (final RejectedExecutionException e) {
+      // The executor has been shut down: Trimming is left to the owner.
+    }
+  }
+
+  private void run(
+    final JPPoolSynchronousUsableType<?, ?, ?, C> pool)
+  {
+    if (pool.isDeleted()) {
+      return;
+    }
+
+    if (pool.trimBatch(this.context, this.batch_size)) {
+      try {
+        this.executor.execute(() -> this.run(pool));
+      } catch (final RejectedExecutionException e) {
+        // The executor has been shut down: Trimming is left to the owner.
+      }
+    }
+  }
+}
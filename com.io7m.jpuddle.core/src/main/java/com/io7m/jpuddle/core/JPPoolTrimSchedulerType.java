@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+/**
+ * A scheduler that determines when pools are trimmed down to their soft
+ * limits.
+ *
+ * <p>By default, pools trim themselves inline on every call to
+ * {@link JPPoolSynchronousUsableType#get(Object, Object)} and
+ * {@link JPPoolSynchronousUsableType#returnValue(Object, Object)}, so the
+ * cost of evicting objects and of the listener's {@code onDelete} method is
+ * paid by whichever caller happens to push the pool over its soft limit. A
+ * pool using a scheduler that is not inline instead marks itself as
+ * requiring trimming, and notifies the scheduler once, the first time that
+ * the soft limit is exceeded after the pool was last trimmed. The scheduler
+ * is then responsible for arranging for
+ * {@link JPPoolSynchronousUsableType#trimBatch(Object, int)} to be called
+ * until the pool no longer requires trimming.</p>
+ *
+ * <p>Pools never defer trimming when it is required to make space for a new
+ * object: If creating an object would exceed the hard limit, the pool is
+ * trimmed inline before the hard limit is checked.</p>
+ *
+ * @param <C> The type of context values
+ *
+ * @see JPPoolTrimScheduler
+ */
+
+public interface JPPoolTrimSchedulerType<C>
+{
+  /**
+   * @return {@code true} if pools should trim themselves inline
+   */
+
+  boolean isInline();
+
+  /**
+   * Determine whether the scheduler calls
+   * {@link JPPoolSynchronousUsableType#trimBatch(Object, int)} from threads
+   * other than the one that caused the pool to require trimming. Such
+   * schedulers may only be used with pools that are thread-safe, and
+   * {@link JPPoolSynchronousBuilder} rejects them. The default
+   * implementation returns {@code false}.
+   *
+   * @return {@code true} if the scheduler trims pools from other threads
+   */
+
+  default boolean trimsFromOtherThreads()
+  {
+    return false;
+  }
+
+  /**
+   * The given pool has exceeded its soft limit, and requires trimming. This
+   * method is called on the thread that caused the soft limit to be
+   * exceeded, and must not itself trim the pool.
+   *
+   * @param pool The pool
+   */
+
+  void onTrimRequired(JPPoolSynchronousUsableType<?, ?, ?, C> pool);
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.core;
+
+import it.unimi.dsi.fastutil.objects.Object2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The threads waiting for space in a concurrent pool.
+ *
+ * <p>Each waiter waits for a value of a specific key, and waiters are queued
+ * in arrival order. When a value is returned to the pool, the longest
+ * waiting thread that wants a value of the same key is woken, so that it
+ * can take the value; if there is no such thread, the longest waiting
+ * thread overall is woken, so that it can delete the value to make space.
+ * When space is released, the longest waiting thread overall is woken.
+ * Waking exactly one thread per event keeps the cost of a release
+ * independent of the number of waiters.</p>
+ *
+ * <p>A waiter is queued before it examines the pool, so a wakeup for a
+ * change that it did not observe cannot be missed. A woken waiter that
+ * cannot proceed is queued again at the front. A single release of space
+ * may make room for more than one waiter, and so a waiter that has been
+ * woken passes a wakeup on to the next waiter when it leaves: always if it
+ * gives up, and otherwise if the pool is still below its hard limit. The
+ * record of a waiter having been woken is kept separately from the permit
+ * that ends its parking, so consuming the permit does not lose the
+ * wakeup. The wakeup paths cost a single atomic read when no thread is
+ * waiting. Waiters park with {@link LockSupport}, and so waiting virtual
+ * threads never pin their carriers.</p>
+ *
+ * @param <K> The type of keys
+ */
+
+final class JPPoolWaiters<K>
+{
+  private final AtomicInteger count;
+  private final ReentrantLock lock;
+  private final ReferenceLinkedOpenHashSet<Waiter<K>> all;
+  private final Map<K, ReferenceLinkedOpenHashSet<Waiter<K>>> by_key;
+
+  JPPoolWaiters()
+  {
+    this.count = new AtomicInteger(0);
+    this.lock = new ReentrantLock();
+    this.all = new ReferenceLinkedOpenHashSet<>();
+    this.by_key = new Object2ReferenceOpenHashMap<>();
+  }
+
+  /**
+   * @param timeout A timeout
+   *
+   * @return The timeout in nanoseconds, saturated to {@code [0, 2^63 - 1]}
+   */
+
+  static long toNanos(
+    final Duration timeout)
+  {
+    if (timeout.isNegative()) {
+      return 0L;
+    }
+
+    try {
+      return timeout.toNanos();
+    } catch (final ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * @return {@code true} if no thread is waiting
+   */
+
+  boolean isEmpty()
+  {
+    return this.count.get() == 0;
+  }
+
+  /**
+   * Register the current thread as waiting for a value of {@code key}. Must
+   * be paired with {@link #unregister(Waiter, boolean)}.
+   *
+   * @param key The key
+   *
+   * @return A waiter
+   */
+
+  Waiter<K> register(
+    final K key)
+  {
+    final Waiter<K> w = new Waiter<>(key, Thread.currentThread());
+    this.count.incrementAndGet();
+
+    this.lock.lock();
+    try {
+      this.enqueue(w, false);
+    } finally {
+      this.lock.unlock();
+    }
+    return w;
+  }
+
+  /**
+   * Stop waiting. If the waiter was ever woken, and {@code pass} is {@code
+   * true}, the next waiter is woken in its place.
+   *
+   * @param w    The waiter
+   * @param pass {@code true} if there may be space or values left for
+   *             another waiter
+   */
+
+  void unregister(
+    final Waiter<K> w,
+    final boolean pass)
+  {
+    this.lock.lock();
+    try {
+      if (w.queued) {
+        this.dequeue(w);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    this.count.decrementAndGet();
+    if (w.signalled && pass) {
+      this.signalAny();
+    }
+  }
+
+  /**
+   * Queue a woken waiter again, at the front of the queues. Must be called
+   * before the waiter examines the pool.
+   *
+   * @param w The waiter
+   */
+
+  void requeue(
+    final Waiter<K> w)
+  {
+    if (w.queued) {
+      return;
+    }
+
+    this.lock.lock();
+    try {
+      if (!w.queued) {
+        this.enqueue(w, true);
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Park the waiter until it is woken, interrupted, or until {@code
+   * timeout_nanos} nanoseconds have elapsed. Spurious returns are possible.
+   *
+   * @param w             The waiter
+   * @param timeout_nanos The maximum time to wait
+   */
+
+  void park(
+    final Waiter<K> w,
+    final long timeout_nanos)
+  {
+    if (!w.permit) {
+      LockSupport.parkNanos(this, timeout_nanos);
+    }
+    w.permit = false;
+  }
+
+  /**
+   * Wake a waiter after a value of {@code key} has been returned.
+   *
+   * @param key The key
+   */
+
+  void signalKey(
+    final K key)
+  {
+    if (this.count.get() == 0) {
+      return;
+    }
+
+    final Waiter<K> w;
+    this.lock.lock();
+    try {
+      final ReferenceLinkedOpenHashSet<Waiter<K>> xs = this.by_key.get(key);
+      if (xs != null) {
+        w = this.wake(xs.first());
+      } else {
+        w = this.wake(this.all.isEmpty() ? null : this.all.first());
+      }
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (w != null) {
+      LockSupport.unpark(w.thread);
+    }
+  }
+
+  /**
+   * Wake a waiter after space has been released.
+   */
+
+  void signalAny()
+  {
+    if (this.count.get() == 0) {
+      return;
+    }
+
+    final Waiter<K> w;
+    this.lock.lock();
+    try {
+      w = this.wake(this.all.isEmpty() ? null : this.all.first());
+    } finally {
+      this.lock.unlock();
+    }
+
+    if (w != null) {
+      LockSupport.unpark(w.thread);
+    }
+  }
+
+  private Waiter<K> wake(
+    final Waiter<K> w)
+  {
+    if (w != null) {
+      this.dequeue(w);
+      w.signalled = true;
+      w.permit = true;
+    }
+    return w;
+  }
+
+  private void enqueue(
+    final Waiter<K> w,
+    final boolean front)
+  {
+    ReferenceLinkedOpenHashSet<Waiter<K>> xs = this.by_key.get(w.key);
+    if (xs == null) {
+      xs = new ReferenceLinkedOpenHashSet<>();
+      this.by_key.put(w.key, xs);
+    }
+
+    if (front) {
+      this.all.addAndMoveToFirst(w);
+      xs.addAndMoveToFirst(w);
+    } else {
+      this.all.add(w);
+      xs.add(w);
+    }
+    w.queued = true;
+  }
+
+  private void dequeue(
+    final Waiter<K> w)
+  {
+    this.all.remove(w);
+    final ReferenceLinkedOpenHashSet<Waiter<K>> xs = this.by_key.get(w.key);
+    xs.remove(w);
+    if (xs.isEmpty()) {
+      this.by_key.remove(w.key);
+    }
+    w.queued = false;
+  }
+
+  static final class Waiter<K>
+  {
+    private final K key;
+    private final Thread thread;
+    private volatile boolean signalled;
+    private volatile boolean permit;
+    private volatile boolean queued;
+
+    Waiter(
+      final K in_key,
+      final Thread in_thread)
+    {
+      this.key = in_key;
+      this.thread = in_thread;
+    }
+  }
+}
@@ -58,6 +58,21 @@ public interface JPPoolableListenerType<K, T, C>
     C c,
     K key);
 
+  /**
+   * Determine whether {@link #onCreate(Object, Object)} and {@link
+   * #onGetSize(Object, Object, Object)} may be called concurrently from
+   * multiple threads. Pools only create objects in parallel, such as when
+   * prewarming with an executor, if this method returns {@code true}. The
+   * default implementation returns {@code false}.
+   *
+   * @return {@code true} iff creation is thread-safe
+   */
+
+  default boolean isCreationThreadSafe()
+  {
+    return false;
+  }
+
   /**
    * Called when the size of {@code value} is required.
    *
@@ -25,6 +25,8 @@ module com.io7m.jpuddle.core
 
   requires it.unimi.dsi.fastutil;
 
+  requires java.management;
+  requires jdk.jfr;
   requires org.slf4j;
   requires com.io7m.jaffirm.core;
   requires com.io7m.junsigned.ranges;
@@ -0,0 +1,339 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolAsync;
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolObjectCreationException;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class JPPoolAsyncTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private ExecutorService executor;
+
+  @Before
+  public void setup()
+  {
+    this.executor = Executors.newFixedThreadPool(4, r -> {
+      final Thread t = new Thread(r);
+      t.setName("jpuddle-create");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @After
+  public void tearDown()
+  {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  public void testGetMissCreatesOnExecutor()
+    throws Exception
+  {
+    final AsyncListener listener = new AsyncListener();
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 10L, 10L, this.executor);
+
+    final CompletableFuture<Object> f = p.get(CONTEXT, Integer.valueOf(0));
+    final Object v = f.get(30L, TimeUnit.SECONDS);
+    Assert.assertEquals("jpuddle-create", listener.create_thread);
+    Assert.assertEquals(1L, p.size());
+
+    p.returnValue(CONTEXT, v);
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(1, listener.deletes.get());
+  }
+
+  @Test
+  public void testGetHitCompletesImmediately()
+    throws Exception
+  {
+    final AsyncListener listener = new AsyncListener();
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 10L, 10L, this.executor);
+
+    final Object v =
+      p.get(CONTEXT, Integer.valueOf(0)).get(30L, TimeUnit.SECONDS);
+    p.returnValue(CONTEXT, v);
+
+    final CompletableFuture<Object> f = p.get(CONTEXT, Integer.valueOf(0));
+    Assert.assertTrue(f.isDone());
+    Assert.assertSame(v, f.get());
+    Assert.assertEquals(1, listener.creates.get());
+    Assert.assertEquals(1, listener.reuses.get());
+  }
+
+  @Test
+  public void testGetCreatesInParallel()
+    throws Exception
+  {
+    final AsyncListener listener = new AsyncListener();
+    listener.barrier = new CyclicBarrier(4);
+
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 10L, 10L, this.executor);
+
+    /*
+     * Each creation waits for all four to be running at once.
+     */
+
+    final CompletableFuture<?>[] fs = new CompletableFuture<?>[4];
+    for (int index = 0; index < fs.length; ++index) {
+      fs[index] = p.get(CONTEXT, Integer.valueOf(index));
+    }
+
+    CompletableFuture.allOf(fs).get(30L, TimeUnit.SECONDS);
+    Assert.assertEquals(4, listener.creates.get());
+    Assert.assertEquals(4L, p.size());
+  }
+
+  @Test
+  public void testGetHardLimitExceeded()
+    throws Exception
+  {
+    final AsyncListener listener = new AsyncListener();
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 1L, 1L, this.executor);
+
+    p.get(CONTEXT, Integer.valueOf(0)).get(30L, TimeUnit.SECONDS);
+
+    final CompletableFuture<Object> f = p.get(CONTEXT, Integer.valueOf(1));
+    Assert.assertTrue(f.isCompletedExceptionally());
+    try {
+      f.get();
+      Assert.fail();
+    } catch (final ExecutionException e) {
+      Assert.assertTrue(
+        e.getCause() instanceof JPPoolHardLimitExceededException);
+    }
+    Assert.assertEquals(1, listener.creates.get());
+  }
+
+  @Test
+  public void testGetCreationFailure()
+    throws Exception
+  {
+    final AsyncListener listener = new AsyncListener();
+    listener.fail = true;
+
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 1L, 1L, this.executor);
+
+    final CompletableFuture<Object> f = p.get(CONTEXT, Integer.valueOf(0));
+    try {
+      f.get(30L, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (final ExecutionException e) {
+      Assert.assertTrue(
+        e.getCause() instanceof JPPoolObjectCreationException);
+    }
+    Assert.assertEquals(0L, p.size());
+  }
+
+  @Test
+  public void testGetRejected()
+  {
+    final AsyncListener listener = new AsyncListener();
+    this.executor.shutdown();
+
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 1L, 1L, this.executor);
+
+    final CompletableFuture<Object> f = p.get(CONTEXT, Integer.valueOf(0));
+    Assert.assertTrue(f.isCompletedExceptionally());
+    Assert.assertEquals(0L, p.size());
+  }
+
+  @Test
+  public void testGetCancelledReturnsValue()
+    throws Exception
+  {
+    final AsyncListener listener = new AsyncListener();
+    listener.block = new CountDownLatch(1);
+
+    final JPPoolAsync<Integer, Object, Object, Integer> p =
+      JPPoolAsync.newPool(listener, 10L, 10L, this.executor);
+
+    final CompletableFuture<Object> f = p.get(CONTEXT, Integer.valueOf(0));
+    f.cancel(false);
+    listener.block.countDown();
+
+    /*
+     * The value created for the cancelled request is returned to the pool,
+     * and so a later request reuses it.
+     */
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30L);
+    while (listener.creates.get() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1L);
+    }
+
+    this.executor.shutdown();
+    Assert.assertTrue(this.executor.awaitTermination(30L, TimeUnit.SECONDS));
+
+    p.get(CONTEXT, Integer.valueOf(0)).get();
+    Assert.assertEquals(1, listener.creates.get());
+    Assert.assertEquals(1, listener.reuses.get());
+  }
+
+  @Test
+  public void testGetCancelledPoolDeleted()
+    throws Exception
+  {
+    final AtomicInteger uncaught = new AtomicInteger();
+    final ExecutorService exec = Executors.newFixedThreadPool(4, r -> {
+      final Thread t = new Thread(r);
+      t.setDaemon(true);
+      t.setUncaughtExceptionHandler((th, e) -> uncaught.incrementAndGet());
+      return t;
+    });
+
+    /*
+     * Values created for cancelled requests whilst the pool is being deleted
+     * are deleted, whether by the pool's deletion or by the creating task,
+     * and nothing escapes from the executor.
+     */
+
+    final AsyncListener listener = new AsyncListener();
+    try {
+      for (int round = 0; round < 100; ++round) {
+        final JPPoolAsync<Integer, Object, Object, Integer> p =
+          JPPoolAsync.newPool(listener, 100L, 100L, exec);
+
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[50];
+        for (int index = 0; index < futures.length; ++index) {
+          futures[index] = p.get(CONTEXT, Integer.valueOf(index));
+        }
+        for (final CompletableFuture<?> f : futures) {
+          f.cancel(false);
+        }
+        p.deleteUnsafely(CONTEXT);
+      }
+    } finally {
+      exec.shutdown();
+      Assert.assertTrue(exec.awaitTermination(30L, TimeUnit.SECONDS));
+    }
+
+    Assert.assertEquals(0, uncaught.get());
+    Assert.assertEquals(listener.creates.get(), listener.deletes.get());
+  }
+
+  private static final class AsyncListener
+    implements JPPoolableListenerType<Integer, Object, Integer>
+  {
+    private final AtomicInteger creates = new AtomicInteger();
+    private final AtomicInteger deletes = new AtomicInteger();
+    private final AtomicInteger reuses = new AtomicInteger();
+    private volatile String create_thread;
+    private volatile CyclicBarrier barrier;
+    private volatile CountDownLatch block;
+    private volatile boolean fail;
+
+    AsyncListener()
+    {
+
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      try {
+        if (this.barrier != null) {
+          this.barrier.await(30L, TimeUnit.SECONDS);
+        }
+        if (this.block != null) {
+          this.block.await();
+        }
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+
+      if (this.fail) {
+        throw new IllegalStateException("Failed");
+      }
+
+      this.create_thread = Thread.currentThread().getName();
+      this.creates.incrementAndGet();
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      return 1L;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      this.reuses.incrementAndGet();
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      this.deletes.incrementAndGet();
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolConcurrent;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Check that concurrent pools do not accumulate storage for keys that are
+ * no longer used.
+ */
+
+public final class JPPoolConcurrentAllocationTest
+{
+  private static final int ITERATIONS = 100_000;
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private Object threads;
+  private Method allocated;
+
+  /*
+   * The per-thread allocation counter is only available through the
+   * com.sun.management extension of the thread MX bean. The test module
+   * does not read java.management, so the bean is accessed reflectively.
+   */
+
+  @Before
+  public void setup()
+    throws Exception
+  {
+    final Class<?> bean;
+    try {
+      final Class<?> factory =
+        Class.forName("java.lang.management.ManagementFactory");
+      bean = Class.forName("com.sun.management.ThreadMXBean");
+      this.threads = factory.getMethod("getThreadMXBean").invoke(null);
+    } catch (final ClassNotFoundException e) {
+      Assume.assumeNoException(e);
+      return;
+    }
+
+    Assume.assumeTrue(bean.isInstance(this.threads));
+    final Method enabled = bean.getMethod("isThreadAllocatedMemoryEnabled");
+    Assume.assumeTrue(((Boolean) enabled.invoke(this.threads)).booleanValue());
+
+    this.allocated = bean.getMethod("getCurrentThreadAllocatedBytes");
+    this.allocatedBytes();
+  }
+
+  private long allocatedBytes()
+    throws Exception
+  {
+    return ((Long) this.allocated.invoke(this.threads)).longValue();
+  }
+
+  @Test
+  public void testKeyChurnSteadyState()
+    throws Exception
+  {
+    this.checkKeyChurn(
+      JPPoolConcurrent.newPool(new QuietListener(), 0L, 32L),
+      JPPoolConcurrent.newPool(new QuietListener(), 0L, 32L));
+  }
+
+  @Test
+  public void testKeyChurnSteadyStateMagazines()
+    throws Exception
+  {
+    this.checkKeyChurn(
+      JPPoolConcurrent.newPoolWithMagazines(
+        new QuietListener(), 0L, 32L, 4, 4),
+      JPPoolConcurrent.newPoolWithMagazines(
+        new QuietListener(), 0L, 32L, 4, 4));
+  }
+
+  /*
+   * Every get misses and every return evicts, both for a small set of
+   * keys that are used repeatedly and for keys that are each used exactly
+   * once. If the free storage of a key is released when its only object
+   * is evicted, both cost the same per operation.
+   */
+
+  private void checkKeyChurn(
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p_fixed,
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p_churn)
+    throws Exception
+  {
+    final Integer[] fixed = new Integer[64];
+    for (int index = 0; index < fixed.length; ++index) {
+      fixed[index] = Integer.valueOf(index);
+    }
+    final Integer[] churn = new Integer[ITERATIONS * 2];
+    for (int index = 0; index < churn.length; ++index) {
+      churn[index] = Integer.valueOf(index);
+    }
+
+    cycle(p_fixed, fixed, 0);
+    cycle(p_churn, churn, 0);
+
+    final long fixed_before = this.allocatedBytes();
+    cycle(p_fixed, fixed, 0);
+    final long fixed_after = this.allocatedBytes();
+
+    final long churn_before = this.allocatedBytes();
+    cycle(p_churn, churn, ITERATIONS);
+    final long churn_after = this.allocatedBytes();
+
+    final long fixed_per_op =
+      (fixed_after - fixed_before) / (long) ITERATIONS;
+    final long churn_per_op =
+      (churn_after - churn_before) / (long) ITERATIONS;
+
+    Assert.assertTrue(
+      "Allocated " + churn_per_op + " bytes per operation (expected "
+        + fixed_per_op + ")",
+      churn_per_op <= fixed_per_op + 8L);
+  }
+
+  private static void cycle(
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p,
+    final Integer[] keys,
+    final int offset)
+  {
+    for (int index = 0; index < ITERATIONS; ++index) {
+      final Integer key = keys[(offset + index) % keys.length];
+      p.returnValue(CONTEXT, p.get(CONTEXT, key));
+    }
+  }
+
+  private static final class QuietListener
+    implements JPPoolableListenerType<Integer, Object, Integer>
+  {
+    QuietListener()
+    {
+
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      return 1L;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,578 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolConcurrentType;
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolInterruptedException;
+import com.io7m.jpuddle.core.JPPoolObjectCreationException;
+import com.io7m.jpuddle.core.JPPoolTrimScheduler;
+import com.io7m.jpuddle.core.JPPoolTrimSchedulerType;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public abstract class JPPoolConcurrentContract
+  extends JPPoolSynchronousContract
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  @Override
+  protected abstract <K, T extends U, U, C>
+  JPPoolConcurrentType<K, T, U, C> newPool(
+    JPPoolableListenerType<K, T, C> listener,
+    long soft_limit,
+    long hard_limit);
+
+  @Override
+  protected abstract <K, T extends U, U, C>
+  JPPoolConcurrentType<K, T, U, C> newPoolWithTrimScheduler(
+    JPPoolableListenerType<K, T, C> listener,
+    long soft_limit,
+    long hard_limit,
+    JPPoolTrimSchedulerType<C> trim_scheduler);
+
+  private static void runThreads(
+    final int count,
+    final Runnable task)
+    throws Exception
+  {
+    final ConcurrentLinkedQueue<Throwable> errors =
+      new ConcurrentLinkedQueue<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    final Thread[] threads = new Thread[count];
+
+    for (int index = 0; index < count; ++index) {
+      threads[index] = new Thread(() -> {
+        try {
+          start.await();
+          task.run();
+        } catch (final Throwable e) {
+          errors.add(e);
+        }
+      });
+      threads[index].start();
+    }
+
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    for (final Throwable e : errors) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  public final void testConcurrentHardLimitNeverExceeded()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 16L, 32L);
+
+    final AtomicLong failures = new AtomicLong();
+    runThreads(8, () -> {
+      for (int index = 0; index < 10_000; ++index) {
+        final Integer key = Integer.valueOf(index % 64);
+        final Object v;
+        try {
+          v = p.get(CONTEXT, key);
+        } catch (final JPPoolHardLimitExceededException e) {
+          failures.incrementAndGet();
+          continue;
+        }
+
+        Assert.assertTrue(Long.compareUnsigned(p.size(), 32L) <= 0);
+        p.returnValue(CONTEXT, v);
+      }
+    });
+
+    p.trim(CONTEXT);
+    Assert.assertTrue(listener.live_max.get() <= 32L);
+    Assert.assertTrue(p.size() <= 16L);
+    Assert.assertEquals(listener.live.get(), p.size());
+
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(0L, listener.live.get());
+  }
+
+  @Test
+  public final void testConcurrentDistinctKeysReused()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 64L, 64L);
+
+    final AtomicLong ids = new AtomicLong();
+    runThreads(8, () -> {
+      final Integer key = Integer.valueOf((int) ids.getAndIncrement());
+      for (int index = 0; index < 10_000; ++index) {
+        p.returnValue(CONTEXT, p.get(CONTEXT, key));
+      }
+    });
+
+    Assert.assertEquals(8L, listener.creates.get());
+    Assert.assertEquals(0L, listener.deletes.get());
+    Assert.assertEquals(8L, p.size());
+    Assert.assertEquals(8L * 10_000L - 8L, listener.reuses.get());
+  }
+
+  @Test
+  public final void testConcurrentKeyChurn()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 16L, 1024L);
+
+    final AtomicLong ids = new AtomicLong();
+    runThreads(8, () -> {
+      final int base = (int) ids.getAndIncrement() * 100_000;
+      for (int index = 0; index < 5_000; ++index) {
+        p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(base + index)));
+      }
+    });
+
+    p.trim(CONTEXT);
+    Assert.assertEquals(8L * 5_000L, listener.creates.get());
+    Assert.assertEquals(listener.live.get(), p.size());
+    Assert.assertTrue(p.size() <= 16L);
+
+    /*
+     * Keys remain usable after their free lists have been discarded.
+     */
+
+    final Integer key = Integer.valueOf(4_999);
+    final Object v = p.get(CONTEXT, key);
+    p.returnValue(CONTEXT, v);
+    Assert.assertSame(v, p.get(CONTEXT, key));
+    p.returnValue(CONTEXT, v);
+
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(0L, listener.live.get());
+  }
+
+  @Test
+  public final void testGetTimeoutExpires()
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 1L, 1L);
+
+    p.get(CONTEXT, Integer.valueOf(0));
+
+    final long start = System.nanoTime();
+    try {
+      p.get(CONTEXT, Integer.valueOf(1), Duration.ofMillis(50L));
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      Assert.assertEquals(1L, e.getLimit());
+      Assert.assertEquals(2L, e.getSize());
+    }
+
+    final long elapsed = System.nanoTime() - start;
+    Assert.assertTrue(elapsed >= Duration.ofMillis(50L).toNanos());
+    Assert.assertEquals(1L, listener.creates.get());
+  }
+
+  @Test
+  public final void testGetTimeoutImmediate()
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 1L, 1L);
+
+    final Object v = p.get(CONTEXT, Integer.valueOf(0), Duration.ZERO);
+    p.returnValue(CONTEXT, v);
+
+    /*
+     * The free value of another key is deleted to make space.
+     */
+
+    p.get(CONTEXT, Integer.valueOf(1), Duration.ZERO);
+    Assert.assertEquals(2L, listener.creates.get());
+    Assert.assertEquals(1L, listener.deletes.get());
+    Assert.assertEquals(1L, p.size());
+  }
+
+  @Test
+  public final void testGetTimeoutWaitsForReturn()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 1L, 1L);
+
+    final Object v = p.get(CONTEXT, Integer.valueOf(0));
+    final CountDownLatch waiting = new CountDownLatch(1);
+    final AtomicReference<Object> received = new AtomicReference<>();
+    final Thread t = new Thread(() -> {
+      waiting.countDown();
+      received.set(
+        p.get(CONTEXT, Integer.valueOf(1), Duration.ofSeconds(30L)));
+    });
+    t.start();
+
+    waiting.await();
+    Thread.sleep(50L);
+    p.returnValue(CONTEXT, v);
+    t.join();
+
+    Assert.assertNotNull(received.get());
+    Assert.assertEquals(2L, listener.creates.get());
+    Assert.assertEquals(1L, listener.deletes.get());
+    Assert.assertEquals(1L, p.size());
+  }
+
+  /*
+   * A failed creation releases a reservation that makes room for two
+   * waiters, but wakes only one of them. The waiter that is woken must pass
+   * the wakeup on, or the other waiter sleeps until its timeout.
+   */
+
+  @Test
+  public final void testGetTimeoutReleaseWakesAll()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final CountDownLatch block = new CountDownLatch(1);
+    listener.sized = true;
+    listener.fail_key = Integer.valueOf(2);
+    listener.block = block;
+
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 0L, 2L);
+
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final Thread creator = new Thread(() -> {
+      try {
+        p.get(CONTEXT, Integer.valueOf(2));
+      } catch (final Throwable e) {
+        error.set(e);
+      }
+    });
+    creator.start();
+    while (p.size() != 2L) {
+      Thread.sleep(1L);
+    }
+
+    final CountDownLatch waiting = new CountDownLatch(2);
+    final AtomicLong received = new AtomicLong();
+    final Thread[] threads = new Thread[2];
+    for (int index = 0; index < threads.length; ++index) {
+      threads[index] = new Thread(() -> {
+        waiting.countDown();
+        p.get(CONTEXT, Integer.valueOf(1), Duration.ofSeconds(30L));
+        received.incrementAndGet();
+      });
+      threads[index].start();
+    }
+
+    waiting.await();
+    Thread.sleep(50L);
+    block.countDown();
+    creator.join();
+    for (final Thread t : threads) {
+      t.join(5_000L);
+    }
+
+    Assert.assertTrue(error.get() instanceof JPPoolObjectCreationException);
+    Assert.assertEquals(2L, received.get());
+    Assert.assertEquals(2L, p.size());
+  }
+
+  @Test
+  public final void testGetTimeoutInterrupted()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 1L, 1L);
+
+    p.get(CONTEXT, Integer.valueOf(0));
+
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final AtomicBoolean interrupted = new AtomicBoolean();
+    final Thread t = new Thread(() -> {
+      try {
+        p.get(CONTEXT, Integer.valueOf(1), Duration.ofSeconds(30L));
+      } catch (final Throwable e) {
+        error.set(e);
+        interrupted.set(Thread.currentThread().isInterrupted());
+      }
+    });
+    t.start();
+    Thread.sleep(50L);
+    t.interrupt();
+    t.join();
+
+    Assert.assertTrue(error.get() instanceof JPPoolInterruptedException);
+    Assert.assertTrue(interrupted.get());
+  }
+
+  @Test
+  public final void testGetTimeoutContended()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 2L, 4L);
+
+    runThreads(8, () -> {
+      for (int index = 0; index < 1_000; ++index) {
+        final Integer key = Integer.valueOf(index % 16);
+        final Object v = p.get(CONTEXT, key, Duration.ofSeconds(30L));
+        Assert.assertTrue(Long.compareUnsigned(p.size(), 4L) <= 0);
+        p.returnValue(CONTEXT, v);
+      }
+    });
+
+    Assert.assertTrue(listener.live_max.get() <= 4L);
+    Assert.assertEquals(listener.live.get(), p.size());
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(0L, listener.live.get());
+  }
+
+  /*
+   * Virtual threads that block in onCreate must unmount from their carrier
+   * threads. If the pool called onCreate while holding a monitor, every
+   * carrier would be pinned by a blocked borrower, and the virtual thread
+   * that releases the borrowers could never run.
+   */
+
+  @Test
+  public final void testVirtualThreadsCreateNotPinned()
+    throws Exception
+  {
+    final int borrowers = Runtime.getRuntime().availableProcessors() * 4;
+    final CountingListener listener = new CountingListener();
+    listener.block = new CountDownLatch(1);
+
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, borrowers, borrowers);
+
+    try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+      final CountDownLatch started = new CountDownLatch(borrowers);
+      final List<Future<?>> futures = new ArrayList<>(borrowers);
+      for (int index = 0; index < borrowers; ++index) {
+        final Integer key = Integer.valueOf(index);
+        futures.add(exec.submit(() -> {
+          started.countDown();
+          p.returnValue(CONTEXT, p.get(CONTEXT, key));
+        }));
+      }
+
+      try {
+        Assert.assertTrue(started.await(30L, TimeUnit.SECONDS));
+        exec.submit(listener.block::countDown).get(30L, TimeUnit.SECONDS);
+        for (final Future<?> f : futures) {
+          f.get(30L, TimeUnit.SECONDS);
+        }
+      } finally {
+        listener.block.countDown();
+      }
+    }
+
+    Assert.assertEquals(borrowers, listener.creates.get());
+    Assert.assertEquals((long) borrowers, p.size());
+  }
+
+  /*
+   * Virtual threads waiting for space must likewise unmount.
+   */
+
+  @Test
+  public final void testVirtualThreadsWaitNotPinned()
+    throws Exception
+  {
+    final int borrowers = Runtime.getRuntime().availableProcessors() * 4;
+    final CountingListener listener = new CountingListener();
+    final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+      this.newPool(listener, 1L, 1L);
+
+    final Integer key = Integer.valueOf(0);
+    final Object held = p.get(CONTEXT, key);
+
+    try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+      final CountDownLatch started = new CountDownLatch(borrowers);
+      final List<Future<?>> futures = new ArrayList<>(borrowers);
+      for (int index = 0; index < borrowers; ++index) {
+        futures.add(exec.submit(() -> {
+          started.countDown();
+          final Object v = p.get(CONTEXT, key, Duration.ofSeconds(30L));
+          p.returnValue(CONTEXT, v);
+        }));
+      }
+
+      Assert.assertTrue(started.await(30L, TimeUnit.SECONDS));
+      exec.submit(() -> p.returnValue(CONTEXT, held))
+        .get(30L, TimeUnit.SECONDS);
+      for (final Future<?> f : futures) {
+        f.get(30L, TimeUnit.SECONDS);
+      }
+    }
+
+    Assert.assertEquals(1L, listener.creates.get());
+    Assert.assertEquals((long) borrowers, listener.reuses.get());
+  }
+
+  @Test
+  public final void testTrimScheduled()
+    throws Exception
+  {
+    final CountingListener listener = new CountingListener();
+    final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor();
+
+    try {
+      final JPPoolConcurrentType<Integer, Object, Object, Integer> p =
+        this.newPoolWithTrimScheduler(
+          listener,
+          4L,
+          64L,
+          JPPoolTrimScheduler.scheduled(
+            executor, Duration.ofMillis(10L), 2, CONTEXT));
+
+      final Object[] values = new Object[32];
+      for (int index = 0; index < values.length; ++index) {
+        values[index] = p.get(CONTEXT, Integer.valueOf(index));
+      }
+      for (int index = 0; index < values.length; ++index) {
+        p.returnValue(CONTEXT, values[index]);
+      }
+
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30L);
+      while (p.size() > 4L && System.nanoTime() < deadline) {
+        Thread.sleep(1L);
+      }
+
+      Assert.assertEquals(4L, p.size());
+      Assert.assertEquals(28L, listener.deletes.get());
+      Assert.assertEquals(4L, listener.live.get());
+      p.deleteSafely(CONTEXT);
+    } finally {
+      executor.shutdown();
+      Assert.assertTrue(executor.awaitTermination(30L, TimeUnit.SECONDS));
+    }
+  }
+
+  private static final class CountingListener
+    implements JPPoolableListenerType<Integer, Object, Integer>
+  {
+    private final AtomicLong creates = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong live_max = new AtomicLong();
+    private volatile CountDownLatch block;
+    private volatile boolean sized;
+    private volatile Integer fail_key;
+
+    CountingListener()
+    {
+
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return this.sized ? key.longValue() : 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      final CountDownLatch latch = this.block;
+      if (latch != null) {
+        try {
+          latch.await();
+        } catch (final InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      if (key.equals(this.fail_key)) {
+        throw new IllegalStateException("Creation failed.");
+      }
+
+      this.creates.incrementAndGet();
+      final long now = this.live.incrementAndGet();
+      this.live_max.accumulateAndGet(now, Math::max);
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      return this.sized ? key.longValue() : 1L;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      this.reuses.incrementAndGet();
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      this.deletes.incrementAndGet();
+      this.live.decrementAndGet();
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolConcurrentLockFree;
+import com.io7m.jpuddle.core.JPPoolTrimSchedulerType;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+
+public final class JPPoolConcurrentLockFreeTest extends JPPoolConcurrentContract
+{
+  @Override
+  protected <K, T extends U, U, C> JPPoolConcurrentLockFree<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit)
+  {
+    return JPPoolConcurrentLockFree.newPool(listener, soft_limit, hard_limit);
+  }
+
+  @Override
+  protected <K, T extends U, U, C> JPPoolConcurrentLockFree<K, T, U, C>
+  newPoolWithTrimScheduler(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return JPPoolConcurrentLockFree.newPool(
+      listener, soft_limit, hard_limit, trim_scheduler);
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolConcurrent;
+import com.io7m.jpuddle.core.JPPoolObjectReturnException;
+import com.io7m.jpuddle.core.JPPoolTrimSchedulerType;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class JPPoolConcurrentMagazinesTest
+  extends JPPoolConcurrentContract
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  @Override
+  protected <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C> newPool(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit)
+  {
+    return JPPoolConcurrent.newPoolWithMagazines(
+      listener, soft_limit, hard_limit, 4, 4);
+  }
+
+  @Override
+  protected <K, T extends U, U, C> JPPoolConcurrent<K, T, U, C>
+  newPoolWithTrimScheduler(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return JPPoolConcurrent.newPoolWithMagazines(
+      listener, soft_limit, hard_limit, 4, 4, trim_scheduler);
+  }
+
+  @Test
+  public void testMagazineOverflowFlushes()
+  {
+    final ObjectListener listener = new ObjectListener();
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p =
+      JPPoolConcurrent.newPoolWithMagazines(listener, 100L, 100L, 4, 2);
+
+    final Integer key = Integer.valueOf(0);
+    final Object[] values = new Object[8];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(CONTEXT, key);
+    }
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(CONTEXT, values[index]);
+    }
+
+    Assert.assertEquals(8L, p.size());
+    Assert.assertEquals(8, listener.creates);
+
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(CONTEXT, key);
+    }
+
+    Assert.assertEquals(8, listener.creates);
+    Assert.assertEquals(8, listener.reuses);
+    Assert.assertEquals(8L, p.size());
+
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(CONTEXT, values[index]);
+    }
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(8, listener.deletes);
+  }
+
+  @Test
+  public void testMagazineCountsTowardSoftLimit()
+  {
+    final ObjectListener listener = new ObjectListener();
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p =
+      JPPoolConcurrent.newPoolWithMagazines(listener, 0L, 100L, 4, 4);
+
+    final Object v = p.get(CONTEXT, Integer.valueOf(0));
+    Assert.assertEquals(1L, p.size());
+    p.returnValue(CONTEXT, v);
+
+    Assert.assertEquals(0L, p.size());
+    Assert.assertEquals(1, listener.deletes);
+  }
+
+  @Test
+  public void testMagazineCrossThreadReturn()
+    throws Exception
+  {
+    final ObjectListener listener = new ObjectListener();
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p =
+      JPPoolConcurrent.newPoolWithMagazines(listener, 100L, 100L, 4, 4);
+
+    final Integer key = Integer.valueOf(0);
+    final Object v = p.get(CONTEXT, key);
+
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final Thread t = new Thread(() -> {
+      try {
+        p.returnValue(CONTEXT, v);
+      } catch (final Throwable e) {
+        error.set(e);
+      }
+    });
+    t.start();
+    t.join();
+
+    Assert.assertNull(error.get());
+    Assert.assertSame(v, p.get(CONTEXT, key));
+    Assert.assertEquals(1, listener.reuses);
+
+    p.returnValue(CONTEXT, v);
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(1, listener.deletes);
+  }
+
+  @Test
+  public void testMagazineReturnTwice()
+  {
+    final ObjectListener listener = new ObjectListener();
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p =
+      JPPoolConcurrent.newPoolWithMagazines(listener, 100L, 100L, 4, 4);
+
+    final Object v = p.get(CONTEXT, Integer.valueOf(0));
+    p.returnValue(CONTEXT, v);
+
+    this.expected.expect(JPPoolObjectReturnException.class);
+    p.returnValue(CONTEXT, v);
+  }
+
+  private static final class ObjectListener
+    implements JPPoolableListenerType<Integer, Object, Integer>
+  {
+    private int creates;
+    private int deletes;
+    private int reuses;
+
+    ObjectListener()
+    {
+
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      ++this.creates;
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      return 1L;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      ++this.reuses;
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      ++this.deletes;
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolEvictionPolicies;
+import com.io7m.jpuddle.core.JPPoolEvictionPolicyType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolSynchronousBuilder;
+import com.io7m.jranges.RangeCheckException;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check the choice of victims made by the eviction policies.
+ */
+
+public final class JPPoolEvictionPolicyTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> newPool(
+    final JPPoolTestListener listener,
+    final long soft_limit,
+    final JPPoolEvictionPolicyType<Integer> policy)
+  {
+    final JPPoolSynchronousBuilder<Integer, Object, Object, Integer> b =
+      JPPoolSynchronous.builder(listener, soft_limit, 1000L);
+    if (policy != null) {
+      b.setEvictionPolicy(policy);
+    }
+    return b.build();
+  }
+
+  private static void use(
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p,
+    final int key)
+  {
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(key)));
+  }
+
+  private static IntArrayList frequencyWorkload(
+    final JPPoolEvictionPolicyType<Integer> policy)
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 3L, policy);
+
+    use(p, 0);
+    use(p, 1);
+    use(p, 2);
+    for (int index = 0; index < 3; ++index) {
+      use(p, 0);
+    }
+    use(p, 1);
+    use(p, 1);
+    use(p, 2);
+
+    final Object v = p.get(CONTEXT, Integer.valueOf(3));
+    p.trim(CONTEXT);
+    p.returnValue(CONTEXT, v);
+    return listener.deleted();
+  }
+
+  @Test
+  public void testLRU()
+  {
+    Assert.assertEquals(
+      IntArrayList.of(0), frequencyWorkload(null));
+    Assert.assertEquals(
+      IntArrayList.of(0), frequencyWorkload(JPPoolEvictionPolicies.lru()));
+  }
+
+  @Test
+  public void testLFU()
+  {
+    Assert.assertEquals(
+      IntArrayList.of(2), frequencyWorkload(JPPoolEvictionPolicies.lfu()));
+  }
+
+  @Test
+  public void testGDSFLargeRarelyUsed()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 102L, JPPoolEvictionPolicies.gdsf());
+
+    listener.sizes = new long[]{1L, 1L, 100L, 1L};
+    use(p, 1);
+    use(p, 2);
+    use(p, 100);
+    use(p, 3);
+
+    Assert.assertEquals(IntArrayList.of(100), listener.deleted());
+    Assert.assertEquals(3L, p.size());
+  }
+
+  @Test
+  public void testGDSFAgesOutFrequentObjects()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 2L, JPPoolEvictionPolicies.gdsf());
+
+    use(p, 1);
+    for (int index = 0; index < 10; ++index) {
+      use(p, 1);
+    }
+
+    /*
+     * Each eviction raises the priority given to new objects, so that an
+     * object that was popular in the past is eventually evicted.
+     */
+
+    for (int index = 0; index < 100; ++index) {
+      use(p, 1000 + (index % 2));
+    }
+
+    Assert.assertTrue(listener.deleted().contains(1));
+  }
+
+  @Test
+  public void testGDSFWithinKey()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 4L, JPPoolEvictionPolicies.gdsf());
+
+    /*
+     * Three free objects share a key, and the policy evicts the one in the
+     * middle of the key's free list.
+     */
+
+    listener.sizes = new long[]{1L, 2L, 1L};
+    final Object a = p.get(CONTEXT, Integer.valueOf(0));
+    final Object b = p.get(CONTEXT, Integer.valueOf(0));
+    final Object c = p.get(CONTEXT, Integer.valueOf(0));
+    p.returnValue(CONTEXT, a);
+    p.returnValue(CONTEXT, b);
+    p.returnValue(CONTEXT, c);
+    listener.sizes = new long[0];
+
+    use(p, 1);
+    Assert.assertEquals(IntArrayList.of(0), listener.deleted());
+    Assert.assertEquals(3L, p.size());
+
+    Assert.assertSame(a, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertSame(c, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(4, listener.creates.get());
+    Assert.assertNotSame(b, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(5, listener.creates.get());
+  }
+
+  private static int scanWorkload(
+    final JPPoolEvictionPolicyType<Integer> policy)
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 4L, policy);
+
+    for (int index = 0; index < 3; ++index) {
+      use(p, 0);
+      use(p, 1);
+    }
+    for (int index = 100; index < 120; ++index) {
+      use(p, index);
+    }
+
+    final int creates = listener.creates.get();
+    use(p, 0);
+    use(p, 1);
+    return listener.creates.get() - creates;
+  }
+
+  @Test
+  public void testARCScanResistant()
+  {
+    Assert.assertEquals(2, scanWorkload(JPPoolEvictionPolicies.lru()));
+    Assert.assertEquals(0, scanWorkload(JPPoolEvictionPolicies.arc(4)));
+  }
+
+  @Test
+  public void testARCGhostHit()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 2L, JPPoolEvictionPolicies.arc(2));
+
+    use(p, 0);
+    use(p, 1);
+    use(p, 2);
+    Assert.assertEquals(IntArrayList.of(0), listener.deleted());
+
+    /*
+     * A key that was recently evicted returns as a frequent object, and
+     * survives a following scan.
+     */
+
+    use(p, 0);
+    use(p, 3);
+    use(p, 4);
+    use(p, 5);
+
+    final int creates = listener.creates.get();
+    use(p, 0);
+    Assert.assertEquals(creates, listener.creates.get());
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testARCGhostCapacityZero()
+  {
+    JPPoolEvictionPolicies.arc(0);
+  }
+}
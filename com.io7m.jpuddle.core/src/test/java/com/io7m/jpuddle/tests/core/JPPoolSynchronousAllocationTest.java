@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Check that the steady state of a pool does not allocate.
+ */
+
+public final class JPPoolSynchronousAllocationTest
+{
+  private static final int ITERATIONS = 100_000;
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private Object threads;
+  private Method allocated;
+
+  /*
+   * The per-thread allocation counter is only available through the
+   * com.sun.management extension of the thread MX bean. The test module
+   * does not read java.management, so the bean is accessed reflectively.
+   */
+
+  @Before
+  public void setup()
+    throws Exception
+  {
+    final Class<?> bean;
+    try {
+      final Class<?> factory =
+        Class.forName("java.lang.management.ManagementFactory");
+      bean = Class.forName("com.sun.management.ThreadMXBean");
+      this.threads = factory.getMethod("getThreadMXBean").invoke(null);
+    } catch (final ClassNotFoundException e) {
+      Assume.assumeNoException(e);
+      return;
+    }
+
+    Assume.assumeTrue(bean.isInstance(this.threads));
+    final Method enabled = bean.getMethod("isThreadAllocatedMemoryEnabled");
+    Assume.assumeTrue(((Boolean) enabled.invoke(this.threads)).booleanValue());
+
+    this.allocated = bean.getMethod("getCurrentThreadAllocatedBytes");
+    this.allocatedBytes();
+  }
+
+  private long allocatedBytes()
+    throws Exception
+  {
+    return ((Long) this.allocated.invoke(this.threads)).longValue();
+  }
+
+  @Test
+  public void testHitReturnSteadyState()
+    throws Exception
+  {
+    final Integer[] keys = new Integer[16];
+    for (int index = 0; index < keys.length; ++index) {
+      keys[index] = Integer.valueOf(index);
+    }
+
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new QuietListener(), 16L, 32L);
+
+    for (int index = 0; index < keys.length; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, keys[index]));
+    }
+
+    cycle(p, keys);
+
+    final long before = this.allocatedBytes();
+    cycle(p, keys);
+    final long after = this.allocatedBytes();
+
+    final long per_op = (after - before) / (long) ITERATIONS;
+    Assert.assertEquals(0L, per_op);
+  }
+
+  @Test
+  public void testMissEvictSteadyState()
+    throws Exception
+  {
+    final Integer[] keys = new Integer[64];
+    for (int index = 0; index < keys.length; ++index) {
+      keys[index] = Integer.valueOf(index);
+    }
+
+    final QuietListener listener = new QuietListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 16L, 32L);
+
+    cycle(p, keys);
+
+    final long before = this.allocatedBytes();
+    cycle(p, keys);
+    final long after = this.allocatedBytes();
+
+    /*
+     * Every get misses and every return evicts. The only allocations that
+     * may remain are the values created by the listener itself.
+     */
+
+    final long per_op = (after - before) / (long) ITERATIONS;
+    Assert.assertTrue(
+      "Allocated " + per_op + " bytes per operation",
+      per_op <= listener.created_size);
+  }
+
+  @Test
+  public void testKeyChurnSteadyState()
+    throws Exception
+  {
+    final Integer[] keys = new Integer[ITERATIONS * 2];
+    for (int index = 0; index < keys.length; ++index) {
+      keys[index] = Integer.valueOf(index);
+    }
+
+    final QuietListener listener = new QuietListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 16L, 32L);
+
+    for (int index = 0; index < ITERATIONS; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, keys[index]));
+    }
+
+    /*
+     * Every key is used exactly once, so every key's free storage must be
+     * released when its only object is evicted. Nothing may accumulate per
+     * key beyond the values created by the listener itself.
+     */
+
+    final long before = this.allocatedBytes();
+    for (int index = ITERATIONS; index < keys.length; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, keys[index]));
+    }
+    final long after = this.allocatedBytes();
+
+    final long per_op = (after - before) / (long) ITERATIONS;
+    Assert.assertTrue(
+      "Allocated " + per_op + " bytes per operation",
+      per_op <= listener.created_size);
+  }
+
+  private static void cycle(
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p,
+    final Integer[] keys)
+  {
+    for (int index = 0; index < ITERATIONS; ++index) {
+      final Object v = p.get(CONTEXT, keys[index % keys.length]);
+      p.returnValue(CONTEXT, v);
+    }
+  }
+
+  private static final class QuietListener
+    implements JPPoolableListenerType<Integer, Object, Integer>
+  {
+    private final long created_size = 16L;
+
+    QuietListener()
+    {
+
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      return 1L;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolObjectCreationException;
+import com.io7m.jpuddle.core.JPPoolObjectReturnException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Check that batches are accepted or rejected as a whole by synchronous
+ * pools.
+ */
+
+public final class JPPoolSynchronousBatchTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  @Test
+  public void testGetAllHardLimitCheckedOnce()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 4L, 4L);
+
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(1, listener.creates.get());
+
+    /*
+     * The batch as a whole cannot fit, so no objects are created at all,
+     * and the object that was reused is returned.
+     */
+
+    try {
+      p.getAll(
+        CONTEXT,
+        List.of(
+          Integer.valueOf(0),
+          Integer.valueOf(1),
+          Integer.valueOf(2),
+          Integer.valueOf(3),
+          Integer.valueOf(4)));
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      Assert.assertEquals(5L, e.getSize());
+    }
+
+    Assert.assertEquals(1, listener.creates.get());
+    Assert.assertEquals(5, listener.estimates.get());
+    Assert.assertEquals(1L, p.size());
+    p.deleteSafely(CONTEXT);
+  }
+
+  @Test
+  public void testGetAllFailureTrims()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 2L, 4L);
+
+    p.returnAll(
+      CONTEXT,
+      p.getAll(CONTEXT, List.of(Integer.valueOf(0), Integer.valueOf(1))));
+    Assert.assertEquals(2L, p.size());
+
+    /*
+     * The batch reuses two objects and creates a third before failing.
+     * All three are returned, and the pool is trimmed back to its soft
+     * limit.
+     */
+
+    listener.fail_key = Integer.valueOf(3);
+    try {
+      p.getAll(
+        CONTEXT,
+        List.of(
+          Integer.valueOf(0),
+          Integer.valueOf(1),
+          Integer.valueOf(2),
+          Integer.valueOf(3)));
+      Assert.fail();
+    } catch (final JPPoolObjectCreationException e) {
+      // Expected
+    }
+
+    Assert.assertEquals(3, listener.creates.get());
+    Assert.assertEquals(1, listener.deletes.get());
+    Assert.assertEquals(2L, p.size());
+    p.deleteSafely(CONTEXT);
+  }
+
+  @Test
+  public void testReturnAllRejectedAsWhole()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 4L, 4L);
+
+    final List<Object> values =
+      p.getAll(CONTEXT, List.of(Integer.valueOf(0), Integer.valueOf(1)));
+
+    try {
+      p.returnAll(
+        CONTEXT, List.of(values.get(0), values.get(1), values.get(0)));
+      Assert.fail();
+    } catch (final JPPoolObjectReturnException e) {
+      // Expected
+    }
+
+    p.returnAll(CONTEXT, values);
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(2, listener.deletes.get());
+  }
+
+  @Test
+  public void testGetAllHits()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 4L, 4L);
+
+    final List<Integer> keys = List.of(Integer.valueOf(0), Integer.valueOf(1));
+    p.returnAll(CONTEXT, p.getAll(CONTEXT, keys));
+    p.returnAll(CONTEXT, p.getAll(CONTEXT, keys));
+
+    Assert.assertEquals(2, listener.creates.get());
+    Assert.assertEquals(2, listener.estimates.get());
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolKeyCompatibilityType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check the reuse of free objects with compatible keys.
+ */
+
+public final class JPPoolSynchronousCompatibleTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> newPool(
+    final BufferListener listener)
+  {
+    return JPPoolSynchronous.<Integer, Object, Object, Integer>builder(
+        listener, 100_000L, 100_000L)
+      .setKeyCompatibility(new AtMostDouble())
+      .build();
+  }
+
+  private static Object[] fill(
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p,
+    final int... sizes)
+  {
+    final Object[] values = new Object[sizes.length];
+    for (int index = 0; index < sizes.length; ++index) {
+      values[index] = p.get(CONTEXT, Integer.valueOf(sizes[index]));
+    }
+    for (int index = 0; index < sizes.length; ++index) {
+      p.returnValue(CONTEXT, values[index]);
+    }
+    return values;
+  }
+
+  @Test
+  public void testCompatibleSmallest()
+  {
+    final BufferListener listener = new BufferListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener);
+
+    final Object[] values = fill(p, 1900, 1100, 1024);
+    Assert.assertEquals(3, listener.creates.get());
+
+    Assert.assertSame(values[2], p.get(CONTEXT, Integer.valueOf(1000)));
+    Assert.assertSame(values[1], p.get(CONTEXT, Integer.valueOf(1000)));
+    Assert.assertSame(values[0], p.get(CONTEXT, Integer.valueOf(1000)));
+    Assert.assertEquals(IntArrayList.of(1024, 1100, 1900), listener.reused());
+    Assert.assertEquals(3, listener.creates.get());
+  }
+
+  @Test
+  public void testCompatibleEqualPreferred()
+  {
+    final BufferListener listener = new BufferListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener);
+
+    final Object[] values = fill(p, 1024, 1000);
+    Assert.assertSame(values[1], p.get(CONTEXT, Integer.valueOf(1000)));
+    Assert.assertSame(values[0], p.get(CONTEXT, Integer.valueOf(1000)));
+    Assert.assertEquals(2, listener.creates.get());
+  }
+
+  @Test
+  public void testCompatibleTooLarge()
+  {
+    final BufferListener listener = new BufferListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener);
+
+    final Object[] values = fill(p, 1024);
+    final Object small = p.get(CONTEXT, Integer.valueOf(400));
+    Assert.assertNotSame(values[0], small);
+    Assert.assertEquals(2, listener.creates.get());
+
+    /*
+     * Smaller keys are never compatible.
+     */
+
+    Assert.assertNotSame(values[0], p.get(CONTEXT, Integer.valueOf(2000)));
+    Assert.assertEquals(3, listener.creates.get());
+  }
+
+  @Test
+  public void testCompatibleReturnedUnderOwnKey()
+  {
+    final BufferListener listener = new BufferListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener);
+
+    final Object[] values = fill(p, 1024);
+    final Object v = p.get(CONTEXT, Integer.valueOf(1000));
+    Assert.assertSame(values[0], v);
+    Assert.assertNotSame(v, p.get(CONTEXT, Integer.valueOf(1000)));
+
+    p.returnValue(CONTEXT, v);
+    Assert.assertSame(v, p.get(CONTEXT, Integer.valueOf(1024)));
+    Assert.assertEquals(1024L + 1000L, p.size());
+  }
+
+  @Test
+  public void testCompatibleEvictedKeysForgotten()
+  {
+    final BufferListener listener = new BufferListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.<Integer, Object, Object, Integer>builder(
+          listener, 0L, 100_000L)
+        .setKeyCompatibility(new AtMostDouble())
+        .build();
+
+    fill(p, 1024);
+    Assert.assertEquals(0L, p.size());
+    p.get(CONTEXT, Integer.valueOf(1000));
+    Assert.assertEquals(2, listener.creates.get());
+  }
+
+  @Test
+  public void testIncompatibleByDefault()
+  {
+    final BufferListener listener = new BufferListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 100_000L, 100_000L);
+
+    fill(p, 1024);
+    p.get(CONTEXT, Integer.valueOf(1000));
+    Assert.assertEquals(2, listener.creates.get());
+  }
+
+  private static final class AtMostDouble
+    implements JPPoolKeyCompatibilityType<Integer>
+  {
+    AtMostDouble()
+    {
+
+    }
+
+    @Override
+    public int compare(
+      final Integer x,
+      final Integer y)
+    {
+      return Integer.compare(x.intValue(), y.intValue());
+    }
+
+    @Override
+    public boolean isCompatible(
+      final Integer requested,
+      final Integer available)
+    {
+      return available.longValue() <= requested.longValue() * 2L;
+    }
+  }
+
+  /*
+   * A listener for which the key of an object is also its size, standing
+   * in for buffers keyed by their capacity.
+   */
+
+  private static final class BufferListener extends JPPoolTestListener
+  {
+    BufferListener()
+    {
+
+    }
+
+    @Override
+    long sizeOf(
+      final Integer key,
+      final int index)
+    {
+      return key.longValue();
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      super.onEstimateSize(c, key);
+      return key.longValue();
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      Assert.assertEquals(key.longValue(), ((long[]) value)[0]);
+      super.onReuse(c, key, value);
+    }
+  }
+}
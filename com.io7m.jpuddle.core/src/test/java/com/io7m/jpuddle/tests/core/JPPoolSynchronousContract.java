@@ -21,7 +21,10 @@ import com.io7m.jpuddle.core.JPPoolInternalOverflowException;
 import com.io7m.jpuddle.core.JPPoolObjectCreationException;
 import com.io7m.jpuddle.core.JPPoolObjectReturnException;
 import com.io7m.jpuddle.core.JPPoolObjectsNotReturnedException;
-import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolSynchronousType;
+import com.io7m.jpuddle.core.JPPoolSynchronousUsableType;
+import com.io7m.jpuddle.core.JPPoolTrimScheduler;
+import com.io7m.jpuddle.core.JPPoolTrimSchedulerType;
 import com.io7m.jpuddle.core.JPPoolableListenerType;
 import com.io7m.jranges.RangeCheckException;
 import org.junit.Assert;
@@ -31,6 +34,7 @@ import org.junit.rules.ExpectedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -45,17 +49,24 @@ public abstract class JPPoolSynchronousContract
   @Rule public ExpectedException expected = ExpectedException.none();
 
   protected abstract <K, T extends U, U, C>
-  JPPoolSynchronous<K, T, U, C> newPool(
+  JPPoolSynchronousType<K, T, U, C> newPool(
     JPPoolableListenerType<K, T, C> listener,
     long soft_limit,
     long hard_limit);
 
+  protected abstract <K, T extends U, U, C>
+  JPPoolSynchronousType<K, T, U, C> newPoolWithTrimScheduler(
+    JPPoolableListenerType<K, T, C> listener,
+    long soft_limit,
+    long hard_limit,
+    JPPoolTrimSchedulerType<C> trim_scheduler);
+
   @Test
   public final void testGetEmpty()
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Pooled[] values = new Pooled[15];
@@ -72,7 +83,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Pooled[] values = new Pooled[20];
@@ -92,7 +103,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -133,7 +144,7 @@ public abstract class JPPoolSynchronousContract
     final PooledListenerReuseErrorSuppressed listener =
       new PooledListenerReuseErrorSuppressed();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 1L, 2L);
 
     final Integer context = Integer.valueOf(2);
@@ -169,7 +180,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -213,7 +224,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 0L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -258,7 +269,7 @@ public abstract class JPPoolSynchronousContract
     final IntCreationFailureObjectListener listener =
       new IntCreationFailureObjectListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -273,7 +284,7 @@ public abstract class JPPoolSynchronousContract
     final IntCreationFailureSizeListener listener =
       new IntCreationFailureSizeListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -288,7 +299,7 @@ public abstract class JPPoolSynchronousContract
     final IntCreationFailureEstimateSizeListener listener =
       new IntCreationFailureEstimateSizeListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -302,7 +313,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -318,7 +329,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 20L, 30L);
 
     final Integer context = Integer.valueOf(2);
@@ -337,7 +348,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -357,7 +368,7 @@ public abstract class JPPoolSynchronousContract
   {
     final PooledListener listener = new PooledListener();
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     final Integer context = Integer.valueOf(2);
@@ -373,7 +384,7 @@ public abstract class JPPoolSynchronousContract
     final PooledListener listener = new PooledListener();
     listener.estimated_size = 21L;
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(listener, 10L, 20L);
 
     this.expected.expect(JPPoolHardLimitExceededException.class);
@@ -387,7 +398,7 @@ public abstract class JPPoolSynchronousContract
     listener.estimated_size = 0x8000000000000065L;
     listener.size = 1L;
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(
         listener,
         0L,
@@ -404,7 +415,7 @@ public abstract class JPPoolSynchronousContract
     listener.estimated_size = 1L;
     listener.size = 0x8000000000000065L;
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(
         listener,
         0L,
@@ -422,7 +433,7 @@ public abstract class JPPoolSynchronousContract
     listener.size =
       0b11111111_11111111_11111111_11111111_11111111_11111111_11111111_11111111L;
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(
         listener,
         0L,
@@ -441,7 +452,7 @@ public abstract class JPPoolSynchronousContract
     listener.size =
       1L;
 
-    final JPPoolSynchronous<Integer, Pooled, Pooled, Integer> p =
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
       this.newPool(
         listener,
         0L,
@@ -451,6 +462,236 @@ public abstract class JPPoolSynchronousContract
     p.get(Integer.valueOf(2), Integer.valueOf(0));
   }
 
+  @Test
+  public final void testTrimDeferred()
+  {
+    final PooledListener listener = new PooledListener();
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPoolWithTrimScheduler(
+        listener, 10L, 20L, JPPoolTrimScheduler.deferred());
+
+    final Integer context = Integer.valueOf(2);
+    final Pooled[] values = new Pooled[20];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(context, Integer.valueOf(index));
+    }
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(context, values[index]);
+    }
+
+    Assert.assertEquals(0L, (long) listener.deletes);
+    Assert.assertEquals(20L, p.size());
+
+    Assert.assertTrue(p.trimBatch(context, 3));
+    Assert.assertEquals(3L, (long) listener.deletes);
+    Assert.assertEquals(17L, p.size());
+
+    Assert.assertFalse(p.trimBatch(context, 100));
+    Assert.assertEquals(10L, (long) listener.deletes);
+    Assert.assertEquals(10L, p.size());
+
+    Assert.assertFalse(p.trimBatch(context, 100));
+    Assert.assertEquals(10L, (long) listener.deletes);
+  }
+
+  @Test
+  public final void testTrimDeferredHardLimit()
+  {
+    final PooledListener listener = new PooledListener();
+    listener.estimated_size = 1L;
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPoolWithTrimScheduler(
+        listener, 10L, 20L, JPPoolTrimScheduler.deferred());
+
+    final Integer context = Integer.valueOf(2);
+    final Pooled[] values = new Pooled[20];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(context, Integer.valueOf(index));
+    }
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(context, values[index]);
+    }
+
+    Assert.assertEquals(0L, (long) listener.deletes);
+
+    /*
+     * Creating a value for a new key would exceed the hard limit, so the
+     * pool must trim inline instead of failing.
+     */
+
+    p.get(context, Integer.valueOf(100));
+    Assert.assertEquals(10L, (long) listener.deletes);
+    Assert.assertEquals(11L, p.size());
+  }
+
+  @Test
+  public final void testTrimDeferredNotifiesOnce()
+  {
+    final PooledListener listener = new PooledListener();
+    final CountingTrimScheduler scheduler = new CountingTrimScheduler();
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPoolWithTrimScheduler(listener, 10L, 20L, scheduler);
+
+    final Integer context = Integer.valueOf(2);
+    final Pooled[] values = new Pooled[20];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(context, Integer.valueOf(index));
+    }
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(context, values[index]);
+    }
+
+    Assert.assertEquals(1, scheduler.requests);
+    Assert.assertSame(p, scheduler.pool);
+
+    while (p.trimBatch(context, 1)) {
+      // Keep trimming
+    }
+    Assert.assertEquals(10L, p.size());
+
+    for (int index = 0; index < 20; ++index) {
+      values[index] = p.get(context, Integer.valueOf(index));
+    }
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(context, values[index]);
+    }
+
+    Assert.assertEquals(2, scheduler.requests);
+    Assert.assertEquals(10L, (long) listener.deletes);
+  }
+
+  @Test
+  public final void testGetAllReturnAll()
+  {
+    final PooledListener listener = new PooledListener();
+    listener.estimated_size = 1L;
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPool(listener, 10L, 20L);
+
+    final Integer context = Integer.valueOf(2);
+    final List<Integer> keys =
+      List.of(
+        Integer.valueOf(0),
+        Integer.valueOf(1),
+        Integer.valueOf(1),
+        Integer.valueOf(2));
+
+    final List<Pooled> values = p.getAll(context, keys);
+    Assert.assertEquals(4, values.size());
+    for (int index = 0; index < keys.size(); ++index) {
+      Assert.assertEquals(
+        new Pooled(keys.get(index).intValue() * 2), values.get(index));
+    }
+    Assert.assertNotSame(values.get(1), values.get(2));
+    Assert.assertEquals(4L, (long) listener.creates);
+    Assert.assertEquals(4L, p.size());
+
+    p.returnAll(context, values);
+    Assert.assertEquals(4L, p.size());
+
+    final List<Pooled> again = p.getAll(context, keys);
+    Assert.assertEquals(values.size(), again.size());
+    Assert.assertEquals(4L, (long) listener.creates);
+    Assert.assertEquals(4L, (long) listener.reuses);
+    p.returnAll(context, again);
+    p.deleteSafely(context);
+  }
+
+  @Test
+  public final void testGetAllHardLimitReturnsBatch()
+  {
+    final PooledListener listener = new PooledListener();
+    listener.estimated_size = 1L;
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPool(listener, 20L, 20L);
+
+    final Integer context = Integer.valueOf(2);
+    for (int index = 0; index < 16; ++index) {
+      p.get(context, Integer.valueOf(index));
+    }
+    p.returnValue(context, p.get(context, Integer.valueOf(100)));
+    p.returnValue(context, p.get(context, Integer.valueOf(101)));
+
+    try {
+      p.getAll(
+        context,
+        List.of(
+          Integer.valueOf(100),
+          Integer.valueOf(101),
+          Integer.valueOf(200),
+          Integer.valueOf(201),
+          Integer.valueOf(202)));
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      // Expected
+    }
+
+    Assert.assertTrue(p.size() <= 20L);
+
+    final int reuses = listener.reuses;
+    p.returnValue(context, p.get(context, Integer.valueOf(100)));
+    p.returnValue(context, p.get(context, Integer.valueOf(101)));
+    Assert.assertEquals(reuses + 2, listener.reuses);
+  }
+
+  @Test
+  public final void testGetAllCreationFailureReturnsBatch()
+  {
+    final PooledListener listener = new PooledListener()
+    {
+      @Override
+      public Pooled onCreate(
+        final Integer c,
+        final Integer key)
+      {
+        if (key.intValue() == 99) {
+          throw new IllegalStateException("Failed for " + key);
+        }
+        return super.onCreate(c, key);
+      }
+    };
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPool(listener, 10L, 20L);
+
+    final Integer context = Integer.valueOf(2);
+    p.returnValue(context, p.get(context, Integer.valueOf(0)));
+
+    try {
+      p.getAll(
+        context,
+        List.of(Integer.valueOf(0), Integer.valueOf(1), Integer.valueOf(99)));
+      Assert.fail();
+    } catch (final JPPoolObjectCreationException e) {
+      // Expected
+    }
+
+    final int reuses = listener.reuses;
+    p.returnValue(context, p.get(context, Integer.valueOf(0)));
+    Assert.assertEquals(reuses + 1, listener.reuses);
+    p.deleteSafely(context);
+  }
+
+  @Test
+  public final void testReturnAllNotActive()
+  {
+    final PooledListener listener = new PooledListener();
+
+    final JPPoolSynchronousType<Integer, Pooled, Pooled, Integer> p =
+      this.newPool(listener, 10L, 20L);
+
+    final Integer context = Integer.valueOf(2);
+    final Pooled v = p.get(context, Integer.valueOf(0));
+
+    this.expected.expect(JPPoolObjectReturnException.class);
+    p.returnAll(context, List.of(v, v));
+  }
+
   @Test
   public final void testBadLimit_0()
   {
@@ -638,6 +879,32 @@ public abstract class JPPoolSynchronousContract
   }
 
 
+  private static final class CountingTrimScheduler
+    implements JPPoolTrimSchedulerType<Integer>
+  {
+    int requests;
+    JPPoolSynchronousUsableType<?, ?, ?, Integer> pool;
+
+    CountingTrimScheduler()
+    {
+
+    }
+
+    @Override
+    public boolean isInline()
+    {
+      return false;
+    }
+
+    @Override
+    public void onTrimRequired(
+      final JPPoolSynchronousUsableType<?, ?, ?, Integer> in_pool)
+    {
+      ++this.requests;
+      this.pool = in_pool;
+    }
+  }
+
   private static final class Unit
   {
     private Unit()
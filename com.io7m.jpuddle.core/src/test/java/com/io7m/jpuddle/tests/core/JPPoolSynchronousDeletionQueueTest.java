@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolDeletionQueueType;
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Check the deferred deletion of objects evicted from synchronous pools.
+ */
+
+public final class JPPoolSynchronousDeletionQueueTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> pool(
+    final JPPoolTestListener listener,
+    final long soft,
+    final long hard)
+  {
+    return JPPoolSynchronous.builder(listener, soft, hard)
+      .setDeletionDeferred(true)
+      .build();
+  }
+
+  private static void getAndReturn(
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p,
+    final int count)
+  {
+    final List<Object> values = new ArrayList<>(count);
+    for (int index = 0; index < count; ++index) {
+      values.add(p.get(CONTEXT, Integer.valueOf(index)));
+    }
+    for (final Object value : values) {
+      p.returnValue(CONTEXT, value);
+    }
+  }
+
+  @Test
+  public void testNotDeferredByDefault()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 2L, 10L);
+
+    Assert.assertEquals(Optional.empty(), p.deletionQueue());
+    getAndReturn(p, 5);
+    Assert.assertEquals(3, listener.deletes.get());
+  }
+
+  @Test
+  public void testEvictionsQueued()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    listener.size = 3L;
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 6L, 30L);
+    final JPPoolDeletionQueueType<Integer> q = p.deletionQueue().get();
+
+    getAndReturn(p, 5);
+    Assert.assertEquals(0, listener.deletes.get());
+    Assert.assertEquals(6L, p.size());
+    Assert.assertEquals(3, q.count());
+    Assert.assertEquals(9L, q.size());
+
+    Assert.assertEquals(2, q.drain(CONTEXT, 2));
+    Assert.assertEquals(2, listener.deletes.get());
+    Assert.assertEquals(1, q.count());
+    Assert.assertEquals(3L, q.size());
+
+    Assert.assertEquals(1, q.drainAll(CONTEXT));
+    Assert.assertEquals(0, q.drainAll(CONTEXT));
+    Assert.assertEquals(3, listener.deletes.get());
+    Assert.assertEquals(0, q.count());
+    Assert.assertEquals(0L, q.size());
+    Assert.assertEquals(6L, p.size());
+  }
+
+  @Test
+  public void testDrainOrder()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 0L, 100L);
+    final JPPoolDeletionQueueType<Integer> q = p.deletionQueue().get();
+
+    getAndReturn(p, 40);
+    Assert.assertEquals(40, q.count());
+    Assert.assertEquals(40, q.drainAll(CONTEXT));
+
+    final IntArrayList expected = new IntArrayList();
+    for (int index = 0; index < 40; ++index) {
+      expected.add(index);
+    }
+    Assert.assertEquals(expected, listener.deleted());
+  }
+
+  @Test
+  public void testHardLimitDrainsQueue()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 0L, 4L);
+    final JPPoolDeletionQueueType<Integer> q = p.deletionQueue().get();
+
+    getAndReturn(p, 4);
+    Assert.assertEquals(0L, p.size());
+    Assert.assertEquals(4L, q.size());
+
+    p.get(CONTEXT, Integer.valueOf(100));
+    Assert.assertEquals(4, listener.deletes.get());
+    Assert.assertEquals(0L, q.size());
+    Assert.assertEquals(1L, p.size());
+  }
+
+  @Test
+  public void testHardLimitActualSizeDrainsQueue()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 0L, 4L);
+    final JPPoolDeletionQueueType<Integer> q = p.deletionQueue().get();
+
+    getAndReturn(p, 2);
+    Assert.assertEquals(2L, q.size());
+
+    listener.size = 3L;
+    p.get(CONTEXT, Integer.valueOf(100));
+    Assert.assertEquals(2, listener.deletes.get());
+    Assert.assertEquals(0L, q.size());
+    Assert.assertEquals(3L, p.size());
+  }
+
+  @Test
+  public void testHardLimitExceeded()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 0L, 2L);
+
+    p.get(CONTEXT, Integer.valueOf(0));
+    p.get(CONTEXT, Integer.valueOf(1));
+
+    try {
+      p.get(CONTEXT, Integer.valueOf(2));
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      Assert.assertEquals(2L, e.getLimit());
+      Assert.assertEquals(3L, e.getSize());
+    }
+    Assert.assertEquals(0, listener.deletes.get());
+  }
+
+  @Test
+  public void testDeleteDrainsQueue()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 2L, 10L);
+    final JPPoolDeletionQueueType<Integer> q = p.deletionQueue().get();
+
+    getAndReturn(p, 5);
+    Assert.assertEquals(3, q.count());
+
+    p.deleteSafely(CONTEXT);
+    Assert.assertEquals(5, listener.deletes.get());
+    Assert.assertEquals(0, q.count());
+  }
+
+  @Test
+  public void testWorkerDrains()
+    throws Exception
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 4L, 1000L);
+    final JPPoolDeletionQueueType<Integer> q = p.deletionQueue().get();
+
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final Thread worker = new Thread(() -> {
+      while (!done.get()) {
+        q.drain(CONTEXT, 16);
+        Thread.onSpinWait();
+      }
+    });
+    worker.start();
+
+    try {
+      for (int round = 0; round < 1000; ++round) {
+        getAndReturn(p, 8);
+      }
+    } finally {
+      done.set(true);
+      worker.join();
+    }
+
+    q.drainAll(CONTEXT);
+    Assert.assertEquals(0, q.count());
+    Assert.assertEquals(0L, q.size());
+    Assert.assertEquals(4L, p.size());
+    Assert.assertEquals(
+      listener.creates.get() - 4,
+      listener.deletes.get());
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Check the flight recorder events emitted by synchronous pools.
+ */
+
+public final class JPPoolSynchronousEventsTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static void exercise()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 2L, 3L);
+
+    final Object v0 = p.get(CONTEXT, Integer.valueOf(0));
+    final Object v1 = p.get(CONTEXT, Integer.valueOf(1));
+    final Object v2 = p.get(CONTEXT, Integer.valueOf(2));
+
+    try {
+      p.get(CONTEXT, Integer.valueOf(3));
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      // Expected
+    }
+
+    p.returnValue(CONTEXT, v0);
+    p.returnValue(CONTEXT, v1);
+    p.returnValue(CONTEXT, v2);
+  }
+
+  private static List<RecordedEvent> record(
+    final Recording recording)
+    throws Exception
+  {
+    recording.start();
+    exercise();
+    recording.stop();
+
+    final Path file = Files.createTempFile("jpuddle-", ".jfr");
+    try {
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file)
+        .stream()
+        .filter(e -> e.getEventType().getName().startsWith("jpuddle."))
+        .collect(Collectors.toList());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static List<RecordedEvent> named(
+    final List<RecordedEvent> events,
+    final String name)
+  {
+    return events.stream()
+      .filter(e -> name.equals(e.getEventType().getName()))
+      .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testDisabledByDefault()
+    throws Exception
+  {
+    try (Recording recording =
+           new Recording(Configuration.getConfiguration("profile"))) {
+      Assert.assertEquals(List.of(), record(recording));
+    }
+  }
+
+  @Test
+  public void testEvents()
+    throws Exception
+  {
+    try (Recording recording = new Recording()) {
+      recording.enable("jpuddle.Create");
+      recording.enable("jpuddle.Evict");
+      recording.enable("jpuddle.HardLimitExceeded");
+      recording.enable("jpuddle.Trim");
+
+      final List<RecordedEvent> events = record(recording);
+
+      final List<RecordedEvent> creates = named(events, "jpuddle.Create");
+      Assert.assertEquals(3, creates.size());
+      Assert.assertEquals("2", creates.get(2).getString("key"));
+      Assert.assertEquals(1L, creates.get(2).getLong("size"));
+      Assert.assertEquals(3L, creates.get(2).getLong("poolSize"));
+
+      final List<RecordedEvent> limits =
+        named(events, "jpuddle.HardLimitExceeded");
+      Assert.assertEquals(1, limits.size());
+      Assert.assertEquals("3", limits.get(0).getString("key"));
+      Assert.assertNull(limits.get(0).getString("quotaClass"));
+      Assert.assertEquals(3L, limits.get(0).getLong("limit"));
+      Assert.assertEquals(4L, limits.get(0).getLong("size"));
+      Assert.assertEquals(3L, limits.get(0).getLong("poolSize"));
+
+      final List<RecordedEvent> evicts = named(events, "jpuddle.Evict");
+      Assert.assertEquals(1, evicts.size());
+      Assert.assertEquals("0", evicts.get(0).getString("key"));
+      Assert.assertEquals(2L, evicts.get(0).getLong("poolSize"));
+      Assert.assertFalse(evicts.get(0).getBoolean("deferred"));
+
+      final List<RecordedEvent> trims = named(events, "jpuddle.Trim");
+      Assert.assertEquals(1, trims.size());
+      Assert.assertEquals(1L, trims.get(0).getLong("evicted"));
+      Assert.assertEquals(1L, trims.get(0).getLong("sizeEvicted"));
+      Assert.assertEquals(2L, trims.get(0).getLong("poolSize"));
+    }
+  }
+}
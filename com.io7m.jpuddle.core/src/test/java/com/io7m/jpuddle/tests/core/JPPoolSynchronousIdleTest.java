@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolClockType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolSynchronousUsableType;
+import com.io7m.jpuddle.core.JPPoolTrimScheduler;
+import com.io7m.jpuddle.core.JPPoolTrimSchedulerType;
+import com.io7m.jranges.RangeCheckException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+/**
+ * Check the expiry of idle objects.
+ */
+
+public final class JPPoolSynchronousIdleTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+  private static final Duration MAX_IDLE = Duration.ofSeconds(10L);
+
+  private static void advance(
+    final ManualClock clock,
+    final long seconds)
+  {
+    clock.now += Duration.ofSeconds(seconds).toNanos();
+  }
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> newPool(
+    final JPPoolTestListener listener,
+    final ManualClock clock,
+    final JPPoolTrimSchedulerType<Integer> trim_scheduler)
+  {
+    return JPPoolSynchronous.newPoolWithIdleExpiry(
+      listener, 1000L, 2000L, MAX_IDLE, clock, trim_scheduler);
+  }
+
+  @Test
+  public void testIdleExpiredUnderSoftLimit()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ManualClock clock = new ManualClock();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, clock, JPPoolTrimScheduler.inline());
+
+    for (int index = 0; index < 3; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(index)));
+    }
+
+    advance(clock, 5L);
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(100)));
+    Assert.assertEquals(0, listener.deletes.get());
+    Assert.assertEquals(4L, p.size());
+
+    advance(clock, 6L);
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(101)));
+    Assert.assertEquals(3, listener.deletes.get());
+    Assert.assertEquals(2L, p.size());
+
+    advance(clock, 10L);
+    p.trim(CONTEXT);
+    Assert.assertEquals(5, listener.deletes.get());
+    Assert.assertEquals(0L, p.size());
+  }
+
+  @Test
+  public void testIdleReuseResets()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ManualClock clock = new ManualClock();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, clock, JPPoolTrimScheduler.inline());
+
+    final Integer key = Integer.valueOf(0);
+    p.returnValue(CONTEXT, p.get(CONTEXT, key));
+
+    for (int index = 0; index < 5; ++index) {
+      advance(clock, 9L);
+      p.returnValue(CONTEXT, p.get(CONTEXT, key));
+    }
+
+    Assert.assertEquals(1, listener.creates.get());
+    Assert.assertEquals(5, listener.reuses.get());
+    Assert.assertEquals(0, listener.deletes.get());
+  }
+
+  @Test
+  public void testIdleExpiredInBatches()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ManualClock clock = new ManualClock();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, clock, JPPoolTrimScheduler.inline());
+
+    final Object[] values = new Object[100];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(CONTEXT, Integer.valueOf(index));
+    }
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(CONTEXT, values[index]);
+    }
+
+    /*
+     * Each call to get deletes at most a small batch of expired objects, so
+     * that a long idle period does not stall the next caller.
+     */
+
+    advance(clock, 11L);
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1000)));
+    Assert.assertTrue(listener.deletes.get() > 0);
+    Assert.assertTrue(listener.deletes.get() < 100);
+
+    Assert.assertTrue(p.trimBatch(CONTEXT, 10));
+    final int after_batch = listener.deletes.get();
+
+    p.trim(CONTEXT);
+    Assert.assertEquals(100, listener.deletes.get());
+    Assert.assertTrue(after_batch < 100);
+    Assert.assertEquals(1L, p.size());
+  }
+
+  @Test
+  public void testIdleDeferred()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ManualClock clock = new ManualClock();
+    final CountingTrimScheduler scheduler = new CountingTrimScheduler();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, clock, scheduler);
+
+    for (int index = 0; index < 3; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(index)));
+    }
+    Assert.assertEquals(0, scheduler.requests);
+
+    advance(clock, 11L);
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(100)));
+    Assert.assertEquals(1, scheduler.requests);
+    Assert.assertEquals(0, listener.deletes.get());
+
+    Assert.assertTrue(p.trimBatch(CONTEXT, 2));
+    Assert.assertEquals(2, listener.deletes.get());
+    Assert.assertFalse(p.trimBatch(CONTEXT, 2));
+    Assert.assertEquals(3, listener.deletes.get());
+    Assert.assertEquals(1L, p.size());
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testIdleZero()
+  {
+    JPPoolSynchronous.newPoolWithIdleExpiry(
+      new JPPoolTestListener(),
+      1L,
+      2L,
+      Duration.ZERO,
+      new ManualClock(),
+      JPPoolTrimScheduler.inline());
+  }
+
+  private static final class ManualClock implements JPPoolClockType
+  {
+    private long now = 0x7fff_ffff_ffff_0000L;
+
+    ManualClock()
+    {
+
+    }
+
+    @Override
+    public long nanoTime()
+    {
+      return this.now;
+    }
+  }
+
+  private static final class CountingTrimScheduler
+    implements JPPoolTrimSchedulerType<Integer>
+  {
+    private int requests;
+
+    CountingTrimScheduler()
+    {
+
+    }
+
+    @Override
+    public boolean isInline()
+    {
+      return false;
+    }
+
+    @Override
+    public void onTrimRequired(
+      final JPPoolSynchronousUsableType<?, ?, ?, Integer> pool)
+    {
+      ++this.requests;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolKeyStatisticsType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jranges.RangeCheckException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Check the per-key statistics of synchronous pools.
+ */
+
+public final class JPPoolSynchronousKeyStatisticsTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> pool(
+    final long soft,
+    final int capacity)
+  {
+    return JPPoolSynchronous.builder(new SizedListener(), soft, 1000L)
+      .setKeyStatisticsCapacity(capacity)
+      .build();
+  }
+
+  private static JPPoolKeyStatisticsType<Integer> find(
+    final List<JPPoolKeyStatisticsType<Integer>> report,
+    final int key)
+  {
+    for (final JPPoolKeyStatisticsType<Integer> s : report) {
+      if (s.key().intValue() == key) {
+        return s;
+      }
+    }
+    throw new AssertionError("Key " + key + " not tracked");
+  }
+
+  @Test
+  public void testDisabledByDefault()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new SizedListener(), 10L, 20L);
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(List.of(), p.keyStatistics());
+  }
+
+  @Test
+  public void testCounts()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(12L, 8);
+
+    final List<Object> held = new ArrayList<>();
+    for (int index = 0; index < 3; ++index) {
+      held.add(p.get(CONTEXT, Integer.valueOf(4)));
+    }
+    for (final Object value : held) {
+      p.returnValue(CONTEXT, value);
+    }
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(4)));
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1)));
+
+    /*
+     * Returning the object of key 1 took the pool over its soft limit, and
+     * so the least recently used object of key 4 was evicted.
+     */
+
+    Assert.assertEquals(9L, p.size());
+
+    final List<JPPoolKeyStatisticsType<Integer>> report = p.keyStatistics();
+    Assert.assertEquals(2, report.size());
+
+    final JPPoolKeyStatisticsType<Integer> s4 = report.get(0);
+    Assert.assertEquals(Integer.valueOf(4), s4.key());
+    Assert.assertEquals(5L, s4.activity());
+    Assert.assertEquals(0L, s4.activityError());
+    Assert.assertEquals(1L, s4.hits());
+    Assert.assertEquals(3L, s4.misses());
+    Assert.assertEquals(1L, s4.evictions());
+    Assert.assertEquals(0L, s4.borrowed());
+    Assert.assertEquals(3L, s4.borrowedPeak());
+    Assert.assertEquals(12L, s4.sizeCreated());
+
+    final JPPoolKeyStatisticsType<Integer> s1 = report.get(1);
+    Assert.assertEquals(Integer.valueOf(1), s1.key());
+    Assert.assertEquals(1L, s1.activity());
+    Assert.assertEquals(1L, s1.misses());
+    Assert.assertEquals(1L, s1.borrowedPeak());
+  }
+
+  @Test
+  public void testHeavyHittersRetained()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(0L, 8);
+
+    /*
+     * Keys 1 and 2 account for 600 of the 1000 events, and so both exceed
+     * the 125 events (the total divided by the capacity) above which keys
+     * are guaranteed to be tracked, despite the stream of one-off keys.
+     */
+
+    for (int round = 0; round < 200; ++round) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1)));
+      if (round % 2 == 0) {
+        p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(2)));
+      }
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1000 + round)));
+    }
+
+    final List<JPPoolKeyStatisticsType<Integer>> report = p.keyStatistics();
+    Assert.assertEquals(8, report.size());
+    Assert.assertEquals(Integer.valueOf(1), report.get(0).key());
+    Assert.assertEquals(Integer.valueOf(2), report.get(1).key());
+    Assert.assertEquals(400L, report.get(0).activity());
+    Assert.assertEquals(0L, report.get(0).activityError());
+    Assert.assertEquals(200L, report.get(0).misses());
+    Assert.assertEquals(200L, report.get(0).evictions());
+
+    for (int index = 1; index < report.size(); ++index) {
+      Assert.assertTrue(
+        report.get(index - 1).activity() >= report.get(index).activity());
+    }
+    for (final JPPoolKeyStatisticsType<Integer> s : report) {
+      Assert.assertTrue(s.activity() >= s.activityError());
+    }
+  }
+
+  @Test
+  public void testBorrowsAcrossBatches()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(100L, 4);
+
+    final List<Object> values =
+      p.getAll(CONTEXT, List.of(
+        Integer.valueOf(1), Integer.valueOf(1), Integer.valueOf(2)));
+    Assert.assertEquals(2L, find(p.keyStatistics(), 1).borrowed());
+    p.returnAll(CONTEXT, values);
+
+    final JPPoolKeyStatisticsType<Integer> s = find(p.keyStatistics(), 1);
+    Assert.assertEquals(0L, s.borrowed());
+    Assert.assertEquals(2L, s.borrowedPeak());
+    Assert.assertEquals(2L, s.misses());
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testCapacityNegative()
+  {
+    JPPoolSynchronous.builder(new SizedListener(), 10L, 20L)
+      .setKeyStatisticsCapacity(-1);
+  }
+
+  /*
+   * A listener for which keys below 1000 are also the sizes of their
+   * objects.
+   */
+
+  private static final class SizedListener extends JPPoolTestListener
+  {
+    SizedListener()
+    {
+
+    }
+
+    @Override
+    long sizeOf(
+      final Integer key,
+      final int index)
+    {
+      return key.intValue() < 1000 ? key.longValue() : 1L;
+    }
+  }
+}
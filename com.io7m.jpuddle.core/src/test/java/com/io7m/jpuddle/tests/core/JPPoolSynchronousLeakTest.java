@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolLeakType;
+import com.io7m.jpuddle.core.JPPoolObjectsNotReturnedException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Check the leak detection of synchronous pools.
+ */
+
+public final class JPPoolSynchronousLeakTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private long time;
+
+  private JPPoolSynchronous<Integer, Object, Object, Integer> pool(
+    final int interval,
+    final List<List<JPPoolLeakType<Integer, Object>>> reports)
+  {
+    return JPPoolSynchronous.<Integer, Object, Object, Integer>builder(
+        new JPPoolTestListener(), 100L, 100L)
+      .setIdleExpiry(Duration.ofDays(1L), () -> this.time)
+      .setLeakDetection(interval, Duration.ofNanos(1000L), reports::add)
+      .build();
+  }
+
+  @Test
+  public void testDisabledByDefault()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 10L, 20L);
+    p.get(CONTEXT, Integer.valueOf(0));
+    Assert.assertEquals(List.of(), p.leaks());
+  }
+
+  @Test
+  public void testLeaksSampled()
+  {
+    final List<List<JPPoolLeakType<Integer, Object>>> reports =
+      new ArrayList<>();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      this.pool(3, reports);
+
+    final List<Object> held = new ArrayList<>();
+    for (int index = 0; index < 9; ++index) {
+      held.add(p.get(CONTEXT, Integer.valueOf(index)));
+    }
+
+    this.time = 999L;
+    Assert.assertEquals(List.of(), p.leaks());
+
+    this.time = 1000L;
+    final List<JPPoolLeakType<Integer, Object>> leaks = p.leaks();
+    Assert.assertEquals(3, leaks.size());
+    Assert.assertEquals(Integer.valueOf(2), leaks.get(0).key());
+    Assert.assertEquals(Integer.valueOf(5), leaks.get(1).key());
+    Assert.assertEquals(Integer.valueOf(8), leaks.get(2).key());
+    Assert.assertSame(held.get(2), leaks.get(0).value());
+    Assert.assertEquals(Duration.ofNanos(1000L), leaks.get(0).heldFor());
+
+    final StackTraceElement[] trace = leaks.get(0).borrowSite().getStackTrace();
+    boolean found = false;
+    for (final StackTraceElement element : trace) {
+      if (element.getMethodName().equals("testLeaksSampled")) {
+        found = true;
+        break;
+      }
+    }
+    Assert.assertTrue(found);
+
+    p.returnValue(CONTEXT, held.get(5));
+    Assert.assertEquals(2, p.leaks().size());
+  }
+
+  @Test
+  public void testLeaksReported()
+  {
+    final List<List<JPPoolLeakType<Integer, Object>>> reports =
+      new ArrayList<>();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      this.pool(1, reports);
+
+    final Object v0 = p.get(CONTEXT, Integer.valueOf(0));
+    p.get(CONTEXT, Integer.valueOf(1));
+    Assert.assertEquals(0, reports.size());
+
+    /*
+     * Checks happen at most once per threshold, during sampled calls.
+     */
+
+    this.time = 500L;
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(2)));
+    this.time = 1200L;
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(3)));
+    Assert.assertEquals(1, reports.size());
+    Assert.assertEquals(2, reports.get(0).size());
+    Assert.assertEquals(Integer.valueOf(0), reports.get(0).get(0).key());
+    Assert.assertEquals(Integer.valueOf(1), reports.get(0).get(1).key());
+
+    /*
+     * Leaks are reported once.
+     */
+
+    p.returnValue(CONTEXT, v0);
+    final Object v4 = p.get(CONTEXT, Integer.valueOf(4));
+    this.time = 2200L;
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(5)));
+    Assert.assertEquals(2, reports.size());
+    Assert.assertEquals(1, reports.get(1).size());
+    Assert.assertSame(v4, reports.get(1).get(0).value());
+  }
+
+  @Test
+  public void testDeleteSafelyShowsBorrowSite()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      this.pool(1, new ArrayList<>());
+
+    p.get(CONTEXT, Integer.valueOf(0));
+    try {
+      p.deleteSafely(CONTEXT);
+      Assert.fail();
+    } catch (final JPPoolObjectsNotReturnedException e) {
+      Assert.assertTrue(e.getMessage().contains("Borrowed at:"));
+      Assert.assertTrue(
+        e.getMessage().contains("testDeleteSafelyShowsBorrowSite"));
+    }
+  }
+}
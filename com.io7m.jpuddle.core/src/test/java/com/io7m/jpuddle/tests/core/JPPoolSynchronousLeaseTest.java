@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPLeaseType;
+import com.io7m.jpuddle.core.JPPoolConcurrent;
+import com.io7m.jpuddle.core.JPPoolDeletedException;
+import com.io7m.jpuddle.core.JPPoolObjectReturnException;
+import com.io7m.jpuddle.core.JPPoolObjectsNotReturnedException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Check the leases of synchronous pools.
+ */
+
+public final class JPPoolSynchronousLeaseTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  @Test
+  public void testLeaseReturned()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 10L, 20L);
+
+    final Object v0;
+    try (JPLeaseType<Object> lease = p.lease(CONTEXT, Integer.valueOf(0))) {
+      v0 = lease.value();
+      Assert.assertEquals(1L, p.size());
+    }
+
+    Assert.assertEquals(1, listener.creates.get());
+    try (JPLeaseType<Object> lease = p.lease(CONTEXT, Integer.valueOf(0))) {
+      Assert.assertSame(v0, lease.value());
+    }
+
+    Assert.assertEquals(1, listener.creates.get());
+    Assert.assertSame(v0, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(2L, p.statistics().hits());
+    Assert.assertEquals(2L, p.statistics().returns());
+  }
+
+  @Test
+  public void testLeaseCloseTwice()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 10L, 20L);
+
+    final JPLeaseType<Object> lease = p.lease(CONTEXT, Integer.valueOf(0));
+    lease.close();
+
+    try {
+      lease.close();
+      Assert.fail();
+    } catch (final JPPoolObjectReturnException e) {
+      // Expected
+    }
+
+    Assert.assertEquals(1L, p.statistics().returns());
+  }
+
+  @Test
+  public void testLeaseCloseStaleSlot()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 10L, 20L);
+
+    final JPLeaseType<Object> l0 = p.lease(CONTEXT, Integer.valueOf(0));
+    l0.close();
+
+    /*
+     * The second lease reuses the slot of the first.
+     */
+
+    final JPLeaseType<Object> l1 = p.lease(CONTEXT, Integer.valueOf(0));
+    Assert.assertSame(l0.value(), l1.value());
+
+    try {
+      l0.close();
+      Assert.fail();
+    } catch (final JPPoolObjectReturnException e) {
+      // Expected
+    }
+
+    l1.close();
+    p.deleteSafely(CONTEXT);
+  }
+
+  @Test
+  public void testLeaseManySlots()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 100L, 100L);
+
+    final List<JPLeaseType<Object>> leases = new ArrayList<>();
+    for (int index = 0; index < 100; ++index) {
+      leases.add(p.lease(CONTEXT, Integer.valueOf(index)));
+    }
+    Assert.assertEquals(100L, p.size());
+
+    for (int index = 99; index >= 0; --index) {
+      leases.get(index).close();
+    }
+    Assert.assertEquals(100L, p.statistics().returns());
+    p.deleteSafely(CONTEXT);
+  }
+
+  @Test
+  public void testLeaseReturnValueNotActive()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 10L, 20L);
+
+    final JPLeaseType<Object> lease = p.lease(CONTEXT, Integer.valueOf(0));
+    try {
+      p.returnValue(CONTEXT, lease.value());
+      Assert.fail();
+    } catch (final JPPoolObjectReturnException e) {
+      // Expected
+    }
+
+    lease.close();
+  }
+
+  @Test
+  public void testLeaseDeleteSafely()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 10L, 20L);
+
+    final JPLeaseType<Object> lease = p.lease(CONTEXT, Integer.valueOf(0));
+    try {
+      p.deleteSafely(CONTEXT);
+      Assert.fail();
+    } catch (final JPPoolObjectsNotReturnedException e) {
+      Assert.assertTrue(e.getMessage().contains("(leased)"));
+    }
+
+    lease.close();
+    p.deleteSafely(CONTEXT);
+    Assert.assertTrue(p.isDeleted());
+  }
+
+  @Test
+  public void testLeaseDeleteUnsafely()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 10L, 20L);
+
+    p.lease(CONTEXT, Integer.valueOf(0));
+    p.lease(CONTEXT, Integer.valueOf(1));
+    p.deleteUnsafely(CONTEXT);
+    Assert.assertTrue(p.isDeleted());
+    Assert.assertEquals(2, listener.deletes.get());
+  }
+
+  @Test
+  public void testLeaseCloseAfterDeleteUnsafely()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 10L, 20L);
+
+    final JPLeaseType<Object> l0 = p.lease(CONTEXT, Integer.valueOf(0));
+    final JPLeaseType<Object> l1 = p.lease(CONTEXT, Integer.valueOf(1));
+    l1.close();
+    p.deleteUnsafely(CONTEXT);
+    Assert.assertEquals(2, listener.deletes.get());
+
+    /*
+     * Deletion has already released the leased object, so closing the
+     * lease does nothing.
+     */
+
+    l0.close();
+    l0.close();
+    Assert.assertEquals(2, listener.deletes.get());
+
+    try {
+      p.lease(CONTEXT, Integer.valueOf(0));
+      Assert.fail();
+    } catch (final JPPoolDeletedException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testLeaseDefault()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolConcurrent<Integer, Object, Object, Integer> p =
+      JPPoolConcurrent.newPool(listener, 10L, 20L);
+
+    final JPLeaseType<Object> lease = p.lease(CONTEXT, Integer.valueOf(0));
+    lease.close();
+
+    try {
+      lease.close();
+      Assert.fail();
+    } catch (final JPPoolObjectReturnException e) {
+      // Expected
+    }
+
+    Assert.assertSame(lease.value(), p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(1, listener.creates.get());
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolDeletedException;
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolObjectCreationException;
+import com.io7m.jpuddle.core.JPPoolObjectReturnException;
+import com.io7m.jpuddle.core.JPPoolObjectsNotReturnedException;
+import com.io7m.jpuddle.core.JPPoolSynchronousLongKeyed;
+import com.io7m.jpuddle.core.JPPoolableLongKeyedListenerType;
+import com.io7m.jranges.RangeCheckException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Check the behaviour of long-keyed synchronous pools.
+ */
+
+public final class JPPoolSynchronousLongKeyedTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  @Test
+  public void testReuse()
+  {
+    final Listener listener = new Listener();
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 10L, 20L);
+
+    final Object v0 = p.get(CONTEXT, 1L << 40);
+    p.returnValue(CONTEXT, v0);
+    Assert.assertSame(v0, p.get(CONTEXT, 1L << 40));
+    Assert.assertNotSame(v0, p.get(CONTEXT, 1L << 41));
+
+    Assert.assertEquals(2, listener.creates.size());
+    Assert.assertEquals(1, listener.reuses);
+    Assert.assertEquals(2L, p.size());
+  }
+
+  @Test
+  public void testReuseOldestFirst()
+  {
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(new Listener(), 10L, 20L);
+
+    final Object v0 = p.get(CONTEXT, 7L);
+    final Object v1 = p.get(CONTEXT, 7L);
+    p.returnValue(CONTEXT, v0);
+    p.returnValue(CONTEXT, v1);
+
+    Assert.assertSame(v0, p.get(CONTEXT, 7L));
+    Assert.assertSame(v1, p.get(CONTEXT, 7L));
+  }
+
+  @Test
+  public void testTrimLeastRecentlyUsed()
+  {
+    final Listener listener = new Listener();
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 2L, 10L);
+
+    final List<Object> values = new ArrayList<>();
+    for (long key = 0L; key < 4L; ++key) {
+      values.add(p.get(CONTEXT, key));
+    }
+    Assert.assertEquals(4L, p.size());
+
+    p.returnValue(CONTEXT, values.get(2));
+    Assert.assertEquals(3L, p.size());
+    Assert.assertEquals(List.of(Long.valueOf(2L)), listener.deletes);
+
+    p.returnValue(CONTEXT, values.get(0));
+    p.returnValue(CONTEXT, values.get(3));
+    p.returnValue(CONTEXT, values.get(1));
+    Assert.assertEquals(2L, p.size());
+    Assert.assertEquals(
+      List.of(Long.valueOf(2L), Long.valueOf(0L)),
+      listener.deletes);
+
+    Assert.assertSame(values.get(3), p.get(CONTEXT, 3L));
+    Assert.assertSame(values.get(1), p.get(CONTEXT, 1L));
+  }
+
+  @Test
+  public void testHardLimitEstimate()
+  {
+    final Listener listener = new Listener();
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 1L, 2L);
+
+    p.get(CONTEXT, 0L);
+    p.get(CONTEXT, 1L);
+
+    try {
+      p.get(CONTEXT, 2L);
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      Assert.assertEquals(2L, e.getLimit());
+      Assert.assertEquals(3L, e.getSize());
+    }
+    Assert.assertEquals(2, listener.creates.size());
+  }
+
+  @Test
+  public void testHardLimitCreated()
+  {
+    final Listener listener = new Listener();
+    listener.size_actual = 3L;
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 1L, 2L);
+
+    try {
+      p.get(CONTEXT, 0L);
+      Assert.fail();
+    } catch (final JPPoolHardLimitExceededException e) {
+      // Expected
+    }
+    Assert.assertEquals(1, listener.creates.size());
+    Assert.assertEquals(List.of(Long.valueOf(0L)), listener.deletes);
+    Assert.assertEquals(0L, p.size());
+  }
+
+  @Test
+  public void testCreationFailure()
+  {
+    final Listener listener = new Listener();
+    listener.fail = true;
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 1L, 2L);
+
+    try {
+      p.get(CONTEXT, 0L);
+      Assert.fail();
+    } catch (final JPPoolObjectCreationException e) {
+      Assert.assertEquals(1, listener.errors);
+    }
+    Assert.assertEquals(0L, p.size());
+  }
+
+  @Test
+  public void testReturnNotActive()
+  {
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(new Listener(), 10L, 20L);
+
+    final Object v0 = p.get(CONTEXT, 0L);
+    p.returnValue(CONTEXT, v0);
+
+    try {
+      p.returnValue(CONTEXT, v0);
+      Assert.fail();
+    } catch (final JPPoolObjectReturnException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testDeleteSafely()
+  {
+    final Listener listener = new Listener();
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 10L, 20L);
+
+    final Object v0 = p.get(CONTEXT, 0L);
+    try {
+      p.deleteSafely(CONTEXT);
+      Assert.fail();
+    } catch (final JPPoolObjectsNotReturnedException e) {
+      // Expected
+    }
+
+    p.returnValue(CONTEXT, v0);
+    p.deleteSafely(CONTEXT);
+    Assert.assertTrue(p.isDeleted());
+    Assert.assertEquals(List.of(Long.valueOf(0L)), listener.deletes);
+  }
+
+  @Test
+  public void testDeleteUnsafely()
+  {
+    final Listener listener = new Listener();
+    final JPPoolSynchronousLongKeyed<Object, Object, Integer> p =
+      JPPoolSynchronousLongKeyed.newPool(listener, 10L, 20L);
+
+    p.get(CONTEXT, 0L);
+    p.returnValue(CONTEXT, p.get(CONTEXT, 1L));
+    p.deleteUnsafely(CONTEXT);
+    Assert.assertTrue(p.isDeleted());
+    Assert.assertEquals(2, listener.deletes.size());
+
+    try {
+      p.get(CONTEXT, 0L);
+      Assert.fail();
+    } catch (final JPPoolDeletedException e) {
+      // Expected
+    }
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testLimitsInvalid()
+  {
+    JPPoolSynchronousLongKeyed.newPool(new Listener(), 2L, 1L);
+  }
+
+  private static final class Listener
+    implements JPPoolableLongKeyedListenerType<Object, Integer>
+  {
+    private final List<Long> creates;
+    private final List<Long> deletes;
+    private int reuses;
+    private int errors;
+    private long size_actual;
+    private boolean fail;
+
+    Listener()
+    {
+      this.creates = new ArrayList<>();
+      this.deletes = new ArrayList<>();
+      this.size_actual = 1L;
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final long key)
+    {
+      return 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final long key)
+    {
+      if (this.fail) {
+        throw new IllegalStateException("Failed");
+      }
+      this.creates.add(Long.valueOf(key));
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final long key,
+      final Object value)
+    {
+      return this.size_actual;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final long key,
+      final Object value)
+    {
+      ++this.reuses;
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final long key,
+      final Object value)
+    {
+      this.deletes.add(Long.valueOf(key));
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final long key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+      ++this.errors;
+    }
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolManagementException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolTrimScheduler;
+import com.io7m.jranges.RangeCheckException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Check the management interface of synchronous pools.
+ */
+
+public final class JPPoolSynchronousManagementTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static ObjectName objectName(
+    final String name)
+    throws Exception
+  {
+    return new ObjectName(
+      "com.io7m.jpuddle:type=JPPoolSynchronous,name="
+        + ObjectName.quote(name));
+  }
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> pool(
+    final JPPoolTestListener listener,
+    final String name)
+  {
+    return JPPoolSynchronous.builder(listener, 4L, 10L)
+      .setManagementName(name)
+      .build();
+  }
+
+  private static void fill(
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p,
+    final int count)
+  {
+    final Object[] values = new Object[count];
+    for (int index = 0; index < count; ++index) {
+      values[index] = p.get(CONTEXT, Integer.valueOf(index));
+    }
+    for (int index = 0; index < count; ++index) {
+      p.returnValue(CONTEXT, values[index]);
+    }
+  }
+
+  @Test
+  public void testAttributes()
+    throws Exception
+  {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = objectName("attributes");
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(new JPPoolTestListener(), "attributes");
+
+    try {
+      fill(p, 3);
+      p.get(CONTEXT, Integer.valueOf(0));
+
+      Assert.assertEquals(3L, server.getAttribute(name, "Size"));
+      Assert.assertEquals(4L, server.getAttribute(name, "SoftLimit"));
+      Assert.assertEquals(10L, server.getAttribute(name, "HardLimit"));
+      Assert.assertEquals(1L, server.getAttribute(name, "UsedCount"));
+      Assert.assertEquals(2L, server.getAttribute(name, "FreeCount"));
+      Assert.assertEquals(1L, server.getAttribute(name, "UsedSize"));
+      Assert.assertEquals(2L, server.getAttribute(name, "FreeSize"));
+      Assert.assertEquals(1L, server.getAttribute(name, "Hits"));
+      Assert.assertEquals(3L, server.getAttribute(name, "Misses"));
+      Assert.assertEquals(0.25, server.getAttribute(name, "HitRatio"));
+      Assert.assertEquals(0L, server.getAttribute(name, "Evictions"));
+      Assert.assertEquals(
+        0L, server.getAttribute(name, "HardLimitFailures"));
+      Assert.assertEquals(
+        Boolean.FALSE, server.getAttribute(name, "TrimPending"));
+    } finally {
+      p.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  @Test
+  public void testSetSoftLimit()
+    throws Exception
+  {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = objectName("soft");
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, "soft");
+
+    try {
+      fill(p, 4);
+      server.setAttribute(name, new Attribute("SoftLimit", 1L));
+      Assert.assertEquals(1L, p.sizeLimitSoft());
+      Assert.assertEquals(0, listener.deletes.get());
+
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(3)));
+      Assert.assertEquals(3, listener.deletes.get());
+      Assert.assertEquals(1L, p.size());
+
+      server.setAttribute(name, new Attribute("SoftLimit", 10L));
+      fill(p, 8);
+      Assert.assertEquals(8L, p.size());
+    } finally {
+      p.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testSetSoftLimitAboveHardLimit()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 4L, 10L);
+    p.setSizeLimitSoft(11L);
+  }
+
+  @Test
+  public void testTrim()
+    throws Exception
+  {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = objectName("trim");
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.builder(listener, 4L, 10L)
+        .setManagementName("trim")
+        .setTrimScheduler(
+          JPPoolTrimScheduler.deferred())
+        .build();
+
+    try {
+      fill(p, 6);
+      Assert.assertEquals(6L, p.size());
+
+      server.invoke(name, "trim", new Object[0], new String[0]);
+      Assert.assertEquals(0, listener.deletes.get());
+      Assert.assertEquals(
+        Boolean.TRUE, server.getAttribute(name, "TrimPending"));
+
+      p.get(CONTEXT, Integer.valueOf(100));
+      Assert.assertEquals(2, listener.deletes.get());
+      Assert.assertEquals(5L, p.size());
+      Assert.assertEquals(
+        Boolean.FALSE, server.getAttribute(name, "TrimPending"));
+    } finally {
+      p.deleteUnsafely(CONTEXT);
+    }
+  }
+
+  @Test
+  public void testUnregisteredOnDelete()
+    throws Exception
+  {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = objectName("delete");
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(new JPPoolTestListener(), "delete");
+
+    Assert.assertTrue(server.isRegistered(name));
+    p.deleteSafely(CONTEXT);
+    Assert.assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void testNotRegisteredByDefault()
+    throws Exception
+  {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final int before =
+      server.queryNames(new ObjectName("com.io7m.jpuddle:*"), null).size();
+    JPPoolSynchronous.newPool(new JPPoolTestListener(), 4L, 10L);
+    Assert.assertEquals(
+      before,
+      server.queryNames(new ObjectName("com.io7m.jpuddle:*"), null).size());
+  }
+
+  @Test
+  public void testDuplicateName()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(new JPPoolTestListener(), "duplicate");
+
+    try {
+      pool(new JPPoolTestListener(), "duplicate");
+      Assert.fail();
+    } catch (final JPPoolManagementException e) {
+      // Expected
+    } finally {
+      p.deleteUnsafely(CONTEXT);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolObjectCreationException;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jranges.RangeCheckException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check the prewarming of synchronous pools.
+ */
+
+public final class JPPoolSynchronousPrewarmTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static Map<Integer, Integer> counts(
+    final int... pairs)
+  {
+    final LinkedHashMap<Integer, Integer> m = new LinkedHashMap<>();
+    for (int index = 0; index < pairs.length; index += 2) {
+      m.put(Integer.valueOf(pairs[index]), Integer.valueOf(pairs[index + 1]));
+    }
+    return m;
+  }
+
+  @Test
+  public void testPrewarmCounts()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 10L, 20L);
+
+    Assert.assertEquals(5, p.prewarm(CONTEXT, counts(0, 3, 1, 2)));
+    Assert.assertEquals(5L, p.size());
+    Assert.assertEquals(5, listener.creates.get());
+
+    for (int index = 0; index < 3; ++index) {
+      p.get(CONTEXT, Integer.valueOf(0));
+    }
+    p.get(CONTEXT, Integer.valueOf(1));
+    p.get(CONTEXT, Integer.valueOf(1));
+    Assert.assertEquals(5, listener.creates.get());
+  }
+
+  @Test
+  public void testPrewarmExisting()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 10L, 20L);
+
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(0)));
+    Assert.assertEquals(2, p.prewarm(CONTEXT, counts(0, 3)));
+    Assert.assertEquals(0, p.prewarm(CONTEXT, counts(0, 3)));
+    Assert.assertEquals(3L, p.size());
+  }
+
+  @Test
+  public void testPrewarmSoftLimit()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 4L, 20L);
+
+    p.get(CONTEXT, Integer.valueOf(100));
+    Assert.assertEquals(3, p.prewarm(CONTEXT, counts(0, 2, 1, 10)));
+    Assert.assertEquals(4L, p.size());
+    Assert.assertEquals(0, listener.deletes.get());
+  }
+
+  @Test
+  public void testPrewarmActualSizeOverSoftLimit()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    listener.size = 5L;
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 6L, 20L);
+
+    Assert.assertEquals(1, p.prewarm(CONTEXT, counts(0, 6)));
+    Assert.assertEquals(5L, p.size());
+    Assert.assertEquals(5, listener.deletes.get());
+  }
+
+  @Test
+  public void testPrewarmParallel()
+    throws Exception
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    listener.thread_safe = true;
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 100L, 200L);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Assert.assertEquals(
+        64, p.prewarm(CONTEXT, counts(0, 32, 1, 32), executor));
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10L, TimeUnit.SECONDS);
+    }
+
+    Assert.assertEquals(64L, p.size());
+    Assert.assertFalse(listener.threads.contains(Thread.currentThread()));
+
+    for (int index = 0; index < 32; ++index) {
+      p.get(CONTEXT, Integer.valueOf(0));
+      p.get(CONTEXT, Integer.valueOf(1));
+    }
+    Assert.assertEquals(64, listener.creates.get());
+  }
+
+  @Test
+  public void testPrewarmNotThreadSafe()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 100L, 200L);
+
+    Assert.assertEquals(
+      8,
+      p.prewarm(
+        CONTEXT,
+        counts(0, 8),
+        r -> {
+          throw new AssertionError("Executor must not be used");
+        }));
+    Assert.assertEquals(Set.of(Thread.currentThread()), listener.threads);
+  }
+
+  @Test
+  public void testPrewarmParallelFailure()
+    throws Exception
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    listener.thread_safe = true;
+    listener.fail_key = Integer.valueOf(99);
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(listener, 100L, 200L);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      p.prewarm(CONTEXT, counts(0, 4, 99, 2, 1, 4), executor);
+      Assert.fail();
+    } catch (final JPPoolObjectCreationException e) {
+      Assert.assertEquals(1, e.getCause().getSuppressed().length);
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10L, TimeUnit.SECONDS);
+    }
+
+    Assert.assertEquals(8L, p.size());
+    p.get(CONTEXT, Integer.valueOf(1));
+    Assert.assertEquals(8, listener.creates.get());
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testPrewarmNegative()
+  {
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.newPool(new JPPoolTestListener(), 100L, 200L);
+    p.prewarm(CONTEXT, counts(0, -1));
+  }
+}
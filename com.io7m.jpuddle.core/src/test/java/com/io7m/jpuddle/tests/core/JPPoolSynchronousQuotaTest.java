@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolQuota;
+import com.io7m.jpuddle.core.JPPoolQuotaHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolQuotasType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jranges.RangeCheckException;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check the enforcement of per-key quotas.
+ */
+
+public final class JPPoolSynchronousQuotaTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> newPool(
+    final JPPoolTestListener listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolQuotasType<Integer> quotas)
+  {
+    return JPPoolSynchronous.<Integer, Object, Object, Integer>builder(
+        listener, soft_limit, hard_limit)
+      .setQuotas(quotas)
+      .build();
+  }
+
+  @Test
+  public void testQuotaHardLimit()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(
+        listener, 100L, 100L, JPPoolQuotasType.perKey(JPPoolQuota.of(2L, 2L)));
+
+    final Integer k0 = Integer.valueOf(0);
+    p.get(CONTEXT, k0);
+    p.get(CONTEXT, k0);
+
+    try {
+      p.get(CONTEXT, k0);
+      Assert.fail();
+    } catch (final JPPoolQuotaHardLimitExceededException e) {
+      Assert.assertEquals(k0, e.getQuotaClass());
+      Assert.assertEquals(2L, e.getLimit());
+      Assert.assertEquals(3L, e.getSize());
+    }
+
+    /*
+     * Other keys are unaffected by the exhausted quota.
+     */
+
+    for (int index = 1; index < 20; ++index) {
+      p.get(CONTEXT, Integer.valueOf(index));
+    }
+    Assert.assertEquals(21L, p.size());
+  }
+
+  @Test
+  public void testQuotaHardLimitActualSize()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(
+        listener, 100L, 100L, JPPoolQuotasType.perKey(JPPoolQuota.of(2L, 2L)));
+
+    final Integer k0 = Integer.valueOf(0);
+    listener.size = 3L;
+    try {
+      p.get(CONTEXT, k0);
+      Assert.fail();
+    } catch (final JPPoolQuotaHardLimitExceededException e) {
+      Assert.assertEquals(3L, e.getSize());
+    }
+    Assert.assertEquals(IntArrayList.of(0), listener.deleted());
+    Assert.assertEquals(0L, p.size());
+
+    listener.size = 2L;
+    p.returnValue(CONTEXT, p.get(CONTEXT, k0));
+    Assert.assertEquals(2L, p.size());
+  }
+
+  @Test
+  public void testQuotaHardLimitEvictsSameClass()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ParityQuotas quotas = new ParityQuotas(JPPoolQuota.of(2L, 2L));
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 100L, 100L, quotas);
+
+    final Object a = p.get(CONTEXT, Integer.valueOf(0));
+    final Object b = p.get(CONTEXT, Integer.valueOf(2));
+    final Object c = p.get(CONTEXT, Integer.valueOf(1));
+    p.returnValue(CONTEXT, c);
+    p.returnValue(CONTEXT, b);
+    p.returnValue(CONTEXT, a);
+
+    /*
+     * The even class is full, so a new even object replaces the least
+     * recently used free even object, rather than any odd object.
+     */
+
+    p.get(CONTEXT, Integer.valueOf(4));
+    Assert.assertEquals(IntArrayList.of(2), listener.deleted());
+    Assert.assertEquals(3L, p.size());
+  }
+
+  @Test
+  public void testQuotaSoftLimitTrimmedFirst()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ParityQuotas quotas = new ParityQuotas(JPPoolQuota.of(1L, 10L));
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 4L, 100L, quotas);
+
+    final Object[] values = new Object[3];
+    for (int index = 0; index < values.length; ++index) {
+      values[index] = p.get(CONTEXT, Integer.valueOf(index * 2));
+    }
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1)));
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(3)));
+    Assert.assertEquals(4L, p.size());
+    Assert.assertEquals(IntArrayList.of(1), listener.deleted());
+
+    /*
+     * Returning objects of the even class, which is over its soft limit,
+     * deletes them, even though the odd objects are older.
+     */
+
+    for (int index = 0; index < values.length; ++index) {
+      p.returnValue(CONTEXT, values[index]);
+    }
+    Assert.assertEquals(IntArrayList.of(1, 0, 2), listener.deleted());
+    Assert.assertEquals(2L, p.size());
+
+    p.trim(CONTEXT);
+    Assert.assertEquals(2L, p.size());
+  }
+
+  @Test
+  public void testQuotaClassForgotten()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final ParityQuotas quotas = new ParityQuotas(JPPoolQuota.of(1L, 10L));
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 0L, 100L, quotas);
+
+    for (int index = 0; index < 3; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(0)));
+      Assert.assertEquals(0L, p.size());
+    }
+    Assert.assertEquals(3, quotas.lookups);
+
+    final Object a = p.get(CONTEXT, Integer.valueOf(0));
+    final Object b = p.get(CONTEXT, Integer.valueOf(2));
+    p.returnValue(CONTEXT, a);
+    p.returnValue(CONTEXT, b);
+    Assert.assertEquals(4, quotas.lookups);
+  }
+
+  @Test
+  public void testQuotaUnlimitedKeys()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolQuotasType<Integer> quotas = new JPPoolQuotasType<>()
+    {
+      @Override
+      public Object quotaClass(
+        final Integer key)
+      {
+        return null;
+      }
+
+      @Override
+      public JPPoolQuota quota(
+        final Object quota_class)
+      {
+        throw new AssertionError();
+      }
+    };
+
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(listener, 100L, 100L, quotas);
+
+    for (int index = 0; index < 10; ++index) {
+      p.get(CONTEXT, Integer.valueOf(0));
+    }
+    Assert.assertEquals(10L, p.size());
+  }
+
+  @Test
+  public void testQuotaDeleted()
+  {
+    final JPPoolTestListener listener = new JPPoolTestListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      newPool(
+        listener, 100L, 100L, JPPoolQuotasType.perKey(JPPoolQuota.of(1L, 2L)));
+
+    p.get(CONTEXT, Integer.valueOf(0));
+    p.get(CONTEXT, Integer.valueOf(0));
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1)));
+    p.deleteUnsafely(CONTEXT);
+    Assert.assertEquals(3, listener.deleted().size());
+  }
+
+  @Test(expected = RangeCheckException.class)
+  public void testQuotaBadLimit()
+  {
+    JPPoolQuota.of(2L, 1L);
+  }
+
+  private static final class ParityQuotas
+    implements JPPoolQuotasType<Integer>
+  {
+    private final JPPoolQuota quota;
+    private int lookups;
+
+    ParityQuotas(
+      final JPPoolQuota in_quota)
+    {
+      this.quota = in_quota;
+    }
+
+    @Override
+    public Object quotaClass(
+      final Integer key)
+    {
+      return Integer.valueOf(key.intValue() % 2);
+    }
+
+    @Override
+    public JPPoolQuota quota(
+      final Object quota_class)
+    {
+      ++this.lookups;
+      return this.quota;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolHardLimitExceededException;
+import com.io7m.jpuddle.core.JPPoolLatencyHistogram;
+import com.io7m.jpuddle.core.JPPoolStatisticsType;
+import com.io7m.jpuddle.core.JPPoolSynchronous;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Check the statistics of synchronous pools.
+ */
+
+public final class JPPoolSynchronousStatisticsTest
+{
+  private static final Integer CONTEXT = Integer.valueOf(0);
+
+  private static JPPoolSynchronous<Integer, Object, Object, Integer> pool(
+    final TimedListener listener,
+    final long soft,
+    final long hard)
+  {
+    return JPPoolSynchronous.builder(listener, soft, hard)
+      .setIdleExpiry(Duration.ofDays(1L), () -> listener.time)
+      .build();
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    final TimedListener listener = new TimedListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 10L, 20L);
+
+    final JPPoolStatisticsType s = p.statistics();
+    Assert.assertEquals(0L, s.hits());
+    Assert.assertEquals(0L, s.misses());
+    Assert.assertEquals(0.0, s.hitRatio(), 0.0);
+    Assert.assertEquals(0L, s.creations());
+    Assert.assertEquals(0L, s.evictions());
+    Assert.assertEquals(0L, s.returns());
+    Assert.assertEquals(0L, s.hardLimitFailures());
+    Assert.assertEquals(0L, s.usedCount());
+    Assert.assertEquals(0L, s.freeCount());
+    Assert.assertEquals(0L, s.usedSize());
+    Assert.assertEquals(0L, s.freeSize());
+    Assert.assertEquals(0L, s.creationLatency().count());
+    Assert.assertEquals(0L, s.creationLatency().quantileNanos(0.99));
+    Assert.assertEquals(0L, s.deletionLatency().count());
+  }
+
+  @Test
+  public void testCounts()
+  {
+    final TimedListener listener = new TimedListener();
+    listener.size = 2L;
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 4L, 20L);
+
+    final Object v0 = p.get(CONTEXT, Integer.valueOf(0));
+    final Object v1 = p.get(CONTEXT, Integer.valueOf(1));
+    p.returnValue(CONTEXT, v0);
+
+    JPPoolStatisticsType s = p.statistics();
+    Assert.assertEquals(0L, s.hits());
+    Assert.assertEquals(2L, s.misses());
+    Assert.assertEquals(2L, s.creations());
+    Assert.assertEquals(1L, s.returns());
+    Assert.assertEquals(1L, s.usedCount());
+    Assert.assertEquals(2L, s.usedSize());
+    Assert.assertEquals(1L, s.freeCount());
+    Assert.assertEquals(2L, s.freeSize());
+
+    final Object v2 = p.get(CONTEXT, Integer.valueOf(0));
+    Assert.assertSame(v0, v2);
+    final Object v3 = p.get(CONTEXT, Integer.valueOf(3));
+    p.returnAll(CONTEXT, List.of(v1, v2, v3));
+
+    s = p.statistics();
+    Assert.assertEquals(1L, s.hits());
+    Assert.assertEquals(3L, s.misses());
+    Assert.assertEquals(0.25, s.hitRatio(), 0.0);
+    Assert.assertEquals(3L, s.creations());
+    Assert.assertEquals(1L, s.evictions());
+    Assert.assertEquals(4L, s.returns());
+    Assert.assertEquals(0L, s.usedCount());
+    Assert.assertEquals(0L, s.usedSize());
+    Assert.assertEquals(2L, s.freeCount());
+    Assert.assertEquals(4L, s.freeSize());
+    Assert.assertEquals(p.size(), s.usedSize() + s.freeSize());
+  }
+
+  @Test
+  public void testHardLimitFailures()
+  {
+    final TimedListener listener = new TimedListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 1L, 1L);
+
+    p.get(CONTEXT, Integer.valueOf(0));
+    for (int index = 0; index < 3; ++index) {
+      try {
+        p.get(CONTEXT, Integer.valueOf(1));
+        Assert.fail();
+      } catch (final JPPoolHardLimitExceededException e) {
+        // Expected
+      }
+    }
+
+    final JPPoolStatisticsType s = p.statistics();
+    Assert.assertEquals(3L, s.hardLimitFailures());
+    Assert.assertEquals(4L, s.misses());
+    Assert.assertEquals(1L, s.creations());
+  }
+
+  @Test
+  public void testLatencies()
+  {
+    final TimedListener listener = new TimedListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      pool(listener, 0L, 20L);
+
+    listener.create_nanos = 1000L;
+    listener.delete_nanos = 100_000L;
+    for (int index = 0; index < 9; ++index) {
+      p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(index)));
+    }
+    listener.create_nanos = 1_000_000L;
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(9)));
+
+    final JPPoolStatisticsType s = p.statistics();
+    final JPPoolLatencyHistogram c = s.creationLatency();
+    Assert.assertEquals(10L, c.count());
+    Assert.assertEquals(1_009_000L, c.totalNanos());
+    Assert.assertEquals(100_900.0, c.meanNanos(), 0.0);
+    Assert.assertEquals(1023L, c.quantileNanos(0.5));
+    Assert.assertEquals(1023L, c.quantileNanos(0.9));
+    Assert.assertEquals(1_048_575L, c.quantileNanos(1.0));
+    Assert.assertEquals(9L, c.bucketCount(10));
+    Assert.assertEquals(1L, c.bucketCount(20));
+
+    final JPPoolLatencyHistogram d = s.deletionLatency();
+    Assert.assertEquals(10L, d.count());
+    Assert.assertEquals(10L, d.bucketCount(17));
+    Assert.assertEquals(10L, s.evictions());
+  }
+
+  @Test
+  public void testDeletionQueueLatencies()
+  {
+    final TimedListener listener = new TimedListener();
+    final JPPoolSynchronous<Integer, Object, Object, Integer> p =
+      JPPoolSynchronous.builder(listener, 0L, 20L)
+        .setIdleExpiry(Duration.ofDays(1L), () -> listener.time)
+        .setDeletionDeferred(true)
+        .build();
+
+    listener.delete_nanos = 10L;
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(0)));
+    p.returnValue(CONTEXT, p.get(CONTEXT, Integer.valueOf(1)));
+
+    Assert.assertEquals(2L, p.statistics().evictions());
+    Assert.assertEquals(0L, p.statistics().deletionLatency().count());
+    p.deletionQueue().get().drainAll(CONTEXT);
+    Assert.assertEquals(2L, p.statistics().deletionLatency().count());
+    Assert.assertEquals(20L, p.statistics().deletionLatency().totalNanos());
+  }
+
+  @Test
+  public void testBucketBounds()
+  {
+    Assert.assertEquals(0L, JPPoolLatencyHistogram.bucketUpperBoundNanos(0));
+    Assert.assertEquals(1L, JPPoolLatencyHistogram.bucketUpperBoundNanos(1));
+    Assert.assertEquals(3L, JPPoolLatencyHistogram.bucketUpperBoundNanos(2));
+    Assert.assertEquals(
+      Long.MAX_VALUE,
+      JPPoolLatencyHistogram.bucketUpperBoundNanos(
+        JPPoolLatencyHistogram.BUCKETS - 1));
+  }
+
+  /*
+   * A listener whose creations and deletions advance a clock by a fixed
+   * amount, so that latencies are deterministic.
+   */
+
+  private static final class TimedListener extends JPPoolTestListener
+  {
+    private long time;
+    private long create_nanos;
+    private long delete_nanos;
+
+    TimedListener()
+    {
+
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      this.time += this.create_nanos;
+      return super.onCreate(c, key);
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      this.time += this.delete_nanos;
+      super.onDelete(c, key, value);
+    }
+  }
+}
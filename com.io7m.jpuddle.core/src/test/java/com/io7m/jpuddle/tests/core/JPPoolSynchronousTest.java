@@ -16,8 +16,18 @@
 
 package com.io7m.jpuddle.tests.core;
 
+import com.io7m.jaffirm.core.PreconditionViolationException;
 import com.io7m.jpuddle.core.JPPoolSynchronous;
+import com.io7m.jpuddle.core.JPPoolTrimScheduler;
+import com.io7m.jpuddle.core.JPPoolTrimSchedulerType;
 import com.io7m.jpuddle.core.JPPoolableListenerType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 public final class JPPoolSynchronousTest extends JPPoolSynchronousContract
 {
@@ -29,4 +39,97 @@ public final class JPPoolSynchronousTest extends JPPoolSynchronousContract
   {
     return JPPoolSynchronous.newPool(listener, soft_limit, hard_limit);
   }
+
+  @Override
+  protected <K, T extends U, U, C> JPPoolSynchronous<K, T, U, C>
+  newPoolWithTrimScheduler(
+    final JPPoolableListenerType<K, T, C> listener,
+    final long soft_limit,
+    final long hard_limit,
+    final JPPoolTrimSchedulerType<C> trim_scheduler)
+  {
+    return JPPoolSynchronous.newPool(
+      listener, soft_limit, hard_limit, trim_scheduler);
+  }
+
+  @Test
+  public void testScheduledTrimRejected()
+  {
+    final ScheduledExecutorService exec =
+      Executors.newSingleThreadScheduledExecutor();
+    try {
+      JPPoolSynchronous.<Integer, Object, Object, Integer>builder(
+          new Listener(), 1L, 1L)
+        .setTrimScheduler(
+          JPPoolTrimScheduler.scheduled(
+            exec, Duration.ZERO, 1, Integer.valueOf(0)));
+      Assert.fail();
+    } catch (final PreconditionViolationException e) {
+      // Expected
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  private static final class Listener
+    implements JPPoolableListenerType<Integer, Object, Integer>
+  {
+    Listener()
+    {
+
+    }
+
+    @Override
+    public long onEstimateSize(
+      final Integer c,
+      final Integer key)
+    {
+      return 1L;
+    }
+
+    @Override
+    public Object onCreate(
+      final Integer c,
+      final Integer key)
+    {
+      return new Object();
+    }
+
+    @Override
+    public long onGetSize(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+      return 1L;
+    }
+
+    @Override
+    public void onReuse(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+
+    }
+
+    @Override
+    public void onDelete(
+      final Integer c,
+      final Integer key,
+      final Object value)
+    {
+
+    }
+
+    @Override
+    public void onError(
+      final Integer c,
+      final Integer key,
+      final Optional<Object> value,
+      final Throwable e)
+    {
+
+    }
+  }
 }
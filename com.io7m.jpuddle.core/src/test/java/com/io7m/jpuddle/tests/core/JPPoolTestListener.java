@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.io7m.jpuddle.tests.core;
+
+import com.io7m.jpuddle.core.JPPoolableListenerType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A configurable listener shared by the pool tests. Every event is
+ * counted, and each created value is a {@code long[1]} that holds its own
+ * size, so changing the configured size affects only objects created
+ * afterwards. Tests that need other behaviour override the relevant
+ * methods.
+ */
+
+class JPPoolTestListener
+  implements JPPoolableListenerType<Integer, Object, Integer>
+{
+  final AtomicInteger estimates;
+  final AtomicInteger creates;
+  final AtomicInteger reuses;
+  final AtomicInteger deletes;
+  final Set<Thread> threads;
+  private final IntArrayList reused;
+  private final IntArrayList deleted;
+
+  /**
+   * The size of created objects.
+   */
+
+  volatile long size;
+
+  /**
+   * The sizes of the first objects created, in creation order. Objects
+   * created after these have {@link #size}.
+   */
+
+  volatile long[] sizes;
+
+  /**
+   * A key for which creation fails, if any.
+   */
+
+  volatile Integer fail_key;
+
+  /**
+   * The value returned by {@link #isCreationThreadSafe()}.
+   */
+
+  volatile boolean thread_safe;
+
+  JPPoolTestListener()
+  {
+    this.estimates = new AtomicInteger();
+    this.creates = new AtomicInteger();
+    this.reuses = new AtomicInteger();
+    this.deletes = new AtomicInteger();
+    this.threads = ConcurrentHashMap.newKeySet();
+    this.reused = new IntArrayList();
+    this.deleted = new IntArrayList();
+    this.size = 1L;
+    this.sizes = new long[0];
+    this.fail_key = null;
+    this.thread_safe = false;
+  }
+
+  /**
+   * @return The keys of reused objects, in order
+   */
+
+  final synchronized IntArrayList reused()
+  {
+    return new IntArrayList(this.reused);
+  }
+
+  /**
+   * @return The keys of deleted objects, in order
+   */
+
+  final synchronized IntArrayList deleted()
+  {
+    return new IntArrayList(this.deleted);
+  }
+
+  /**
+   * @param key   The key
+   * @param index The number of objects created before this one
+   *
+   * @return The size of a new object for {@code key}
+   */
+
+  long sizeOf(
+    final Integer key,
+    final int index)
+  {
+    final long[] s = this.sizes;
+    return index < s.length ? s[index] : this.size;
+  }
+
+  @Override
+  public boolean isCreationThreadSafe()
+  {
+    return this.thread_safe;
+  }
+
+  @Override
+  public long onEstimateSize(
+    final Integer c,
+    final Integer key)
+  {
+    this.estimates.incrementAndGet();
+    return 1L;
+  }
+
+  @Override
+  public Object onCreate(
+    final Integer c,
+    final Integer key)
+  {
+    this.threads.add(Thread.currentThread());
+    if (key.equals(this.fail_key)) {
+      throw new IllegalStateException("Failed for " + key);
+    }
+    return new long[]{this.sizeOf(key, this.creates.getAndIncrement())};
+  }
+
+  @Override
+  public long onGetSize(
+    final Integer c,
+    final Integer key,
+    final Object value)
+  {
+    return ((long[]) value)[0];
+  }
+
+  @Override
+  public void onReuse(
+    final Integer c,
+    final Integer key,
+    final Object value)
+  {
+    synchronized (this) {
+      this.reused.add(key.intValue());
+    }
+    this.reuses.incrementAndGet();
+  }
+
+  @Override
+  public void onDelete(
+    final Integer c,
+    final Integer key,
+    final Object value)
+  {
+    synchronized (this) {
+      this.deleted.add(key.intValue());
+    }
+    this.deletes.incrementAndGet();
+  }
+
+  @Override
+  public void onError(
+    final Integer c,
+    final Integer key,
+    final Optional<Object> value,
+    final Throwable e)
+  {
+
+  }
+}